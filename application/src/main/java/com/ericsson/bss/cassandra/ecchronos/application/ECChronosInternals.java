@@ -22,8 +22,10 @@ import com.ericsson.bss.cassandra.ecchronos.connection.JmxConnectionProvider;
 import com.ericsson.bss.cassandra.ecchronos.connection.NativeConnectionProvider;
 import com.ericsson.bss.cassandra.ecchronos.connection.StatementDecorator;
 import com.ericsson.bss.cassandra.ecchronos.core.*;
+import com.ericsson.bss.cassandra.ecchronos.core.metrics.RepairPhase;
 import com.ericsson.bss.cassandra.ecchronos.core.metrics.TableRepairMetrics;
 import com.ericsson.bss.cassandra.ecchronos.core.metrics.TableRepairMetricsImpl;
+import com.ericsson.bss.cassandra.ecchronos.core.repair.RepairAdmissionController;
 import com.ericsson.bss.cassandra.ecchronos.core.scheduling.RunPolicy;
 import com.ericsson.bss.cassandra.ecchronos.core.scheduling.ScheduleManager;
 import com.ericsson.bss.cassandra.ecchronos.core.scheduling.ScheduleManagerImpl;
@@ -46,6 +48,7 @@ public class ECChronosInternals implements Closeable
     private final HostStatesImpl myHostStatesImpl;
     private final ReplicatedTableProviderImpl myReplicatedTableProvider;
     private final TableStorageStatesImpl myTableStorageStatesImpl;
+    private final SizeEstimatesImpl mySizeEstimatesImpl;
     private final TableRepairMetricsImpl myTableRepairMetricsImpl;
 
     private final TableReferenceFactory myTableReferenceFactory;
@@ -65,13 +68,6 @@ public class ECChronosInternals implements Closeable
                 .withJmxProxyFactory(myJmxProxyFactory)
                 .build();
 
-        myLockFactory = CASLockFactory.builder()
-                .withNativeConnectionProvider(nativeConnectionProvider)
-                .withHostStates(myHostStatesImpl)
-                .withStatementDecorator(statementDecorator)
-                .withKeyspaceName(configuration.getLockFactory().getCas().getKeyspace())
-                .build();
-
         Host host = nativeConnectionProvider.getLocalHost();
         Metadata metadata = nativeConnectionProvider.getSession().getCluster().getMetadata();
 
@@ -79,6 +75,11 @@ public class ECChronosInternals implements Closeable
 
         myReplicatedTableProvider = new ReplicatedTableProviderImpl(host, metadata, myTableReferenceFactory);
 
+        mySizeEstimatesImpl = SizeEstimatesImpl.builder()
+                .withSession(nativeConnectionProvider.getSession())
+                .withStatementDecorator(statementDecorator)
+                .build();
+
         if (configuration.getStatistics().isEnabled())
         {
             myTableStorageStatesImpl = TableStorageStatesImpl.builder()
@@ -89,6 +90,7 @@ public class ECChronosInternals implements Closeable
             myTableRepairMetricsImpl = TableRepairMetricsImpl.builder()
                     .withTableStorageStates(myTableStorageStatesImpl)
                     .withStatisticsDirectory(configuration.getStatistics().getDirectory().toString())
+                    .withCsvReporterEnabled(configuration.getStatistics().isCsvEnabled())
                     .withMetricRegistry(metricRegistry)
                     .build();
         }
@@ -98,11 +100,29 @@ public class ECChronosInternals implements Closeable
             myTableRepairMetricsImpl = null;
         }
 
-        myScheduleManagerImpl = ScheduleManagerImpl.builder()
+        myLockFactory = CASLockFactory.builder()
+                .withNativeConnectionProvider(nativeConnectionProvider)
+                .withHostStates(myHostStatesImpl)
+                .withStatementDecorator(statementDecorator)
+                .withKeyspaceName(configuration.getLockFactory().getCas().getKeyspace())
+                .withSchedulerMetrics(myTableRepairMetricsImpl)
+                .build();
+
+        ScheduleManagerImpl.Builder scheduleManagerBuilder = ScheduleManagerImpl.builder()
                 .withLockFactory(myLockFactory)
                 .withRunInterval(configuration.getScheduler().getFrequency().getInterval(TimeUnit.MILLISECONDS),
                         TimeUnit.MILLISECONDS)
-                .build();
+                .withAdmissionController(RepairAdmissionController.builder()
+                        .withJmxProxyFactory(myJmxProxyFactory)
+                        .withMaxConcurrentRepairs(configuration.getRepair().getMaxConcurrentRepairs())
+                        .build());
+
+        if (myTableRepairMetricsImpl != null)
+        {
+            scheduleManagerBuilder.withSchedulerMetrics(myTableRepairMetricsImpl);
+        }
+
+        myScheduleManagerImpl = scheduleManagerBuilder.build();
     }
 
     public TableReferenceFactory getTableReferenceFactory()
@@ -149,6 +169,11 @@ public class ECChronosInternals implements Closeable
         return myTableStorageStatesImpl;
     }
 
+    public SizeEstimates getSizeEstimates()
+    {
+        return mySizeEstimatesImpl;
+    }
+
     public boolean addRunPolicy(RunPolicy runPolicy)
     {
         return myScheduleManagerImpl.addRunPolicy(runPolicy);
@@ -173,6 +198,8 @@ public class ECChronosInternals implements Closeable
             myTableStorageStatesImpl.close();
         }
 
+        mySizeEstimatesImpl.close();
+
         myLockFactory.close();
 
         myHostStatesImpl.close();
@@ -202,6 +229,17 @@ public class ECChronosInternals implements Closeable
                         timeUnit.toMillis(timeTaken), successful ? "successful" : "not successful");
             }
         }
+
+        @Override
+        public void repairPhaseTiming(TableReference tableReference, RepairPhase repairPhase, long timeTaken,
+                TimeUnit timeUnit)
+        {
+            if (LOG.isTraceEnabled())
+            {
+                LOG.trace("Repair phase {} for table {} {}ms", repairPhase, tableReference,
+                        timeUnit.toMillis(timeTaken));
+            }
+        }
     }
 
     private static class NoOpTableStorageState implements TableStorageStates
@@ -0,0 +1,219 @@
+/*
+ * Copyright 2021 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecchronos.application;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.Metric;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Snapshot;
+import com.codahale.metrics.Timer;
+
+import io.prometheus.client.Collector;
+
+/**
+ * Collector exposing the metrics of a {@link MetricRegistry} in the Prometheus/OpenMetrics format.
+ * <p>
+ * Table metrics, named {@code <keyspace>.<table>-<table id>-<metric>}, are exposed as one metric family per metric
+ * prefixed with {@value #TABLE_PREFIX} with the keyspace, table and table id as labels.
+ * All other metrics are exposed with their name.
+ * <p>
+ * Timers are exposed in seconds as summaries.
+ */
+public class RepairMetricsCollector extends Collector
+{
+    static final String TABLE_PREFIX = "table_";
+
+    private static final String UUID_PATTERN = "[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}";
+    private static final Pattern TABLE_METRIC_PATTERN = Pattern
+            .compile("^([^.]+)\\.(.+)-(" + UUID_PATTERN + ")-([^-]+)$");
+
+    private static final List<String> TABLE_LABEL_NAMES = Collections
+            .unmodifiableList(Arrays.asList("keyspace", "table", "table_id"));
+
+    private static final double[] QUANTILES = { 0.5, 0.75, 0.95, 0.98, 0.99, 0.999 };
+    private static final String[] QUANTILE_VALUES = { "0.5", "0.75", "0.95", "0.98", "0.99", "0.999" };
+
+    private static final double SECONDS_PER_NANOSECOND = 1.0d / TimeUnit.SECONDS.toNanos(1);
+
+    private final MetricRegistry myMetricRegistry;
+
+    public RepairMetricsCollector(MetricRegistry metricRegistry)
+    {
+        myMetricRegistry = metricRegistry;
+    }
+
+    @Override
+    public List<MetricFamilySamples> collect()
+    {
+        Map<String, FamilyBuilder> families = new LinkedHashMap<>();
+
+        for (Map.Entry<String, Metric> entry : myMetricRegistry.getMetrics().entrySet())
+        {
+            MetricName metricName = MetricName.parse(entry.getKey());
+            Metric metric = entry.getValue();
+
+            if (metric instanceof Gauge)
+            {
+                addGauge(families, metricName, (Gauge<?>) metric);
+            }
+            else if (metric instanceof Counter)
+            {
+                family(families, metricName.myName, Type.GAUGE)
+                        .add(metricName.myName, metricName, ((Counter) metric).getCount());
+            }
+            else if (metric instanceof Timer)
+            {
+                Timer timer = (Timer) metric;
+                addSummary(families, metricName, timer.getSnapshot(), timer.getCount(), SECONDS_PER_NANOSECOND);
+            }
+            else if (metric instanceof Histogram)
+            {
+                Histogram histogram = (Histogram) metric;
+                addSummary(families, metricName, histogram.getSnapshot(), histogram.getCount(), 1.0d);
+            }
+            else if (metric instanceof Meter)
+            {
+                family(families, metricName.myName, Type.COUNTER)
+                        .add(metricName.myName + "_total", metricName, ((Meter) metric).getCount());
+            }
+        }
+
+        List<MetricFamilySamples> result = new ArrayList<>(families.size());
+        for (FamilyBuilder familyBuilder : families.values())
+        {
+            result.add(familyBuilder.build());
+        }
+        return result;
+    }
+
+    private static void addGauge(Map<String, FamilyBuilder> families, MetricName metricName, Gauge<?> gauge)
+    {
+        Object value = gauge.getValue();
+        double doubleValue;
+
+        if (value instanceof Number)
+        {
+            doubleValue = ((Number) value).doubleValue();
+        }
+        else if (value instanceof Boolean)
+        {
+            doubleValue = ((Boolean) value) ? 1 : 0;
+        }
+        else
+        {
+            return;
+        }
+
+        family(families, metricName.myName, Type.GAUGE).add(metricName.myName, metricName, doubleValue);
+    }
+
+    private static void addSummary(Map<String, FamilyBuilder> families, MetricName metricName, Snapshot snapshot,
+            long count, double factor)
+    {
+        FamilyBuilder familyBuilder = family(families, metricName.myName, Type.SUMMARY);
+
+        for (int i = 0; i < QUANTILES.length; i++)
+        {
+            familyBuilder.addQuantile(metricName, QUANTILE_VALUES[i], snapshot.getValue(QUANTILES[i]) * factor);
+        }
+        familyBuilder.add(metricName.myName + "_count", metricName, count);
+    }
+
+    private static FamilyBuilder family(Map<String, FamilyBuilder> families, String name, Type type)
+    {
+        return families.computeIfAbsent(name, n -> new FamilyBuilder(n, type));
+    }
+
+    private static final class MetricName
+    {
+        private final String myName;
+        private final List<String> myLabelNames;
+        private final List<String> myLabelValues;
+
+        private MetricName(String name, List<String> labelNames, List<String> labelValues)
+        {
+            myName = name;
+            myLabelNames = labelNames;
+            myLabelValues = labelValues;
+        }
+
+        /**
+         * Parse a metric name, table metrics are named as in
+         * {@link com.ericsson.bss.cassandra.ecchronos.core.metrics.TableMetricHolder}.
+         */
+        static MetricName parse(String dropwizardName)
+        {
+            Matcher matcher = TABLE_METRIC_PATTERN.matcher(dropwizardName);
+            if (matcher.matches())
+            {
+                return new MetricName(sanitizeMetricName(TABLE_PREFIX + matcher.group(4)), TABLE_LABEL_NAMES,
+                        Arrays.asList(matcher.group(1), matcher.group(2), matcher.group(3)));
+            }
+
+            return new MetricName(sanitizeMetricName(dropwizardName), Collections.emptyList(),
+                    Collections.emptyList());
+        }
+    }
+
+    private static final class FamilyBuilder
+    {
+        private final String myName;
+        private final Type myType;
+        private final List<MetricFamilySamples.Sample> mySamples = new ArrayList<>();
+
+        FamilyBuilder(String name, Type type)
+        {
+            myName = name;
+            myType = type;
+        }
+
+        void add(String sampleName, MetricName metricName, double value)
+        {
+            mySamples.add(new MetricFamilySamples.Sample(sampleName, metricName.myLabelNames,
+                    metricName.myLabelValues, value));
+        }
+
+        void addQuantile(MetricName metricName, String quantile, double value)
+        {
+            List<String> labelNames = new ArrayList<>(metricName.myLabelNames.size() + 1);
+            labelNames.addAll(metricName.myLabelNames);
+            labelNames.add("quantile");
+
+            List<String> labelValues = new ArrayList<>(metricName.myLabelValues.size() + 1);
+            labelValues.addAll(metricName.myLabelValues);
+            labelValues.add(quantile);
+
+            mySamples.add(new MetricFamilySamples.Sample(metricName.myName, labelNames, labelValues, value));
+        }
+
+        MetricFamilySamples build()
+        {
+            return new MetricFamilySamples(myName, myType, myName, mySamples);
+        }
+    }
+}
@@ -30,6 +30,7 @@ import com.ericsson.bss.cassandra.ecchronos.connection.JmxConnectionProvider;
 import com.ericsson.bss.cassandra.ecchronos.connection.NativeConnectionProvider;
 import com.ericsson.bss.cassandra.ecchronos.connection.StatementDecorator;
 import com.ericsson.bss.cassandra.ecchronos.core.repair.RepairLockType;
+import com.ericsson.bss.cassandra.ecchronos.core.utils.UnitConverter;
 
 public class Config
 {
@@ -316,8 +317,12 @@ public class Config
     {
         private Class<? extends AbstractRepairConfigurationProvider> provider = FileBasedRepairConfiguration.class;
         private RepairLockType lock_type = RepairLockType.VNODE;
+        private int locks_per_resource = 1;
         private Interval history_lookback = new Interval(30, TimeUnit.DAYS);
         private RepairHistory history = new RepairHistory();
+        private long coalescing_size_threshold = 0L;
+        private int state_refresh_threads = 1;
+        private int max_concurrent_repairs = 1;
 
         public RepairLockType getLockType()
         {
@@ -334,6 +339,16 @@ public class Config
             this.lock_type = RepairLockType.valueOf(lock_type.toUpperCase(Locale.US));
         }
 
+        public int getLocksPerResource()
+        {
+            return locks_per_resource;
+        }
+
+        public void setLocks_per_resource(int locks_per_resource)
+        {
+            this.locks_per_resource = locks_per_resource;
+        }
+
         public void setHistory_lookback(Interval history_lookback)
         {
             this.history_lookback = history_lookback;
@@ -349,6 +364,43 @@ public class Config
             this.history = history;
         }
 
+        public long getCoalescingSizeThreshold()
+        {
+            return coalescing_size_threshold;
+        }
+
+        public void setCoalescing_size_threshold(String coalescing_size_threshold)
+        {
+            if (coalescing_size_threshold == null)
+            {
+                this.coalescing_size_threshold = 0L;
+            }
+            else
+            {
+                this.coalescing_size_threshold = UnitConverter.toBytes(coalescing_size_threshold);
+            }
+        }
+
+        public int getStateRefreshThreads()
+        {
+            return state_refresh_threads;
+        }
+
+        public void setState_refresh_threads(int state_refresh_threads)
+        {
+            this.state_refresh_threads = state_refresh_threads;
+        }
+
+        public int getMaxConcurrentRepairs()
+        {
+            return max_concurrent_repairs;
+        }
+
+        public void setMax_concurrent_repairs(int max_concurrent_repairs)
+        {
+            this.max_concurrent_repairs = max_concurrent_repairs;
+        }
+
         public Class<? extends AbstractRepairConfigurationProvider> getProvider()
         {
             return provider;
@@ -434,6 +486,7 @@ public class Config
     public static class StatisticsConfig
     {
         private boolean enabled = true;
+        private boolean csv_enabled = true;
         private File directory = new File("./statistics");
 
         public boolean isEnabled()
@@ -441,6 +494,11 @@ public class Config
             return enabled;
         }
 
+        public boolean isCsvEnabled()
+        {
+            return csv_enabled;
+        }
+
         public File getDirectory()
         {
             return directory;
@@ -451,6 +509,11 @@ public class Config
             this.enabled = enabled;
         }
 
+        public void setCsv_enabled(boolean csv_enabled)
+        {
+            this.csv_enabled = csv_enabled;
+        }
+
         public void setDirectory(String directory)
         {
             this.directory = new File(directory);
@@ -14,9 +14,11 @@
  */
 package com.ericsson.bss.cassandra.ecchronos.application.config;
 
+import java.util.Locale;
 import java.util.concurrent.TimeUnit;
 
 import com.ericsson.bss.cassandra.ecchronos.core.repair.RepairConfiguration;
+import com.ericsson.bss.cassandra.ecchronos.core.repair.RepairOptions;
 import com.ericsson.bss.cassandra.ecchronos.core.utils.UnitConverter;
 
 public class RepairConfig
@@ -26,6 +28,7 @@ public class RepairConfig
             new Config.Interval(10, TimeUnit.DAYS));
     private double unwind_ratio = 0.0d;
     private long size_target = RepairConfiguration.FULL_REPAIR_SIZE;
+    private RepairOptions.RepairType repair_type = RepairOptions.RepairType.VNODE;
 
     public void setInterval(Config.Interval interval)
     {
@@ -54,6 +57,11 @@ public class RepairConfig
         }
     }
 
+    public void setRepair_type(String repair_type)
+    {
+        this.repair_type = RepairOptions.RepairType.valueOf(repair_type.toUpperCase(Locale.US));
+    }
+
     public RepairConfiguration asRepairConfiguration()
     {
         return RepairConfiguration.newBuilder()
@@ -65,6 +73,7 @@ public class RepairConfig
                         TimeUnit.MILLISECONDS)
                 .withRepairUnwindRatio(unwind_ratio)
                 .withTargetRepairSizeInBytes(size_target)
+                .withRepairType(repair_type)
                 .build();
     }
 }
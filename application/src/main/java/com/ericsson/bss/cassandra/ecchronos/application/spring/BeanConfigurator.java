@@ -34,6 +34,7 @@ import com.datastax.driver.core.Host;
 import com.datastax.driver.core.Metadata;
 import com.ericsson.bss.cassandra.ecchronos.application.ConfigurationException;
 import com.ericsson.bss.cassandra.ecchronos.application.ReflectionUtils;
+import com.ericsson.bss.cassandra.ecchronos.application.RepairMetricsCollector;
 import com.ericsson.bss.cassandra.ecchronos.application.config.Config;
 import com.ericsson.bss.cassandra.ecchronos.application.config.ConfigRefresher;
 import com.ericsson.bss.cassandra.ecchronos.application.config.ConfigurationHelper;
@@ -49,7 +50,6 @@ import com.ericsson.bss.cassandra.ecchronos.fm.RepairFaultReporter;
 import com.ericsson.bss.cassandra.ecchronos.fm.impl.LoggingFaultReporter;
 
 import io.prometheus.client.CollectorRegistry;
-import io.prometheus.client.dropwizard.DropwizardExports;
 import io.prometheus.client.exporter.MetricsServlet;
 
 @Configuration
@@ -171,7 +171,7 @@ public class BeanConfigurator
         CollectorRegistry collectorRegistry = new CollectorRegistry();
         ServletRegistrationBean servletRegistrationBean = new ServletRegistrationBean();
 
-        collectorRegistry.register(new DropwizardExports(metricRegistry));
+        collectorRegistry.register(new RepairMetricsCollector(metricRegistry));
         servletRegistrationBean.setServlet(new MetricsServlet(collectorRegistry));
         servletRegistrationBean.setUrlMappings(Arrays.asList("/metrics/*"));
         return servletRegistrationBean;
@@ -16,7 +16,9 @@ package com.ericsson.bss.cassandra.ecchronos.application.spring;
 
 import java.io.Closeable;
 import java.util.Collections;
+import java.util.concurrent.TimeUnit;
 
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -55,6 +57,7 @@ public class ECChronos implements Closeable
             RepairFaultReporter repairFaultReporter, NativeConnectionProvider nativeConnectionProvider,
             JmxConnectionProvider jmxConnectionProvider, StatementDecorator statementDecorator,
             ReplicationState replicationState, RepairHistory repairHistory, RepairHistoryProvider repairHistoryProvider,
+            @Qualifier("cassandraRepairHistoryProvider") RepairHistoryProvider cassandraRepairHistoryProvider,
             MetricRegistry metricRegistry) throws ConfigurationException
     {
         myECChronosInternals = new ECChronosInternals(configuration, nativeConnectionProvider, jmxConnectionProvider,
@@ -70,6 +73,7 @@ public class ECChronos implements Closeable
                 .withHostStates(myECChronosInternals.getHostStates())
                 .withRepairHistoryProvider(repairHistoryProvider)
                 .withTableRepairMetrics(myECChronosInternals.getTableRepairMetrics())
+                .withJmxProxyFactory(myECChronosInternals.getJmxProxyFactory())
                 .build();
 
         myTimeBasedRunPolicy = TimeBasedRunPolicy.builder()
@@ -78,6 +82,8 @@ public class ECChronos implements Closeable
                 .withKeyspaceName(configuration.getRunPolicy().getTimeBased().getKeyspace())
                 .build();
 
+        long schedulerFrequencyInMs = configuration.getScheduler().getFrequency().getInterval(TimeUnit.MILLISECONDS);
+
         myRepairSchedulerImpl = RepairSchedulerImpl.builder()
                 .withJmxProxyFactory(myECChronosInternals.getJmxProxyFactory())
                 .withFaultReporter(repairFaultReporter)
@@ -85,9 +91,15 @@ public class ECChronos implements Closeable
                 .withScheduleManager(myECChronosInternals.getScheduleManager())
                 .withRepairStateFactory(repairStateFactoryImpl)
                 .withRepairLockType(repairConfig.getLockType())
+                .withLocksPerResource(repairConfig.getLocksPerResource())
                 .withTableStorageStates(myECChronosInternals.getTableStorageStates())
+                .withSizeEstimates(myECChronosInternals.getSizeEstimates())
                 .withRepairPolicies(Collections.singletonList(myTimeBasedRunPolicy))
                 .withRepairHistory(repairHistory)
+                .withRepairHistoryProvider(cassandraRepairHistoryProvider)
+                .withCoalescingSizeThreshold(repairConfig.getCoalescingSizeThreshold())
+                .withStateRefreshThreads(repairConfig.getStateRefreshThreads())
+                .withStateRefreshInterval(schedulerFrequencyInMs, TimeUnit.MILLISECONDS)
                 .build();
 
         AbstractRepairConfigurationProvider repairConfigurationProvider = ReflectionUtils
@@ -107,10 +119,14 @@ public class ECChronos implements Closeable
                 .withJmxProxyFactory(myECChronosInternals.getJmxProxyFactory())
                 .withReplicationState(replicationState)
                 .withRepairLockType(repairConfig.getLockType())
+                .withLocksPerResource(repairConfig.getLocksPerResource())
                 .withMetadata(metadata)
                 .withRepairConfiguration(repairConfig.asRepairConfiguration())
                 .withRepairHistory(repairHistory)
+                .withRepairHistoryProvider(cassandraRepairHistoryProvider)
                 .withOnDemandStatus(new OnDemandStatus(nativeConnectionProvider))
+                .withTableReferenceFactory(myECChronosInternals.getTableReferenceFactory())
+                .withOnRepaired(myRepairSchedulerImpl::refreshRepairState)
                 .build();
         myECChronosInternals.addRunPolicy(myTimeBasedRunPolicy);
     }
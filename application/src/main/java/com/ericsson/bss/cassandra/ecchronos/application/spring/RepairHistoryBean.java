@@ -18,6 +18,7 @@ import java.util.concurrent.TimeUnit;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 
 import com.datastax.driver.core.Host;
 import com.datastax.driver.core.Session;
@@ -33,6 +34,7 @@ public class RepairHistoryBean
 {
     private final RepairHistory repairHistory;
     private final RepairHistoryProvider repairHistoryProvider;
+    private final RepairHistoryProvider cassandraRepairHistoryProvider;
 
     public RepairHistoryBean(Config configuration, NativeConnectionProvider nativeConnectionProvider,
             NodeResolver nodeResolver, StatementDecorator statementDecorator, ReplicationState replicationState)
@@ -48,6 +50,7 @@ public class RepairHistoryBean
         {
             repairHistoryProvider = createCassandraHistoryProvider(repairConfig, session, nodeResolver,
                     statementDecorator);
+            cassandraRepairHistoryProvider = repairHistoryProvider;
             repairHistory = RepairHistory.NO_OP;
         }
         else
@@ -62,10 +65,12 @@ public class RepairHistoryBean
                     .withKeyspace(repairConfig.getHistory().getKeyspace())
                     .build();
 
+            cassandraRepairHistoryProvider = createCassandraHistoryProvider(repairConfig, session, nodeResolver,
+                    statementDecorator);
+
             if (repairConfig.getHistory().getProvider() == Config.RepairHistory.Provider.UPGRADE)
             {
-                repairHistoryProvider = createCassandraHistoryProvider(repairConfig, session, nodeResolver,
-                        statementDecorator);
+                repairHistoryProvider = cassandraRepairHistoryProvider;
             }
             else
             {
@@ -83,11 +88,26 @@ public class RepairHistoryBean
     }
 
     @Bean
+    @Primary
     public RepairHistoryProvider repairHistoryProvider()
     {
         return repairHistoryProvider;
     }
 
+    /**
+     * The repair history kept by Cassandra in system_distributed.repair_history, regardless of the configured provider.
+     * <p>
+     * The ecChronos repair history only marks sessions as finished when the repair notifications are received, so it
+     * can't be used to find out how repairs with lost notifications ended.
+     *
+     * @return The Cassandra repair history provider.
+     */
+    @Bean
+    public RepairHistoryProvider cassandraRepairHistoryProvider()
+    {
+        return cassandraRepairHistoryProvider;
+    }
+
     private RepairHistoryProvider createCassandraHistoryProvider(Config.GlobalRepairConfig repairConfig,
             Session session,
             NodeResolver nodeResolver, StatementDecorator statementDecorator)
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2021 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecchronos.application;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+
+import io.prometheus.client.Collector;
+import io.prometheus.client.Collector.MetricFamilySamples;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TestRepairMetricsCollector
+{
+    private static final UUID TABLE_ID = UUID.fromString("c1c3a8b0-5b28-11eb-ae93-0242ac130002");
+
+    private MetricRegistry myMetricRegistry;
+    private RepairMetricsCollector myRepairMetricsCollector;
+
+    @Before
+    public void init()
+    {
+        myMetricRegistry = new MetricRegistry();
+        myRepairMetricsCollector = new RepairMetricsCollector(myMetricRegistry);
+    }
+
+    @Test
+    public void testNodeGauge()
+    {
+        myMetricRegistry.register("TableRepairState", (Gauge<Double>) () -> 0.5d);
+
+        Map<String, MetricFamilySamples> families = collect();
+
+        assertThat(families).containsOnlyKeys("TableRepairState");
+        MetricFamilySamples family = families.get("TableRepairState");
+        assertThat(family.type).isEqualTo(Collector.Type.GAUGE);
+        assertThat(family.samples).hasSize(1);
+        assertThat(family.samples.get(0).labelNames).isEmpty();
+        assertThat(family.samples.get(0).value).isEqualTo(0.5d);
+    }
+
+    @Test
+    public void testTableGaugesShareFamily()
+    {
+        myMetricRegistry.register("keyspace.table1-" + TABLE_ID + "-LastRepairedAt", (Gauge<Long>) () -> 1234L);
+        myMetricRegistry.register("keyspace.table2-" + TABLE_ID + "-LastRepairedAt", (Gauge<Long>) () -> 5678L);
+
+        Map<String, MetricFamilySamples> families = collect();
+
+        assertThat(families).containsOnlyKeys("table_LastRepairedAt");
+        List<MetricFamilySamples.Sample> samples = families.get("table_LastRepairedAt").samples;
+        assertThat(samples).hasSize(2);
+        assertThat(samples.get(0).labelNames).containsExactly("keyspace", "table", "table_id");
+        assertThat(samples.get(0).labelValues).containsExactly("keyspace", "table1", TABLE_ID.toString());
+        assertThat(samples.get(0).value).isEqualTo(1234d);
+        assertThat(samples.get(1).labelValues).containsExactly("keyspace", "table2", TABLE_ID.toString());
+        assertThat(samples.get(1).value).isEqualTo(5678d);
+    }
+
+    @Test
+    public void testTableTimer()
+    {
+        myMetricRegistry.timer("keyspace.table-" + TABLE_ID + "-RepairSuccessTime").update(2, TimeUnit.SECONDS);
+
+        Map<String, MetricFamilySamples> families = collect();
+
+        assertThat(families).containsOnlyKeys("table_RepairSuccessTime");
+        MetricFamilySamples family = families.get("table_RepairSuccessTime");
+        assertThat(family.type).isEqualTo(Collector.Type.SUMMARY);
+        assertThat(family.samples).hasSize(7);
+
+        MetricFamilySamples.Sample median = family.samples.get(0);
+        assertThat(median.name).isEqualTo("table_RepairSuccessTime");
+        assertThat(median.labelNames).containsExactly("keyspace", "table", "table_id", "quantile");
+        assertThat(median.labelValues).containsExactly("keyspace", "table", TABLE_ID.toString(), "0.5");
+        assertThat(median.value).isEqualTo(2.0d);
+
+        MetricFamilySamples.Sample count = family.samples.get(6);
+        assertThat(count.name).isEqualTo("table_RepairSuccessTime_count");
+        assertThat(count.labelValues).containsExactly("keyspace", "table", TABLE_ID.toString());
+        assertThat(count.value).isEqualTo(1.0d);
+    }
+
+    @Test
+    public void testNonNumericGaugeIsIgnored()
+    {
+        myMetricRegistry.register("Text", (Gauge<String>) () -> "value");
+
+        assertThat(collect()).isEmpty();
+    }
+
+    @Test
+    public void testNodeAndTableMetricsAreSeparated()
+    {
+        myMetricRegistry.timer("RepairSuccessTime");
+        myMetricRegistry.timer("keyspace.table-" + TABLE_ID + "-RepairSuccessTime");
+
+        assertThat(collect()).containsOnlyKeys("RepairSuccessTime", "table_RepairSuccessTime");
+    }
+
+    private Map<String, MetricFamilySamples> collect()
+    {
+        return myRepairMetricsCollector.collect().stream()
+                .collect(Collectors.toMap(family -> family.name, Function.identity()));
+    }
+}
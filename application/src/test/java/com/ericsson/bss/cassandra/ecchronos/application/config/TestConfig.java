@@ -81,14 +81,19 @@ public class TestConfig
         assertThat(repairConfig.asRepairConfiguration()).isEqualTo(expectedConfiguration);
 
         assertThat(repairConfig.getLockType()).isEqualTo(RepairLockType.DATACENTER);
+        assertThat(repairConfig.getLocksPerResource()).isEqualTo(3);
         assertThat(repairConfig.getProvider()).isEqualTo(TestRepairConfigurationProvider.class);
 
         assertThat(repairConfig.getHistoryLookback().getInterval(TimeUnit.DAYS)).isEqualTo(13);
+        assertThat(repairConfig.getCoalescingSizeThreshold()).isEqualTo(UnitConverter.toBytes("10m"));
+        assertThat(repairConfig.getStateRefreshThreads()).isEqualTo(4);
+        assertThat(repairConfig.getMaxConcurrentRepairs()).isEqualTo(3);
         assertThat(repairConfig.getHistory().getProvider()).isEqualTo(Config.RepairHistory.Provider.CASSANDRA);
         assertThat(repairConfig.getHistory().getKeyspace()).isEqualTo("customkeyspace");
 
         Config.StatisticsConfig statisticsConfig = config.getStatistics();
         assertThat(statisticsConfig.isEnabled()).isFalse();
+        assertThat(statisticsConfig.isCsvEnabled()).isFalse();
         assertThat(statisticsConfig.getDirectory()).isEqualTo(new File("./non-default-statistics"));
 
         Config.LockFactoryConfig lockFactoryConfig = config.getLockFactory();
@@ -144,14 +149,19 @@ public class TestConfig
         assertThat(repairConfig.asRepairConfiguration()).isEqualTo(expectedConfiguration);
 
         assertThat(repairConfig.getLockType()).isEqualTo(RepairLockType.VNODE);
+        assertThat(repairConfig.getLocksPerResource()).isEqualTo(1);
         assertThat(repairConfig.getProvider()).isEqualTo(FileBasedRepairConfiguration.class);
 
         assertThat(repairConfig.getHistoryLookback().getInterval(TimeUnit.DAYS)).isEqualTo(30);
+        assertThat(repairConfig.getCoalescingSizeThreshold()).isEqualTo(0L);
+        assertThat(repairConfig.getStateRefreshThreads()).isEqualTo(1);
+        assertThat(repairConfig.getMaxConcurrentRepairs()).isEqualTo(1);
         assertThat(repairConfig.getHistory().getProvider()).isEqualTo(Config.RepairHistory.Provider.ECC);
         assertThat(repairConfig.getHistory().getKeyspace()).isEqualTo("ecchronos");
 
         Config.StatisticsConfig statisticsConfig = config.getStatistics();
         assertThat(statisticsConfig.isEnabled()).isTrue();
+        assertThat(statisticsConfig.isCsvEnabled()).isTrue();
         assertThat(statisticsConfig.getDirectory()).isEqualTo(new File("./statistics"));
 
         Config.LockFactoryConfig lockFactoryConfig = config.getLockFactory();
@@ -207,14 +217,19 @@ public class TestConfig
         assertThat(repairConfig.asRepairConfiguration()).isEqualTo(expectedConfiguration);
 
         assertThat(repairConfig.getLockType()).isEqualTo(RepairLockType.VNODE);
+        assertThat(repairConfig.getLocksPerResource()).isEqualTo(1);
         assertThat(repairConfig.getProvider()).isEqualTo(FileBasedRepairConfiguration.class);
 
         assertThat(repairConfig.getHistoryLookback().getInterval(TimeUnit.DAYS)).isEqualTo(30);
+        assertThat(repairConfig.getCoalescingSizeThreshold()).isEqualTo(0L);
+        assertThat(repairConfig.getStateRefreshThreads()).isEqualTo(1);
+        assertThat(repairConfig.getMaxConcurrentRepairs()).isEqualTo(1);
         assertThat(repairConfig.getHistory().getProvider()).isEqualTo(Config.RepairHistory.Provider.ECC);
         assertThat(repairConfig.getHistory().getKeyspace()).isEqualTo("ecchronos");
 
         Config.StatisticsConfig statisticsConfig = config.getStatistics();
         assertThat(statisticsConfig.isEnabled()).isTrue();
+        assertThat(statisticsConfig.isCsvEnabled()).isTrue();
         assertThat(statisticsConfig.getDirectory()).isEqualTo(new File("./statistics"));
 
         Config.LockFactoryConfig lockFactoryConfig = config.getLockFactory();
@@ -22,6 +22,7 @@ import java.util.concurrent.TimeUnit;
 import org.junit.Test;
 
 import com.ericsson.bss.cassandra.ecchronos.core.repair.RepairConfiguration;
+import com.ericsson.bss.cassandra.ecchronos.core.repair.RepairOptions;
 import com.ericsson.bss.cassandra.ecchronos.core.utils.UnitConverter;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
@@ -69,6 +70,7 @@ public class TestRepairSchedule
                 .withRepairErrorTime(10, TimeUnit.DAYS)
                 .withRepairUnwindRatio(0.5d)
                 .withTargetRepairSizeInBytes(UnitConverter.toBytes("100m"))
+                .withRepairType(RepairOptions.RepairType.INCREMENTAL)
                 .build();
 
         assertThat(schedule.getRepairConfiguration("ks1", "tb1")).contains(ks1tb1);
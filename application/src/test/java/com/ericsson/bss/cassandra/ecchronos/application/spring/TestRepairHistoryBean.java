@@ -0,0 +1,120 @@
+/*
+ * Copyright 2021 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecchronos.application.spring;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import com.datastax.driver.core.Host;
+import com.datastax.driver.core.PreparedStatement;
+import com.datastax.driver.core.RegularStatement;
+import com.datastax.driver.core.Session;
+import com.ericsson.bss.cassandra.ecchronos.application.config.Config;
+import com.ericsson.bss.cassandra.ecchronos.connection.NativeConnectionProvider;
+import com.ericsson.bss.cassandra.ecchronos.connection.StatementDecorator;
+import com.ericsson.bss.cassandra.ecchronos.core.repair.state.EccRepairHistory;
+import com.ericsson.bss.cassandra.ecchronos.core.repair.state.RepairHistory;
+import com.ericsson.bss.cassandra.ecchronos.core.repair.state.RepairHistoryProviderImpl;
+import com.ericsson.bss.cassandra.ecchronos.core.repair.state.ReplicationState;
+import com.ericsson.bss.cassandra.ecchronos.core.utils.Node;
+import com.ericsson.bss.cassandra.ecchronos.core.utils.NodeResolver;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class TestRepairHistoryBean
+{
+    @Mock
+    private NativeConnectionProvider myNativeConnectionProvider;
+
+    @Mock
+    private NodeResolver myNodeResolver;
+
+    @Mock
+    private StatementDecorator myStatementDecorator;
+
+    @Mock
+    private ReplicationState myReplicationState;
+
+    @Mock
+    private Session mySession;
+
+    @Mock
+    private Host myLocalHost;
+
+    @Before
+    public void setup()
+    {
+        UUID localHostId = UUID.randomUUID();
+
+        when(myLocalHost.getHostId()).thenReturn(localHostId);
+        when(myNativeConnectionProvider.getLocalHost()).thenReturn(myLocalHost);
+        when(myNativeConnectionProvider.getSession()).thenReturn(mySession);
+        when(myNodeResolver.fromUUID(localHostId)).thenReturn(Optional.of(mock(Node.class)));
+        when(mySession.prepare(anyString())).thenReturn(mock(PreparedStatement.class));
+        when(mySession.prepare(any(RegularStatement.class))).thenReturn(mock(PreparedStatement.class));
+    }
+
+    @Test
+    public void testEccProviderRecoversFromCassandraHistory()
+    {
+        RepairHistoryBean repairHistoryBean = createRepairHistoryBean(Config.RepairHistory.Provider.ECC);
+
+        assertThat(repairHistoryBean.repairHistory()).isInstanceOf(EccRepairHistory.class);
+        assertThat(repairHistoryBean.repairHistoryProvider()).isSameAs(repairHistoryBean.repairHistory());
+        assertThat(repairHistoryBean.cassandraRepairHistoryProvider()).isInstanceOf(RepairHistoryProviderImpl.class);
+    }
+
+    @Test
+    public void testUpgradeProvider()
+    {
+        RepairHistoryBean repairHistoryBean = createRepairHistoryBean(Config.RepairHistory.Provider.UPGRADE);
+
+        assertThat(repairHistoryBean.repairHistory()).isInstanceOf(EccRepairHistory.class);
+        assertThat(repairHistoryBean.repairHistoryProvider()).isInstanceOf(RepairHistoryProviderImpl.class);
+        assertThat(repairHistoryBean.cassandraRepairHistoryProvider())
+                .isSameAs(repairHistoryBean.repairHistoryProvider());
+    }
+
+    @Test
+    public void testCassandraProvider()
+    {
+        RepairHistoryBean repairHistoryBean = createRepairHistoryBean(Config.RepairHistory.Provider.CASSANDRA);
+
+        assertThat(repairHistoryBean.repairHistory()).isSameAs(RepairHistory.NO_OP);
+        assertThat(repairHistoryBean.repairHistoryProvider()).isInstanceOf(RepairHistoryProviderImpl.class);
+        assertThat(repairHistoryBean.cassandraRepairHistoryProvider())
+                .isSameAs(repairHistoryBean.repairHistoryProvider());
+    }
+
+    private RepairHistoryBean createRepairHistoryBean(Config.RepairHistory.Provider provider)
+    {
+        Config config = new Config();
+        config.getRepair().getHistory().setProvider(provider.name());
+
+        return new RepairHistoryBean(config, myNativeConnectionProvider, myNodeResolver, myStatementDecorator,
+                myReplicationState);
+    }
+}
@@ -0,0 +1,84 @@
+#!/usr/bin/env python3
+#
+# Copyright 2021 Telefonaktiebolaget LM Ericsson
+#
+# Licensed under the Apache License, Version 2.0 (the "License");
+# you may not use this file except in compliance with the License.
+# You may obtain a copy of the License at
+#     http://www.apache.org/licenses/LICENSE-2.0
+#
+# Unless required by applicable law or agreed to in writing, software
+# distributed under the License is distributed on an "AS IS" BASIS,
+# WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+# See the License for the specific language governing permissions and
+# limitations under the License.
+#
+
+"""Compare two JMH JSON result files and report regressions."""
+
+import argparse
+import json
+import sys
+
+LOWER_IS_BETTER = ("avgt", "sample", "ss")
+
+
+def load(path):
+    with open(path) as result_file:
+        results = {}
+        for result in json.load(result_file):
+            params = result.get("params", {})
+            key = (result["benchmark"], tuple(sorted(params.items())))
+            metric = result["primaryMetric"]
+            results[key] = (result["mode"], metric["score"], metric["scoreError"], metric["scoreUnit"])
+        return results
+
+
+def format_key(key):
+    benchmark, params = key
+    name = benchmark.split(".")[-2] + "." + benchmark.split(".")[-1]
+    if params:
+        name += " " + ",".join("{}={}".format(k, v) for k, v in params)
+    return name
+
+
+def main():
+    parser = argparse.ArgumentParser(description=__doc__)
+    parser.add_argument("baseline", help="JMH JSON result of the baseline")
+    parser.add_argument("current", help="JMH JSON result of the change")
+    parser.add_argument("--threshold", type=float, default=10.0,
+                        help="Relative change in percent considered a regression (default: 10)")
+    args = parser.parse_args()
+
+    baseline = load(args.baseline)
+    current = load(args.current)
+
+    regressions = 0
+    for key in sorted(set(baseline) | set(current)):
+        if key not in baseline or key not in current:
+            print("{:<90} only in {}".format(format_key(key), "current" if key in current else "baseline"))
+            continue
+
+        mode, base_score, _, unit = baseline[key]
+        _, score, error, _ = current[key]
+
+        change = (score - base_score) / base_score * 100.0 if base_score else 0.0
+        worse = change if mode in LOWER_IS_BETTER else -change
+        marker = ""
+        if worse > args.threshold:
+            marker = " REGRESSION"
+            regressions += 1
+        elif worse < -args.threshold:
+            marker = " improvement"
+
+        print("{:<90} {:>12.3f} -> {:>12.3f} ± {:.3f} {} ({:+.1f}%){}".format(
+            format_key(key), base_score, score, error, unit, change, marker))
+
+    if regressions:
+        print("\n{} regression(s) above {}%".format(regressions, args.threshold))
+        return 1
+    return 0
+
+
+if __name__ == "__main__":
+    sys.exit(main())
@@ -0,0 +1,189 @@
+/*
+ * Copyright 2021 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecchronos.benchmarks;
+
+import java.math.BigInteger;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import com.ericsson.bss.cassandra.ecchronos.core.repair.state.VnodeRepairState;
+import com.ericsson.bss.cassandra.ecchronos.core.utils.LongTokenRange;
+import com.ericsson.bss.cassandra.ecchronos.core.utils.Node;
+import com.ericsson.bss.cassandra.ecchronos.core.utils.TokenSubRangeUtil;
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * Generator of deterministic cluster data used by the benchmarks.
+ */
+public final class BenchmarkData
+{
+    private static final long SEED = 1234L;
+
+    private BenchmarkData()
+    {
+        // Utility class
+    }
+
+    /**
+     * Create a random generator with a fixed seed so that runs are comparable.
+     *
+     * @return The random generator.
+     */
+    public static Random random()
+    {
+        return new Random(SEED);
+    }
+
+    /**
+     * Generate evenly distributed vnodes covering the full murmur3 token range.
+     *
+     * @param count The number of vnodes.
+     * @return The vnodes in token order.
+     */
+    public static List<LongTokenRange> vnodes(int count)
+    {
+        BigInteger fullRange = BigInteger.valueOf(2).pow(64);
+        BigInteger step = fullRange.divide(BigInteger.valueOf(count));
+
+        List<LongTokenRange> vnodes = new ArrayList<>(count);
+        long start = Long.MIN_VALUE;
+        for (int i = 0; i < count; i++)
+        {
+            long end = i == count - 1 ? Long.MAX_VALUE : BigInteger.valueOf(start).add(step).longValue();
+            vnodes.add(new LongTokenRange(start, end));
+            start = end;
+        }
+        return vnodes;
+    }
+
+    /**
+     * Split a vnode in the provided number of sub ranges.
+     *
+     * @param vnode The vnode to split.
+     * @param count The number of sub ranges.
+     * @return The sub ranges of the vnode.
+     */
+    public static List<LongTokenRange> subRanges(LongTokenRange vnode, int count)
+    {
+        BigInteger tokensPerSubRange = vnode.rangeSize().divide(BigInteger.valueOf(count))
+                .add(BigInteger.ONE);
+        return new TokenSubRangeUtil(vnode).generateSubRanges(tokensPerSubRange);
+    }
+
+    /**
+     * Generate nodes with unique ids.
+     *
+     * @param count The number of nodes.
+     * @return The nodes.
+     */
+    public static List<Node> nodes(int count)
+    {
+        List<Node> nodes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++)
+        {
+            nodes.add(new BenchmarkNode(i));
+        }
+        return nodes;
+    }
+
+    /**
+     * Get the replicas of a vnode placed in a ring with SimpleStrategy like replication.
+     *
+     * @param nodes The nodes of the ring.
+     * @param vnodeIndex The index of the vnode.
+     * @param replicationFactor The replication factor.
+     * @return The replicas of the vnode.
+     */
+    public static ImmutableSet<Node> replicas(List<Node> nodes, int vnodeIndex, int replicationFactor)
+    {
+        ImmutableSet.Builder<Node> builder = ImmutableSet.builder();
+        for (int i = 0; i < replicationFactor; i++)
+        {
+            builder.add(nodes.get((vnodeIndex + i) % nodes.size()));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Generate vnode repair states where each vnode is repaired at a random time within the last week.
+     *
+     * @param vnodeCount The number of vnodes.
+     * @param nodeCount The number of nodes in the ring.
+     * @param random The random generator.
+     * @return The vnode repair states.
+     */
+    public static List<VnodeRepairState> vnodeRepairStates(int vnodeCount, int nodeCount, Random random)
+    {
+        List<Node> nodes = nodes(nodeCount);
+        List<LongTokenRange> vnodes = vnodes(vnodeCount);
+        long now = System.currentTimeMillis();
+
+        List<VnodeRepairState> vnodeRepairStates = new ArrayList<>(vnodeCount);
+        for (int i = 0; i < vnodeCount; i++)
+        {
+            long repairedAt = now - (long) (random.nextDouble() * TimeUnit.DAYS.toMillis(7));
+            vnodeRepairStates.add(new VnodeRepairState(vnodes.get(i), replicas(nodes, i, 3), repairedAt));
+        }
+        return vnodeRepairStates;
+    }
+
+    private static final class BenchmarkNode implements Node
+    {
+        private final UUID myId;
+        private final InetAddress myAddress;
+
+        BenchmarkNode(int index)
+        {
+            myId = new UUID(0, index);
+            try
+            {
+                myAddress = InetAddress.getByAddress(new byte[] { 10, 0, (byte) (index >> 8), (byte) index });
+            }
+            catch (UnknownHostException e)
+            {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public UUID getId()
+        {
+            return myId;
+        }
+
+        @Override
+        public InetAddress getPublicAddress()
+        {
+            return myAddress;
+        }
+
+        @Override
+        public String getDatacenter()
+        {
+            return "DC1";
+        }
+
+        @Override
+        public String toString()
+        {
+            return myId.toString();
+        }
+    }
+}
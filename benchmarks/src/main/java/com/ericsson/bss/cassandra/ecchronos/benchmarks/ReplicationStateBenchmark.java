@@ -0,0 +1,162 @@
+/*
+ * Copyright 2021 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecchronos.benchmarks;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.withSettings;
+
+import java.net.InetAddress;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.datastax.driver.core.Host;
+import com.datastax.driver.core.Metadata;
+import com.datastax.driver.core.TokenRange;
+import com.ericsson.bss.cassandra.ecchronos.core.MockTableReferenceFactory;
+import com.ericsson.bss.cassandra.ecchronos.core.TokenUtil;
+import com.ericsson.bss.cassandra.ecchronos.core.repair.state.ReplicationState;
+import com.ericsson.bss.cassandra.ecchronos.core.repair.state.ReplicationStateImpl;
+import com.ericsson.bss.cassandra.ecchronos.core.utils.LongTokenRange;
+import com.ericsson.bss.cassandra.ecchronos.core.utils.Node;
+import com.ericsson.bss.cassandra.ecchronos.core.utils.NodeResolver;
+import com.ericsson.bss.cassandra.ecchronos.core.utils.TableReference;
+
+/**
+ * Benchmark of building the token map of all tables in a keyspace.
+ * <p>
+ * The driver metadata is mocked and returns precomputed token ranges and replicas so that only the conversion
+ * done by {@link ReplicationStateImpl} is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReplicationStateBenchmark
+{
+    private static final String KEYSPACE = "ks";
+
+    @Param({"16", "256", "512"})
+    private int vnodes;
+
+    @Param({"6", "48"})
+    private int nodes;
+
+    @Param({"1", "100"})
+    private int tables;
+
+    private ReplicationState myReplicationState;
+    private TableReference[] myTableReferences;
+
+    @Setup
+    public void setup() throws Exception
+    {
+        List<Node> clusterNodes = BenchmarkData.nodes(nodes);
+        Map<InetAddress, Node> nodesByAddress = new HashMap<>();
+        Host[] hosts = new Host[nodes];
+
+        for (int i = 0; i < nodes; i++)
+        {
+            Node node = clusterNodes.get(i);
+            Host host = mock(Host.class, withSettings().stubOnly());
+            doReturn(node.getPublicAddress()).when(host).getBroadcastAddress();
+            doReturn(node.getId()).when(host).getHostId();
+            hosts[i] = host;
+            nodesByAddress.put(node.getPublicAddress(), node);
+        }
+
+        Metadata metadata = mock(Metadata.class, withSettings().stubOnly());
+        Set<TokenRange> tokenRanges = new HashSet<>();
+        List<LongTokenRange> ranges = BenchmarkData.vnodes(vnodes);
+
+        for (int i = 0; i < ranges.size(); i++)
+        {
+            LongTokenRange range = ranges.get(i);
+            TokenRange tokenRange = TokenUtil.getRange(range.start, range.end);
+            Set<Host> replicas = new HashSet<>();
+            for (int r = 0; r < 3; r++)
+            {
+                replicas.add(hosts[(i + r) % nodes]);
+            }
+            tokenRanges.add(tokenRange);
+            doReturn(replicas).when(metadata).getReplicas(eq(KEYSPACE), eq(tokenRange));
+        }
+        doReturn(tokenRanges).when(metadata).getTokenRanges(anyString(), any(Host.class));
+
+        NodeResolver nodeResolver = new BenchmarkNodeResolver(nodesByAddress);
+        myReplicationState = new ReplicationStateImpl(nodeResolver, metadata, hosts[0]);
+
+        myTableReferences = new TableReference[tables];
+        for (int i = 0; i < tables; i++)
+        {
+            myTableReferences[i] = MockTableReferenceFactory.tableReference(KEYSPACE, "table" + i);
+        }
+    }
+
+    @Benchmark
+    public void getTokenRangeToReplicas(Blackhole blackhole)
+    {
+        for (TableReference tableReference : myTableReferences)
+        {
+            blackhole.consume(myReplicationState.getTokenRangeToReplicas(tableReference));
+        }
+    }
+
+    private static final class BenchmarkNodeResolver implements NodeResolver
+    {
+        private final Map<InetAddress, Node> myNodes;
+
+        BenchmarkNodeResolver(Map<InetAddress, Node> nodes)
+        {
+            myNodes = nodes;
+        }
+
+        @Override
+        public Optional<Node> fromIp(InetAddress inetAddress)
+        {
+            return Optional.ofNullable(myNodes.get(inetAddress));
+        }
+
+        @Override
+        public Optional<Node> fromUUID(UUID nodeId)
+        {
+            return myNodes.values().stream().filter(node -> node.getId().equals(nodeId)).findFirst();
+        }
+    }
+}
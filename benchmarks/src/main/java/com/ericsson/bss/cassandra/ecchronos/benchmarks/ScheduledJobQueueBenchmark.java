@@ -0,0 +1,128 @@
+/*
+ * Copyright 2021 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecchronos.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.ericsson.bss.cassandra.ecchronos.core.scheduling.DefaultJobComparator;
+import com.ericsson.bss.cassandra.ecchronos.core.scheduling.ScheduledJob;
+import com.ericsson.bss.cassandra.ecchronos.core.scheduling.ScheduledJobQueue;
+import com.ericsson.bss.cassandra.ecchronos.core.scheduling.ScheduledTask;
+
+/**
+ * Benchmark of the scheduled job queue with one job per table.
+ * <p>
+ * Half of the jobs have been run recently and are not runnable, the other half are overdue by a random amount.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ScheduledJobQueueBenchmark
+{
+    private static final ScheduledJob.Priority[] PRIORITIES = {
+            ScheduledJob.Priority.LOW, ScheduledJob.Priority.MEDIUM, ScheduledJob.Priority.HIGH
+    };
+
+    @Param({"10", "100", "1000", "5000"})
+    private int tables;
+
+    private ScheduledJobQueue myQueue;
+    private ScheduledJob myExtraJob;
+
+    @Setup
+    public void setup()
+    {
+        Random random = BenchmarkData.random();
+        long now = System.currentTimeMillis();
+        long runInterval = TimeUnit.DAYS.toMillis(7);
+
+        List<ScheduledJob> jobs = new ArrayList<>(tables);
+        for (int i = 0; i < tables; i++)
+        {
+            long lastRun = i % 2 == 0
+                    ? now - (long) (random.nextDouble() * TimeUnit.DAYS.toMillis(1))
+                    : now - runInterval - (long) (random.nextDouble() * TimeUnit.DAYS.toMillis(3));
+            jobs.add(new BenchmarkJob(PRIORITIES[random.nextInt(PRIORITIES.length)], runInterval, lastRun));
+        }
+        Collections.shuffle(jobs, random);
+
+        myQueue = new ScheduledJobQueue(new DefaultJobComparator());
+        myQueue.addAll(jobs);
+
+        myExtraJob = new BenchmarkJob(ScheduledJob.Priority.HIGH, runInterval, now - runInterval * 2);
+    }
+
+    @Benchmark
+    public ScheduledJob firstRunnableJob()
+    {
+        Iterator<ScheduledJob> iterator = myQueue.iterator();
+        return iterator.hasNext() ? iterator.next() : null;
+    }
+
+    @Benchmark
+    public void allRunnableJobs(Blackhole blackhole)
+    {
+        for (ScheduledJob job : myQueue)
+        {
+            blackhole.consume(job);
+        }
+    }
+
+    @Benchmark
+    public void addAndRemoveJob()
+    {
+        myQueue.add(myExtraJob);
+        myQueue.remove(myExtraJob);
+    }
+
+    private static final class BenchmarkJob extends ScheduledJob
+    {
+        BenchmarkJob(Priority priority, long runIntervalInMs, long lastSuccessfulRun)
+        {
+            super(new ConfigurationBuilder()
+                    .withPriority(priority)
+                    .withRunInterval(runIntervalInMs, TimeUnit.MILLISECONDS)
+                    .build());
+            myLastSuccessfulRun = lastSuccessfulRun;
+        }
+
+        @Override
+        public Iterator<ScheduledTask> iterator()
+        {
+            return Collections.emptyIterator();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2021 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecchronos.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.ericsson.bss.cassandra.ecchronos.core.repair.state.SubRangeRepairStates;
+import com.ericsson.bss.cassandra.ecchronos.core.repair.state.VnodeRepairState;
+import com.ericsson.bss.cassandra.ecchronos.core.repair.state.VnodeRepairStates;
+import com.ericsson.bss.cassandra.ecchronos.core.utils.LongTokenRange;
+
+/**
+ * Benchmark of building sub range repair states from repair history.
+ * <p>
+ * The history contains {@code historySize} repairs of each sub range in random order.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SubRangeRepairStatesBenchmark
+{
+    @Param({"16", "256", "512"})
+    private int vnodes;
+
+    @Param({"1", "4", "16"})
+    private int subRangesPerVnode;
+
+    @Param({"1", "10"})
+    private int historySize;
+
+    private List<VnodeRepairState> myBaseVnodes;
+    private List<VnodeRepairState> myRepairHistory;
+
+    @Setup
+    public void setup()
+    {
+        Random random = BenchmarkData.random();
+        long now = System.currentTimeMillis();
+
+        myBaseVnodes = BenchmarkData.vnodeRepairStates(vnodes, 12, random);
+        myRepairHistory = new ArrayList<>();
+
+        for (VnodeRepairState baseVnode : myBaseVnodes)
+        {
+            for (LongTokenRange subRange : BenchmarkData.subRanges(baseVnode.getTokenRange(), subRangesPerVnode))
+            {
+                for (int i = 0; i < historySize; i++)
+                {
+                    long repairedAt = now - (long) (random.nextDouble() * TimeUnit.DAYS.toMillis(30));
+                    myRepairHistory.add(new VnodeRepairState(subRange, baseVnode.getReplicas(), repairedAt));
+                }
+            }
+        }
+
+        Collections.shuffle(myRepairHistory, random);
+    }
+
+    @Benchmark
+    public VnodeRepairStates buildFromHistory()
+    {
+        VnodeRepairStates.Builder builder = SubRangeRepairStates.newBuilder(myBaseVnodes);
+
+        for (VnodeRepairState vnodeRepairState : myRepairHistory)
+        {
+            builder.updateVnodeRepairState(vnodeRepairState);
+        }
+
+        return builder.build();
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2021 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecchronos.benchmarks;
+
+import java.math.BigInteger;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.ericsson.bss.cassandra.ecchronos.core.utils.LongTokenRange;
+import com.ericsson.bss.cassandra.ecchronos.core.utils.TokenSubRangeUtil;
+
+/**
+ * Benchmark of splitting a vnode into sub ranges.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenSubRangeUtilBenchmark
+{
+    @Param({"16", "256", "512"})
+    private int vnodes;
+
+    @Param({"4", "16", "256"})
+    private int subRangesPerVnode;
+
+    private LongTokenRange myVnode;
+    private BigInteger myTokensPerSubRange;
+
+    @Setup
+    public void setup()
+    {
+        myVnode = BenchmarkData.vnodes(vnodes).get(0);
+        myTokensPerSubRange = myVnode.rangeSize().divide(BigInteger.valueOf(subRangesPerVnode)).add(BigInteger.ONE);
+    }
+
+    @Benchmark
+    public List<LongTokenRange> generateSubRanges()
+    {
+        return new TokenSubRangeUtil(myVnode).generateSubRanges(myTokensPerSubRange);
+    }
+}
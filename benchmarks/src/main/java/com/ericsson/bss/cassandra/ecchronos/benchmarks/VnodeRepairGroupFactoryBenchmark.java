@@ -0,0 +1,66 @@
+/*
+ * Copyright 2021 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecchronos.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.ericsson.bss.cassandra.ecchronos.core.repair.state.ReplicaRepairGroup;
+import com.ericsson.bss.cassandra.ecchronos.core.repair.state.VnodeRepairGroupFactory;
+import com.ericsson.bss.cassandra.ecchronos.core.repair.state.VnodeRepairState;
+
+/**
+ * Benchmark of grouping vnodes by replica set.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VnodeRepairGroupFactoryBenchmark
+{
+    @Param({"16", "64", "256", "512"})
+    private int vnodes;
+
+    @Param({"6", "48"})
+    private int nodes;
+
+    private List<VnodeRepairState> myVnodeRepairStates;
+
+    @Setup
+    public void setup()
+    {
+        myVnodeRepairStates = BenchmarkData.vnodeRepairStates(vnodes, nodes, BenchmarkData.random());
+    }
+
+    @Benchmark
+    public List<ReplicaRepairGroup> generateReplicaRepairGroups()
+    {
+        return VnodeRepairGroupFactory.INSTANCE.generateReplicaRepairGroups(myVnodeRepairStates);
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2021 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecchronos.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.ericsson.bss.cassandra.ecchronos.core.repair.state.VnodeRepairState;
+import com.ericsson.bss.cassandra.ecchronos.core.repair.state.VnodeRepairStateSummarizer;
+import com.ericsson.bss.cassandra.ecchronos.core.utils.LongTokenRange;
+
+/**
+ * Benchmark of summarizing sub range repair states into vnode repair states.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VnodeRepairStateSummarizerBenchmark
+{
+    @Param({"16", "256", "512"})
+    private int vnodes;
+
+    @Param({"1", "4", "16"})
+    private int subRangesPerVnode;
+
+    private List<VnodeRepairState> myBaseVnodes;
+    private List<VnodeRepairState> myPartialVnodes;
+
+    @Setup
+    public void setup()
+    {
+        Random random = BenchmarkData.random();
+        long now = System.currentTimeMillis();
+
+        myBaseVnodes = BenchmarkData.vnodeRepairStates(vnodes, 12, random);
+        myPartialVnodes = new ArrayList<>();
+
+        for (VnodeRepairState baseVnode : myBaseVnodes)
+        {
+            for (LongTokenRange subRange : BenchmarkData.subRanges(baseVnode.getTokenRange(), subRangesPerVnode))
+            {
+                long repairedAt = now - (long) (random.nextDouble() * TimeUnit.DAYS.toMillis(7));
+                myPartialVnodes.add(new VnodeRepairState(subRange, baseVnode.getReplicas(), repairedAt));
+            }
+        }
+    }
+
+    @Benchmark
+    public List<VnodeRepairState> summarizePartialVnodes()
+    {
+        return VnodeRepairStateSummarizer.summarizePartialVnodes(myBaseVnodes, myPartialVnodes);
+    }
+}
@@ -0,0 +1,358 @@
+/*
+ * Copyright 2021 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecchronos.benchmarks.simulation;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import com.codahale.metrics.Snapshot;
+import com.ericsson.bss.cassandra.ecchronos.core.MockTableReferenceFactory;
+import com.ericsson.bss.cassandra.ecchronos.core.repair.RepairConfiguration;
+import com.ericsson.bss.cassandra.ecchronos.core.repair.RepairLockType;
+import com.ericsson.bss.cassandra.ecchronos.core.repair.state.RepairStatus;
+import com.ericsson.bss.cassandra.ecchronos.core.utils.LongTokenRange;
+import com.ericsson.bss.cassandra.ecchronos.core.utils.Node;
+import com.ericsson.bss.cassandra.ecchronos.core.utils.TableReference;
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * Simulation of a cluster where every node runs ecChronos.
+ * <p>
+ * All instances run in one JVM against an in-memory token ring, a shared repair history and lock store and a
+ * fake JMX connection. Time is simulated so that weeks of repairs can be run in minutes.
+ * <p>
+ * Usage: {@code ClusterSimulator [--option value]...}, run with {@code --help} for a list of options.
+ */
+public final class ClusterSimulator
+{
+    private static final Map<String, String> DEFAULT_OPTIONS = new LinkedHashMap<>();
+
+    static
+    {
+        DEFAULT_OPTIONS.put("nodes", "12");
+        DEFAULT_OPTIONS.put("instances", "0");
+        DEFAULT_OPTIONS.put("datacenters", "1");
+        DEFAULT_OPTIONS.put("vnodes", "16");
+        DEFAULT_OPTIONS.put("replication-factor", "3");
+        DEFAULT_OPTIONS.put("tables", "100");
+        DEFAULT_OPTIONS.put("table-size-mb", "1024");
+        DEFAULT_OPTIONS.put("days", "21");
+        DEFAULT_OPTIONS.put("repair-interval-hours", "168");
+        DEFAULT_OPTIONS.put("repair-warning-hours", "192");
+        DEFAULT_OPTIONS.put("repair-error-hours", "240");
+        DEFAULT_OPTIONS.put("lock-type", RepairLockType.VNODE.name());
+        DEFAULT_OPTIONS.put("size-target-mb", "0");
+        DEFAULT_OPTIONS.put("scheduler-frequency-seconds", "30");
+        DEFAULT_OPTIONS.put("session-overhead-seconds", "5");
+        DEFAULT_OPTIONS.put("throughput-mb-per-second", "20");
+        DEFAULT_OPTIONS.put("failure-rate", "0.01");
+        DEFAULT_OPTIONS.put("seed", "1234");
+    }
+
+    private static final long MB = 1024L * 1024L;
+
+    private ClusterSimulator()
+    {
+        // Utility class
+    }
+
+    public static void main(String[] args) throws InterruptedException
+    {
+        Map<String, String> options = parseOptions(args);
+        if (options == null)
+        {
+            printUsage();
+            return;
+        }
+
+        long wallClockStart = System.nanoTime();
+        Result result = run(options);
+        long wallClockSeconds = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - wallClockStart);
+
+        printReport(options, result, wallClockSeconds);
+        System.exit(0);
+    }
+
+    /**
+     * Run a simulation with the provided options.
+     *
+     * @param options The options of the simulation, all options must be provided.
+     * @return The result of the simulation.
+     * @throws InterruptedException Thrown if interrupted while running the simulation.
+     */
+    static Result run(Map<String, String> options) throws InterruptedException
+    {
+        int nodeCount = Integer.parseInt(options.get("nodes"));
+        int instanceCount = Integer.parseInt(options.get("instances"));
+        int dataCenterCount = Integer.parseInt(options.get("datacenters"));
+        int vnodes = Integer.parseInt(options.get("vnodes"));
+        int replicationFactor = Integer.parseInt(options.get("replication-factor"));
+        int tableCount = Integer.parseInt(options.get("tables"));
+        long tableSizeInBytes = Long.parseLong(options.get("table-size-mb")) * MB;
+        long durationInMs = TimeUnit.DAYS.toMillis(Long.parseLong(options.get("days")));
+        long repairIntervalInMs = TimeUnit.HOURS.toMillis(Long.parseLong(options.get("repair-interval-hours")));
+        long repairWarningTimeInMs = TimeUnit.HOURS.toMillis(Long.parseLong(options.get("repair-warning-hours")));
+        long repairErrorTimeInMs = TimeUnit.HOURS.toMillis(Long.parseLong(options.get("repair-error-hours")));
+        RepairLockType repairLockType = RepairLockType.valueOf(options.get("lock-type").toUpperCase(Locale.US));
+        long sizeTargetInBytes = Long.parseLong(options.get("size-target-mb")) * MB;
+        long schedulerFrequencyInMs = TimeUnit.SECONDS.toMillis(Long.parseLong(options.get("scheduler-frequency-seconds")));
+        long sessionOverheadInMs = TimeUnit.SECONDS.toMillis(Long.parseLong(options.get("session-overhead-seconds")));
+        long throughputInBytes = Long.parseLong(options.get("throughput-mb-per-second")) * MB;
+        double failureRate = Double.parseDouble(options.get("failure-rate"));
+        Random random = new Random(Long.parseLong(options.get("seed")));
+
+        if (instanceCount <= 0 || instanceCount > nodeCount)
+        {
+            instanceCount = nodeCount;
+        }
+
+        long startMillis = TimeUnit.DAYS.toMillis(365L * 50);
+        SimulatedClock clock = new SimulatedClock(startMillis);
+        SimulationEventLoop eventLoop = new SimulationEventLoop(clock);
+
+        SimulatedCluster cluster = new SimulatedCluster(nodeCount, dataCenterCount, vnodes, replicationFactor, random);
+        SimulatedStorage storage = new SimulatedStorage(tableSizeInBytes, tableCount, nodeCount,
+                replicationFactor * dataCenterCount);
+        SimulatedRepairHistory repairHistory = new SimulatedRepairHistory(clock,
+                Math.max(TimeUnit.DAYS.toMillis(30), repairErrorTimeInMs));
+        SimulatedLockFactory lockFactory = new SimulatedLockFactory(clock);
+        RepairStatistics statistics = new RepairStatistics(cluster, repairIntervalInMs, repairWarningTimeInMs,
+                repairErrorTimeInMs);
+
+        List<TableReference> tableReferences = new ArrayList<>(tableCount);
+        for (int i = 0; i < tableCount; i++)
+        {
+            tableReferences.add(MockTableReferenceFactory.tableReference("ks", "table" + i));
+        }
+
+        List<Node> instanceNodes = cluster.getNodes().subList(0, instanceCount);
+        seedRepairHistory(cluster, instanceNodes, tableReferences, repairHistory, statistics, random,
+                startMillis, repairIntervalInMs);
+
+        RepairConfiguration.Builder repairConfigurationBuilder = RepairConfiguration.newBuilder()
+                .withRepairInterval(repairIntervalInMs, TimeUnit.MILLISECONDS)
+                .withRepairWarningTime(repairWarningTimeInMs, TimeUnit.MILLISECONDS)
+                .withRepairErrorTime(repairErrorTimeInMs, TimeUnit.MILLISECONDS);
+        if (sizeTargetInBytes > 0)
+        {
+            repairConfigurationBuilder.withTargetRepairSizeInBytes(sizeTargetInBytes);
+        }
+        RepairConfiguration repairConfiguration = repairConfigurationBuilder.build();
+
+        System.out.printf("Starting %d ecChronos instances for %d nodes, %d vnodes and %d tables%n", instanceCount,
+                nodeCount, cluster.getReplicas().size(), tableCount);
+
+        List<SimulatedInstance> instances = new ArrayList<>(instanceCount);
+        for (int i = 0; i < instanceCount; i++)
+        {
+            Node node = instanceNodes.get(i);
+            SimulatedJmxProxyFactory jmxProxyFactory = SimulatedJmxProxyFactory.builder()
+                    .withEventLoop(eventLoop)
+                    .withCluster(cluster)
+                    .withStorage(storage)
+                    .withRepairHistory(repairHistory)
+                    .withStatistics(statistics)
+                    .withRandom(new Random(random.nextLong()))
+                    .withSessionOverhead(sessionOverheadInMs)
+                    .withThroughput(throughputInBytes)
+                    .withFailureRate(failureRate)
+                    .build();
+
+            SimulatedInstance instance = new SimulatedInstance(node, eventLoop, lockFactory, jmxProxyFactory,
+                    new SimulatedReplicationState(cluster.getLocalRanges(node)), repairHistory, storage,
+                    repairLockType, schedulerFrequencyInMs);
+            instance.scheduleTables(tableReferences, repairConfiguration);
+            instance.start(startMillis + (long) (random.nextDouble() * schedulerFrequencyInMs));
+            instances.add(instance);
+        }
+
+        System.out.printf("Simulating %d days%n", TimeUnit.MILLISECONDS.toDays(durationInMs));
+
+        long reportIntervalInMs = TimeUnit.DAYS.toMillis(1);
+        for (long at = startMillis + reportIntervalInMs; at <= startMillis + durationInMs; at += reportIntervalInMs)
+        {
+            eventLoop.runUntil(at);
+            RepairStatistics.Summary summary = statistics.summarize(at);
+            System.out.printf("Day %d: %d sessions, %d vnode repairs, %d tables in warning, %d tables in error%n",
+                    TimeUnit.MILLISECONDS.toDays(at - startMillis), summary.sessionsSucceeded + summary.sessionsFailed,
+                    summary.vnodeRepairs, summary.tablesInWarning, summary.tablesInError);
+        }
+
+        Result result = new Result(statistics.summarize(clock.millis()), lockFactory, durationInMs);
+
+        for (SimulatedInstance instance : instances)
+        {
+            instance.close();
+        }
+
+        return result;
+    }
+
+    /**
+     * Record that each vnode of each table was repaired at a random time during the last repair interval, as if
+     * the cluster had been repaired by ecChronos before the simulation started.
+     */
+    private static void seedRepairHistory(SimulatedCluster cluster, List<Node> instanceNodes,
+            List<TableReference> tableReferences, SimulatedRepairHistory repairHistory, RepairStatistics statistics,
+            Random random, long startMillis, long repairIntervalInMs)
+    {
+        for (TableReference tableReference : tableReferences)
+        {
+            for (Map.Entry<LongTokenRange, ImmutableSet<Node>> entry : cluster.getReplicas().entrySet())
+            {
+                if (instanceNodes.stream().noneMatch(entry.getValue()::contains))
+                {
+                    continue;
+                }
+
+                long repairedAt = startMillis - 1 - (long) (random.nextDouble() * repairIntervalInMs);
+                statistics.track(tableReference, entry.getKey(), repairedAt);
+                repairHistory.record(tableReference, entry.getKey(), entry.getValue(), repairedAt,
+                        RepairStatus.SUCCESS);
+            }
+        }
+    }
+
+    private static void printReport(Map<String, String> options, Result result, long wallClockSeconds)
+    {
+        RepairStatistics.Summary summary = result.summary;
+        double days = (double) result.durationInMs / TimeUnit.DAYS.toMillis(1);
+        long lockAttempts = result.lockAttempts;
+        long sessions = summary.sessionsSucceeded + summary.sessionsFailed;
+
+        System.out.println();
+        System.out.println("=== Configuration ===");
+        for (Map.Entry<String, String> option : options.entrySet())
+        {
+            System.out.printf("%-30s %s%n", option.getKey(), option.getValue());
+        }
+
+        System.out.println();
+        System.out.println("=== Repair throughput ===");
+        System.out.printf("%-30s %d (%d failed)%n", "Sessions", sessions, summary.sessionsFailed);
+        System.out.printf("%-30s %.1f%n", "Sessions per day", sessions / days);
+        System.out.printf("%-30s %.1f%n", "Repaired GB per day", summary.repairedBytes / days / (MB * 1024));
+        System.out.printf("%-30s %d (%d redundant)%n", "Vnode repairs", summary.vnodeRepairs,
+                summary.redundantVnodeRepairs);
+
+        System.out.println();
+        System.out.println("=== Lock contention ===");
+        System.out.printf("%-30s %d%n", "Lock attempts", lockAttempts);
+        System.out.printf("%-30s %d (%.1f%%)%n", "Contended attempts", result.contendedLockAttempts,
+                lockAttempts == 0 ? 0.0d : 100.0d * result.contendedLockAttempts / lockAttempts);
+        System.out.printf("%-30s %d%n", "Max concurrent locks", result.maxConcurrentLocks);
+        System.out.printf("%-30s %.3f%n", "Average locks held", result.getAverageLocksHeld());
+
+        System.out.println();
+        System.out.println("=== Time to repaired ===");
+        printSnapshot("Vnode delay after due", summary.vnodeDelays);
+        printSnapshot("Table age at end", summary.tableRepairAges);
+
+        System.out.println();
+        System.out.println("=== Interval misses ===");
+        System.out.printf("%-30s %d%n", "Vnode repairs after warning", summary.intervalMisses);
+        System.out.printf("%-30s %d of %d%n", "Vnodes overdue at end", summary.overdueVnodes, summary.vnodes);
+        System.out.printf("%-30s %d of %d%n", "Tables in warning at end", summary.tablesInWarning, summary.tables);
+        System.out.printf("%-30s %d of %d%n", "Tables in error at end", summary.tablesInError, summary.tables);
+
+        System.out.println();
+        System.out.printf("Simulated %.1f days in %d seconds%n", days, wallClockSeconds);
+    }
+
+    private static void printSnapshot(String name, Snapshot snapshot)
+    {
+        System.out.printf("%-30s p50 %s, p95 %s, p99 %s, max %s%n", name,
+                formatDuration((long) snapshot.getMedian()), formatDuration((long) snapshot.get95thPercentile()),
+                formatDuration((long) snapshot.get99thPercentile()), formatDuration(snapshot.getMax()));
+    }
+
+    private static String formatDuration(long millis)
+    {
+        return String.format("%.1fh", (double) millis / TimeUnit.HOURS.toMillis(1));
+    }
+
+    static Map<String, String> parseOptions(String[] args)
+    {
+        Map<String, String> options = new LinkedHashMap<>(DEFAULT_OPTIONS);
+
+        for (int i = 0; i < args.length; i++)
+        {
+            String arg = args[i];
+            if (!arg.startsWith("--") || "--help".equals(arg) || i + 1 >= args.length)
+            {
+                return null;
+            }
+
+            String option = arg.substring(2);
+            if (!options.containsKey(option))
+            {
+                System.err.println("Unknown option " + arg);
+                return null;
+            }
+            options.put(option, args[++i]);
+        }
+
+        return options;
+    }
+
+    private static void printUsage()
+    {
+        System.out.println("Usage: ClusterSimulator [--option value]...");
+        System.out.println();
+        System.out.println("Options (default value):");
+        for (Map.Entry<String, String> option : DEFAULT_OPTIONS.entrySet())
+        {
+            System.out.printf("  --%-30s %s%n", option.getKey(), option.getValue());
+        }
+        System.out.println();
+        System.out.println("  instances 0 runs ecChronos on all nodes, size-target-mb 0 repairs full vnodes.");
+    }
+
+    /**
+     * The outcome of a simulation, collected before the simulated instances are closed.
+     */
+    static final class Result
+    {
+        final RepairStatistics.Summary summary;
+        final long durationInMs;
+        final long lockAttempts;
+        final long contendedLockAttempts;
+        final int maxConcurrentLocks;
+        final long lockHeldTimeInMs;
+
+        Result(RepairStatistics.Summary summary, SimulatedLockFactory lockFactory, long durationInMs)
+        {
+            this.summary = summary;
+            this.durationInMs = durationInMs;
+            lockAttempts = lockFactory.getAttempts();
+            contendedLockAttempts = lockFactory.getContended();
+            maxConcurrentLocks = lockFactory.getMaxConcurrentLocks();
+            lockHeldTimeInMs = lockFactory.getHeldTimeInMs();
+        }
+
+        /**
+         * @return The average number of locks held at the same time during the simulation.
+         */
+        double getAverageLocksHeld()
+        {
+            return (double) lockHeldTimeInMs / durationInMs;
+        }
+    }
+}
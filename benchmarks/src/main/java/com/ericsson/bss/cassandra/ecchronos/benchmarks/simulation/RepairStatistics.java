@@ -0,0 +1,238 @@
+/*
+ * Copyright 2021 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecchronos.benchmarks.simulation;
+
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Snapshot;
+import com.codahale.metrics.UniformReservoir;
+import com.ericsson.bss.cassandra.ecchronos.core.utils.LongTokenRange;
+import com.ericsson.bss.cassandra.ecchronos.core.utils.TableReference;
+
+/**
+ * Collects the outcome of the simulated repairs per table and vnode.
+ * <p>
+ * A vnode is considered repaired when the sessions since its last repair cover the full vnode, using the start
+ * time of the oldest of those sessions. The delay of a vnode repair is the time between the vnode becoming due
+ * for repair and it being repaired again. A vnode repair is counted as an interval miss if it was not repaired
+ * within the repair warning time.
+ */
+public class RepairStatistics
+{
+    private final SimulatedCluster myCluster;
+    private final long myRepairIntervalInMs;
+    private final long myRepairWarningTimeInMs;
+    private final long myRepairErrorTimeInMs;
+
+    private final Map<TableReference, Map<LongTokenRange, VnodeProgress>> myProgress = new HashMap<>();
+    private final Histogram myVnodeDelays = new Histogram(new UniformReservoir());
+
+    private final AtomicLong mySessionsStarted = new AtomicLong();
+    private long mySessionsSucceeded;
+    private long mySessionsFailed;
+    private long myRepairedBytes;
+    private long myVnodeRepairs;
+    private long myRedundantVnodeRepairs;
+    private long myIntervalMisses;
+
+    public RepairStatistics(SimulatedCluster cluster, long repairIntervalInMs, long repairWarningTimeInMs,
+            long repairErrorTimeInMs)
+    {
+        myCluster = cluster;
+        myRepairIntervalInMs = repairIntervalInMs;
+        myRepairWarningTimeInMs = repairWarningTimeInMs;
+        myRepairErrorTimeInMs = repairErrorTimeInMs;
+    }
+
+    /**
+     * Track a vnode of a table.
+     *
+     * @param tableReference The table.
+     * @param vnode The vnode.
+     * @param repairedAt The time the vnode was last repaired before the simulation started.
+     */
+    public synchronized void track(TableReference tableReference, LongTokenRange vnode, long repairedAt)
+    {
+        myProgress.computeIfAbsent(tableReference, tb -> new HashMap<>()).put(vnode, new VnodeProgress(vnode, repairedAt));
+    }
+
+    public void sessionStarted()
+    {
+        mySessionsStarted.incrementAndGet();
+    }
+
+    public synchronized void sessionFinished(TableReference tableReference, LongTokenRange range, long startedAt,
+            boolean successful, long sizeInBytes)
+    {
+        if (!successful)
+        {
+            mySessionsFailed++;
+            return;
+        }
+
+        mySessionsSucceeded++;
+        myRepairedBytes += sizeInBytes;
+
+        Map<LongTokenRange, VnodeProgress> tableProgress = myProgress.get(tableReference);
+        VnodeProgress vnodeProgress = tableProgress == null ? null : tableProgress.get(myCluster.getVnode(range));
+        if (vnodeProgress == null)
+        {
+            return;
+        }
+
+        long previousRepairedAt = vnodeProgress.myRepairedAt;
+        if (vnodeProgress.add(range, startedAt))
+        {
+            long repairedAt = vnodeProgress.myRepairedAt;
+            myVnodeRepairs++;
+
+            if (repairedAt - previousRepairedAt < myRepairIntervalInMs)
+            {
+                myRedundantVnodeRepairs++;
+            }
+            else
+            {
+                myVnodeDelays.update(repairedAt - previousRepairedAt - myRepairIntervalInMs);
+            }
+
+            if (repairedAt - previousRepairedAt > myRepairWarningTimeInMs)
+            {
+                myIntervalMisses++;
+            }
+        }
+    }
+
+    /**
+     * Summarize the statistics.
+     *
+     * @param now The current time.
+     * @return The summary.
+     */
+    public synchronized Summary summarize(long now)
+    {
+        Summary summary = new Summary();
+        summary.sessionsStarted = mySessionsStarted.get();
+        summary.sessionsSucceeded = mySessionsSucceeded;
+        summary.sessionsFailed = mySessionsFailed;
+        summary.repairedBytes = myRepairedBytes;
+        summary.vnodeRepairs = myVnodeRepairs;
+        summary.redundantVnodeRepairs = myRedundantVnodeRepairs;
+        summary.intervalMisses = myIntervalMisses;
+        summary.vnodeDelays = myVnodeDelays.getSnapshot();
+
+        Histogram tableRepairAges = new Histogram(new UniformReservoir());
+
+        for (Map<LongTokenRange, VnodeProgress> tableProgress : myProgress.values())
+        {
+            long tableRepairedAt = Long.MAX_VALUE;
+
+            for (VnodeProgress vnodeProgress : tableProgress.values())
+            {
+                summary.vnodes++;
+                tableRepairedAt = Math.min(tableRepairedAt, vnodeProgress.myRepairedAt);
+
+                if (now - vnodeProgress.myRepairedAt > myRepairWarningTimeInMs)
+                {
+                    summary.overdueVnodes++;
+                }
+            }
+
+            summary.tables++;
+            long age = now - tableRepairedAt;
+            tableRepairAges.update(age);
+            if (age > myRepairErrorTimeInMs)
+            {
+                summary.tablesInError++;
+            }
+            else if (age > myRepairWarningTimeInMs)
+            {
+                summary.tablesInWarning++;
+            }
+        }
+
+        summary.tableRepairAges = tableRepairAges.getSnapshot();
+        return summary;
+    }
+
+    /**
+     * Summary of the repair statistics.
+     */
+    public static class Summary
+    {
+        public long sessionsStarted;
+        public long sessionsSucceeded;
+        public long sessionsFailed;
+        public long repairedBytes;
+        public long vnodeRepairs;
+        public long redundantVnodeRepairs;
+        public long intervalMisses;
+        public long vnodes;
+        public long overdueVnodes;
+        public long tables;
+        public long tablesInWarning;
+        public long tablesInError;
+        public Snapshot vnodeDelays;
+        public Snapshot tableRepairAges;
+    }
+
+    private static final class VnodeProgress
+    {
+        private final BigInteger myVnodeSize;
+        private final Set<LongTokenRange> myRepairedRanges = new HashSet<>();
+
+        private long myRepairedAt;
+        private BigInteger myRepairedSize = BigInteger.ZERO;
+        private long myCycleStartedAt = Long.MAX_VALUE;
+
+        VnodeProgress(LongTokenRange vnode, long repairedAt)
+        {
+            myVnodeSize = vnode.rangeSize();
+            myRepairedAt = repairedAt;
+        }
+
+        /**
+         * Add a repaired range of the vnode.
+         *
+         * @return True if the vnode is now fully repaired.
+         */
+        boolean add(LongTokenRange range, long startedAt)
+        {
+            if (!myRepairedRanges.add(range))
+            {
+                return false;
+            }
+
+            myRepairedSize = myRepairedSize.add(range.rangeSize());
+            myCycleStartedAt = Math.min(myCycleStartedAt, startedAt);
+
+            if (myRepairedSize.compareTo(myVnodeSize) >= 0)
+            {
+                myRepairedAt = myCycleStartedAt;
+                myRepairedRanges.clear();
+                myRepairedSize = BigInteger.ZERO;
+                myCycleStartedAt = Long.MAX_VALUE;
+                return true;
+            }
+
+            return false;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2021 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecchronos.benchmarks.simulation;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A clock that only moves when it is advanced by the simulation.
+ */
+public class SimulatedClock extends Clock
+{
+    private final AtomicLong myMillis;
+    private final ZoneId myZone;
+
+    public SimulatedClock(long startMillis)
+    {
+        this(new AtomicLong(startMillis), ZoneOffset.UTC);
+    }
+
+    private SimulatedClock(AtomicLong millis, ZoneId zone)
+    {
+        myMillis = millis;
+        myZone = zone;
+    }
+
+    /**
+     * Advance the clock to the provided time.
+     *
+     * @param millis The new time of the clock.
+     * @throws IllegalArgumentException Thrown if the time is before the current time of the clock.
+     */
+    public void advanceTo(long millis)
+    {
+        long current = myMillis.get();
+        if (millis < current)
+        {
+            throw new IllegalArgumentException("Unable to move clock backwards from " + current + " to " + millis);
+        }
+        myMillis.set(millis);
+    }
+
+    @Override
+    public long millis()
+    {
+        return myMillis.get();
+    }
+
+    @Override
+    public Instant instant()
+    {
+        return Instant.ofEpochMilli(millis());
+    }
+
+    @Override
+    public ZoneId getZone()
+    {
+        return myZone;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone)
+    {
+        return new SimulatedClock(myMillis, zone);
+    }
+}
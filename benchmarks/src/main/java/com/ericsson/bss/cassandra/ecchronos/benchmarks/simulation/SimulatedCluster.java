@@ -0,0 +1,236 @@
+/*
+ * Copyright 2021 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecchronos.benchmarks.simulation;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import com.ericsson.bss.cassandra.ecchronos.core.utils.LongTokenRange;
+import com.ericsson.bss.cassandra.ecchronos.core.utils.Node;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * In-memory token ring with random vnode tokens.
+ * <p>
+ * Replicas are placed like NetworkTopologyStrategy without racks, walking the ring clockwise and picking the
+ * first {@code replicationFactor} distinct nodes in each data center.
+ */
+public class SimulatedCluster
+{
+    private static final BigDecimal FULL_RANGE = new BigDecimal(LongTokenRange.FULL_RANGE);
+
+    private final List<Node> myNodes;
+    private final Map<InetAddress, Node> myNodesByAddress = new HashMap<>();
+    private final Map<LongTokenRange, ImmutableSet<Node>> myReplicas = new HashMap<>();
+    private final TreeMap<Long, LongTokenRange> myRangesByEnd = new TreeMap<>();
+    private final Map<Node, ImmutableMap<LongTokenRange, ImmutableSet<Node>>> myLocalRanges = new HashMap<>();
+
+    public SimulatedCluster(int nodeCount, int dataCenterCount, int vnodesPerNode, int replicationFactor, Random random)
+    {
+        List<Node> nodes = new ArrayList<>(nodeCount);
+        for (int i = 0; i < nodeCount; i++)
+        {
+            Node node = new SimulatedNode(i, "DC" + (i % dataCenterCount + 1));
+            nodes.add(node);
+            myNodesByAddress.put(node.getPublicAddress(), node);
+        }
+        myNodes = Collections.unmodifiableList(nodes);
+
+        TreeMap<Long, Node> ring = new TreeMap<>();
+        for (Node node : nodes)
+        {
+            int added = 0;
+            while (added < vnodesPerNode)
+            {
+                if (ring.putIfAbsent(random.nextLong(), node) == null)
+                {
+                    added++;
+                }
+            }
+        }
+
+        List<Long> tokens = new ArrayList<>(ring.keySet());
+        List<Node> owners = new ArrayList<>(ring.values());
+        Map<Set<Node>, ImmutableSet<Node>> replicaSets = new HashMap<>();
+        Map<Node, ImmutableMap.Builder<LongTokenRange, ImmutableSet<Node>>> localRanges = new HashMap<>();
+
+        for (int i = 0; i < tokens.size(); i++)
+        {
+            long start = tokens.get((i + tokens.size() - 1) % tokens.size());
+            LongTokenRange range = new LongTokenRange(start, tokens.get(i));
+
+            Set<Node> replicas = getReplicas(owners, i, replicationFactor, dataCenterCount);
+            ImmutableSet<Node> replicaSet = replicaSets.computeIfAbsent(replicas, ImmutableSet::copyOf);
+
+            myReplicas.put(range, replicaSet);
+            myRangesByEnd.put(range.end, range);
+
+            for (Node replica : replicaSet)
+            {
+                localRanges.computeIfAbsent(replica, n -> ImmutableMap.builder()).put(range, replicaSet);
+            }
+        }
+
+        for (Map.Entry<Node, ImmutableMap.Builder<LongTokenRange, ImmutableSet<Node>>> entry : localRanges.entrySet())
+        {
+            myLocalRanges.put(entry.getKey(), entry.getValue().build());
+        }
+    }
+
+    private static Set<Node> getReplicas(List<Node> owners, int index, int replicationFactor, int dataCenterCount)
+    {
+        Set<Node> replicas = new LinkedHashSet<>();
+        Map<String, Integer> replicasPerDataCenter = new HashMap<>();
+        Set<String> fullDataCenters = new HashSet<>();
+
+        for (int i = 0; i < owners.size() && fullDataCenters.size() < dataCenterCount; i++)
+        {
+            Node node = owners.get((index + i) % owners.size());
+            String dataCenter = node.getDatacenter();
+
+            if (!fullDataCenters.contains(dataCenter) && replicas.add(node))
+            {
+                int count = replicasPerDataCenter.merge(dataCenter, 1, Integer::sum);
+                if (count >= replicationFactor)
+                {
+                    fullDataCenters.add(dataCenter);
+                }
+            }
+        }
+
+        return replicas;
+    }
+
+    public List<Node> getNodes()
+    {
+        return myNodes;
+    }
+
+    public Node getNode(InetAddress address)
+    {
+        return myNodesByAddress.get(address);
+    }
+
+    /**
+     * @return All vnodes in the ring together with their replicas.
+     */
+    public Map<LongTokenRange, ImmutableSet<Node>> getReplicas()
+    {
+        return Collections.unmodifiableMap(myReplicas);
+    }
+
+    /**
+     * Get the vnodes replicated by the provided node.
+     *
+     * @param node The node.
+     * @return The vnodes and replicas of the vnodes.
+     */
+    public ImmutableMap<LongTokenRange, ImmutableSet<Node>> getLocalRanges(Node node)
+    {
+        return myLocalRanges.getOrDefault(node, ImmutableMap.of());
+    }
+
+    /**
+     * Get the vnode containing the provided range.
+     *
+     * @param range The vnode or a sub range of it.
+     * @return The vnode.
+     */
+    public LongTokenRange getVnode(LongTokenRange range)
+    {
+        if (myReplicas.containsKey(range))
+        {
+            return range;
+        }
+
+        Map.Entry<Long, LongTokenRange> entry = myRangesByEnd.ceilingEntry(range.end);
+        if (entry == null)
+        {
+            entry = myRangesByEnd.firstEntry();
+        }
+        return entry.getValue();
+    }
+
+    /**
+     * Get the fraction of the full token range covered by a range.
+     *
+     * @param range The range.
+     * @return The fraction between 0 and 1.
+     */
+    public static double ownership(LongTokenRange range)
+    {
+        return new BigDecimal(range.rangeSize()).divide(FULL_RANGE, MathContext.DECIMAL64).doubleValue();
+    }
+
+    private static final class SimulatedNode implements Node
+    {
+        private final UUID myId;
+        private final InetAddress myAddress;
+        private final String myDataCenter;
+
+        SimulatedNode(int index, String dataCenter)
+        {
+            myId = new UUID(0, index);
+            myDataCenter = dataCenter;
+            try
+            {
+                myAddress = InetAddress.getByAddress(new byte[] { 10, (byte) (index >> 16), (byte) (index >> 8), (byte) index });
+            }
+            catch (UnknownHostException e)
+            {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public UUID getId()
+        {
+            return myId;
+        }
+
+        @Override
+        public InetAddress getPublicAddress()
+        {
+            return myAddress;
+        }
+
+        @Override
+        public String getDatacenter()
+        {
+            return myDataCenter;
+        }
+
+        @Override
+        public String toString()
+        {
+            return myAddress.getHostAddress() + "(" + myDataCenter + ")";
+        }
+    }
+}
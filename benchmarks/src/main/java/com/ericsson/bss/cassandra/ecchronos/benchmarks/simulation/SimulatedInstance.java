@@ -0,0 +1,222 @@
+/*
+ * Copyright 2021 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecchronos.benchmarks.simulation;
+
+import java.io.Closeable;
+import java.net.InetAddress;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import com.datastax.driver.core.Host;
+import com.ericsson.bss.cassandra.ecchronos.core.HostStates;
+import com.ericsson.bss.cassandra.ecchronos.core.metrics.RepairPhase;
+import com.ericsson.bss.cassandra.ecchronos.core.metrics.TableRepairMetrics;
+import com.ericsson.bss.cassandra.ecchronos.core.repair.RepairConfiguration;
+import com.ericsson.bss.cassandra.ecchronos.core.repair.RepairLockType;
+import com.ericsson.bss.cassandra.ecchronos.core.repair.RepairSchedulerImpl;
+import com.ericsson.bss.cassandra.ecchronos.core.repair.state.RepairHistory;
+import com.ericsson.bss.cassandra.ecchronos.core.repair.state.RepairStateFactoryImpl;
+import com.ericsson.bss.cassandra.ecchronos.core.scheduling.ScheduleManagerImpl;
+import com.ericsson.bss.cassandra.ecchronos.core.utils.Node;
+import com.ericsson.bss.cassandra.ecchronos.core.utils.TableReference;
+import com.ericsson.bss.cassandra.ecchronos.fm.RepairFaultReporter;
+
+/**
+ * One ecChronos instance in the simulation, using the real scheduling and repair state implementations.
+ * <p>
+ * The schedule manager is run by the event loop with the configured scheduler frequency instead of by its own
+ * executor.
+ */
+public class SimulatedInstance implements Closeable
+{
+    private static final long NEVER_IN_DAYS = 365L * 100;
+
+    private final Node myNode;
+    private final SimulationEventLoop myEventLoop;
+    private final long mySchedulerFrequencyInMs;
+    private final ScheduleManagerImpl myScheduleManager;
+    private final RepairSchedulerImpl myRepairScheduler;
+    private final ExecutorService myExecutor = Executors.newSingleThreadExecutor();
+
+    public SimulatedInstance(Node node, SimulationEventLoop eventLoop, SimulatedLockFactory lockFactory,
+            SimulatedJmxProxyFactory jmxProxyFactory, SimulatedReplicationState replicationState,
+            SimulatedRepairHistory repairHistory, SimulatedStorage storage, RepairLockType repairLockType,
+            long schedulerFrequencyInMs)
+    {
+        myNode = node;
+        myEventLoop = eventLoop;
+        mySchedulerFrequencyInMs = schedulerFrequencyInMs;
+
+        myScheduleManager = ScheduleManagerImpl.builder()
+                .withLockFactory(lockFactory)
+                .withRunInterval(NEVER_IN_DAYS, TimeUnit.DAYS)
+                .build();
+
+        RepairStateFactoryImpl repairStateFactory = RepairStateFactoryImpl.builder()
+                .withReplicationState(replicationState)
+                .withHostStates(AllUpHostStates.INSTANCE)
+                .withRepairHistoryProvider(repairHistory)
+                .withTableRepairMetrics(NoOpTableRepairMetrics.INSTANCE)
+                .withClock(eventLoop.getClock())
+                .build();
+
+        myRepairScheduler = RepairSchedulerImpl.builder()
+                .withFaultReporter(NoOpFaultReporter.INSTANCE)
+                .withJmxProxyFactory(jmxProxyFactory)
+                .withTableRepairMetrics(NoOpTableRepairMetrics.INSTANCE)
+                .withScheduleManager(myScheduleManager)
+                .withRepairStateFactory(repairStateFactory)
+                .withRepairLockType(repairLockType)
+                .withTableStorageStates(storage)
+                .withSizeEstimates(storage)
+                .withRepairHistory(RepairHistory.NO_OP)
+                .withClock(eventLoop.getClock())
+                .build();
+    }
+
+    public Node getNode()
+    {
+        return myNode;
+    }
+
+    /**
+     * Schedule repairs of the provided tables and wait until all jobs are created.
+     *
+     * @param tableReferences The tables to repair.
+     * @param repairConfiguration The repair configuration for the tables.
+     * @throws InterruptedException Thrown if interrupted while waiting for the jobs to be created.
+     */
+    public void scheduleTables(Collection<TableReference> tableReferences, RepairConfiguration repairConfiguration)
+            throws InterruptedException
+    {
+        for (TableReference tableReference : tableReferences)
+        {
+            myRepairScheduler.putConfiguration(tableReference, repairConfiguration);
+        }
+
+        while (myScheduleManager.getQueueSize() < tableReferences.size())
+        {
+            Thread.sleep(10);
+        }
+    }
+
+    /**
+     * Start running the scheduler at the configured frequency.
+     *
+     * @param firstRunAt The simulated time of the first run.
+     */
+    public void start(long firstRunAt)
+    {
+        myEventLoop.schedule(firstRunAt, this::tick);
+    }
+
+    private void tick()
+    {
+        myEventLoop.activate();
+        myExecutor.execute(() ->
+        {
+            try
+            {
+                myScheduleManager.run();
+            }
+            finally
+            {
+                myEventLoop.schedule(myEventLoop.getClock().millis() + mySchedulerFrequencyInMs, this::tick);
+                myEventLoop.deactivate();
+            }
+        });
+    }
+
+    @Override
+    public void close()
+    {
+        myExecutor.shutdownNow();
+        myRepairScheduler.close();
+        myScheduleManager.close();
+    }
+
+    private static final class AllUpHostStates implements HostStates
+    {
+        private static final AllUpHostStates INSTANCE = new AllUpHostStates();
+
+        @Override
+        public boolean isUp(InetAddress address)
+        {
+            return true;
+        }
+
+        @Override
+        public boolean isUp(Host host)
+        {
+            return true;
+        }
+
+        @Override
+        public boolean isUp(Node node)
+        {
+            return true;
+        }
+    }
+
+    private static final class NoOpTableRepairMetrics implements TableRepairMetrics
+    {
+        private static final NoOpTableRepairMetrics INSTANCE = new NoOpTableRepairMetrics();
+
+        @Override
+        public void repairState(TableReference tableReference, int repairedRanges, int notRepairedRanges)
+        {
+            // Statistics are collected from the repair sessions
+        }
+
+        @Override
+        public void lastRepairedAt(TableReference tableReference, long lastRepairedAt)
+        {
+            // Statistics are collected from the repair sessions
+        }
+
+        @Override
+        public void repairTiming(TableReference tableReference, long timeTaken, TimeUnit timeUnit, boolean successful)
+        {
+            // Statistics are collected from the repair sessions
+        }
+
+        @Override
+        public void repairPhaseTiming(TableReference tableReference, RepairPhase repairPhase, long timeTaken,
+                TimeUnit timeUnit)
+        {
+            // Statistics are collected from the repair sessions
+        }
+    }
+
+    private static final class NoOpFaultReporter implements RepairFaultReporter
+    {
+        private static final NoOpFaultReporter INSTANCE = new NoOpFaultReporter();
+
+        @Override
+        public void raise(FaultCode faultCode, Map<String, Object> data)
+        {
+            // Alarms are summarized from the repair statistics
+        }
+
+        @Override
+        public void cease(FaultCode faultCode, Map<String, Object> data)
+        {
+            // Alarms are summarized from the repair statistics
+        }
+    }
+}
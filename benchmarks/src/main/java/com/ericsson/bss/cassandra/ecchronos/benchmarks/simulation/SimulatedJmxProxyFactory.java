@@ -0,0 +1,316 @@
+/*
+ * Copyright 2021 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecchronos.benchmarks.simulation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.management.Notification;
+import javax.management.NotificationListener;
+
+import com.ericsson.bss.cassandra.ecchronos.core.JmxProxy;
+import com.ericsson.bss.cassandra.ecchronos.core.JmxProxyFactory;
+import com.ericsson.bss.cassandra.ecchronos.core.MockTableReferenceFactory;
+import com.ericsson.bss.cassandra.ecchronos.core.repair.RepairOptions;
+import com.ericsson.bss.cassandra.ecchronos.core.repair.RepairTask;
+import com.ericsson.bss.cassandra.ecchronos.core.repair.state.RepairStatus;
+import com.ericsson.bss.cassandra.ecchronos.core.utils.LongTokenRange;
+import com.ericsson.bss.cassandra.ecchronos.core.utils.Node;
+import com.ericsson.bss.cassandra.ecchronos.core.utils.TableReference;
+import com.google.common.net.InetAddresses;
+
+/**
+ * Fake JMX connection to the local node of a simulated instance.
+ * <p>
+ * Each range of a repair command is repaired in a separate session, one after another. A session takes a fixed
+ * overhead plus the time to stream the data of the range and fails with the configured probability.
+ * The outcome of each session is recorded in the shared repair history and reported with the same
+ * notifications as Cassandra sends.
+ */
+public class SimulatedJmxProxyFactory implements JmxProxyFactory
+{
+    private static final AtomicInteger COMMAND_COUNTER = new AtomicInteger();
+
+    private final List<NotificationListener> myListeners = new CopyOnWriteArrayList<>();
+
+    private final SimulationEventLoop myEventLoop;
+    private final SimulatedCluster myCluster;
+    private final SimulatedStorage myStorage;
+    private final SimulatedRepairHistory myRepairHistory;
+    private final RepairStatistics myStatistics;
+    private final Random myRandom;
+    private final long mySessionOverheadInMs;
+    private final double myBytesPerMs;
+    private final double myFailureRate;
+
+    SimulatedJmxProxyFactory(Builder builder)
+    {
+        myEventLoop = builder.myEventLoop;
+        myCluster = builder.myCluster;
+        myStorage = builder.myStorage;
+        myRepairHistory = builder.myRepairHistory;
+        myStatistics = builder.myStatistics;
+        myRandom = builder.myRandom;
+        mySessionOverheadInMs = builder.mySessionOverheadInMs;
+        myBytesPerMs = builder.myBytesPerSecond / 1000.0d;
+        myFailureRate = builder.myFailureRate;
+    }
+
+    @Override
+    public JmxProxy connect()
+    {
+        return new SimulatedJmxProxy();
+    }
+
+    private int repair(String keyspace, Map<String, String> options)
+    {
+        int command = COMMAND_COUNTER.incrementAndGet();
+        String tag = "repair:" + command;
+        List<NotificationListener> listeners = new ArrayList<>(myListeners);
+
+        TableReference tableReference = MockTableReferenceFactory.tableReference(keyspace,
+                options.get(RepairOptions.COLUMNFAMILIES_KEY));
+        List<LongTokenRange> ranges = parseRanges(options.get(RepairOptions.RANGES_KEY));
+        Set<Node> participants = parseHosts(options.get(RepairOptions.HOSTS_KEY));
+
+        long now = myEventLoop.getClock().millis();
+        long sessionEnd = now;
+
+        for (int i = 0; i < ranges.size(); i++)
+        {
+            LongTokenRange range = ranges.get(i);
+            long sizeInBytes = myStorage.getDataSize(range);
+            boolean successful = myRandom.nextDouble() >= myFailureRate;
+            long sessionStart = sessionEnd;
+            sessionEnd += mySessionOverheadInMs + (long) (sizeInBytes / myBytesPerMs);
+            int progressCount = i + 1;
+
+            myStatistics.sessionStarted();
+            myEventLoop.schedule(sessionEnd, () ->
+            {
+                RepairStatus repairStatus = successful ? RepairStatus.SUCCESS : RepairStatus.FAILED;
+                myRepairHistory.record(tableReference, range, participants, sessionStart, repairStatus);
+                myStatistics.sessionFinished(tableReference, range, sessionStart, successful, sizeInBytes);
+
+                String message = String.format("Repair session %s for range [(%d,%d]] %s", UUID.randomUUID(),
+                        range.start, range.end, successful ? "finished" : "failed");
+                RepairTask.ProgressEventType type = successful
+                        ? RepairTask.ProgressEventType.PROGRESS
+                        : RepairTask.ProgressEventType.ERROR;
+                notify(listeners, tag, type, progressCount, ranges.size(), message);
+            });
+        }
+
+        myEventLoop.schedule(sessionEnd, () ->
+        {
+            myEventLoop.activate();
+            notify(listeners, tag, RepairTask.ProgressEventType.COMPLETE, ranges.size(), ranges.size(),
+                    "Repair command #" + command + " finished");
+        });
+
+        myEventLoop.park();
+        return command;
+    }
+
+    private static void notify(List<NotificationListener> listeners, String tag, RepairTask.ProgressEventType type,
+            int progressCount, int total, String message)
+    {
+        Map<String, Integer> progress = new HashMap<>();
+        progress.put("type", type.ordinal());
+        progress.put("progressCount", progressCount);
+        progress.put("total", total);
+
+        Notification notification = new Notification("progress", tag, 0, message);
+        notification.setUserData(progress);
+
+        for (NotificationListener listener : listeners)
+        {
+            listener.handleNotification(notification, null);
+        }
+    }
+
+    private static List<LongTokenRange> parseRanges(String ranges)
+    {
+        List<LongTokenRange> result = new ArrayList<>();
+        for (String range : ranges.split(","))
+        {
+            if (!range.isEmpty())
+            {
+                String[] tokens = range.split(":");
+                result.add(new LongTokenRange(Long.parseLong(tokens[0]), Long.parseLong(tokens[1])));
+            }
+        }
+        return result;
+    }
+
+    private Set<Node> parseHosts(String hosts)
+    {
+        Set<Node> result = new LinkedHashSet<>();
+        for (String host : hosts.split(","))
+        {
+            result.add(myCluster.getNode(InetAddresses.forString(host)));
+        }
+        return result;
+    }
+
+    public static Builder builder()
+    {
+        return new Builder();
+    }
+
+    public static class Builder
+    {
+        private SimulationEventLoop myEventLoop;
+        private SimulatedCluster myCluster;
+        private SimulatedStorage myStorage;
+        private SimulatedRepairHistory myRepairHistory;
+        private RepairStatistics myStatistics;
+        private Random myRandom;
+        private long mySessionOverheadInMs;
+        private long myBytesPerSecond;
+        private double myFailureRate;
+
+        public Builder withEventLoop(SimulationEventLoop eventLoop)
+        {
+            myEventLoop = eventLoop;
+            return this;
+        }
+
+        public Builder withCluster(SimulatedCluster cluster)
+        {
+            myCluster = cluster;
+            return this;
+        }
+
+        public Builder withStorage(SimulatedStorage storage)
+        {
+            myStorage = storage;
+            return this;
+        }
+
+        public Builder withRepairHistory(SimulatedRepairHistory repairHistory)
+        {
+            myRepairHistory = repairHistory;
+            return this;
+        }
+
+        public Builder withStatistics(RepairStatistics statistics)
+        {
+            myStatistics = statistics;
+            return this;
+        }
+
+        public Builder withRandom(Random random)
+        {
+            myRandom = random;
+            return this;
+        }
+
+        public Builder withSessionOverhead(long sessionOverheadInMs)
+        {
+            mySessionOverheadInMs = sessionOverheadInMs;
+            return this;
+        }
+
+        public Builder withThroughput(long bytesPerSecond)
+        {
+            myBytesPerSecond = bytesPerSecond;
+            return this;
+        }
+
+        public Builder withFailureRate(double failureRate)
+        {
+            myFailureRate = failureRate;
+            return this;
+        }
+
+        public SimulatedJmxProxyFactory build()
+        {
+            return new SimulatedJmxProxyFactory(this);
+        }
+    }
+
+    private class SimulatedJmxProxy implements JmxProxy
+    {
+        @Override
+        public void addStorageServiceListener(NotificationListener listener)
+        {
+            myListeners.add(listener);
+        }
+
+        @Override
+        public List<String> getLiveNodes()
+        {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public List<String> getUnreachableNodes()
+        {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public int repairAsync(String keyspace, Map<String, String> options)
+        {
+            return repair(keyspace, options);
+        }
+
+        @Override
+        public void forceTerminateAllRepairSessions()
+        {
+            // Failed sessions are already terminated
+        }
+
+        @Override
+        public void removeStorageServiceListener(NotificationListener listener)
+        {
+            myListeners.remove(listener);
+        }
+
+        @Override
+        public long liveDiskSpaceUsed(TableReference tableReference)
+        {
+            return myStorage.getDataSize(tableReference);
+        }
+
+        @Override
+        public double getPercentRepaired(TableReference tableReference)
+        {
+            return -1;
+        }
+
+        @Override
+        public long getValidationBacklog()
+        {
+            return 0;
+        }
+
+        @Override
+        public void close()
+        {
+            // Nothing to close
+        }
+    }
+}
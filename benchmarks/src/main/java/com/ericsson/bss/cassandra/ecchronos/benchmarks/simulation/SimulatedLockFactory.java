@@ -0,0 +1,115 @@
+/*
+ * Copyright 2021 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecchronos.benchmarks.simulation;
+
+import java.time.Clock;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.ericsson.bss.cassandra.ecchronos.core.exceptions.LockException;
+import com.ericsson.bss.cassandra.ecchronos.core.scheduling.LockFactory;
+
+/**
+ * In-memory lock store shared by all simulated instances.
+ * <p>
+ * A lock is granted if the resource is free, lock priorities are not simulated.
+ * The time locks are held is measured with the simulated clock.
+ */
+public class SimulatedLockFactory implements LockFactory
+{
+    private final Map<String, Map<String, String>> myLocks = new ConcurrentHashMap<>();
+    private final Map<String, Long> myLockedAt = new ConcurrentHashMap<>();
+    private final Clock myClock;
+
+    private final AtomicLong myAttempts = new AtomicLong();
+    private final AtomicLong myContended = new AtomicLong();
+    private final AtomicLong myHeldTimeInMs = new AtomicLong();
+    private volatile int myMaxConcurrentLocks;
+
+    public SimulatedLockFactory(Clock clock)
+    {
+        myClock = clock;
+    }
+
+    @Override
+    public DistributedLock tryLock(String dataCenter, String resource, int priority, Map<String, String> metadata)
+            throws LockException
+    {
+        String key = dataCenter + ":" + resource;
+        myAttempts.incrementAndGet();
+
+        if (myLocks.putIfAbsent(key, metadata) != null)
+        {
+            myContended.incrementAndGet();
+            throw new LockException("Lock for " + key + " is already taken");
+        }
+
+        myMaxConcurrentLocks = Math.max(myMaxConcurrentLocks, myLocks.size());
+        myLockedAt.put(key, myClock.millis());
+
+        return () ->
+        {
+            Long lockedAt = myLockedAt.remove(key);
+            if (lockedAt != null)
+            {
+                myHeldTimeInMs.addAndGet(myClock.millis() - lockedAt);
+            }
+            myLocks.remove(key);
+        };
+    }
+
+    @Override
+    public Map<String, String> getLockMetadata(String dataCenter, String resource)
+    {
+        return myLocks.getOrDefault(dataCenter + ":" + resource, Collections.emptyMap());
+    }
+
+    @Override
+    public boolean sufficientNodesForLocking(String dataCenter, String resource)
+    {
+        return true;
+    }
+
+    public long getAttempts()
+    {
+        return myAttempts.get();
+    }
+
+    public long getContended()
+    {
+        return myContended.get();
+    }
+
+    /**
+     * @return The total time all locks have been held, including the locks that are still held.
+     */
+    public long getHeldTimeInMs()
+    {
+        long now = myClock.millis();
+        long heldTimeInMs = myHeldTimeInMs.get();
+        for (long lockedAt : myLockedAt.values())
+        {
+            heldTimeInMs += now - lockedAt;
+        }
+        return heldTimeInMs;
+    }
+
+    public int getMaxConcurrentLocks()
+    {
+        return myMaxConcurrentLocks;
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2021 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecchronos.benchmarks.simulation;
+
+import java.time.Clock;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.ericsson.bss.cassandra.ecchronos.core.repair.state.RepairEntry;
+import com.ericsson.bss.cassandra.ecchronos.core.repair.state.RepairHistoryProvider;
+import com.ericsson.bss.cassandra.ecchronos.core.repair.state.RepairStatus;
+import com.ericsson.bss.cassandra.ecchronos.core.utils.LongTokenRange;
+import com.ericsson.bss.cassandra.ecchronos.core.utils.Node;
+import com.ericsson.bss.cassandra.ecchronos.core.utils.TableReference;
+import com.google.common.base.Predicate;
+
+/**
+ * Cluster wide repair history shared by all simulated instances, similar to {@code system_distributed.repair_history}.
+ * <p>
+ * Entries older than the lookback time are dropped when new entries are recorded to bound the memory usage.
+ */
+public class SimulatedRepairHistory implements RepairHistoryProvider
+{
+    private final Map<TableReference, Deque<RepairEntry>> myEntries = new ConcurrentHashMap<>();
+    private final Clock myClock;
+    private final long myLookbackTimeInMs;
+
+    public SimulatedRepairHistory(Clock clock, long lookbackTimeInMs)
+    {
+        myClock = clock;
+        myLookbackTimeInMs = lookbackTimeInMs;
+    }
+
+    /**
+     * Record a repair session.
+     * <p>
+     * Sessions must be recorded in the order they started.
+     *
+     * @param tableReference The table that was repaired.
+     * @param range The repaired range.
+     * @param participants The nodes participating in the repair.
+     * @param startedAt The time the session started.
+     * @param repairStatus The outcome of the session.
+     */
+    public void record(TableReference tableReference, LongTokenRange range, Set<Node> participants, long startedAt,
+            RepairStatus repairStatus)
+    {
+        Deque<RepairEntry> entries = myEntries.computeIfAbsent(tableReference, tb -> new ArrayDeque<>());
+        long oldest = myClock.millis() - myLookbackTimeInMs;
+
+        synchronized (entries)
+        {
+            while (!entries.isEmpty() && entries.peekFirst().getStartedAt() < oldest)
+            {
+                entries.pollFirst();
+            }
+            entries.addLast(new RepairEntry(range, startedAt, participants, repairStatus.name()));
+        }
+    }
+
+    @Override
+    public Iterator<RepairEntry> iterate(TableReference tableReference, long to, Predicate<RepairEntry> predicate)
+    {
+        return iterate(tableReference, to, myClock.millis() - myLookbackTimeInMs, predicate);
+    }
+
+    @Override
+    public Iterator<RepairEntry> iterate(TableReference tableReference, long to, long from,
+            Predicate<RepairEntry> predicate)
+    {
+        List<RepairEntry> result = new ArrayList<>();
+        Deque<RepairEntry> entries = myEntries.get(tableReference);
+
+        if (entries != null)
+        {
+            synchronized (entries)
+            {
+                Iterator<RepairEntry> iterator = entries.descendingIterator();
+                while (iterator.hasNext())
+                {
+                    RepairEntry repairEntry = iterator.next();
+                    if (repairEntry.getStartedAt() < from)
+                    {
+                        break;
+                    }
+                    if (repairEntry.getStartedAt() <= to && predicate.apply(repairEntry))
+                    {
+                        result.add(repairEntry);
+                    }
+                }
+            }
+        }
+
+        return result.iterator();
+    }
+}
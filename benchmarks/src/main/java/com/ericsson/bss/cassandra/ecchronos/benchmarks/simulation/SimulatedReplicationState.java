@@ -0,0 +1,62 @@
+/*
+ * Copyright 2021 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecchronos.benchmarks.simulation;
+
+import java.util.Map;
+
+import com.ericsson.bss.cassandra.ecchronos.core.repair.state.ReplicationState;
+import com.ericsson.bss.cassandra.ecchronos.core.utils.LongTokenRange;
+import com.ericsson.bss.cassandra.ecchronos.core.utils.Node;
+import com.ericsson.bss.cassandra.ecchronos.core.utils.TableReference;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * Replication state of one node in the simulated cluster, all tables share the same replication.
+ */
+public class SimulatedReplicationState implements ReplicationState
+{
+    private final ImmutableMap<LongTokenRange, ImmutableSet<Node>> myTokenRangeToReplicas;
+
+    public SimulatedReplicationState(ImmutableMap<LongTokenRange, ImmutableSet<Node>> tokenRangeToReplicas)
+    {
+        myTokenRangeToReplicas = tokenRangeToReplicas;
+    }
+
+    @Override
+    public ImmutableSet<Node> getNodes(TableReference tableReference, LongTokenRange tokenRange)
+    {
+        ImmutableSet<Node> nodes = myTokenRangeToReplicas.get(tokenRange);
+
+        if (nodes == null)
+        {
+            for (Map.Entry<LongTokenRange, ImmutableSet<Node>> entry : myTokenRangeToReplicas.entrySet())
+            {
+                if (entry.getKey().isCovering(tokenRange))
+                {
+                    return entry.getValue();
+                }
+            }
+        }
+
+        return nodes;
+    }
+
+    @Override
+    public Map<LongTokenRange, ImmutableSet<Node>> getTokenRangeToReplicas(TableReference tableReference)
+    {
+        return myTokenRangeToReplicas;
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2021 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecchronos.benchmarks.simulation;
+
+import com.ericsson.bss.cassandra.ecchronos.core.SizeEstimates;
+import com.ericsson.bss.cassandra.ecchronos.core.TableStorageStates;
+import com.ericsson.bss.cassandra.ecchronos.core.utils.LongTokenRange;
+import com.ericsson.bss.cassandra.ecchronos.core.utils.TableReference;
+
+/**
+ * Data sizes of the simulated tables.
+ * <p>
+ * All tables have the same size on each node and the data is evenly distributed over the token ring.
+ */
+public class SimulatedStorage implements TableStorageStates, SizeEstimates
+{
+    private final long myTableSizeInBytes;
+    private final int myTableCount;
+    private final double myDataPerOwnership;
+
+    /**
+     * @param tableSizeInBytes The size of each table on each node.
+     * @param tableCount The number of tables.
+     * @param nodeCount The number of nodes in the cluster.
+     * @param replicasPerRange The number of replicas of each token range in the cluster.
+     */
+    public SimulatedStorage(long tableSizeInBytes, int tableCount, int nodeCount, int replicasPerRange)
+    {
+        myTableSizeInBytes = tableSizeInBytes;
+        myTableCount = tableCount;
+        myDataPerOwnership = (double) tableSizeInBytes * nodeCount / replicasPerRange;
+    }
+
+    @Override
+    public long getDataSize(TableReference tableReference)
+    {
+        return myTableSizeInBytes;
+    }
+
+    @Override
+    public long getDataSize()
+    {
+        return myTableSizeInBytes * myTableCount;
+    }
+
+    @Override
+    public long getDataSize(TableReference tableReference, LongTokenRange tokenRange)
+    {
+        return getDataSize(tokenRange);
+    }
+
+    /**
+     * Get the size of a token range on one replica.
+     *
+     * @param tokenRange The token range.
+     * @return The size in bytes.
+     */
+    public long getDataSize(LongTokenRange tokenRange)
+    {
+        return (long) (SimulatedCluster.ownership(tokenRange) * myDataPerOwnership);
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2021 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecchronos.benchmarks.simulation;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Discrete event loop driving the simulated clock.
+ * <p>
+ * The ecChronos instances run their schedulers in their own threads since the scheduling code blocks while a
+ * repair session is running. The event loop only advances the clock when no instance thread is active, which
+ * makes the instances take turns and keeps the simulation deterministic for a given seed.
+ * <p>
+ * A thread is active from {@link #activate()} until it calls either {@link #deactivate()} when it is done or
+ * {@link #park()} right before it blocks waiting for an event to wake it up again.
+ */
+public class SimulationEventLoop
+{
+    private final SimulatedClock myClock;
+    private final PriorityQueue<Event> myEvents = new PriorityQueue<>();
+    private final Set<Thread> myParkingThreads = new HashSet<>();
+
+    private long mySequence;
+    private int myActiveThreads;
+
+    public SimulationEventLoop(SimulatedClock clock)
+    {
+        myClock = clock;
+    }
+
+    public SimulatedClock getClock()
+    {
+        return myClock;
+    }
+
+    /**
+     * Schedule an action to run at the provided simulated time.
+     * <p>
+     * Actions scheduled for the same time run in the order they were scheduled.
+     *
+     * @param atMillis The simulated time to run the action at.
+     * @param action The action to run.
+     */
+    public synchronized void schedule(long atMillis, Runnable action)
+    {
+        myEvents.add(new Event(Math.max(atMillis, myClock.millis()), mySequence++, action));
+    }
+
+    /**
+     * Mark a thread as active, must be called before the thread is started or woken up.
+     */
+    public synchronized void activate()
+    {
+        myActiveThreads++;
+    }
+
+    /**
+     * Mark the calling thread as done.
+     */
+    public synchronized void deactivate()
+    {
+        myActiveThreads--;
+        notifyAll();
+    }
+
+    /**
+     * Mark the calling thread as about to block until an already scheduled event wakes it up.
+     */
+    public synchronized void park()
+    {
+        myParkingThreads.add(Thread.currentThread());
+        myActiveThreads--;
+        notifyAll();
+    }
+
+    /**
+     * Run all events scheduled up until the provided time and then advance the clock to that time.
+     *
+     * @param endMillis The simulated time to run until.
+     * @throws InterruptedException Thrown if interrupted while waiting for instance threads.
+     */
+    public void runUntil(long endMillis) throws InterruptedException
+    {
+        while (true)
+        {
+            awaitQuiescence();
+
+            Event event;
+            synchronized (this)
+            {
+                event = myEvents.peek();
+                if (event == null || event.myAtMillis > endMillis)
+                {
+                    break;
+                }
+                myEvents.poll();
+            }
+
+            myClock.advanceTo(event.myAtMillis);
+            event.myAction.run();
+        }
+
+        myClock.advanceTo(endMillis);
+    }
+
+    private void awaitQuiescence() throws InterruptedException
+    {
+        List<Thread> parkingThreads;
+
+        synchronized (this)
+        {
+            while (myActiveThreads > 0)
+            {
+                wait();
+            }
+
+            parkingThreads = new ArrayList<>(myParkingThreads);
+            myParkingThreads.clear();
+        }
+
+        for (Thread thread : parkingThreads)
+        {
+            while (thread.getState() != Thread.State.WAITING && thread.getState() != Thread.State.TERMINATED)
+            {
+                Thread.yield();
+            }
+        }
+    }
+
+    private static final class Event implements Comparable<Event>
+    {
+        private final long myAtMillis;
+        private final long mySequence;
+        private final Runnable myAction;
+
+        Event(long atMillis, long sequence, Runnable action)
+        {
+            myAtMillis = atMillis;
+            mySequence = sequence;
+            myAction = action;
+        }
+
+        @Override
+        public int compareTo(Event other)
+        {
+            int cmp = Long.compare(myAtMillis, other.myAtMillis);
+            return cmp != 0 ? cmp : Long.compare(mySequence, other.mySequence);
+        }
+    }
+}
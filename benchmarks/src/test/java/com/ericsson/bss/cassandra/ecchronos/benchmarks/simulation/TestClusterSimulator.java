@@ -0,0 +1,41 @@
+/*
+ * Copyright 2021 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecchronos.benchmarks.simulation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Map;
+
+import org.junit.Test;
+
+public class TestClusterSimulator
+{
+    @Test
+    public void testLocksHeldDuringRepairs() throws InterruptedException
+    {
+        Map<String, String> options = ClusterSimulator.parseOptions(new String[] {
+                "--nodes", "3",
+                "--vnodes", "4",
+                "--tables", "3",
+                "--days", "8"
+        });
+
+        ClusterSimulator.Result result = ClusterSimulator.run(options);
+
+        assertThat(result.summary.sessionsSucceeded).isPositive();
+        assertThat(result.lockHeldTimeInMs).isPositive();
+        assertThat(result.getAverageLocksHeld()).isPositive();
+    }
+}
@@ -15,19 +15,25 @@
 package com.ericsson.bss.cassandra.ecchronos.core.osgi;
 
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import org.osgi.service.component.annotations.*;
 import org.osgi.service.metatype.annotations.AttributeDefinition;
 import org.osgi.service.metatype.annotations.Designate;
 import org.osgi.service.metatype.annotations.ObjectClassDefinition;
 
+import com.ericsson.bss.cassandra.ecchronos.connection.NativeConnectionProvider;
+import com.ericsson.bss.cassandra.ecchronos.connection.StatementDecorator;
 import com.ericsson.bss.cassandra.ecchronos.core.JmxProxyFactory;
+import com.ericsson.bss.cassandra.ecchronos.core.SizeEstimates;
 import com.ericsson.bss.cassandra.ecchronos.core.TableStorageStates;
 import com.ericsson.bss.cassandra.ecchronos.core.metrics.TableRepairMetrics;
 import com.ericsson.bss.cassandra.ecchronos.core.repair.*;
 import com.ericsson.bss.cassandra.ecchronos.core.repair.state.RepairHistory;
+import com.ericsson.bss.cassandra.ecchronos.core.repair.state.RepairHistoryProviderImpl;
 import com.ericsson.bss.cassandra.ecchronos.core.repair.state.RepairStateFactory;
 import com.ericsson.bss.cassandra.ecchronos.core.scheduling.ScheduleManager;
+import com.ericsson.bss.cassandra.ecchronos.core.utils.NodeResolver;
 import com.ericsson.bss.cassandra.ecchronos.core.utils.TableReference;
 import com.ericsson.bss.cassandra.ecchronos.fm.RepairFaultReporter;
 
@@ -40,6 +46,9 @@ import com.ericsson.bss.cassandra.ecchronos.fm.RepairFaultReporter;
 @Designate(ocd = RepairSchedulerService.Configuration.class)
 public class RepairSchedulerService implements RepairScheduler
 {
+    // Repair tasks only look in the Cassandra repair history from the time they started
+    private static final long CASSANDRA_HISTORY_LOOKBACK_IN_MILLIS = TimeUnit.DAYS.toMillis(1);
+
     @Reference(service = RepairFaultReporter.class, cardinality = ReferenceCardinality.MANDATORY, policy = ReferencePolicy.STATIC)
     private volatile RepairFaultReporter myFaultReporter;
 
@@ -58,17 +67,34 @@ public class RepairSchedulerService implements RepairScheduler
     @Reference(service = TableStorageStates.class, cardinality = ReferenceCardinality.MANDATORY, policy = ReferencePolicy.STATIC)
     private volatile TableStorageStates myTableStorageStates;
 
+    @Reference(service = SizeEstimates.class, cardinality = ReferenceCardinality.MANDATORY, policy = ReferencePolicy.STATIC)
+    private volatile SizeEstimates mySizeEstimates;
+
     @Reference(service = TableRepairPolicy.class, cardinality = ReferenceCardinality.AT_LEAST_ONE, policy = ReferencePolicy.STATIC)
     private volatile List<TableRepairPolicy> myRepairPolicies;
 
     @Reference(service = RepairHistory.class, cardinality = ReferenceCardinality.MANDATORY, policy = ReferencePolicy.STATIC)
     private volatile RepairHistory myRepairHistory;
 
+    @Reference(service = NativeConnectionProvider.class, cardinality = ReferenceCardinality.MANDATORY, policy = ReferencePolicy.STATIC)
+    private volatile NativeConnectionProvider myNativeConnectionProvider;
+
+    @Reference(service = StatementDecorator.class, cardinality = ReferenceCardinality.MANDATORY, policy = ReferencePolicy.STATIC)
+    private volatile StatementDecorator myStatementDecorator;
+
+    @Reference(service = NodeResolver.class, cardinality = ReferenceCardinality.MANDATORY, policy = ReferencePolicy.STATIC)
+    private volatile NodeResolver myNodeResolver;
+
     private volatile RepairSchedulerImpl myDelegateRepairSchedulerImpl;
 
     @Activate
     public synchronized void activate(Configuration configuration)
     {
+        // Lost repair notifications are recovered from the Cassandra repair history as the ecChronos repair history
+        // only knows about the outcome of the notifications
+        RepairHistoryProviderImpl cassandraRepairHistoryProvider = new RepairHistoryProviderImpl(myNodeResolver,
+                myNativeConnectionProvider.getSession(), myStatementDecorator, CASSANDRA_HISTORY_LOOKBACK_IN_MILLIS);
+
         myDelegateRepairSchedulerImpl = RepairSchedulerImpl.builder()
                 .withFaultReporter(myFaultReporter)
                 .withJmxProxyFactory(myJmxProxyFactory)
@@ -76,9 +102,12 @@ public class RepairSchedulerService implements RepairScheduler
                 .withScheduleManager(myScheduleManager)
                 .withRepairStateFactory(myRepairStateFactory)
                 .withRepairLockType(configuration.repairLockType())
+                .withLocksPerResource(configuration.locksPerResource())
                 .withTableStorageStates(myTableStorageStates)
+                .withSizeEstimates(mySizeEstimates)
                 .withRepairPolicies(myRepairPolicies)
                 .withRepairHistory(myRepairHistory)
+                .withRepairHistoryProvider(cassandraRepairHistoryProvider)
                 .build();
     }
 
@@ -111,5 +140,8 @@ public class RepairSchedulerService implements RepairScheduler
     {
         @AttributeDefinition(name = "Type of repair lock", description = "The type of locks to take for repair jobs")
         RepairLockType repairLockType() default RepairLockType.VNODE;
+
+        @AttributeDefinition(name = "Locks per resource", description = "The number of repairs that can hold each repair lock resource concurrently")
+        int locksPerResource() default 1;
     }
 }
@@ -17,6 +17,7 @@ package com.ericsson.bss.cassandra.ecchronos.core.osgi;
 import org.osgi.service.component.annotations.*;
 
 import com.ericsson.bss.cassandra.ecchronos.core.HostStates;
+import com.ericsson.bss.cassandra.ecchronos.core.JmxProxyFactory;
 import com.ericsson.bss.cassandra.ecchronos.core.metrics.TableRepairMetrics;
 import com.ericsson.bss.cassandra.ecchronos.core.repair.RepairConfiguration;
 import com.ericsson.bss.cassandra.ecchronos.core.repair.state.*;
@@ -37,6 +38,9 @@ public class RepairStateFactoryService implements RepairStateFactory
     @Reference(service = ReplicationState.class, cardinality = ReferenceCardinality.MANDATORY, policy = ReferencePolicy.STATIC)
     private volatile ReplicationState myReplicationState;
 
+    @Reference(service = JmxProxyFactory.class, cardinality = ReferenceCardinality.MANDATORY, policy = ReferencePolicy.STATIC)
+    private volatile JmxProxyFactory myJmxProxyFactory;
+
     private volatile RepairStateFactoryImpl myDelegateRepairStateFactory;
 
     @Activate
@@ -47,6 +51,7 @@ public class RepairStateFactoryService implements RepairStateFactory
                 .withHostStates(myHostStates)
                 .withRepairHistoryProvider(myRepairHistoryProvider)
                 .withTableRepairMetrics(myTableRepairMetrics)
+                .withJmxProxyFactory(myJmxProxyFactory)
                 .build();
     }
 
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2021 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecchronos.core.osgi;
+
+import java.util.concurrent.TimeUnit;
+
+import com.ericsson.bss.cassandra.ecchronos.connection.NativeConnectionProvider;
+import com.ericsson.bss.cassandra.ecchronos.connection.StatementDecorator;
+import com.ericsson.bss.cassandra.ecchronos.core.SizeEstimates;
+import com.ericsson.bss.cassandra.ecchronos.core.SizeEstimatesImpl;
+import com.ericsson.bss.cassandra.ecchronos.core.utils.LongTokenRange;
+import com.ericsson.bss.cassandra.ecchronos.core.utils.TableReference;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Reference;
+import org.osgi.service.component.annotations.ReferenceCardinality;
+import org.osgi.service.component.annotations.ReferencePolicy;
+import org.osgi.service.metatype.annotations.AttributeDefinition;
+import org.osgi.service.metatype.annotations.Designate;
+import org.osgi.service.metatype.annotations.ObjectClassDefinition;
+
+@Component(service = SizeEstimates.class)
+@Designate(ocd = SizeEstimatesService.Configuration.class)
+public class SizeEstimatesService implements SizeEstimates
+{
+    private static final long DEFAULT_REFRESH_INTERVAL_IN_SECONDS = 300;
+
+    @Reference(service = NativeConnectionProvider.class, cardinality = ReferenceCardinality.MANDATORY, policy = ReferencePolicy.STATIC)
+    private volatile NativeConnectionProvider myNativeConnectionProvider;
+
+    @Reference (service = StatementDecorator.class, cardinality = ReferenceCardinality.MANDATORY, policy = ReferencePolicy.STATIC)
+    private volatile StatementDecorator myStatementDecorator;
+
+    private volatile SizeEstimatesImpl myDelegateSizeEstimates;
+
+    @Activate
+    public synchronized void activate(Configuration configuration)
+    {
+        myDelegateSizeEstimates = SizeEstimatesImpl.builder()
+                .withSession(myNativeConnectionProvider.getSession())
+                .withStatementDecorator(myStatementDecorator)
+                .withRefreshInterval(configuration.refreshIntervalInSeconds(), TimeUnit.SECONDS)
+                .build();
+    }
+
+    @Deactivate
+    public synchronized void deactivate()
+    {
+        myDelegateSizeEstimates.close();
+    }
+
+    @Override
+    public long getDataSize(TableReference tableReference, LongTokenRange tokenRange)
+    {
+        return myDelegateSizeEstimates.getDataSize(tableReference, tokenRange);
+    }
+
+    @ObjectClassDefinition
+    public @interface Configuration
+    {
+        @AttributeDefinition(name = "Refresh interval of size estimates", description = "The interval in seconds between reads of the size estimates of a table")
+        long refreshIntervalInSeconds() default DEFAULT_REFRESH_INTERVAL_IN_SECONDS;
+    }
+}
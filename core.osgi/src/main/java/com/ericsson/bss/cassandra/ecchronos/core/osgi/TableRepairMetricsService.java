@@ -19,6 +19,7 @@ import java.util.concurrent.TimeUnit;
 
 import com.codahale.metrics.MetricRegistry;
 import com.ericsson.bss.cassandra.ecchronos.core.TableStorageStates;
+import com.ericsson.bss.cassandra.ecchronos.core.metrics.RepairPhase;
 import com.ericsson.bss.cassandra.ecchronos.core.metrics.TableRepairMetrics;
 import com.ericsson.bss.cassandra.ecchronos.core.metrics.TableRepairMetricsImpl;
 import com.ericsson.bss.cassandra.ecchronos.core.metrics.TableRepairMetricsProvider;
@@ -88,6 +89,13 @@ public final class TableRepairMetricsService implements TableRepairMetrics, Tabl
         myDelegateTableRepairMetrics.repairTiming(tableReference, timeTaken, timeUnit, successful);
     }
 
+    @Override
+    public void repairPhaseTiming(TableReference tableReference, RepairPhase repairPhase, long timeTaken,
+            TimeUnit timeUnit)
+    {
+        myDelegateTableRepairMetrics.repairPhaseTiming(tableReference, repairPhase, timeTaken, timeUnit);
+    }
+
     @ObjectClassDefinition
     public @interface Configuration
     {
@@ -76,6 +76,12 @@ public class TableStorageStatesService implements TableStorageStates
         return myDelegateTableStorageStates.getDataSize();
     }
 
+    @Override
+    public void addRefreshListener(Runnable listener)
+    {
+        myDelegateTableStorageStates.addRefreshListener(listener);
+    }
+
     @ObjectClassDefinition
     public @interface Configuration
     {
@@ -19,7 +19,13 @@ import com.datastax.driver.core.querybuilder.*;
 import com.ericsson.bss.cassandra.ecchronos.connection.DataCenterAwareStatement;
 import com.ericsson.bss.cassandra.ecchronos.connection.NativeConnectionProvider;
 import com.ericsson.bss.cassandra.ecchronos.connection.StatementDecorator;
+import com.ericsson.bss.cassandra.ecchronos.core.exceptions.InsufficientNodesException;
 import com.ericsson.bss.cassandra.ecchronos.core.exceptions.LockException;
+import com.ericsson.bss.cassandra.ecchronos.core.exceptions.PreemptionPendingException;
+import com.ericsson.bss.cassandra.ecchronos.core.jfr.FlightRecorderEvents;
+import com.ericsson.bss.cassandra.ecchronos.core.jfr.FlightRecorderEvents.LockOperation;
+import com.ericsson.bss.cassandra.ecchronos.core.jfr.FlightRecorderEvents.TimedEvent;
+import com.ericsson.bss.cassandra.ecchronos.core.metrics.SchedulerMetrics;
 import com.ericsson.bss.cassandra.ecchronos.core.scheduling.LockFactory;
 import com.google.common.annotations.VisibleForTesting;
 import org.slf4j.Logger;
@@ -72,6 +78,7 @@ public class CASLockFactory implements LockFactory, Closeable
     private static final int LOCK_TIME_IN_SECONDS = 600;
     private static final long LOCK_UPDATE_TIME_IN_SECONDS = 60;
     private static final int FAILED_LOCK_RETRY_ATTEMPTS = (int) (LOCK_TIME_IN_SECONDS / LOCK_UPDATE_TIME_IN_SECONDS) - 1;
+    private static final long UNCONTENDED_PRIORITY_CACHE_TIME_IN_SECONDS = 10;
 
     private static final String TABLE_LOCK = "lock";
     private static final String TABLE_LOCK_PRIORITY = "lock_priority";
@@ -94,6 +101,7 @@ public class CASLockFactory implements LockFactory, Closeable
     private final PreparedStatement myUpdateLockStatement;
     private final PreparedStatement myRemoveLockPriorityStatement;
     private final LockCache myLockCache;
+    private final LockPriorityCache myLockPriorityCache;
 
     private CASLockFactory(Builder builder)
     {
@@ -179,7 +187,8 @@ public class CASLockFactory implements LockFactory, Closeable
 
         myUuid = hostId;
 
-        myLockCache = new LockCache(this::doTryLock);
+        myLockCache = new LockCache(this::doTryLock, builder.mySchedulerMetrics);
+        myLockPriorityCache = new LockPriorityCache(UNCONTENDED_PRIORITY_CACHE_TIME_IN_SECONDS, TimeUnit.SECONDS);
     }
 
     @Override
@@ -274,6 +283,7 @@ public class CASLockFactory implements LockFactory, Closeable
         private HostStates myHostStates;
         private StatementDecorator myStatementDecorator;
         private String myKeyspaceName = DEFAULT_KEYSPACE_NAME;
+        private SchedulerMetrics mySchedulerMetrics;
 
         public Builder withNativeConnectionProvider(NativeConnectionProvider nativeConnectionProvider)
         {
@@ -299,6 +309,12 @@ public class CASLockFactory implements LockFactory, Closeable
             return this;
         }
 
+        public Builder withSchedulerMetrics(SchedulerMetrics schedulerMetrics)
+        {
+            mySchedulerMetrics = schedulerMetrics;
+            return this;
+        }
+
         public CASLockFactory build()
         {
             if (myNativeConnectionProvider == null)
@@ -327,12 +343,13 @@ public class CASLockFactory implements LockFactory, Closeable
         if (!sufficientNodesForLocking(dataCenter, resource))
         {
             LOG.warn("Not sufficient nodes to lock resource {} in datacenter {}", resource, dataCenter);
-            throw new LockException("Not sufficient nodes to lock");
+            throw new InsufficientNodesException("Not sufficient nodes to lock");
         }
 
+        CASLock casLock;
         try
         {
-            CASLock casLock = new CASLock(dataCenter, resource, priority, metadata); // NOSONAR
+            casLock = new CASLock(dataCenter, resource, priority, metadata); // NOSONAR
             if (casLock.lock())
             {
                 return casLock;
@@ -344,6 +361,11 @@ public class CASLockFactory implements LockFactory, Closeable
             throw new LockException(e);
         }
 
+        if (casLock.isPreemptionPending())
+        {
+            throw new PreemptionPendingException(String.format("Lock for resource %s in datacenter %s is held with a lower priority", resource, dataCenter));
+        }
+
         throw new LockException(String.format("Unable to lock resource %s in datacenter %s", resource, dataCenter));
     }
 
@@ -435,6 +457,12 @@ public class CASLockFactory implements LockFactory, Closeable
 
         private final AtomicInteger myFailedUpdateAttempts = new AtomicInteger();
 
+        private volatile boolean myPreempted = false;
+        private volatile boolean myAnnouncedWhileLocked = false;
+        private UUID myLockHolder;
+
+        private final List<NodePriority> myNodePriorities;
+        private final boolean myUncontended;
         private final int myLocallyHighestPriority;
         private final int globalHighPriority;
 
@@ -445,7 +473,27 @@ public class CASLockFactory implements LockFactory, Closeable
             myPriority = priority;
             myMetadata = metadata;
 
+            // The announced priorities are always read so that a higher priority is never missed,
+            // only the announcement of the local priority is skipped for recently uncontended resources
+            boolean recentlyUncontended = myLockPriorityCache.isUncontended(myDataCenter, myResource);
+            long generation = myLockPriorityCache.generation(myDataCenter, myResource);
             List<NodePriority> nodePriorities = computePriorities();
+            myNodePriorities = nodePriorities;
+
+            if (nodePriorities.isEmpty())
+            {
+                myLockPriorityCache.observedEmpty(myDataCenter, myResource, generation);
+            }
+            else
+            {
+                myLockPriorityCache.contended(myDataCenter, myResource);
+            }
+
+            myUncontended = recentlyUncontended && nodePriorities.isEmpty();
+            if (myUncontended)
+            {
+                LOG.trace("No priorities announced for resource {}, skipping announcement", myResource);
+            }
 
             myLocallyHighestPriority = nodePriorities.stream().filter(n -> n.getUuid().equals(myUuid)).map(NodePriority::getPriority).findFirst().orElse(myPriority);
             globalHighPriority = nodePriorities.stream().filter(n -> !n.getUuid().equals(myUuid)).map(NodePriority::getPriority).max(Integer::compare).orElse(myPriority);
@@ -456,7 +504,10 @@ public class CASLockFactory implements LockFactory, Closeable
             if (compete())
             {
                 LOG.trace("Trying to acquire lock for resource {}", myResource);
-                if (tryLock())
+                TimedEvent lockEvent = FlightRecorderEvents.startCasLock();
+                boolean locked = tryLock();
+                commitLockEvent(lockEvent, LockOperation.ACQUIRE, locked);
+                if (locked)
                 {
                     LOG.trace("Lock for resource {} acquired", myResource);
                     ScheduledFuture<?> future = myExecutor.scheduleAtFixedRate(this, LOCK_UPDATE_TIME_IN_SECONDS, LOCK_UPDATE_TIME_IN_SECONDS, TimeUnit.SECONDS);
@@ -464,11 +515,30 @@ public class CASLockFactory implements LockFactory, Closeable
 
                     return true;
                 }
+
+                myLockPriorityCache.contended(myDataCenter, myResource);
+                if (myUncontended)
+                {
+                    // The lock holder only notices a higher priority if it is announced
+                    insertPriority();
+                }
             }
 
             return false;
         }
 
+        /**
+         * Check if the lock could not be acquired since it is held by a node that has announced a lower priority.
+         *
+         * @return True if the lock holder is expected to be preempted.
+         */
+        boolean isPreemptionPending()
+        {
+            UUID lockHolder = myLockHolder;
+            return lockHolder != null && myNodePriorities.stream()
+                    .anyMatch(n -> n.getUuid().equals(lockHolder) && n.getPriority() < myPriority);
+        }
+
         @Override
         public void run()
         {
@@ -489,9 +559,25 @@ public class CASLockFactory implements LockFactory, Closeable
                 {
                     LOG.warn("Unable to re-lock resource '{}', {} failed attempts", myResource, failedAttempts, e);
                 }
+                return;
+            }
+
+            try
+            {
+                checkPreempted();
+            }
+            catch (Exception e)
+            {
+                LOG.warn("Unable to check announced priorities for resource '{}'", myResource, e);
             }
         }
 
+        @Override
+        public boolean isPreempted()
+        {
+            return myPreempted;
+        }
+
         @Override
         public void close()
         {
@@ -499,13 +585,15 @@ public class CASLockFactory implements LockFactory, Closeable
             if (future != null)
             {
                 future.cancel(true);
-                execute(myDataCenter, myRemoveLockStatement.bind(myResource, myUuid));
+                TimedEvent lockEvent = FlightRecorderEvents.startCasLock();
+                boolean removed = execute(myDataCenter, myRemoveLockStatement.bind(myResource, myUuid)).wasApplied();
+                commitLockEvent(lockEvent, LockOperation.RELEASE, removed);
 
-                if (myLocallyHighestPriority <= myPriority)
+                if (announcePriority() || myAnnouncedWhileLocked)
                 {
                     execute(myDataCenter, myRemoveLockPriorityStatement.bind(myResource, myUuid));
                 }
-                else
+                else if (!myUncontended)
                 {
                     LOG.debug("Locally highest priority ({}) is higher than current ({}), will not remove", myLocallyHighestPriority, myPriority);
                 }
@@ -514,7 +602,9 @@ public class CASLockFactory implements LockFactory, Closeable
 
         private void updateLock() throws LockException
         {
+            TimedEvent lockEvent = FlightRecorderEvents.startCasLock();
             ResultSet resultSet = execute(myDataCenter, myUpdateLockStatement.bind(myUuid, myMetadata, myResource, myUuid));
+            commitLockEvent(lockEvent, LockOperation.RENEW, resultSet.wasApplied());
 
             if (!resultSet.wasApplied())
             {
@@ -522,15 +612,61 @@ public class CASLockFactory implements LockFactory, Closeable
             }
         }
 
+        /**
+         * Check if any node, including the local node, has announced a higher priority for the resource while
+         * the lock is held.
+         * A lock acquired without announcing its priority announces it once other priorities are seen, so that
+         * waiting nodes can tell if they will preempt the lock.
+         */
+        private void checkPreempted()
+        {
+            List<NodePriority> nodePriorities = computePriorities();
+            int highestPriority = -1;
+            for (NodePriority nodePriority : nodePriorities)
+            {
+                highestPriority = Math.max(highestPriority, nodePriority.getPriority());
+            }
+
+            if (myUncontended && !myAnnouncedWhileLocked && !nodePriorities.isEmpty())
+            {
+                insertPriority();
+                myAnnouncedWhileLocked = true;
+            }
+
+            if (highestPriority > myPriority)
+            {
+                myLockPriorityCache.contended(myDataCenter, myResource);
+                if (!myPreempted)
+                {
+                    LOG.debug("Priority {} announced for resource {} while locked with priority {}", highestPriority,
+                            myResource, myPriority);
+                    myPreempted = true;
+                }
+            }
+        }
+
         private boolean compete()
         {
-            if (myLocallyHighestPriority <= myPriority)
+            TimedEvent lockEvent = FlightRecorderEvents.startCasLock();
+            if (announcePriority())
             {
                 insertPriority();
             }
 
             LOG.trace("Highest priority for resource {}: {}", myResource, globalHighPriority);
-            return myPriority >= globalHighPriority;
+            boolean highestPriority = myPriority >= globalHighPriority;
+            commitLockEvent(lockEvent, LockOperation.COMPETE, highestPriority);
+            return highestPriority;
+        }
+
+        private boolean announcePriority()
+        {
+            return !myUncontended && myLocallyHighestPriority <= myPriority;
+        }
+
+        private void commitLockEvent(TimedEvent lockEvent, LockOperation operation, boolean successful)
+        {
+            FlightRecorderEvents.casLock(lockEvent, operation, myDataCenter, myResource, myPriority, successful);
         }
 
         private void insertPriority()
@@ -540,7 +676,19 @@ public class CASLockFactory implements LockFactory, Closeable
 
         private boolean tryLock()
         {
-            return execute(myDataCenter, myLockStatement.bind(myResource, myUuid, myMetadata)).wasApplied();
+            ResultSet resultSet = execute(myDataCenter, myLockStatement.bind(myResource, myUuid, myMetadata));
+            if (resultSet.wasApplied())
+            {
+                return true;
+            }
+
+            Row row = resultSet.one();
+            if (row != null && row.getColumnDefinitions().contains(COLUMN_NODE))
+            {
+                myLockHolder = row.getUUID(COLUMN_NODE);
+            }
+
+            return false;
         }
 
         private List<NodePriority> computePriorities()
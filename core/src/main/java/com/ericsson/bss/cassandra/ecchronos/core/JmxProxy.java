@@ -91,4 +91,20 @@ public interface JmxProxy extends Closeable
      * @return The live disk space used by the provided table.
      */
     long liveDiskSpaceUsed(TableReference tableReference);
+
+    /**
+     * Get the percentage of the data in the provided table that is marked as repaired by incremental repairs.
+     *
+     * @param tableReference
+     *            The table to get the repaired percentage for.
+     * @return The repaired percentage, between 0 and 100, of the provided table or a negative value if not available.
+     */
+    double getPercentRepaired(TableReference tableReference);
+
+    /**
+     * Get the number of validations that are either running or waiting to run on the local node.
+     *
+     * @return The number of active and pending validations or a negative value if not available.
+     */
+    long getValidationBacklog();
 }
@@ -49,6 +49,7 @@ public class JmxProxyFactoryImpl implements JmxProxyFactory
     private static final String FORCE_TERMINATE_ALL_REPAIR_SESSIONS_METHOD = "forceTerminateAllRepairSessions";
     private static final String LIVE_NODES_ATTRIBUTE = "LiveNodes";
     private static final String UNREACHABLE_NODES_ATTRIBUTE = "UnreachableNodes";
+    private static final String VALIDATION_EXECUTOR_METRIC_FORMAT = "org.apache.cassandra.metrics:type=ThreadPools,path=internal,scope=ValidationExecutor,name=%s";
 
     private final JmxConnectionProvider myJmxConnectionProvider;
 
@@ -201,6 +202,45 @@ public class JmxProxyFactoryImpl implements JmxProxyFactory
 
             return 0;
         }
+
+        @Override
+        public double getPercentRepaired(TableReference tableReference)
+        {
+            try
+            {
+                ObjectName objectName = new ObjectName(String.format("org.apache.cassandra.metrics:type=Table,keyspace=%s,scope=%s,name=PercentRepaired", tableReference.getKeyspace(), tableReference.getTable()));
+
+                return ((Number) myMbeanServerConnection.getAttribute(objectName, "Value")).doubleValue();
+            }
+            catch (AttributeNotFoundException | InstanceNotFoundException | MBeanException | ReflectionException | IOException | MalformedObjectNameException e)
+            {
+                LOG.error("Unable to retrieve repaired percentage for {}", tableReference, e);
+            }
+
+            return -1;
+        }
+
+        @Override
+        public long getValidationBacklog()
+        {
+            try
+            {
+                return getValidationExecutorMetric("ActiveTasks") + getValidationExecutorMetric("PendingTasks");
+            }
+            catch (AttributeNotFoundException | InstanceNotFoundException | MBeanException | ReflectionException | IOException | MalformedObjectNameException e)
+            {
+                LOG.error("Unable to retrieve validation backlog", e);
+            }
+
+            return -1;
+        }
+
+        private long getValidationExecutorMetric(String name) throws MalformedObjectNameException, AttributeNotFoundException, MBeanException, ReflectionException, InstanceNotFoundException, IOException
+        {
+            ObjectName objectName = new ObjectName(String.format(VALIDATION_EXECUTOR_METRIC_FORMAT, name));
+
+            return ((Number) myMbeanServerConnection.getAttribute(objectName, "Value")).longValue();
+        }
     }
 
     public static Builder builder()
@@ -14,40 +14,89 @@
  */
 package com.ericsson.bss.cassandra.ecchronos.core;
 
+import com.ericsson.bss.cassandra.ecchronos.core.exceptions.InsufficientNodesException;
 import com.ericsson.bss.cassandra.ecchronos.core.exceptions.LockException;
+import com.ericsson.bss.cassandra.ecchronos.core.exceptions.PreemptionPendingException;
+import com.ericsson.bss.cassandra.ecchronos.core.metrics.SchedulerMetrics;
 import com.ericsson.bss.cassandra.ecchronos.core.scheduling.LockFactory.DistributedLock;
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Clock;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.DoubleSupplier;
 import java.util.concurrent.TimeUnit;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+/**
+ * A cache of lock failures per data center and resource used to avoid trying locks that recently failed.
+ * <p>
+ * A failure is cached with an exponential backoff based on the number of consecutive failures for the resource,
+ * starting from the base expire time and limited by the max expire time.
+ * Failures due to insufficient nodes are backed off one step further.
+ * Failures due to a pending preemption of the lock holder are only cached for the base expire time, so that the lock
+ * is retried soon after the holder releases it.
+ * The backoff is randomized between half and the full backoff so that nodes retry at different times.
+ */
 public class LockCache
 {
     private static final Logger LOG = LoggerFactory.getLogger(LockCache.class);
 
     private static final long DEFAULT_EXPIRE_TIME_IN_SECONDS = 30;
+    private static final long DEFAULT_MAX_EXPIRE_TIME_IN_SECONDS = 600;
+    private static final int MAX_BACKOFF_EXPONENT = 20;
 
-    private final Cache<LockKey, LockException> myFailureCache;
+    private final Cache<LockKey, CachedFailure> myFailureCache;
     private final LockSupplier myLockSupplier;
+    private final SchedulerMetrics mySchedulerMetrics;
+    private final long myExpireTimeInMs;
+    private final long myMaxExpireTimeInMs;
+    private final Clock myClock;
+    private final DoubleSupplier myJitter;
 
     public LockCache(LockSupplier lockSupplier)
     {
-        this(lockSupplier, DEFAULT_EXPIRE_TIME_IN_SECONDS, TimeUnit.SECONDS);
+        this(lockSupplier, null);
+    }
+
+    public LockCache(LockSupplier lockSupplier, SchedulerMetrics schedulerMetrics)
+    {
+        this(lockSupplier, schedulerMetrics, TimeUnit.SECONDS.toMillis(DEFAULT_EXPIRE_TIME_IN_SECONDS),
+                TimeUnit.SECONDS.toMillis(DEFAULT_MAX_EXPIRE_TIME_IN_SECONDS), Clock.systemDefaultZone(),
+                () -> ThreadLocalRandom.current().nextDouble());
     }
 
     LockCache(LockSupplier lockSupplier, long expireTime, TimeUnit expireTimeUnit)
+    {
+        this(lockSupplier, null, expireTimeUnit.toMillis(expireTime),
+                TimeUnit.SECONDS.toMillis(DEFAULT_MAX_EXPIRE_TIME_IN_SECONDS), Clock.systemDefaultZone(),
+                () -> ThreadLocalRandom.current().nextDouble());
+    }
+
+    /**
+     * @param jitter Supplier of the jitter of the backoff, values in the range [0, 1).
+     */
+    @VisibleForTesting
+    LockCache(LockSupplier lockSupplier, SchedulerMetrics schedulerMetrics, long expireTimeInMs,
+            long maxExpireTimeInMs, Clock clock, DoubleSupplier jitter)
     {
         myLockSupplier = lockSupplier;
+        mySchedulerMetrics = schedulerMetrics;
+        myExpireTimeInMs = expireTimeInMs;
+        myMaxExpireTimeInMs = Math.max(maxExpireTimeInMs, expireTimeInMs);
+        myClock = clock;
+        myJitter = jitter;
 
+        // Keep failures long enough after they expire to continue the backoff on the next failure
         myFailureCache = CacheBuilder.newBuilder()
-                .expireAfterWrite(expireTime, expireTimeUnit)
+                .expireAfterWrite(myMaxExpireTimeInMs * 2, TimeUnit.MILLISECONDS)
                 .build();
     }
 
@@ -69,11 +118,13 @@ public class LockCache
 
         try
         {
-            return myLockSupplier.getLock(dataCenter, resource, priority, metadata);
+            DistributedLock lock = myLockSupplier.getLock(dataCenter, resource, priority, metadata);
+            myFailureCache.invalidate(lockKey);
+            return lock;
         }
         catch (LockException e)
         {
-            myFailureCache.put(lockKey, e);
+            cacheFailure(lockKey, e);
             throw e;
         }
     }
@@ -86,7 +137,49 @@ public class LockCache
 
     private Optional<LockException> getCachedFailure(LockKey lockKey)
     {
-        return Optional.ofNullable(myFailureCache.getIfPresent(lockKey));
+        CachedFailure cachedFailure = myFailureCache.getIfPresent(lockKey);
+        boolean hit = cachedFailure != null && cachedFailure.myExpiresAt > myClock.millis();
+
+        if (mySchedulerMetrics != null)
+        {
+            mySchedulerMetrics.lockCacheLookup(hit);
+        }
+
+        return hit ? Optional.of(cachedFailure.myException) : Optional.empty();
+    }
+
+    private void cacheFailure(LockKey lockKey, LockException e)
+    {
+        CachedFailure previousFailure = myFailureCache.getIfPresent(lockKey);
+        int failures = previousFailure == null ? 1 : previousFailure.myFailures + 1;
+
+        long backoffInMs = backoffInMs(e, failures);
+        LOG.debug("Caching locking failure {} for {} ms after {} consecutive failures", e.getMessage(), backoffInMs,
+                failures);
+
+        myFailureCache.put(lockKey, new CachedFailure(e, failures, myClock.millis() + backoffInMs));
+    }
+
+    private long backoffInMs(LockException e, int failures)
+    {
+        if (e instanceof PreemptionPendingException)
+        {
+            return withJitter(myExpireTimeInMs);
+        }
+
+        int exponent = Math.min(failures - 1, MAX_BACKOFF_EXPONENT);
+        if (e instanceof InsufficientNodesException)
+        {
+            exponent++;
+        }
+
+        return withJitter(Math.min(myExpireTimeInMs << exponent, myMaxExpireTimeInMs));
+    }
+
+    private long withJitter(long backoffInMs)
+    {
+        long halfBackoffInMs = backoffInMs / 2;
+        return halfBackoffInMs + (long) (myJitter.getAsDouble() * (backoffInMs - halfBackoffInMs + 1));
     }
 
     @FunctionalInterface
@@ -95,6 +188,20 @@ public class LockCache
         DistributedLock getLock(String dataCenter, String resource, int priority, Map<String, String> metadata) throws LockException;
     }
 
+    private static final class CachedFailure
+    {
+        private final LockException myException;
+        private final int myFailures;
+        private final long myExpiresAt;
+
+        CachedFailure(LockException exception, int failures, long expiresAt)
+        {
+            myException = exception;
+            myFailures = failures;
+            myExpiresAt = expiresAt;
+        }
+    }
+
     static final class LockKey
     {
         private final String myDataCenter;
@@ -53,4 +53,18 @@ public class LockCollection implements LockFactory.DistributedLock
             }
         }
     }
+
+    @Override
+    public boolean isPreempted()
+    {
+        for (LockFactory.DistributedLock lock : myLocks)
+        {
+            if (lock.isPreempted())
+            {
+                return true;
+            }
+        }
+
+        return false;
+    }
 }
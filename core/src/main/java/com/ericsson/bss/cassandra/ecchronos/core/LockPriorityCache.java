@@ -0,0 +1,121 @@
+/*
+ * Copyright 2021 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecchronos.core;
+
+import com.ericsson.bss.cassandra.ecchronos.core.LockCache.LockKey;
+
+import java.time.Clock;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A short-lived local view of the lock priorities announced for each resource.
+ *
+ * A resource is considered uncontended for a short time after its priority table was observed to be empty,
+ * which allows the lock to be taken without announcing the local priority.
+ * Each resource has a generation that is increased whenever contention is detected,
+ * an observation started before the contention is then discarded rather than cached.
+ */
+class LockPriorityCache
+{
+    private final Map<LockKey, Observation> myObservations = new ConcurrentHashMap<>();
+
+    private final long myCacheTimeInMs;
+    private final Clock myClock;
+
+    LockPriorityCache(long cacheTime, TimeUnit timeUnit)
+    {
+        this(cacheTime, timeUnit, Clock.systemDefaultZone());
+    }
+
+    LockPriorityCache(long cacheTime, TimeUnit timeUnit, Clock clock)
+    {
+        myCacheTimeInMs = timeUnit.toMillis(cacheTime);
+        myClock = clock;
+    }
+
+    /**
+     * Get the current generation of the resource, used to start an observation of the priority table.
+     *
+     * @param dataCenter The data center of the resource.
+     * @param resource The resource.
+     * @return The current generation.
+     */
+    long generation(String dataCenter, String resource)
+    {
+        Observation observation = myObservations.get(new LockKey(dataCenter, resource));
+        return observation == null ? 0L : observation.myGeneration;
+    }
+
+    /**
+     * Check if the priority table of the resource was recently observed to be empty.
+     *
+     * @param dataCenter The data center of the resource.
+     * @param resource The resource.
+     * @return True if the local priority doesn't need to be announced.
+     */
+    boolean isUncontended(String dataCenter, String resource)
+    {
+        Observation observation = myObservations.get(new LockKey(dataCenter, resource));
+        return observation != null && observation.myEmptyUntil > myClock.millis();
+    }
+
+    /**
+     * Record that the priority table of the resource was empty, unless contention was detected since the
+     * observation was started.
+     *
+     * @param dataCenter The data center of the resource.
+     * @param resource The resource.
+     * @param generation The generation when the observation was started.
+     */
+    void observedEmpty(String dataCenter, String resource, long generation)
+    {
+        long emptyUntil = myClock.millis() + myCacheTimeInMs;
+        myObservations.compute(new LockKey(dataCenter, resource), (k, v) ->
+        {
+            long currentGeneration = v == null ? 0L : v.myGeneration;
+            if (currentGeneration != generation)
+            {
+                return v;
+            }
+            return new Observation(currentGeneration, emptyUntil);
+        });
+    }
+
+    /**
+     * Record that other nodes compete for the resource.
+     *
+     * @param dataCenter The data center of the resource.
+     * @param resource The resource.
+     */
+    void contended(String dataCenter, String resource)
+    {
+        myObservations.compute(new LockKey(dataCenter, resource),
+                (k, v) -> new Observation(v == null ? 1L : v.myGeneration + 1, -1L));
+    }
+
+    private static final class Observation
+    {
+        private final long myGeneration;
+        private final long myEmptyUntil;
+
+        Observation(long generation, long emptyUntil)
+        {
+            myGeneration = generation;
+            myEmptyUntil = emptyUntil;
+        }
+    }
+}
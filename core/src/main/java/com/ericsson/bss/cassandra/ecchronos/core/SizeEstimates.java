@@ -0,0 +1,33 @@
+/*
+ * Copyright 2021 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecchronos.core;
+
+import com.ericsson.bss.cassandra.ecchronos.core.utils.LongTokenRange;
+import com.ericsson.bss.cassandra.ecchronos.core.utils.TableReference;
+
+/**
+ * Interface for retrieving estimated data sizes of token ranges on the local node.
+ */
+public interface SizeEstimates
+{
+    /**
+     * Get the estimated data size of the provided token range for a table on the local node.
+     *
+     * @param tableReference The table to get the data size of.
+     * @param tokenRange The token range to get the data size of.
+     * @return The estimated data size in bytes or -1 if no estimate is available for the token range.
+     */
+    long getDataSize(TableReference tableReference, LongTokenRange tokenRange);
+}
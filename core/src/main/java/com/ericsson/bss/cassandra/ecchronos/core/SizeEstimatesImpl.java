@@ -0,0 +1,238 @@
+/*
+ * Copyright 2021 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecchronos.core;
+
+import com.datastax.driver.core.PreparedStatement;
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.Row;
+import com.datastax.driver.core.Session;
+import com.datastax.driver.core.Statement;
+import com.datastax.driver.core.querybuilder.QueryBuilder;
+import com.ericsson.bss.cassandra.ecchronos.connection.StatementDecorator;
+import com.ericsson.bss.cassandra.ecchronos.core.utils.LongTokenRange;
+import com.ericsson.bss.cassandra.ecchronos.core.utils.TableReference;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static com.datastax.driver.core.querybuilder.QueryBuilder.bindMarker;
+import static com.datastax.driver.core.querybuilder.QueryBuilder.eq;
+
+/**
+ * Size estimates based on the local {@code system.size_estimates} table.
+ * <p>
+ * The estimates are kept per table and are refreshed periodically when requested.
+ * A refresh is performed in the background and the previous estimates are used until it is done.
+ * Cassandra only records estimates for the primary ranges of the local node so ranges without estimates are
+ * reported as unknown.
+ */
+public class SizeEstimatesImpl implements SizeEstimates, Closeable
+{
+    private static final Logger LOG = LoggerFactory.getLogger(SizeEstimatesImpl.class);
+
+    private static final String KEYSPACE_NAME = "system";
+    private static final String TABLE_SIZE_ESTIMATES = "size_estimates";
+
+    private static final String RANGE_START_COLUMN = "range_start";
+    private static final String RANGE_END_COLUMN = "range_end";
+    private static final String MEAN_PARTITION_SIZE_COLUMN = "mean_partition_size";
+    private static final String PARTITIONS_COUNT_COLUMN = "partitions_count";
+
+    private static final long DEFAULT_REFRESH_INTERVAL_IN_MS = TimeUnit.MINUTES.toMillis(5);
+
+    private final Session mySession;
+    private final StatementDecorator myStatementDecorator;
+    private final PreparedStatement mySizeEstimatesStatement;
+    private final ExecutorService myRefreshExecutor;
+    private final LoadingCache<TableReference, TableSizeEstimates> mySizeEstimatesCache;
+
+    private SizeEstimatesImpl(Builder builder)
+    {
+        mySession = builder.mySession;
+        myStatementDecorator = builder.myStatementDecorator;
+
+        mySizeEstimatesStatement = mySession.prepare(QueryBuilder.select(RANGE_START_COLUMN, RANGE_END_COLUMN,
+                MEAN_PARTITION_SIZE_COLUMN, PARTITIONS_COUNT_COLUMN)
+                .from(KEYSPACE_NAME, TABLE_SIZE_ESTIMATES)
+                .where(eq("keyspace_name", bindMarker()))
+                .and(eq("table_name", bindMarker())));
+
+        myRefreshExecutor = Executors.newSingleThreadExecutor(
+                new ThreadFactoryBuilder().setNameFormat("SizeEstimatesRefresher-%d").setDaemon(true).build());
+        mySizeEstimatesCache = CacheBuilder.newBuilder()
+                .refreshAfterWrite(builder.myRefreshIntervalInMs, TimeUnit.MILLISECONDS)
+                .build(CacheLoader.asyncReloading(new CacheLoader<TableReference, TableSizeEstimates>()
+                {
+                    @Override
+                    public TableSizeEstimates load(TableReference key)
+                    {
+                        return loadSizeEstimates(key);
+                    }
+                }, myRefreshExecutor));
+    }
+
+    @Override
+    public long getDataSize(TableReference tableReference, LongTokenRange tokenRange)
+    {
+        try
+        {
+            return mySizeEstimatesCache.get(tableReference).getDataSize(tokenRange);
+        }
+        catch (Exception e)
+        {
+            LOG.warn("Unable to fetch size estimates for {}", tableReference, e);
+            return -1;
+        }
+    }
+
+    @Override
+    public void close()
+    {
+        myRefreshExecutor.shutdown();
+        mySizeEstimatesCache.invalidateAll();
+        mySizeEstimatesCache.cleanUp();
+    }
+
+    private TableSizeEstimates loadSizeEstimates(TableReference tableReference)
+    {
+        Statement statement = mySizeEstimatesStatement.bind(tableReference.getKeyspace(), tableReference.getTable());
+        ResultSet resultSet = mySession.execute(myStatementDecorator.apply(statement));
+
+        ImmutableMap.Builder<LongTokenRange, Long> rangeSizes = ImmutableMap.builder();
+
+        for (Row row : resultSet)
+        {
+            try
+            {
+                long start = Long.parseLong(row.getString(RANGE_START_COLUMN));
+                long end = Long.parseLong(row.getString(RANGE_END_COLUMN));
+                long size = row.getLong(MEAN_PARTITION_SIZE_COLUMN) * row.getLong(PARTITIONS_COUNT_COLUMN);
+
+                rangeSizes.put(new LongTokenRange(start, end), size);
+            }
+            catch (NumberFormatException e)
+            {
+                LOG.debug("Unable to parse size estimate range for {}, only Murmur3Partitioner is supported", tableReference, e);
+            }
+        }
+
+        TableSizeEstimates tableSizeEstimates = new TableSizeEstimates(rangeSizes.build());
+        LOG.debug("Size estimates for {} -> {}", tableReference, tableSizeEstimates);
+        return tableSizeEstimates;
+    }
+
+    public static Builder builder()
+    {
+        return new Builder();
+    }
+
+    public static class Builder
+    {
+        private Session mySession;
+        private StatementDecorator myStatementDecorator;
+        private long myRefreshIntervalInMs = DEFAULT_REFRESH_INTERVAL_IN_MS;
+
+        public Builder withSession(Session session)
+        {
+            mySession = session;
+            return this;
+        }
+
+        public Builder withStatementDecorator(StatementDecorator statementDecorator)
+        {
+            myStatementDecorator = statementDecorator;
+            return this;
+        }
+
+        public Builder withRefreshInterval(long refreshInterval, TimeUnit timeUnit)
+        {
+            myRefreshIntervalInMs = timeUnit.toMillis(refreshInterval);
+            return this;
+        }
+
+        public SizeEstimatesImpl build()
+        {
+            if (mySession == null)
+            {
+                throw new IllegalArgumentException("Session cannot be null");
+            }
+
+            if (myStatementDecorator == null)
+            {
+                throw new IllegalArgumentException("Statement decorator cannot be null");
+            }
+
+            return new SizeEstimatesImpl(this);
+        }
+    }
+
+    @VisibleForTesting
+    static class TableSizeEstimates
+    {
+        private final ImmutableMap<LongTokenRange, Long> myRangeSizes;
+
+        TableSizeEstimates(ImmutableMap<LongTokenRange, Long> rangeSizes)
+        {
+            myRangeSizes = rangeSizes;
+        }
+
+        /**
+         * Get the estimated size of the token range.
+         * <p>
+         * If there is no exact match the estimates of all ranges covered by the provided range are summarized.
+         * This handles cases where e.g. a wrapping range has been split in two by Cassandra.
+         *
+         * @param tokenRange The token range.
+         * @return The estimated size in bytes or -1 if no estimate covers the range.
+         */
+        long getDataSize(LongTokenRange tokenRange)
+        {
+            Long size = myRangeSizes.get(tokenRange);
+            if (size != null)
+            {
+                return size;
+            }
+
+            long coveredSize = -1;
+
+            for (Map.Entry<LongTokenRange, Long> entry : myRangeSizes.entrySet())
+            {
+                if (tokenRange.isCovering(entry.getKey()))
+                {
+                    coveredSize = Math.max(coveredSize, 0) + entry.getValue();
+                }
+            }
+
+            return coveredSize;
+        }
+
+        @Override
+        public String toString()
+        {
+            return myRangeSizes.toString();
+        }
+    }
+}
@@ -35,4 +35,16 @@ public interface TableStorageStates
      * @return The data size of all tables on this node.
      */
     long getDataSize();
+
+    /**
+     * Add a listener that is called each time the data sizes have been refreshed.
+     * <p>
+     * The default implementation ignores the listener and should only be used when the data sizes never change.
+     *
+     * @param listener The listener to call after a refresh.
+     */
+    default void addRefreshListener(Runnable listener)
+    {
+        // Data sizes are never refreshed
+    }
 }
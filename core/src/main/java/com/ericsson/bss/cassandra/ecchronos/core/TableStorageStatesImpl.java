@@ -17,7 +17,9 @@ package com.ericsson.bss.cassandra.ecchronos.core;
 import java.io.Closeable;
 import java.io.IOException;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -37,7 +39,8 @@ public class TableStorageStatesImpl implements TableStorageStates, Closeable
 
     private static final long DEFAULT_UPDATE_DELAY_IN_MS = TimeUnit.SECONDS.toMillis(60);
 
-    private final AtomicReference<ImmutableMap<TableReference, Long>> myTableSizes = new AtomicReference<>();
+    private final AtomicReference<TableSizes> myTableSizes = new AtomicReference<>();
+    private final List<Runnable> myRefreshListeners = new CopyOnWriteArrayList<>();
     private final ScheduledExecutorService myScheduledExecutorService;
 
     private final ReplicatedTableProvider myReplicatedTableProvider;
@@ -55,11 +58,15 @@ public class TableStorageStatesImpl implements TableStorageStates, Closeable
     @Override
     public long getDataSize(TableReference tableReference)
     {
-        ImmutableMap<TableReference, Long> dataSizes = myTableSizes.get();
+        TableSizes tableSizes = myTableSizes.get();
 
-        if (dataSizes != null && dataSizes.containsKey(tableReference))
+        if (tableSizes != null)
         {
-            return dataSizes.get(tableReference);
+            Long dataSize = tableSizes.myDataSizes.get(tableReference);
+            if (dataSize != null)
+            {
+                return dataSize;
+            }
         }
 
         return 0;
@@ -68,16 +75,22 @@ public class TableStorageStatesImpl implements TableStorageStates, Closeable
     @Override
     public long getDataSize()
     {
-        ImmutableMap<TableReference, Long> dataSizes = myTableSizes.get();
+        TableSizes tableSizes = myTableSizes.get();
 
-        if (dataSizes != null)
+        if (tableSizes != null)
         {
-            return dataSizes.values().stream().mapToLong(e -> e).sum();
+            return tableSizes.myTotalDataSize;
         }
 
         return 0;
     }
 
+    @Override
+    public void addRefreshListener(Runnable listener)
+    {
+        myRefreshListeners.add(listener);
+    }
+
     @Override
     public void close()
     {
@@ -146,11 +159,24 @@ public class TableStorageStatesImpl implements TableStorageStates, Closeable
         {
             try (JmxProxy jmxProxy = myJmxProxyFactory.connect())
             {
-                myTableSizes.set(getTableSizes(jmxProxy));
+                myTableSizes.set(new TableSizes(getTableSizes(jmxProxy)));
             }
             catch (IOException e)
             {
                 LOG.error("Unable to update table sizes, future metrics might contain stale data", e);
+                return;
+            }
+
+            for (Runnable listener : myRefreshListeners)
+            {
+                try
+                {
+                    listener.run();
+                }
+                catch (RuntimeException e)
+                {
+                    LOG.error("Unable to notify listener about updated table sizes", e);
+                }
             }
         }
     }
@@ -172,4 +198,16 @@ public class TableStorageStatesImpl implements TableStorageStates, Closeable
 
         return ImmutableMap.copyOf(dataSizes);
     }
+
+    private static final class TableSizes
+    {
+        private final ImmutableMap<TableReference, Long> myDataSizes;
+        private final long myTotalDataSize;
+
+        TableSizes(ImmutableMap<TableReference, Long> dataSizes)
+        {
+            myDataSizes = dataSizes;
+            myTotalDataSize = dataSizes.values().stream().mapToLong(e -> e).sum();
+        }
+    }
 }
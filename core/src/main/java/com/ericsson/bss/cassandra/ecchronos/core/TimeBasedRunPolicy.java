@@ -26,6 +26,9 @@ import com.google.common.annotations.VisibleForTesting;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -33,15 +36,16 @@ import java.io.Closeable;
 import java.time.Clock;
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
-import static com.datastax.driver.core.querybuilder.QueryBuilder.bindMarker;
-import static com.datastax.driver.core.querybuilder.QueryBuilder.eq;
-
 /**
  * Time based run policy
  *
@@ -56,6 +60,10 @@ import static com.datastax.driver.core.querybuilder.QueryBuilder.eq;
  * end_hour int,
  * end_minute int,
  * PRIMARY KEY(keyspace_name, table_name, start_hour, start_minute));
+ *
+ * The full table is read in one query and kept in memory as an index of rejection windows per table.
+ * The index is refreshed in the background after it has been used for the cache expire time,
+ * while refreshing the previous index is still used so rejection checks never wait for Cassandra.
  */
 public class TimeBasedRunPolicy implements TableRepairPolicy, RunPolicy, Closeable
 {
@@ -67,11 +75,14 @@ public class TimeBasedRunPolicy implements TableRepairPolicy, RunPolicy, Closeab
 
     static final long DEFAULT_CACHE_EXPIRE_TIME = TimeUnit.SECONDS.toMillis(10);
 
+    private static final String REJECTIONS_KEY = "rejections";
+
     private final PreparedStatement myGetRejectionsStatement;
     private final StatementDecorator myStatementDecorator;
     private final Session mySession;
     private final Clock myClock;
-    private final LoadingCache<TableKey, TimeRejectionCollection> myTimeRejectionCache;
+    private final ExecutorService myRefreshExecutor;
+    private final LoadingCache<String, TimeRejectionIndex> myTimeRejectionCache;
 
     public TimeBasedRunPolicy(Builder builder)
     {
@@ -80,29 +91,30 @@ public class TimeBasedRunPolicy implements TableRepairPolicy, RunPolicy, Closeab
         myClock = builder.myClock;
 
         myGetRejectionsStatement = mySession.prepare(QueryBuilder.select()
-                .from(builder.myKeyspaceName, TABLE_REJECT_CONFIGURATION)
-                .where(eq("keyspace_name", bindMarker()))
-                .and(eq("table_name", bindMarker())));
+                .from(builder.myKeyspaceName, TABLE_REJECT_CONFIGURATION));
 
+        myRefreshExecutor = Executors.newSingleThreadExecutor(
+                new ThreadFactoryBuilder().setNameFormat("TimeBasedRunPolicyRefresher-%d").setDaemon(true).build());
         myTimeRejectionCache = createConfigCache(builder.myCacheExpireTime);
     }
 
-    private LoadingCache<TableKey, TimeRejectionCollection> createConfigCache(long expireAfter)
+    private LoadingCache<String, TimeRejectionIndex> createConfigCache(long refreshAfter)
     {
-        return CacheBuilder.newBuilder()
-                .expireAfterWrite(expireAfter, TimeUnit.MILLISECONDS)
-                .build(new CacheLoader<TableKey, TimeRejectionCollection>()
-                {
-                    @Override
-                    public TimeRejectionCollection load(TableKey key)
-                    {
-                        Statement decoratedStatement = myStatementDecorator.apply(myGetRejectionsStatement.bind(key.getKeyspace(), key.getTable()));
+        CacheLoader<String, TimeRejectionIndex> loader = new CacheLoader<String, TimeRejectionIndex>()
+        {
+            @Override
+            public TimeRejectionIndex load(String key)
+            {
+                Statement decoratedStatement = myStatementDecorator.apply(myGetRejectionsStatement.bind());
+
+                ResultSet resultSet = mySession.execute(decoratedStatement);
+                return new TimeRejectionIndex(resultSet);
+            }
+        };
 
-                        ResultSet resultSet = mySession.execute(decoratedStatement);
-                        Iterator<Row> iterator = resultSet.iterator();
-                        return new TimeRejectionCollection(iterator);
-                    }
-                });
+        return CacheBuilder.newBuilder()
+                .refreshAfterWrite(refreshAfter, TimeUnit.MILLISECONDS)
+                .build(CacheLoader.asyncReloading(loader, myRefreshExecutor));
     }
 
     @Override
@@ -127,6 +139,7 @@ public class TimeBasedRunPolicy implements TableRepairPolicy, RunPolicy, Closeab
     @Override
     public void close()
     {
+        myRefreshExecutor.shutdown();
         myTimeRejectionCache.invalidateAll();
         myTimeRejectionCache.cleanUp();
     }
@@ -207,24 +220,33 @@ public class TimeBasedRunPolicy implements TableRepairPolicy, RunPolicy, Closeab
         myTimeRejectionCache.invalidateAll();
     }
 
-    class TimeRejectionCollection
+    /**
+     * An immutable index of all rejection windows grouped by keyspace and table.
+     */
+    class TimeRejectionIndex
     {
-        private final List<TimeRejection> myRejections = new ArrayList<>();
+        private final ImmutableMap<TableKey, ImmutableList<TimeRejection>> myRejections;
 
-        TimeRejectionCollection(Iterator<Row> iterator)
+        TimeRejectionIndex(Iterable<Row> rows)
         {
-            while (iterator.hasNext())
+            Map<TableKey, ImmutableList.Builder<TimeRejection>> rejections = new HashMap<>();
+
+            for (Row row : rows)
             {
-                Row row = iterator.next();
-                myRejections.add(new TimeRejection(row));
+                TableKey tableKey = new TableKey(row.getString("keyspace_name"), row.getString("table_name"));
+                rejections.computeIfAbsent(tableKey, k -> ImmutableList.builder()).add(new TimeRejection(row));
             }
+
+            ImmutableMap.Builder<TableKey, ImmutableList<TimeRejection>> builder = ImmutableMap.builder();
+            rejections.forEach((tableKey, tableRejections) -> builder.put(tableKey, tableRejections.build()));
+            myRejections = builder.build();
         }
 
-        public long rejectionTime()
+        public long rejectionTime(TableKey tableKey, LocalDateTime now)
         {
-            for (TimeRejection rejection : myRejections)
+            for (TimeRejection rejection : myRejections.getOrDefault(tableKey, ImmutableList.of()))
             {
-                long rejectionTime = rejection.rejectionTime();
+                long rejectionTime = rejection.rejectionTime(now);
 
                 if (rejectionTime != -1L)
                 {
@@ -238,47 +260,45 @@ public class TimeBasedRunPolicy implements TableRepairPolicy, RunPolicy, Closeab
 
     class TimeRejection
     {
-        private final LocalDateTime myStart;
-        private final LocalDateTime myEnd;
+        private final LocalTime myStart;
+        private final LocalTime myEnd;
 
         TimeRejection(Row row)
         {
-            myStart = toDateTime(row.getInt("start_hour"), row.getInt("start_minute"));
-            myEnd = toDateTime(row.getInt("end_hour"), row.getInt("end_minute"));
+            myStart = LocalTime.of(row.getInt("start_hour"), row.getInt("start_minute"));
+            myEnd = LocalTime.of(row.getInt("end_hour"), row.getInt("end_minute"));
         }
 
-        public long rejectionTime()
+        public long rejectionTime(LocalDateTime now)
         {
             // 00:00->00:00 means that we pause the repair scheduling, so wait DEFAULT_REJECT_TIME instead of until 00:00
-            if (myStart.getHour() == 0
-                    && myStart.getMinute() == 0
-                    && myEnd.getHour() == 0
-                    && myEnd.getMinute() == 0)
+            if (LocalTime.MIDNIGHT.equals(myStart) && LocalTime.MIDNIGHT.equals(myEnd))
             {
                 return DEFAULT_REJECT_TIME;
             }
 
-            return calculateRejectTime();
+            return calculateRejectTime(now);
         }
 
-        private long calculateRejectTime()
+        private long calculateRejectTime(LocalDateTime now)
         {
-            LocalDateTime now = LocalDateTime.now(myClock);
+            LocalDateTime start = now.toLocalDate().atTime(myStart);
+            LocalDateTime end = now.toLocalDate().atTime(myEnd);
 
             if (isWraparound())
             {
-                if (now.isBefore(myEnd))
+                if (now.isBefore(end))
                 {
-                    return Duration.between(now, myEnd).toMillis();
+                    return Duration.between(now, end).toMillis();
                 }
-                else if (now.isAfter(myStart))
+                else if (now.isAfter(start))
                 {
-                    return Duration.between(now, myEnd.plusDays(1)).toMillis();
+                    return Duration.between(now, end.plusDays(1)).toMillis();
                 }
             }
-            else if (now.isAfter(myStart) && now.isBefore(myEnd))
+            else if (now.isAfter(start) && now.isBefore(end))
             {
-                return Duration.between(now, myEnd).toMillis();
+                return Duration.between(now, end).toMillis();
             }
 
             return -1L;
@@ -288,14 +308,6 @@ public class TimeBasedRunPolicy implements TableRepairPolicy, RunPolicy, Closeab
         {
             return myEnd.isBefore(myStart);
         }
-
-        private LocalDateTime toDateTime(int h, int m)
-        {
-            return LocalDateTime.now(myClock)
-                    .withHour(h)
-                    .withMinute(m)
-                    .withSecond(0);
-        }
     }
 
     private long getRejectionsForTable(TableReference tableReference)
@@ -310,9 +322,12 @@ public class TimeBasedRunPolicy implements TableRepairPolicy, RunPolicy, Closeab
                             forTable(tableReference)
                     };
 
+            TimeRejectionIndex timeRejectionIndex = myTimeRejectionCache.get(REJECTIONS_KEY);
+            LocalDateTime now = LocalDateTime.now(myClock);
+
             for (int i = 0; i < tableKeys.length && rejectTime == -1L; i++)
             {
-                rejectTime = myTimeRejectionCache.get(tableKeys[i]).rejectionTime();
+                rejectTime = timeRejectionIndex.rejectionTime(tableKeys[i], now);
             }
         }
         catch (Exception e)
@@ -350,16 +365,6 @@ public class TimeBasedRunPolicy implements TableRepairPolicy, RunPolicy, Closeab
             this.table = table;
         }
 
-        String getKeyspace()
-        {
-            return keyspace;
-        }
-
-        String getTable()
-        {
-            return table;
-        }
-
         @Override
         public boolean equals(Object o)
         {
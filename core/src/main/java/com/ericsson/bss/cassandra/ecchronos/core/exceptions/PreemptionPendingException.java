@@ -0,0 +1,29 @@
+/*
+ * Copyright 2021 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecchronos.core.exceptions;
+
+/**
+ * Exception thrown when a lock is held by a node that has announced a lower priority for it than the local node.
+ * The lock holder is expected to release the lock when it notices the higher priority.
+ */
+public class PreemptionPendingException extends LockException
+{
+    private static final long serialVersionUID = 2741581393217826415L;
+
+    public PreemptionPendingException(String message)
+    {
+        super(message);
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2021 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecchronos.core.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * An operation on a CAS lock.
+ */
+@Name(FlightRecorderEvents.NAME_PREFIX + "CasLock")
+@Label("CAS Lock")
+@Category({ FlightRecorderEvents.CATEGORY, "Lock" })
+@StackTrace(false)
+class CasLockEvent extends Event implements FlightRecorderEvents.TimedEvent
+{
+    @Label("Operation")
+    String operation;
+
+    @Label("Data Center")
+    String dataCenter;
+
+    @Label("Resource")
+    String resource;
+
+    @Label("Priority")
+    int priority;
+
+    @Label("Successful")
+    boolean successful;
+
+    static CasLockEvent start()
+    {
+        CasLockEvent event = new CasLockEvent();
+        event.begin();
+        return event;
+    }
+
+    void finish(FlightRecorderEvents.LockOperation operation, String dataCenter, String resource, int priority,
+            boolean successful)
+    {
+        end();
+        if (shouldCommit())
+        {
+            this.operation = operation.name();
+            this.dataCenter = dataCenter;
+            this.resource = resource;
+            this.priority = priority;
+            this.successful = successful;
+            commit();
+        }
+    }
+}
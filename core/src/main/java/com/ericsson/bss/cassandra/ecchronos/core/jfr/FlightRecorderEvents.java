@@ -0,0 +1,275 @@
+/*
+ * Copyright 2021 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecchronos.core.jfr;
+
+import com.ericsson.bss.cassandra.ecchronos.core.utils.LongTokenRange;
+import com.ericsson.bss.cassandra.ecchronos.core.utils.TableReference;
+
+/**
+ * Emits Java Flight Recorder events for the scheduler, the CAS locks and the repair lifecycle.
+ * <p>
+ * The events are only created when the JVM provides the {@code jdk.jfr} API (JDK 8u262 or later) and are only
+ * committed when they are enabled in a running recording, e.g. with {@code -XX:StartFlightRecording}.
+ * All events are in the {@value #CATEGORY} category.
+ * <p>
+ * Events that time an operation are started with one of the {@code start} methods before the operation
+ * and committed with the outcome of the operation when it is done, so that the event covers the operation.
+ * <p>
+ * The event classes are only referenced from this class so that they are never loaded when the API is missing.
+ */
+public final class FlightRecorderEvents
+{
+    static final String CATEGORY = "ecChronos";
+    static final String NAME_PREFIX = "com.ericsson.bss.cassandra.ecchronos.";
+
+    private static final boolean AVAILABLE = isFlightRecorderAvailable();
+
+    private static final TimedEvent NOT_STARTED = new TimedEvent()
+    {
+    };
+
+    private FlightRecorderEvents()
+    {
+        // Utility class
+    }
+
+    /**
+     * @return True if the flight recorder API is available in this JVM.
+     */
+    public static boolean isAvailable()
+    {
+        return AVAILABLE;
+    }
+
+    /**
+     * Start a run of the scheduler, committed by {@link #schedulerRun(TimedEvent, int, int)}.
+     *
+     * @return The started event.
+     */
+    public static TimedEvent startSchedulerRun()
+    {
+        return AVAILABLE ? SchedulerRunEvent.start() : NOT_STARTED;
+    }
+
+    /**
+     * A run of the scheduler.
+     *
+     * @param event The event started before the run.
+     * @param examinedJobs The number of jobs examined during the run.
+     * @param queueSize The number of jobs in the queue.
+     */
+    public static void schedulerRun(TimedEvent event, int examinedJobs, int queueSize)
+    {
+        if (AVAILABLE && event instanceof SchedulerRunEvent)
+        {
+            ((SchedulerRunEvent) event).finish(examinedJobs, queueSize);
+        }
+    }
+
+    /**
+     * A job was picked by the scheduler and will try to run its tasks.
+     *
+     * @param job The job.
+     * @param priority The priority of the job.
+     */
+    public static void jobPicked(Object job, Object priority)
+    {
+        if (AVAILABLE)
+        {
+            JobPickedEvent.emit(job, priority);
+        }
+    }
+
+    /**
+     * A job was rejected by a run policy.
+     *
+     * @param job The job.
+     * @param runPolicy The run policy that rejected the job.
+     * @param rejectedForMs The time in milliseconds until the job is runnable again.
+     */
+    public static void jobRejected(Object job, Object runPolicy, long rejectedForMs)
+    {
+        if (AVAILABLE)
+        {
+            JobRejectedEvent.emit(job, runPolicy, rejectedForMs);
+        }
+    }
+
+    /**
+     * Start a CAS lock operation, committed by
+     * {@link #casLock(TimedEvent, LockOperation, String, String, int, boolean)}.
+     *
+     * @return The started event.
+     */
+    public static TimedEvent startCasLock()
+    {
+        return AVAILABLE ? CasLockEvent.start() : NOT_STARTED;
+    }
+
+    /**
+     * A CAS lock operation.
+     *
+     * @param event The event started before the operation.
+     * @param operation The operation performed.
+     * @param dataCenter The data center of the lock.
+     * @param resource The locked resource.
+     * @param priority The priority of the lock.
+     * @param successful If the operation was successful, for conditional statements this is the Paxos outcome.
+     */
+    public static void casLock(TimedEvent event, LockOperation operation, String dataCenter, String resource,
+            int priority, boolean successful)
+    {
+        if (AVAILABLE && event instanceof CasLockEvent)
+        {
+            ((CasLockEvent) event).finish(operation, dataCenter, resource, priority, successful);
+        }
+    }
+
+    /**
+     * Start the submission of a repair session, committed by
+     * {@link #repairSubmitted(TimedEvent, TableReference, int, int)}.
+     *
+     * @return The started event.
+     */
+    public static TimedEvent startRepairSubmit()
+    {
+        return AVAILABLE ? RepairSubmitEvent.start() : NOT_STARTED;
+    }
+
+    /**
+     * A repair session was submitted to Cassandra.
+     *
+     * @param event The event started before the submission.
+     * @param tableReference The table being repaired.
+     * @param command The repair command number returned by Cassandra.
+     * @param ranges The number of token ranges in the session.
+     */
+    public static void repairSubmitted(TimedEvent event, TableReference tableReference, int command, int ranges)
+    {
+        if (AVAILABLE && event instanceof RepairSubmitEvent)
+        {
+            ((RepairSubmitEvent) event).finish(tableReference, command, ranges);
+        }
+    }
+
+    /**
+     * A token range of a repair session finished.
+     *
+     * @param tableReference The table being repaired.
+     * @param range The token range.
+     * @param status The status of the range.
+     */
+    public static void repairRangeFinished(TableReference tableReference, LongTokenRange range, Object status)
+    {
+        if (AVAILABLE)
+        {
+            RepairRangeFinishedEvent.emit(tableReference, range, status);
+        }
+    }
+
+    /**
+     * A repair session did not make progress in time and was terminated.
+     *
+     * @param tableReference The table being repaired.
+     * @param command The repair command number.
+     */
+    public static void repairHangPrevention(TableReference tableReference, int command)
+    {
+        if (AVAILABLE)
+        {
+            RepairHangPreventionEvent.emit(tableReference, command);
+        }
+    }
+
+    /**
+     * Start reading the repair history of a table, committed by
+     * {@link #repairHistoryRead(TimedEvent, TableReference, int)}.
+     *
+     * @return The started event.
+     */
+    public static TimedEvent startRepairHistoryRead()
+    {
+        return AVAILABLE ? RepairHistoryReadEvent.start() : NOT_STARTED;
+    }
+
+    /**
+     * The repair history of a table was read and processed.
+     *
+     * @param event The event started before the read.
+     * @param tableReference The table.
+     * @param rows The number of repair history rows read.
+     */
+    public static void repairHistoryRead(TimedEvent event, TableReference tableReference, int rows)
+    {
+        if (AVAILABLE && event instanceof RepairHistoryReadEvent)
+        {
+            ((RepairHistoryReadEvent) event).finish(tableReference, rows);
+        }
+    }
+
+    /**
+     * Start an update of the repair state of a table, committed by
+     * {@link #repairStateUpdated(TimedEvent, TableReference, boolean)}.
+     *
+     * @return The started event.
+     */
+    public static TimedEvent startRepairStateUpdate()
+    {
+        return AVAILABLE ? RepairStateUpdateEvent.start() : NOT_STARTED;
+    }
+
+    /**
+     * The repair state of a table was updated.
+     *
+     * @param event The event started before the update.
+     * @param tableReference The table.
+     * @param snapshotRebuilt If a new repair state snapshot was created.
+     */
+    public static void repairStateUpdated(TimedEvent event, TableReference tableReference, boolean snapshotRebuilt)
+    {
+        if (AVAILABLE && event instanceof RepairStateUpdateEvent)
+        {
+            ((RepairStateUpdateEvent) event).finish(tableReference, snapshotRebuilt);
+        }
+    }
+
+    private static boolean isFlightRecorderAvailable()
+    {
+        try
+        {
+            Class.forName("jdk.jfr.Event", false, FlightRecorderEvents.class.getClassLoader());
+            return true;
+        }
+        catch (ClassNotFoundException | LinkageError e)
+        {
+            return false;
+        }
+    }
+
+    /**
+     * An event that has been started and is committed when the timed operation is done.
+     */
+    public interface TimedEvent
+    {
+    }
+
+    /**
+     * The operations performed on a CAS lock.
+     */
+    public enum LockOperation
+    {
+        COMPETE, ACQUIRE, RENEW, RELEASE
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2021 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecchronos.core.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A job picked by the scheduler.
+ */
+@Name(FlightRecorderEvents.NAME_PREFIX + "JobPicked")
+@Label("Job Picked")
+@Category({ FlightRecorderEvents.CATEGORY, "Scheduler" })
+@StackTrace(false)
+class JobPickedEvent extends Event
+{
+    @Label("Job")
+    String job;
+
+    @Label("Priority")
+    String priority;
+
+    static void emit(Object job, Object priority)
+    {
+        JobPickedEvent event = new JobPickedEvent();
+        if (event.isEnabled())
+        {
+            event.job = String.valueOf(job);
+            event.priority = String.valueOf(priority);
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2021 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecchronos.core.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * A job rejected by a run policy.
+ */
+@Name(FlightRecorderEvents.NAME_PREFIX + "JobRejected")
+@Label("Job Rejected")
+@Category({ FlightRecorderEvents.CATEGORY, "Scheduler" })
+@StackTrace(false)
+class JobRejectedEvent extends Event
+{
+    @Label("Job")
+    String job;
+
+    @Label("Run Policy")
+    String runPolicy;
+
+    @Label("Rejected For")
+    @Timespan(Timespan.MILLISECONDS)
+    long rejectedFor;
+
+    static void emit(Object job, Object runPolicy, long rejectedForMs)
+    {
+        JobRejectedEvent event = new JobRejectedEvent();
+        if (event.isEnabled())
+        {
+            event.job = String.valueOf(job);
+            event.runPolicy = String.valueOf(runPolicy);
+            event.rejectedFor = rejectedForMs;
+            event.commit();
+        }
+    }
+}
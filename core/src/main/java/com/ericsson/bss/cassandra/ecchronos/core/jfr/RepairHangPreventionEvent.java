@@ -0,0 +1,54 @@
+/*
+ * Copyright 2021 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecchronos.core.jfr;
+
+import com.ericsson.bss.cassandra.ecchronos.core.utils.TableReference;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A repair session terminated since it did not make progress.
+ */
+@Name(FlightRecorderEvents.NAME_PREFIX + "RepairHangPrevention")
+@Label("Repair Hang Prevention")
+@Category({ FlightRecorderEvents.CATEGORY, "Repair" })
+@StackTrace(false)
+class RepairHangPreventionEvent extends Event
+{
+    @Label("Keyspace")
+    String keyspace;
+
+    @Label("Table")
+    String table;
+
+    @Label("Command")
+    int command;
+
+    static void emit(TableReference tableReference, int command)
+    {
+        RepairHangPreventionEvent event = new RepairHangPreventionEvent();
+        if (event.isEnabled())
+        {
+            event.keyspace = tableReference.getKeyspace();
+            event.table = tableReference.getTable();
+            event.command = command;
+            event.commit();
+        }
+    }
+}
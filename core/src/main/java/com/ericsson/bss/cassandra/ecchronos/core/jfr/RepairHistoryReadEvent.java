@@ -0,0 +1,61 @@
+/*
+ * Copyright 2021 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecchronos.core.jfr;
+
+import com.ericsson.bss.cassandra.ecchronos.core.utils.TableReference;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * The repair history of a table read to calculate the repair state.
+ */
+@Name(FlightRecorderEvents.NAME_PREFIX + "RepairHistoryRead")
+@Label("Repair History Read")
+@Category({ FlightRecorderEvents.CATEGORY, "Repair State" })
+@StackTrace(false)
+class RepairHistoryReadEvent extends Event implements FlightRecorderEvents.TimedEvent
+{
+    @Label("Keyspace")
+    String keyspace;
+
+    @Label("Table")
+    String table;
+
+    @Label("Rows")
+    int rows;
+
+    static RepairHistoryReadEvent start()
+    {
+        RepairHistoryReadEvent event = new RepairHistoryReadEvent();
+        event.begin();
+        return event;
+    }
+
+    void finish(TableReference tableReference, int rows)
+    {
+        end();
+        if (shouldCommit())
+        {
+            keyspace = tableReference.getKeyspace();
+            table = tableReference.getTable();
+            this.rows = rows;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2021 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecchronos.core.jfr;
+
+import com.ericsson.bss.cassandra.ecchronos.core.utils.LongTokenRange;
+import com.ericsson.bss.cassandra.ecchronos.core.utils.TableReference;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A token range of a repair session that finished.
+ */
+@Name(FlightRecorderEvents.NAME_PREFIX + "RepairRangeFinished")
+@Label("Repair Range Finished")
+@Category({ FlightRecorderEvents.CATEGORY, "Repair" })
+@StackTrace(false)
+class RepairRangeFinishedEvent extends Event
+{
+    @Label("Keyspace")
+    String keyspace;
+
+    @Label("Table")
+    String table;
+
+    @Label("Range Start")
+    long rangeStart;
+
+    @Label("Range End")
+    long rangeEnd;
+
+    @Label("Status")
+    String status;
+
+    static void emit(TableReference tableReference, LongTokenRange range, Object status)
+    {
+        RepairRangeFinishedEvent event = new RepairRangeFinishedEvent();
+        if (event.isEnabled())
+        {
+            event.keyspace = tableReference.getKeyspace();
+            event.table = tableReference.getTable();
+            event.rangeStart = range.start;
+            event.rangeEnd = range.end;
+            event.status = String.valueOf(status);
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2021 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecchronos.core.jfr;
+
+import com.ericsson.bss.cassandra.ecchronos.core.utils.TableReference;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A repair session submitted to Cassandra.
+ */
+@Name(FlightRecorderEvents.NAME_PREFIX + "RepairSubmit")
+@Label("Repair Submit")
+@Category({ FlightRecorderEvents.CATEGORY, "Repair" })
+@StackTrace(false)
+class RepairSubmitEvent extends Event implements FlightRecorderEvents.TimedEvent
+{
+    @Label("Keyspace")
+    String keyspace;
+
+    @Label("Table")
+    String table;
+
+    @Label("Command")
+    int command;
+
+    @Label("Ranges")
+    int ranges;
+
+    static RepairSubmitEvent start()
+    {
+        RepairSubmitEvent event = new RepairSubmitEvent();
+        event.begin();
+        return event;
+    }
+
+    void finish(TableReference tableReference, int command, int ranges)
+    {
+        end();
+        if (shouldCommit())
+        {
+            keyspace = tableReference.getKeyspace();
+            table = tableReference.getTable();
+            this.command = command;
+            this.ranges = ranges;
+            commit();
+        }
+    }
+}
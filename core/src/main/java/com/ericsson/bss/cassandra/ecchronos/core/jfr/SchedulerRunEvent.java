@@ -0,0 +1,55 @@
+/*
+ * Copyright 2021 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecchronos.core.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A run of the scheduler.
+ */
+@Name(FlightRecorderEvents.NAME_PREFIX + "SchedulerRun")
+@Label("Scheduler Run")
+@Category({ FlightRecorderEvents.CATEGORY, "Scheduler" })
+@StackTrace(false)
+class SchedulerRunEvent extends Event implements FlightRecorderEvents.TimedEvent
+{
+    @Label("Examined Jobs")
+    int examinedJobs;
+
+    @Label("Queue Size")
+    int queueSize;
+
+    static SchedulerRunEvent start()
+    {
+        SchedulerRunEvent event = new SchedulerRunEvent();
+        event.begin();
+        return event;
+    }
+
+    void finish(int examinedJobs, int queueSize)
+    {
+        end();
+        if (shouldCommit())
+        {
+            this.examinedJobs = examinedJobs;
+            this.queueSize = queueSize;
+            commit();
+        }
+    }
+}
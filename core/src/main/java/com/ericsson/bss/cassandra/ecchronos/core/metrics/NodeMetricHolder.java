@@ -17,6 +17,7 @@ package com.ericsson.bss.cassandra.ecchronos.core.metrics;
 import java.io.Closeable;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.DoubleAdder;
 
 import com.codahale.metrics.MetricRegistry;
 import com.codahale.metrics.RatioGauge;
@@ -28,6 +29,9 @@ import com.ericsson.bss.cassandra.ecchronos.core.utils.TableReference;
  * A holder class for repair metrics related to this node.
  *
  * The top-level holder is an aggregated view of the different {@link TableMetricHolder}
+ *
+ * The aggregated repair ratios are maintained incrementally when the repair state of a table is updated and when the
+ * data sizes are refreshed, so that reading them doesn't depend on the number of tables.
  */
 public class NodeMetricHolder implements Closeable
 {
@@ -36,29 +40,38 @@ public class NodeMetricHolder implements Closeable
     static final String REPAIR_TIMING_SUCCESS = "RepairSuccessTime";
     static final String REPAIR_TIMING_FAILED = "RepairFailedTime";
 
-    private final ConcurrentHashMap<TableReference, Double> myTableRepairRatio = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<TableReference, TableRepairRatio> myTableRepairRatio = new ConcurrentHashMap<>();
+    private final DoubleAdder myRepairRatioSum = new DoubleAdder();
+    private final DoubleAdder myRepairedDataSize = new DoubleAdder();
 
     private final MetricRegistry myMetricRegistry;
+    private final TableStorageStates myTableStorageStates;
 
     public NodeMetricHolder(MetricRegistry metricRegistry, TableStorageStates tableStorageStates)
     {
         myMetricRegistry = metricRegistry;
+        myTableStorageStates = tableStorageStates;
 
         // Initialize metrics
         timer(REPAIR_TIMING_SUCCESS);
         timer(REPAIR_TIMING_FAILED);
+        for (RepairPhase repairPhase : RepairPhase.values())
+        {
+            timer(repairPhase.getMetricName());
+        }
 
         myMetricRegistry.gauge(REPAIRED_TABLES, () -> new RatioGauge()
         {
             @Override
             protected Ratio getRatio()
             {
-                double averageRatio = myTableRepairRatio.values().stream()
-                        .mapToDouble(d -> d)
-                        .average()
-                        .orElse(1); // 100% when no tables to repair
+                int tables = myTableRepairRatio.size();
+                if (tables == 0)
+                {
+                    return Ratio.of(1, 1); // 100% when no tables to repair
+                }
 
-                return Ratio.of(averageRatio, 1);
+                return Ratio.of(myRepairRatioSum.sum(), tables);
             }
         });
 
@@ -73,23 +86,53 @@ public class NodeMetricHolder implements Closeable
                     return Ratio.of(1, 1); // 100% when no data to repair
                 }
 
-                double repairedDataSize = myTableRepairRatio.entrySet().stream()
-                        .mapToDouble(e -> e.getValue() * tableStorageStates.getDataSize(e.getKey()))
-                        .sum();
-
-                return Ratio.of(repairedDataSize, totalDataSize);
+                return Ratio.of(myRepairedDataSize.sum(), totalDataSize);
             }
         });
+
+        tableStorageStates.addRefreshListener(this::refreshDataSizes);
     }
 
     public void repairState(TableReference tableReference, double repairRatio)
     {
-        myTableRepairRatio.put(tableReference, repairRatio);
+        myTableRepairRatio.compute(tableReference,
+                (tb, previous) -> update(previous, new TableRepairRatio(repairRatio, myTableStorageStates.getDataSize(tb))));
     }
 
     public Double getRepairRatio(TableReference tableReference)
     {
-        return myTableRepairRatio.get(tableReference);
+        TableRepairRatio tableRepairRatio = myTableRepairRatio.get(tableReference);
+
+        return tableRepairRatio == null ? null : tableRepairRatio.myRatio;
+    }
+
+    /**
+     * Update the repaired data size of all tables with the current data sizes.
+     */
+    void refreshDataSizes()
+    {
+        for (TableReference tableReference : myTableRepairRatio.keySet())
+        {
+            myTableRepairRatio.computeIfPresent(tableReference,
+                    (tb, previous) -> update(previous,
+                            new TableRepairRatio(previous.myRatio, myTableStorageStates.getDataSize(tb))));
+        }
+    }
+
+    private TableRepairRatio update(TableRepairRatio previous, TableRepairRatio current)
+    {
+        if (previous == null)
+        {
+            myRepairRatioSum.add(current.myRatio);
+            myRepairedDataSize.add(current.repairedDataSize());
+        }
+        else
+        {
+            myRepairRatioSum.add(current.myRatio - previous.myRatio);
+            myRepairedDataSize.add(current.repairedDataSize() - previous.repairedDataSize());
+        }
+
+        return current;
     }
 
     public void repairTiming(long timeTaken, TimeUnit timeUnit, boolean successful)
@@ -104,6 +147,11 @@ public class NodeMetricHolder implements Closeable
         }
     }
 
+    public void repairPhaseTiming(RepairPhase repairPhase, long timeTaken, TimeUnit timeUnit)
+    {
+        timer(repairPhase.getMetricName()).update(timeTaken, timeUnit);
+    }
+
     private Timer timer(String name)
     {
         return myMetricRegistry.timer(name, Timer::new);
@@ -116,5 +164,26 @@ public class NodeMetricHolder implements Closeable
         myMetricRegistry.remove(REPAIR_TIMING_FAILED);
         myMetricRegistry.remove(REPAIRED_TABLES);
         myMetricRegistry.remove(REPAIRED_DATA);
+        for (RepairPhase repairPhase : RepairPhase.values())
+        {
+            myMetricRegistry.remove(repairPhase.getMetricName());
+        }
+    }
+
+    private static final class TableRepairRatio
+    {
+        private final double myRatio;
+        private final long myDataSize;
+
+        TableRepairRatio(double ratio, long dataSize)
+        {
+            myRatio = ratio;
+            myDataSize = dataSize;
+        }
+
+        double repairedDataSize()
+        {
+            return myRatio * myDataSize;
+        }
     }
 }
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2021 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecchronos.core.metrics;
+
+/**
+ * The phases of a repair that are timed separately.
+ */
+public enum RepairPhase
+{
+    /**
+     * Acquiring the locks of a repair group, including announcing the priority when the locks are taken.
+     */
+    LOCK("RepairLockTime"),
+
+    /**
+     * Submitting the repair command through JMX.
+     */
+    SUBMIT("RepairSubmitTime"),
+
+    /**
+     * Waiting for the notifications of the repair command until it has finished.
+     */
+    WAIT("RepairWaitTime"),
+
+    /**
+     * Writing the start and end of the repair sessions to the repair history.
+     */
+    HISTORY("RepairHistoryTime"),
+
+    /**
+     * Sleeping after the repair command according to the repair unwind ratio.
+     */
+    UNWIND("RepairUnwindTime");
+
+    private final String myMetricName;
+
+    RepairPhase(String metricName)
+    {
+        myMetricName = metricName;
+    }
+
+    /**
+     * Get the name of the timer for this phase.
+     *
+     * @return The metric name.
+     */
+    public String getMetricName()
+    {
+        return myMetricName;
+    }
+}
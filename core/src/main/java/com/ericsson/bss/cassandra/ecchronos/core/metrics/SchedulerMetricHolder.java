@@ -0,0 +1,97 @@
+/*
+ * Copyright 2021 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecchronos.core.metrics;
+
+import java.io.Closeable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+
+/**
+ * Holder class for metrics related to the schedule manager.
+ */
+public class SchedulerMetricHolder implements Closeable, SchedulerMetrics
+{
+    static final String RUN_TIME = "SchedulerRunTime";
+    static final String EXAMINED_JOBS = "SchedulerExaminedJobs";
+    static final String QUEUE_SIZE = "SchedulerQueueSize";
+    static final String LOCK_WAIT_TIME = "SchedulerLockWaitTime";
+    static final String LOCK_CACHE_HITS = "SchedulerLockCacheHits";
+    static final String LOCK_CACHE_MISSES = "SchedulerLockCacheMisses";
+
+    private final AtomicInteger myQueueSize = new AtomicInteger();
+
+    private final MetricRegistry myMetricRegistry;
+    private final Timer myRunTimer;
+    private final Histogram myExaminedJobs;
+    private final Timer myLockWaitTimer;
+    private final Meter myLockCacheHits;
+    private final Meter myLockCacheMisses;
+
+    public SchedulerMetricHolder(MetricRegistry metricRegistry)
+    {
+        myMetricRegistry = metricRegistry;
+
+        myRunTimer = myMetricRegistry.timer(RUN_TIME);
+        myExaminedJobs = myMetricRegistry.histogram(EXAMINED_JOBS);
+        myLockWaitTimer = myMetricRegistry.timer(LOCK_WAIT_TIME);
+        myLockCacheHits = myMetricRegistry.meter(LOCK_CACHE_HITS);
+        myLockCacheMisses = myMetricRegistry.meter(LOCK_CACHE_MISSES);
+        myMetricRegistry.register(QUEUE_SIZE, (Gauge<Integer>) myQueueSize::get);
+    }
+
+    @Override
+    public void run(long timeTaken, TimeUnit timeUnit, int examinedJobs, int queueSize)
+    {
+        myRunTimer.update(timeTaken, timeUnit);
+        myExaminedJobs.update(examinedJobs);
+        myQueueSize.set(queueSize);
+    }
+
+    @Override
+    public void lockWaitTiming(long timeTaken, TimeUnit timeUnit)
+    {
+        myLockWaitTimer.update(timeTaken, timeUnit);
+    }
+
+    @Override
+    public void lockCacheLookup(boolean hit)
+    {
+        if (hit)
+        {
+            myLockCacheHits.mark();
+        }
+        else
+        {
+            myLockCacheMisses.mark();
+        }
+    }
+
+    @Override
+    public void close()
+    {
+        myMetricRegistry.remove(RUN_TIME);
+        myMetricRegistry.remove(EXAMINED_JOBS);
+        myMetricRegistry.remove(QUEUE_SIZE);
+        myMetricRegistry.remove(LOCK_WAIT_TIME);
+        myMetricRegistry.remove(LOCK_CACHE_HITS);
+        myMetricRegistry.remove(LOCK_CACHE_MISSES);
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2021 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecchronos.core.metrics;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Interface for reporting metrics of the schedule manager.
+ */
+public interface SchedulerMetrics
+{
+    /**
+     * Report a run of the scheduler.
+     *
+     * @param timeTaken The time the run took, including running the job.
+     * @param timeUnit The {@link TimeUnit} used for the time taken.
+     * @param examinedJobs The number of runnable jobs that were examined in the run.
+     * @param queueSize The number of jobs in the queue.
+     */
+    void run(long timeTaken, TimeUnit timeUnit, int examinedJobs, int queueSize);
+
+    /**
+     * Report the time a runnable job waited to acquire the lock for one of its tasks.
+     *
+     * @param timeTaken The time from the first failed attempt to lock until the lock was acquired.
+     * @param timeUnit The {@link TimeUnit} used for the time taken.
+     */
+    void lockWaitTiming(long timeTaken, TimeUnit timeUnit);
+
+    /**
+     * Report a lookup in the lock failure cache.
+     *
+     * @param hit True if a cached lock failure was found, which means that the lock was not tried.
+     */
+    void lockCacheLookup(boolean hit);
+}
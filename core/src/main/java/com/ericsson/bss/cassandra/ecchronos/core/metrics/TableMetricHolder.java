@@ -71,6 +71,10 @@ public class TableMetricHolder implements Closeable
         myMetricRegistry.register(metricName(LAST_REPAIRED_AT), lastRepairedAtGauge());
         timer(REPAIR_TIMING_SUCCESS);
         timer(REPAIR_TIMING_FAILED);
+        for (RepairPhase repairPhase : RepairPhase.values())
+        {
+            timer(repairPhase.getMetricName());
+        }
     }
 
     public void repairState(int repairedRanges, int notRepairedRanges)
@@ -114,6 +118,13 @@ public class TableMetricHolder implements Closeable
         myNodeMetricHolder.repairTiming(timeTaken, timeUnit, successful);
     }
 
+    public void repairPhaseTiming(RepairPhase repairPhase, long timeTaken, TimeUnit timeUnit)
+    {
+        timer(repairPhase.getMetricName()).update(timeTaken, timeUnit);
+
+        myNodeMetricHolder.repairPhaseTiming(repairPhase, timeTaken, timeUnit);
+    }
+
     @Override
     public void close()
     {
@@ -121,6 +132,10 @@ public class TableMetricHolder implements Closeable
         myMetricRegistry.remove(metricName(REPAIR_TIMING_FAILED));
         myMetricRegistry.remove(metricName(LAST_REPAIRED_AT));
         myMetricRegistry.remove(metricName(REPAIR_STATE));
+        for (RepairPhase repairPhase : RepairPhase.values())
+        {
+            myMetricRegistry.remove(metricName(repairPhase.getMetricName()));
+        }
     }
 
     private String metricName(String name)
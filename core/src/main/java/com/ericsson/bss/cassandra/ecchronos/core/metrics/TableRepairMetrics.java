@@ -49,4 +49,14 @@ public interface TableRepairMetrics
      * @param successful If the repair was successful or not.
      */
     void repairTiming(TableReference tableReference, long timeTaken, TimeUnit timeUnit, boolean successful);
+
+    /**
+     * Report the time it took to perform one phase of a repair.
+     *
+     * @param tableReference The table the repair was performed on.
+     * @param repairPhase The phase of the repair.
+     * @param timeTaken The time the phase took.
+     * @param timeUnit The {@link TimeUnit} used for the time taken.
+     */
+    void repairPhaseTiming(TableReference tableReference, RepairPhase repairPhase, long timeTaken, TimeUnit timeUnit);
 }
@@ -31,7 +31,7 @@ import com.ericsson.bss.cassandra.ecchronos.core.utils.TableReference;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 
-public final class TableRepairMetricsImpl implements TableRepairMetrics, TableRepairMetricsProvider, Closeable
+public final class TableRepairMetricsImpl implements TableRepairMetrics, TableRepairMetricsProvider, SchedulerMetrics, Closeable
 {
 	private static final Logger LOG = LoggerFactory.getLogger(TableRepairMetricsImpl.class);
 
@@ -45,6 +45,7 @@ public final class TableRepairMetricsImpl implements TableRepairMetrics, TableRe
 
     private final MetricRegistry myMetricRegistry;
     private final NodeMetricHolder myNodeMetricHolder;
+    private final SchedulerMetricHolder mySchedulerMetricHolder;
 
     private TableRepairMetricsImpl(Builder builder)
     {
@@ -52,21 +53,29 @@ public final class TableRepairMetricsImpl implements TableRepairMetrics, TableRe
 
         myNodeMetricHolder = new NodeMetricHolder(myMetricRegistry,
                 Preconditions.checkNotNull(builder.myTableStorageStates, "Table storage states cannot be null"));
+        mySchedulerMetricHolder = new SchedulerMetricHolder(myMetricRegistry);
 
-        File statisticsDirectory = new File(builder.myStatisticsDirectory);
-        if(!statisticsDirectory.exists() && !statisticsDirectory.mkdirs())
+        if (builder.myCsvReporterEnabled)
         {
-            LOG.warn("Failed to create statistics directory: {}, csv files will not be generated", builder.myStatisticsDirectory);
+            File statisticsDirectory = new File(builder.myStatisticsDirectory);
+            if(!statisticsDirectory.exists() && !statisticsDirectory.mkdirs())
+            {
+                LOG.warn("Failed to create statistics directory: {}, csv files will not be generated", builder.myStatisticsDirectory);
+            }
+
+            myTopLevelCsvReporter = CsvReporter.forRegistry(myMetricRegistry)
+                    .convertDurationsTo(TimeUnit.MILLISECONDS)
+                    .convertRatesTo(TimeUnit.SECONDS)
+                    .build(statisticsDirectory);
+            myTopLevelCsvReporter.start(builder.myReportIntervalInMs, builder.myReportIntervalInMs, TimeUnit.MILLISECONDS);
+        }
+        else
+        {
+            myTopLevelCsvReporter = null;
         }
 
-        myTopLevelCsvReporter = CsvReporter.forRegistry(myMetricRegistry)
-                .convertDurationsTo(TimeUnit.MILLISECONDS)
-                .convertRatesTo(TimeUnit.SECONDS)
-                .build(statisticsDirectory);
         myTopLevelJmxReporter = JmxReporter.forRegistry(myMetricRegistry)
                 .build();
-
-        myTopLevelCsvReporter.start(builder.myReportIntervalInMs, builder.myReportIntervalInMs, TimeUnit.MILLISECONDS);
         myTopLevelJmxReporter.start();
     }
 
@@ -94,22 +103,54 @@ public final class TableRepairMetricsImpl implements TableRepairMetrics, TableRe
         tableMetricHolder(tableReference).repairTiming(timeTaken, timeUnit, successful);
     }
 
+    @Override
+    public void repairPhaseTiming(TableReference tableReference, RepairPhase repairPhase, long timeTaken,
+            TimeUnit timeUnit)
+    {
+        tableMetricHolder(tableReference).repairPhaseTiming(repairPhase, timeTaken, timeUnit);
+    }
+
+    @Override
+    public void run(long timeTaken, TimeUnit timeUnit, int examinedJobs, int queueSize)
+    {
+        mySchedulerMetricHolder.run(timeTaken, timeUnit, examinedJobs, queueSize);
+    }
+
+    @Override
+    public void lockWaitTiming(long timeTaken, TimeUnit timeUnit)
+    {
+        mySchedulerMetricHolder.lockWaitTiming(timeTaken, timeUnit);
+    }
+
+    @Override
+    public void lockCacheLookup(boolean hit)
+    {
+        mySchedulerMetricHolder.lockCacheLookup(hit);
+    }
+
     @VisibleForTesting
     void report()
     {
-        myTopLevelCsvReporter.report();
+        if (myTopLevelCsvReporter != null)
+        {
+            myTopLevelCsvReporter.report();
+        }
     }
 
     @Override
     public void close()
     {
-        myTopLevelCsvReporter.report();
-        myTopLevelCsvReporter.close();
+        if (myTopLevelCsvReporter != null)
+        {
+            myTopLevelCsvReporter.report();
+            myTopLevelCsvReporter.close();
+        }
 
         myTopLevelJmxReporter.stop();
         myTopLevelJmxReporter.close();
 
         myNodeMetricHolder.close();
+        mySchedulerMetricHolder.close();
 
         for (TableMetricHolder tableMetricHolder : myTableMetricHolders.values())
         {
@@ -127,6 +168,7 @@ public final class TableRepairMetricsImpl implements TableRepairMetrics, TableRe
         private TableStorageStates myTableStorageStates;
         private String myStatisticsDirectory = DEFAULT_STATISTICS_DIRECTORY;
         private long myReportIntervalInMs = DEFAULT_STATISTICS_REPORT_INTERVAL_IN_MS;
+        private boolean myCsvReporterEnabled = true;
         private MetricRegistry myMetricRegistry;
 
         public Builder withTableStorageStates(TableStorageStates tableStorageStates)
@@ -147,6 +189,20 @@ public final class TableRepairMetricsImpl implements TableRepairMetrics, TableRe
             return this;
         }
 
+        /**
+         * Enable or disable writing of the metrics to CSV files in the statistics directory.
+         * <p>
+         * The metrics are still available through JMX and the metric registry when disabled.
+         *
+         * @param csvReporterEnabled True if CSV files should be written.
+         * @return The builder
+         */
+        public Builder withCsvReporterEnabled(boolean csvReporterEnabled)
+        {
+            myCsvReporterEnabled = csvReporterEnabled;
+            return this;
+        }
+
         public Builder withMetricRegistry(MetricRegistry metricRegistry)
         {
             myMetricRegistry = metricRegistry;
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2021 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecchronos.core.repair;
+
+import com.ericsson.bss.cassandra.ecchronos.core.repair.state.ReplicaRepairGroup;
+import com.ericsson.bss.cassandra.ecchronos.core.utils.TableReference;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Provider of tables that should be repaired in the same repair sessions as a scheduled table repair job.
+ */
+@FunctionalInterface
+public interface CoalescedTablesProvider
+{
+    CoalescedTablesProvider NONE = (job, replicaRepairGroup) -> Collections.emptyList();
+
+    /**
+     * Get the tables to repair together with the table of the job for the provided replica repair group.
+     * <p>
+     * The repair state of the returned tables is still tracked by their own jobs.
+     *
+     * @param job The job repairing the replica repair group.
+     * @param replicaRepairGroup The replica repair group about to be repaired.
+     * @return The other tables to repair in the same sessions, empty if the table should be repaired by itself.
+     */
+    List<TableReference> getCoalescedTables(TableRepairJob job, ReplicaRepairGroup replicaRepairGroup);
+
+    /**
+     * Called by the job after the coalesced tables have been repaired together with the table of the job.
+     * <p>
+     * The repair states of the coalesced tables should be updated so that their own jobs don't repair the same
+     * ranges again.
+     *
+     * @param tableReferences The coalesced tables that were repaired.
+     */
+    default void coalescedTablesRepaired(List<TableReference> tableReferences)
+    {
+        // NOOP
+    }
+}
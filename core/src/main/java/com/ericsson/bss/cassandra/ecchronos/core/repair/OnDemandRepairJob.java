@@ -18,6 +18,7 @@ import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -38,18 +39,23 @@ import com.google.common.collect.ImmutableSet;
  * A Job that will schedule and run repair on one table once. It creates {@link RepairTask RepairTasks} to fully repair
  * the table for the current node. Once all {@link RepairTask RepairTasks} are completed, the repair is finished and the job will be
  * descheduled.
+ * <p>
+ * The job can also repair several tables of the same keyspace, each with its own {@link OngoingJob}.
+ * The tables are then repaired by the same {@link RepairGroup} for each replica group so that each group is only
+ * locked once for all tables.
  */
 public class OnDemandRepairJob extends ScheduledJob
 {
     private static final Logger LOG = LoggerFactory.getLogger(OnDemandRepairJob.class);
 
-    private static final RepairLockFactory repairLockFactory = new RepairLockFactoryImpl();
-
     private final JmxProxyFactory myJmxProxyFactory;
     private final RepairConfiguration myRepairConfiguration;
     private final RepairLockType myRepairLockType;
+    private final RepairLockFactory myRepairLockFactory;
     private final Consumer<UUID> myOnFinishedHook;
     private final RepairHistory myRepairHistory;
+    private final RepairHistoryProvider myRepairHistoryProvider;
+    private final RepairTaskMonitor myRepairTaskMonitor;
 
     private final TableRepairMetrics myTableRepairMetrics;
 
@@ -60,25 +66,59 @@ public class OnDemandRepairJob extends ScheduledJob
     private boolean failed = false;
 
     private final OngoingJob myOngoingJob;
+    private final List<OngoingJob> myOngoingJobs;
+    private final boolean myCombinedRepairSessions;
 
     private OnDemandRepairJob(OnDemandRepairJob.Builder builder)
     {
-        super(builder.configuration, builder.ongoingJob.getJobId());
-
-        myOngoingJob = Preconditions.checkNotNull(builder.ongoingJob, "Ongoing job must be set");
+        super(builder.configuration, getFirstOngoingJob(builder).getJobId());
+
+        myOngoingJobs = new ArrayList<>(builder.ongoingJobs);
+        myOngoingJob = myOngoingJobs.get(0);
+        Preconditions.checkArgument(myOngoingJobs.size() == 1 || myOngoingJobs.stream()
+                .allMatch(job -> job.getTableReference().getKeyspace()
+                        .equals(myOngoingJob.getTableReference().getKeyspace())),
+                "All tables must be in the same keyspace");
+        myCombinedRepairSessions = builder.combinedRepairSessions;
         myJmxProxyFactory = Preconditions.checkNotNull(builder.jmxProxyFactory, "JMX Proxy Factory must be set");
         myTableRepairMetrics = Preconditions.checkNotNull(builder.tableRepairMetrics, "Table repair metrics must be set");
         myRepairConfiguration = Preconditions.checkNotNull(builder.repairConfiguration, "Repair configuration must be set");
         myRepairLockType = Preconditions.checkNotNull(builder.repairLockType, "Repair lock type must be set");
+        myRepairLockFactory = Preconditions.checkNotNull(builder.repairLockFactory, "Repair lock factory must be set");
         myOnFinishedHook = Preconditions.checkNotNull(builder.onFinishedHook, "On finished hook must be set");
         myRepairHistory = Preconditions.checkNotNull(builder.repairHistory, "Repair history must be set");
+        myRepairHistoryProvider = builder.repairHistoryProvider;
+        myRepairTaskMonitor = builder.repairTaskMonitor;
 
-        myTasks = createRepairTasks(myOngoingJob.getTokens(), myOngoingJob.getRepairedTokens());
+        myTasks = createRepairTasks(myOngoingJob.getTokens(), getRepairedTokens());
         myTotalTasks = myTasks.size();
     }
 
+    private static OngoingJob getFirstOngoingJob(OnDemandRepairJob.Builder builder)
+    {
+        Preconditions.checkArgument(builder.ongoingJobs != null && !builder.ongoingJobs.isEmpty(),
+                "Ongoing job must be set");
+        return builder.ongoingJobs.get(0);
+    }
+
+    /**
+     * Get the token ranges that are repaired for all tables, ranges repaired for only some of the tables are
+     * repaired again.
+     */
+    private Set<LongTokenRange> getRepairedTokens()
+    {
+        Set<LongTokenRange> repairedTokens = new HashSet<>(myOngoingJob.getRepairedTokens());
+        for (OngoingJob ongoingJob : myOngoingJobs.subList(1, myOngoingJobs.size()))
+        {
+            repairedTokens.retainAll(ongoingJob.getRepairedTokens());
+        }
+        return repairedTokens;
+    }
+
     private Map<ScheduledTask, Set<LongTokenRange>> createRepairTasks(Map<LongTokenRange, ImmutableSet<Node>> tokenRanges, Set<LongTokenRange> repairedTokens)
     {
+        List<TableReference> tableReferences = getTableReferences();
+
         Map<ScheduledTask, Set<LongTokenRange>> taskMap = new ConcurrentHashMap<>();
         List<VnodeRepairState> vnodeRepairStates = new ArrayList<>();
         Map<LongTokenRange, ImmutableSet<Node>> remainingTokenRanges;
@@ -109,14 +149,17 @@ public class OnDemandRepairJob extends ScheduledJob
             replicaRepairGroup.iterator().forEachRemaining(t -> groupTokenRange.add(t));
 
             taskMap.put(RepairGroup.newBuilder()
-                    .withTableReference(myOngoingJob.getTableReference())
+                    .withTableReferences(tableReferences)
+                    .withCombinedRepairSessions(myCombinedRepairSessions)
                     .withRepairConfiguration(myRepairConfiguration)
                     .withReplicaRepairGroup(replicaRepairGroup)
                     .withJmxProxyFactory(myJmxProxyFactory)
                     .withTableRepairMetrics(myTableRepairMetrics)
                     .withRepairResourceFactory(myRepairLockType.getLockFactory())
-                    .withRepairLockFactory(repairLockFactory)
+                    .withRepairLockFactory(myRepairLockFactory)
                     .withRepairHistory(myRepairHistory)
+                    .withRepairHistoryProvider(myRepairHistoryProvider)
+                    .withRepairTaskMonitor(myRepairTaskMonitor)
                     .withJobId(getId())
                     .build(Priority.HIGHEST.getValue()), groupTokenRange);
         }
@@ -128,29 +171,54 @@ public class OnDemandRepairJob extends ScheduledJob
         return myOngoingJob.getTableReference();
     }
 
+    public List<TableReference> getTableReferences()
+    {
+        return myOngoingJobs.stream()
+                .map(OngoingJob::getTableReference)
+                .collect(Collectors.toList());
+    }
+
     public RepairConfiguration getRepairConfiguration()
     {
         return myRepairConfiguration;
     }
 
     public RepairJobView getView()
+    {
+        return getView(myOngoingJob);
+    }
+
+    /**
+     * Get the views of all tables repaired by this job, each table is represented by the id of its
+     * {@link OngoingJob}.
+     *
+     * @return The views of the tables.
+     */
+    public List<RepairJobView> getViews()
+    {
+        return myOngoingJobs.stream()
+                .map(this::getView)
+                .collect(Collectors.toList());
+    }
+
+    private RepairJobView getView(OngoingJob ongoingJob)
     {
         return new OnDemandRepairJobView(
-                getId(),
-                myOngoingJob.getTableReference(),
+                ongoingJob.getJobId(),
+                ongoingJob.getTableReference(),
                 myRepairConfiguration,
-                getStatus(),
+                getStatus(ongoingJob),
                 getProgress(),
-                myOngoingJob.getCompletedTime());
+                ongoingJob.getCompletedTime());
     }
 
-    private RepairJobView.Status getStatus()
+    private RepairJobView.Status getStatus(OngoingJob ongoingJob)
     {
-        if (failed || myOngoingJob.getStatus() == Status.failed)
+        if (failed || ongoingJob.getStatus() == Status.failed)
         {
             return RepairJobView.Status.ERROR;
         }
-        else if(myOngoingJob.getStatus() == Status.finished)
+        else if(ongoingJob.getStatus() == Status.finished)
         {
             return RepairJobView.Status.COMPLETED;
         }
@@ -174,7 +242,7 @@ public class OnDemandRepairJob extends ScheduledJob
         else
         {
             Set<LongTokenRange> repairedTokenSet = myTasks.remove(task);
-            myOngoingJob.finishRanges(repairedTokenSet);
+            myOngoingJobs.forEach(ongoingJob -> ongoingJob.finishRanges(repairedTokenSet));
         }
 
         super.postExecute(successful, task);
@@ -186,15 +254,35 @@ public class OnDemandRepairJob extends ScheduledJob
         UUID id = getId();
         if (myTasks.isEmpty())
         {
+            for (OngoingJob ongoingJob : myOngoingJobs)
+            {
+                try
+                {
+                    ongoingJob.finishJob();
+                }
+                catch (Exception e)
+                {
+                    LOG.error("Unable to mark on demand repair job {} as finished", ongoingJob.getJobId(), e);
+                }
+            }
             myOnFinishedHook.accept(id);
-            myOngoingJob.finishJob();
             LOG.info("Completed On Demand Repair: {}", id);
         }
 
         if (failed)
         {
-            myOnFinishedHook.accept(getId());
-            myOngoingJob.failJob();
+            for (OngoingJob ongoingJob : myOngoingJobs)
+            {
+                try
+                {
+                    ongoingJob.failJob();
+                }
+                catch (Exception e)
+                {
+                    LOG.error("Unable to mark on demand repair job {} as failed", ongoingJob.getJobId(), e);
+                }
+            }
+            myOnFinishedHook.accept(id);
             LOG.error("Failed On Demand Repair: {}", id);
         }
         super.finishJob();
@@ -220,7 +308,7 @@ public class OnDemandRepairJob extends ScheduledJob
             LOG.error("Repair job with id {} failed", getId());
             return State.FAILED;
         }
-        if (myOngoingJob.hasTopologyChanged())
+        if (myOngoingJobs.stream().anyMatch(OngoingJob::hasTopologyChanged))
         {
             LOG.error("Repair job with id {} failed, token Ranges have changed since repair has was triggered", getId());
             failed = true;
@@ -238,7 +326,11 @@ public class OnDemandRepairJob extends ScheduledJob
     @Override
     public String toString()
     {
-        return String.format("On Demand Repair job of %s", myOngoingJob.getTableReference());
+        if (myOngoingJobs.size() == 1)
+        {
+            return String.format("On Demand Repair job of %s", myOngoingJob.getTableReference());
+        }
+        return String.format("On Demand Repair job of %s", getTableReferences());
     }
 
     public static class Builder
@@ -254,7 +346,11 @@ public class OnDemandRepairJob extends ScheduledJob
         private Consumer<UUID> onFinishedHook = table -> {
         };
         private RepairHistory repairHistory;
-        private OngoingJob ongoingJob;
+        private RepairHistoryProvider repairHistoryProvider;
+        private RepairTaskMonitor repairTaskMonitor = RepairTaskMonitor.DEFAULT;
+        private List<OngoingJob> ongoingJobs;
+        private boolean combinedRepairSessions = false;
+        private RepairLockFactory repairLockFactory = new RepairLockFactoryImpl();
 
         public Builder withJmxProxyFactory(JmxProxyFactory jmxProxyFactory)
         {
@@ -274,6 +370,12 @@ public class OnDemandRepairJob extends ScheduledJob
             return this;
         }
 
+        public Builder withRepairLockFactory(RepairLockFactory repairLockFactory)
+        {
+            this.repairLockFactory = repairLockFactory;
+            return this;
+        }
+
         public Builder withOnFinished(Consumer<UUID> onFinishedHook)
         {
             this.onFinishedHook = onFinishedHook;
@@ -292,9 +394,39 @@ public class OnDemandRepairJob extends ScheduledJob
             return this;
         }
 
+        public Builder withRepairHistoryProvider(RepairHistoryProvider repairHistoryProvider)
+        {
+            this.repairHistoryProvider = repairHistoryProvider;
+            return this;
+        }
+
+        public Builder withRepairTaskMonitor(RepairTaskMonitor repairTaskMonitor)
+        {
+            this.repairTaskMonitor = repairTaskMonitor;
+            return this;
+        }
+
         public Builder withOngoingJob(OngoingJob ongoingJob)
         {
-            this.ongoingJob = ongoingJob;
+            this.ongoingJobs = Collections.singletonList(ongoingJob);
+            return this;
+        }
+
+        /**
+         * Repair the tables of several ongoing jobs in the same keyspace together.
+         *
+         * @param ongoingJobs The ongoing jobs, the id of the first job is used as the id of this job.
+         * @return The builder.
+         */
+        public Builder withOngoingJobs(List<OngoingJob> ongoingJobs)
+        {
+            this.ongoingJobs = new ArrayList<>(ongoingJobs);
+            return this;
+        }
+
+        public Builder withCombinedRepairSessions(boolean combinedRepairSessions)
+        {
+            this.combinedRepairSessions = combinedRepairSessions;
             return this;
         }
 
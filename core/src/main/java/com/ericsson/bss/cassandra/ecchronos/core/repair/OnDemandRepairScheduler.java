@@ -14,6 +14,7 @@
  */
 package com.ericsson.bss.cassandra.ecchronos.core.repair;
 
+import java.util.Collection;
 import java.util.List;
 
 import com.ericsson.bss.cassandra.ecchronos.core.exceptions.EcChronosException;
@@ -35,6 +36,24 @@ public interface OnDemandRepairScheduler
      */
     RepairJobView scheduleJob(TableReference tableReference) throws EcChronosException;
 
+    /**
+     * Create a repair that is slated to run once for several tables in a keyspace.
+     * <p>
+     * The tables are repaired by one job that locks each replica group once for all tables.
+     * Each table is still represented by a view of its own.
+     *
+     * @param keyspace
+     *            The keyspace of the tables.
+     * @param tables
+     *            The tables to schedule a job on, all tables in the keyspace if empty.
+     * @param combinedRepairSessions
+     *            If the tables should be repaired together in one repair session per range.
+     * @return Views of the scheduled tables.
+     * @throws EcChronosException Thrown when the keyspace or one of the tables doesn't exist.
+     */
+    List<RepairJobView> scheduleJobs(String keyspace, Collection<String> tables, boolean combinedRepairSessions)
+            throws EcChronosException;
+
     /**
      * @return the list of all repair jobs.
      */
@@ -15,48 +15,77 @@
 package com.ericsson.bss.cassandra.ecchronos.core.repair;
 
 import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.datastax.driver.core.KeyspaceMetadata;
+import com.datastax.driver.core.TableMetadata;
 import com.ericsson.bss.cassandra.ecchronos.core.exceptions.EcChronosException;
 import com.datastax.driver.core.Metadata;
 import com.datastax.driver.core.exceptions.NoHostAvailableException;
 import com.ericsson.bss.cassandra.ecchronos.core.JmxProxyFactory;
 import com.ericsson.bss.cassandra.ecchronos.core.metrics.TableRepairMetrics;
 import com.ericsson.bss.cassandra.ecchronos.core.repair.state.RepairHistory;
+import com.ericsson.bss.cassandra.ecchronos.core.repair.state.RepairHistoryProvider;
 import com.ericsson.bss.cassandra.ecchronos.core.repair.state.ReplicationState;
 import com.ericsson.bss.cassandra.ecchronos.core.scheduling.ScheduleManager;
 import com.ericsson.bss.cassandra.ecchronos.core.scheduling.ScheduledJob;
+import com.ericsson.bss.cassandra.ecchronos.core.utils.LongTokenRange;
 import com.ericsson.bss.cassandra.ecchronos.core.utils.TableReference;
+import com.ericsson.bss.cassandra.ecchronos.core.utils.TableReferenceFactory;
+import com.ericsson.bss.cassandra.ecchronos.core.utils.TableReferenceFactoryImpl;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 /**
  * A factory creating {@link OnDemandRepairJob}'s for tables.
+ * <p>
+ * Several tables of a keyspace can be repaired by the same job, see {@link #scheduleJobs(String, Collection, boolean)}.
+ * Each table is stored with its own id in {@link OnDemandStatus} so if such a job is resumed after a restart
+ * each table is repaired by a job of its own.
+ * <p>
+ * Views of on demand jobs that are not scheduled locally are kept in an in-memory index.
+ * The index is updated when local jobs complete and refreshed periodically from {@link OnDemandStatus}.
  */
 public class OnDemandRepairSchedulerImpl implements OnDemandRepairScheduler, Closeable
 {
     private static final Logger LOG = LoggerFactory.getLogger(OnDemandRepairSchedulerImpl.class);
 
+    private static final long DEFAULT_STATUS_REFRESH_INTERVAL_IN_MS = TimeUnit.SECONDS.toMillis(30);
+
     private final Map<UUID, OnDemandRepairJob> myScheduledJobs = new HashMap<>();
     private final Object myLock = new Object();
+    private final AtomicReference<ImmutableMap<UUID, RepairJobView>> myJobViews = new AtomicReference<>();
+    private final ScheduledExecutorService myRefreshExecutor;
 
     private final JmxProxyFactory myJmxProxyFactory;
     private final TableRepairMetrics myTableRepairMetrics;
     private final ScheduleManager myScheduleManager;
     private final ReplicationState myReplicationState;
     private final RepairLockType myRepairLockType;
+    private final RepairLockFactory myRepairLockFactory;
     private final Metadata myMetadata;
     private final RepairConfiguration myRepairConfiguration;
     private final RepairHistory myRepairHistory;
+    private final RepairHistoryProvider myRepairHistoryProvider;
     private final OnDemandStatus myOnDemandStatus;
+    private final TableReferenceFactory myTableReferenceFactory;
+    private final Consumer<TableReference> myOnRepairedHook;
 
     private OnDemandRepairSchedulerImpl(Builder builder)
     {
@@ -65,10 +94,23 @@ public class OnDemandRepairSchedulerImpl implements OnDemandRepairScheduler, Clo
         myScheduleManager = builder.myScheduleManager;
         myReplicationState = builder.myReplicationState;
         myRepairLockType = builder.repairLockType;
+        myRepairLockFactory = new RepairLockFactoryImpl(builder.locksPerResource);
         myMetadata = builder.metadata;
-        myRepairConfiguration = builder.repairConfiguration;
+        // On demand repairs always repair the requested ranges fully
+        myRepairConfiguration = RepairConfiguration.newBuilder(builder.repairConfiguration)
+                .withRepairType(RepairOptions.RepairType.VNODE)
+                .build();
         myRepairHistory = builder.repairHistory;
+        myRepairHistoryProvider = builder.repairHistoryProvider;
         myOnDemandStatus = builder.onDemandStatus;
+        myTableReferenceFactory = builder.tableReferenceFactory != null
+                ? builder.tableReferenceFactory
+                : new TableReferenceFactoryImpl(myMetadata);
+        myOnRepairedHook = builder.onRepairedHook;
+        myRefreshExecutor = Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setNameFormat("OnDemandRepairStatusRefresher-%d").setDaemon(true).build());
+        myRefreshExecutor.scheduleWithFixedDelay(this::refreshJobViews, builder.statusRefreshIntervalInMs,
+                builder.statusRefreshIntervalInMs, TimeUnit.MILLISECONDS);
         new Thread(this::getOngoingJobs).start();
     }
 
@@ -106,6 +148,8 @@ public class OnDemandRepairSchedulerImpl implements OnDemandRepairScheduler, Clo
     @Override
     public void close()
     {
+        myRefreshExecutor.shutdown();
+
         synchronized (myLock)
         {
             for (ScheduledJob job : myScheduledJobs.values())
@@ -137,6 +181,59 @@ public class OnDemandRepairSchedulerImpl implements OnDemandRepairScheduler, Clo
         }
     }
 
+    @Override
+    public List<RepairJobView> scheduleJobs(String keyspace, Collection<String> tables,
+            boolean combinedRepairSessions) throws EcChronosException
+    {
+        synchronized (myLock)
+        {
+            KeyspaceMetadata ks = keyspace == null ? null : myMetadata.getKeyspace(keyspace);
+            if (ks == null)
+            {
+                throw new EcChronosException("Keyspace does not exist");
+            }
+
+            List<TableReference> tableReferences = getTableReferences(ks, tables);
+            if (tableReferences.isEmpty())
+            {
+                return new ArrayList<>();
+            }
+
+            OnDemandRepairJob job = getRepairJob(tableReferences, combinedRepairSessions);
+            myScheduledJobs.put(job.getId(), job);
+            myScheduleManager.schedule(job);
+            return job.getViews();
+        }
+    }
+
+    private List<TableReference> getTableReferences(KeyspaceMetadata ks, Collection<String> tables)
+            throws EcChronosException
+    {
+        Set<String> tableNames = new HashSet<>();
+        if (tables == null || tables.isEmpty())
+        {
+            ks.getTables().forEach(tableMetadata -> tableNames.add(tableMetadata.getName()));
+        }
+        else
+        {
+            tableNames.addAll(tables);
+        }
+
+        List<TableReference> tableReferences = new ArrayList<>();
+        for (String table : tableNames)
+        {
+            TableMetadata tableMetadata = ks.getTable(table);
+            TableReference tableReference = tableMetadata == null ? null
+                    : myTableReferenceFactory.forTable(ks.getName(), tableMetadata.getName());
+            if (tableReference == null)
+            {
+                throw new EcChronosException("Table " + ks.getName() + "." + table + " does not exist");
+            }
+            tableReferences.add(tableReference);
+        }
+        return tableReferences;
+    }
+
     private void scheduleOngoingJob(OngoingJob ongoingJob)
     {
         synchronized (myLock)
@@ -154,27 +251,180 @@ public class OnDemandRepairSchedulerImpl implements OnDemandRepairScheduler, Clo
         synchronized (myLock)
         {
             return myScheduledJobs.values().stream()
-                    .map(OnDemandRepairJob::getView)
+                    .flatMap(job -> job.getViews().stream())
                     .collect(Collectors.toList());
         }
     }
 
+    /**
+     * Get views of all on demand jobs for the local node.
+     * <p>
+     * Locally scheduled jobs are represented by their current state while other jobs are served from the index.
+     * The index is only read from {@link OnDemandStatus} directly the first time it's used.
+     *
+     * @return the list of all repair jobs.
+     */
     @Override
     public List<RepairJobView> getAllRepairJobs()
     {
-        return myOnDemandStatus.getAllJobs(myReplicationState).stream()
-                .map(job -> getOngoingRepairJob(job))
-                .map(OnDemandRepairJob::getView)
-                .collect(Collectors.toList());
+        Map<UUID, RepairJobView> jobViews = myJobViews.get();
+        if (jobViews == null)
+        {
+            refreshJobViews();
+            jobViews = myJobViews.get();
+        }
+
+        List<RepairJobView> allJobViews = new ArrayList<>();
+        synchronized (myLock)
+        {
+            Set<UUID> scheduledIds = new HashSet<>();
+            for (OnDemandRepairJob job : myScheduledJobs.values())
+            {
+                for (RepairJobView view : job.getViews())
+                {
+                    allJobViews.add(view);
+                    scheduledIds.add(view.getId());
+                }
+            }
+            if (jobViews != null)
+            {
+                jobViews.entrySet().stream()
+                        .filter(entry -> !scheduledIds.contains(entry.getKey()))
+                        .forEach(entry -> allJobViews.add(entry.getValue()));
+            }
+        }
+        return allJobViews;
+    }
+
+    private void refreshJobViews()
+    {
+        try
+        {
+            Map<UUID, RepairJobView> previousJobViews = myJobViews.get();
+            Map<UUID, RepairJobView> knownJobViews = previousJobViews == null ? ImmutableMap.of() : previousJobViews;
+            Map<UUID, RepairJobView> loadedJobViews = new HashMap<>();
+
+            for (OngoingJob ongoingJob : myOnDemandStatus.getAllJobs(myReplicationState))
+            {
+                RepairJobView knownView = knownJobViews.get(ongoingJob.getJobId());
+                if (knownView != null && isCompleted(knownView))
+                {
+                    loadedJobViews.put(ongoingJob.getJobId(), knownView);
+                }
+                else
+                {
+                    loadedJobViews.put(ongoingJob.getJobId(), getView(ongoingJob));
+                }
+            }
+
+            myJobViews.updateAndGet(currentJobViews -> mergeJobViews(knownJobViews, currentJobViews, loadedJobViews));
+        }
+        catch (Exception e)
+        {
+            LOG.warn("Unable to refresh on demand repair job status", e);
+        }
+    }
+
+    /**
+     * Merge job views loaded from storage with the views currently in the index.
+     * <p>
+     * Completed views in the index are kept as they can't change.
+     * Views added to the index during the load are kept even if they were not part of the loaded views.
+     */
+    private static ImmutableMap<UUID, RepairJobView> mergeJobViews(Map<UUID, RepairJobView> knownJobViews,
+            Map<UUID, RepairJobView> currentJobViews, Map<UUID, RepairJobView> loadedJobViews)
+    {
+        Map<UUID, RepairJobView> mergedJobViews = new HashMap<>(loadedJobViews);
+
+        if (currentJobViews != null)
+        {
+            for (Map.Entry<UUID, RepairJobView> entry : currentJobViews.entrySet())
+            {
+                if (isCompleted(entry.getValue()) && mergedJobViews.containsKey(entry.getKey())
+                        || !knownJobViews.containsKey(entry.getKey()))
+                {
+                    mergedJobViews.put(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+
+        return ImmutableMap.copyOf(mergedJobViews);
+    }
+
+    /**
+     * Create the view of a stored job directly from its status and repaired token ranges, without creating a job.
+     */
+    private RepairJobView getView(OngoingJob ongoingJob)
+    {
+        return new OnDemandRepairJobView(
+                ongoingJob.getJobId(),
+                ongoingJob.getTableReference(),
+                myRepairConfiguration,
+                getStatus(ongoingJob),
+                getProgress(ongoingJob),
+                ongoingJob.getCompletedTime());
+    }
+
+    private static RepairJobView.Status getStatus(OngoingJob ongoingJob)
+    {
+        switch (ongoingJob.getStatus())
+        {
+            case finished:
+                return RepairJobView.Status.COMPLETED;
+            case failed:
+                return RepairJobView.Status.ERROR;
+            default:
+                return RepairJobView.Status.IN_QUEUE;
+        }
+    }
+
+    private static double getProgress(OngoingJob ongoingJob)
+    {
+        if (ongoingJob.getStatus() == OngoingJob.Status.finished)
+        {
+            return 1;
+        }
+
+        Set<LongTokenRange> tokenRanges = ongoingJob.getTokens().keySet();
+        if (tokenRanges.isEmpty())
+        {
+            return 1;
+        }
+
+        Set<LongTokenRange> repairedTokenRanges = ongoingJob.getRepairedTokens();
+        long repairedRanges = tokenRanges.stream().filter(repairedTokenRanges::contains).count();
+        return (double) repairedRanges / tokenRanges.size();
+    }
+
+    private static boolean isCompleted(RepairJobView view)
+    {
+        return view.getStatus() == RepairJobView.Status.COMPLETED || view.getStatus() == RepairJobView.Status.ERROR;
     }
 
     private void removeScheduledJob(UUID id)
     {
+        OnDemandRepairJob job;
+
         synchronized (myLock)
         {
-            ScheduledJob job = myScheduledJobs.remove(id);
+            job = myScheduledJobs.remove(id);
+            if (job != null)
+            {
+                List<RepairJobView> views = job.getViews();
+                myJobViews.updateAndGet(jobViews ->
+                {
+                    Map<UUID, RepairJobView> updatedJobViews = jobViews == null ? new HashMap<>() : new HashMap<>(jobViews);
+                    views.forEach(view -> updatedJobViews.put(view.getId(), view));
+                    return ImmutableMap.copyOf(updatedJobViews);
+                });
+            }
             myScheduleManager.deschedule(job);
         }
+
+        if (job != null)
+        {
+            job.getTableReferences().forEach(myOnRepairedHook);
+        }
     }
 
     private void descheduleTable(ScheduledJob job)
@@ -196,23 +446,52 @@ public class OnDemandRepairSchedulerImpl implements OnDemandRepairScheduler, Clo
                 .withJmxProxyFactory(myJmxProxyFactory)
                 .withTableRepairMetrics(myTableRepairMetrics)
                 .withRepairLockType(myRepairLockType)
+                .withRepairLockFactory(myRepairLockFactory)
                 .withOnFinished(this::removeScheduledJob)
                 .withRepairConfiguration(myRepairConfiguration)
                 .withRepairHistory(myRepairHistory)
+                .withRepairHistoryProvider(myRepairHistoryProvider)
                 .withOngoingJob(ongoingJob)
                 .build();
         return job;
     }
 
+    private OnDemandRepairJob getRepairJob(List<TableReference> tableReferences, boolean combinedRepairSessions)
+    {
+        List<OngoingJob> ongoingJobs = new ArrayList<>(tableReferences.size());
+        for (TableReference tableReference : tableReferences)
+        {
+            ongoingJobs.add(new OngoingJob.Builder()
+                    .withOnDemandStatus(myOnDemandStatus)
+                    .withTableReference(tableReference)
+                    .withReplicationState(myReplicationState)
+                    .build());
+        }
+        return new OnDemandRepairJob.Builder()
+                .withJmxProxyFactory(myJmxProxyFactory)
+                .withTableRepairMetrics(myTableRepairMetrics)
+                .withRepairLockType(myRepairLockType)
+                .withRepairLockFactory(myRepairLockFactory)
+                .withOnFinished(this::removeScheduledJob)
+                .withRepairConfiguration(myRepairConfiguration)
+                .withRepairHistory(myRepairHistory)
+                .withRepairHistoryProvider(myRepairHistoryProvider)
+                .withOngoingJobs(ongoingJobs)
+                .withCombinedRepairSessions(combinedRepairSessions)
+                .build();
+    }
+
     private OnDemandRepairJob getOngoingRepairJob(OngoingJob ongoingJob)
     {
         OnDemandRepairJob job = new OnDemandRepairJob.Builder()
                 .withJmxProxyFactory(myJmxProxyFactory)
                 .withTableRepairMetrics(myTableRepairMetrics)
                 .withRepairLockType(myRepairLockType)
+                .withRepairLockFactory(myRepairLockFactory)
                 .withOnFinished(this::removeScheduledJob)
                 .withRepairConfiguration(myRepairConfiguration)
                 .withRepairHistory(myRepairHistory)
+                .withRepairHistoryProvider(myRepairHistoryProvider)
                 .withOngoingJob(ongoingJob)
                 .build();
         return job;
@@ -230,10 +509,15 @@ public class OnDemandRepairSchedulerImpl implements OnDemandRepairScheduler, Clo
         private ScheduleManager myScheduleManager;
         private ReplicationState myReplicationState;
         private RepairLockType repairLockType;
+        private int locksPerResource = RepairLockFactoryImpl.DEFAULT_LOCKS_PER_RESOURCE;
         private Metadata metadata;
-        private RepairConfiguration repairConfiguration;
+        private RepairConfiguration repairConfiguration = RepairConfiguration.DEFAULT;
         private RepairHistory repairHistory;
+        private RepairHistoryProvider repairHistoryProvider;
         private OnDemandStatus onDemandStatus;
+        private TableReferenceFactory tableReferenceFactory;
+        private long statusRefreshIntervalInMs = DEFAULT_STATUS_REFRESH_INTERVAL_IN_MS;
+        private Consumer<TableReference> onRepairedHook = tableReference -> {};
 
         public Builder withJmxProxyFactory(JmxProxyFactory jmxProxyFactory)
         {
@@ -265,6 +549,18 @@ public class OnDemandRepairSchedulerImpl implements OnDemandRepairScheduler, Clo
             return this;
         }
 
+        /**
+         * Set the number of repairs that can hold each repair resource concurrently.
+         *
+         * @param locksPerResource The number of locks per repair resource.
+         * @return The builder
+         */
+        public Builder withLocksPerResource(int locksPerResource)
+        {
+            this.locksPerResource = locksPerResource;
+            return this;
+        }
+
         public Builder withMetadata(Metadata metadata)
         {
             this.metadata = metadata;
@@ -283,12 +579,43 @@ public class OnDemandRepairSchedulerImpl implements OnDemandRepairScheduler, Clo
             return this;
         }
 
+        public Builder withRepairHistoryProvider(RepairHistoryProvider repairHistoryProvider)
+        {
+            this.repairHistoryProvider = repairHistoryProvider;
+            return this;
+        }
+
         public Builder withOnDemandStatus(OnDemandStatus onDemandStatus)
         {
             this.onDemandStatus = onDemandStatus;
             return this;
         }
 
+        public Builder withTableReferenceFactory(TableReferenceFactory tableReferenceFactory)
+        {
+            this.tableReferenceFactory = tableReferenceFactory;
+            return this;
+        }
+
+        public Builder withStatusRefreshInterval(long refreshInterval, TimeUnit timeUnit)
+        {
+            this.statusRefreshIntervalInMs = timeUnit.toMillis(refreshInterval);
+            return this;
+        }
+
+        /**
+         * Set the hook called for each table of an on demand repair job when the job has finished,
+         * e.g. to refresh the repair state of the scheduled repair job of the table.
+         *
+         * @param onRepairedHook The hook.
+         * @return The builder
+         */
+        public Builder withOnRepaired(Consumer<TableReference> onRepairedHook)
+        {
+            this.onRepairedHook = onRepairedHook;
+            return this;
+        }
+
         public OnDemandRepairSchedulerImpl build()
         {
             return new OnDemandRepairSchedulerImpl(this);
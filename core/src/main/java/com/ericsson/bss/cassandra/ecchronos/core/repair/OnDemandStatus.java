@@ -25,6 +25,7 @@ import com.datastax.driver.core.BoundStatement;
 import com.datastax.driver.core.ConsistencyLevel;
 import com.datastax.driver.core.PreparedStatement;
 import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.ResultSetFuture;
 import com.datastax.driver.core.Row;
 import com.datastax.driver.core.Session;
 import com.datastax.driver.core.UDTValue;
@@ -36,6 +37,8 @@ import com.ericsson.bss.cassandra.ecchronos.core.repair.state.ReplicationState;
 import com.ericsson.bss.cassandra.ecchronos.core.utils.TableReference;
 import com.ericsson.bss.cassandra.ecchronos.core.utils.TableReferenceFactory;
 import com.ericsson.bss.cassandra.ecchronos.core.utils.TableReferenceFactoryImpl;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
 
 import static com.datastax.driver.core.querybuilder.QueryBuilder.*;
 
@@ -51,6 +54,7 @@ public class OnDemandStatus
     private static final String TABLE_REFERENCE_COLUMN_NAME = "table_reference";
     private static final String TOKEN_MAP_HASH_COLUMN_NAME = "token_map_hash";
     private static final String REPAIRED_TOKENS_COLUMN_NAME = "repaired_tokens";
+    private static final String COMPLETED_TOKENS_COLUMN_NAME = "completed_tokens";
     private static final String UDT_TOKEN_RANGE_NAME = "token_range";
     private static final String UDT_START_TOKEN_NAME = "start";
     private static final String UDT_END_TOKEN_NAME = "end";
@@ -81,7 +85,7 @@ public class OnDemandStatus
 
         BuiltStatement getStatusStatement = select().from(KEYSPACE_NAME, TABLE_NAME).where(eq(HOST_ID_COLUMN_NAME, bindMarker()));
         BuiltStatement insertNewJobStatement = insertInto(KEYSPACE_NAME, TABLE_NAME).value(HOST_ID_COLUMN_NAME, bindMarker()).value(JOB_ID_COLUMN_NAME, bindMarker()).value(TABLE_REFERENCE_COLUMN_NAME, bindMarker()).value(TOKEN_MAP_HASH_COLUMN_NAME, bindMarker()).value(STATUS_COLUMN_NAME, "started");
-        BuiltStatement updateRepairedTokenForJobStatement = update(KEYSPACE_NAME, TABLE_NAME).with(set(REPAIRED_TOKENS_COLUMN_NAME, bindMarker())).where(eq(HOST_ID_COLUMN_NAME, bindMarker())).and(eq(JOB_ID_COLUMN_NAME, bindMarker()));
+        BuiltStatement updateRepairedTokenForJobStatement = update(KEYSPACE_NAME, TABLE_NAME).with(addAll(COMPLETED_TOKENS_COLUMN_NAME, bindMarker())).where(eq(HOST_ID_COLUMN_NAME, bindMarker())).and(eq(JOB_ID_COLUMN_NAME, bindMarker()));
         BuiltStatement updateJobToFinishedStatement = update(KEYSPACE_NAME, TABLE_NAME).with(set(STATUS_COLUMN_NAME, "finished")).and(set(COMPLEDED_TIME_COLUMN_NAME, bindMarker())).where(eq(HOST_ID_COLUMN_NAME, bindMarker())).and(eq(JOB_ID_COLUMN_NAME, bindMarker()));
         BuiltStatement updateJobToFailedStatement = update(KEYSPACE_NAME, TABLE_NAME).with(set(STATUS_COLUMN_NAME, "failed")).and(set(COMPLEDED_TIME_COLUMN_NAME, bindMarker())).where(eq(HOST_ID_COLUMN_NAME, bindMarker())).and(eq(JOB_ID_COLUMN_NAME, bindMarker()));
 
@@ -147,7 +151,8 @@ public class OnDemandStatus
     {
         UUID jobId = row.getUUID(JOB_ID_COLUMN_NAME);
         int tokenMapHash = row.getInt(TOKEN_MAP_HASH_COLUMN_NAME);
-        Set<UDTValue> repairedTokens = row.getSet(REPAIRED_TOKENS_COLUMN_NAME, UDTValue.class);
+        Set<UDTValue> repairedTokens = new HashSet<>(row.getSet(REPAIRED_TOKENS_COLUMN_NAME, UDTValue.class));
+        repairedTokens.addAll(row.getSet(COMPLETED_TOKENS_COLUMN_NAME, UDTValue.class));
         UDTValue uDTTableReference = row.getUDTValue(TABLE_REFERENCE_COLUMN_NAME);
         String keyspace = uDTTableReference.getString(UDT_KEYSPACE_NAME);
         String table = uDTTableReference.getString(UDT_TABLE_NAME);
@@ -177,9 +182,34 @@ public class OnDemandStatus
         mySession.execute(statement);
     }
 
-    public void updateJob(UUID jobId, Set<UDTValue> repairedTokens)
+    /**
+     * Append newly repaired token ranges to the job.
+     * <p>
+     * The ranges are added to a non-frozen set so only the provided ranges are written.
+     * The write is performed asynchronously, if it fails the ranges will be repaired again in case the job is resumed.
+     *
+     * @param jobId The id of the job.
+     * @param repairedTokens The token ranges repaired since the last update.
+     * @return The future of the write.
+     */
+    public ResultSetFuture updateJob(UUID jobId, Set<UDTValue> repairedTokens)
     {
-        mySession.execute(myUpdateRepairedTokenForJobStatement.bind(repairedTokens, myHostId, jobId));
+        ResultSetFuture future = mySession.executeAsync(myUpdateRepairedTokenForJobStatement.bind(repairedTokens, myHostId, jobId));
+        Futures.addCallback(future, new FutureCallback<ResultSet>()
+        {
+            @Override
+            public void onSuccess(ResultSet result)
+            {
+                // Nothing to do
+            }
+
+            @Override
+            public void onFailure(Throwable t)
+            {
+                LOG.warn("Unable to store repaired token ranges for job {}", jobId, t);
+            }
+        });
+        return future;
     }
 
     public void finishJob(UUID jobId)
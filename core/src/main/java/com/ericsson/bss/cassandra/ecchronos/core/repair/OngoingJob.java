@@ -40,8 +40,8 @@ public class OngoingJob
     private final OnDemandStatus myOnDemandStatus;
 	private final ReplicationState myReplicationState;
     private final Integer myTokenHash;
-    private final Status myStatus;
-    private final long myCompletedTime;
+    private volatile Status myStatus;
+    private volatile long myCompletedTime;
 
     private OngoingJob(Builder builder)
     {
@@ -90,8 +90,10 @@ public class OngoingJob
 
     public void finishRanges(Set<LongTokenRange> ranges)
     {
-        ranges.forEach(t -> myRepairedTokens.add(myOnDemandStatus.createUDTTokenRangeValue(t.start, t.end)));
-        myOnDemandStatus.updateJob(myJobId, myRepairedTokens);
+        Set<UDTValue> finishedTokens = new HashSet<>();
+        ranges.forEach(t -> finishedTokens.add(myOnDemandStatus.createUDTTokenRangeValue(t.start, t.end)));
+        myRepairedTokens.addAll(finishedTokens);
+        myOnDemandStatus.updateJob(myJobId, finishedTokens);
     }
 
     public Map<LongTokenRange, ImmutableSet<Node>> getTokens()
@@ -108,11 +110,15 @@ public class OngoingJob
     public void finishJob()
     {
     	myOnDemandStatus.finishJob(myJobId);
+        myCompletedTime = System.currentTimeMillis();
+        myStatus = Status.finished;
     }
 
     public void failJob()
     {
     	myOnDemandStatus.failJob(myJobId);
+        myCompletedTime = System.currentTimeMillis();
+        myStatus = Status.failed;
     }
 
     public static class Builder
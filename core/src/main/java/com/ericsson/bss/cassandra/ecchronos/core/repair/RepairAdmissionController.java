@@ -0,0 +1,157 @@
+/*
+ * Copyright 2021 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecchronos.core.repair;
+
+import java.io.IOException;
+
+import com.ericsson.bss.cassandra.ecchronos.core.JmxProxy;
+import com.ericsson.bss.cassandra.ecchronos.core.JmxProxyFactory;
+import com.ericsson.bss.cassandra.ecchronos.core.scheduling.AdmissionController;
+import com.google.common.annotations.VisibleForTesting;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Admission controller allowing several repairs to run concurrently on the local node.
+ * <p>
+ * Additional repairs are only started as long as the validation backlog of the local node,
+ * the number of active and pending validations, is below half the number of available processors.
+ * Each repair still needs to acquire its own leases before it runs.
+ * No additional repairs are started while the {@link RepairTaskMonitor} waits for the running repairs to finish
+ * before terminating the repair sessions of a hanging repair.
+ */
+public class RepairAdmissionController implements AdmissionController
+{
+    private static final Logger LOG = LoggerFactory.getLogger(RepairAdmissionController.class);
+
+    static final int PROCESSORS_PER_REPAIR = 8;
+
+    private final JmxProxyFactory myJmxProxyFactory;
+    private final int myMaxConcurrentRepairs;
+    private final long myValidationBacklogThreshold;
+    private final RepairTaskMonitor myRepairTaskMonitor;
+
+    private RepairAdmissionController(Builder builder)
+    {
+        myJmxProxyFactory = builder.myJmxProxyFactory;
+        myRepairTaskMonitor = builder.myRepairTaskMonitor;
+
+        int availableProcessors = Math.max(1, builder.myAvailableProcessors);
+        if (builder.myMaxConcurrentRepairs > 0)
+        {
+            myMaxConcurrentRepairs = builder.myMaxConcurrentRepairs;
+        }
+        else
+        {
+            myMaxConcurrentRepairs = Math.max(1, availableProcessors / PROCESSORS_PER_REPAIR);
+        }
+        myValidationBacklogThreshold = Math.max(1, availableProcessors / 2);
+    }
+
+    @Override
+    public int getMaxConcurrentJobs()
+    {
+        return myMaxConcurrentRepairs;
+    }
+
+    @Override
+    public boolean admit(int runningJobs)
+    {
+        if (runningJobs >= myMaxConcurrentRepairs)
+        {
+            return false;
+        }
+
+        if (myRepairTaskMonitor.isTerminationPending())
+        {
+            LOG.debug("Termination of repair sessions pending, not starting more repairs");
+            return false;
+        }
+
+        try (JmxProxy proxy = myJmxProxyFactory.connect())
+        {
+            long validationBacklog = proxy.getValidationBacklog();
+            if (validationBacklog < 0)
+            {
+                LOG.debug("Validation backlog not available, not starting more repairs");
+                return false;
+            }
+
+            LOG.debug("Validation backlog is {} with {} repairs running", validationBacklog, runningJobs);
+            return validationBacklog < myValidationBacklogThreshold;
+        }
+        catch (IOException e)
+        {
+            LOG.warn("Unable to retrieve validation backlog", e);
+        }
+
+        return false;
+    }
+
+    public static Builder builder()
+    {
+        return new Builder();
+    }
+
+    public static class Builder
+    {
+        private JmxProxyFactory myJmxProxyFactory;
+        private int myMaxConcurrentRepairs = 1;
+        private int myAvailableProcessors = Runtime.getRuntime().availableProcessors();
+        private RepairTaskMonitor myRepairTaskMonitor = RepairTaskMonitor.DEFAULT;
+
+        public Builder withJmxProxyFactory(JmxProxyFactory jmxProxyFactory)
+        {
+            myJmxProxyFactory = jmxProxyFactory;
+            return this;
+        }
+
+        /**
+         * Set the maximum number of repairs to run concurrently on the local node.
+         *
+         * @param maxConcurrentRepairs The maximum number of repairs or 0 to base it on the number of available processors.
+         * @return The builder
+         */
+        public Builder withMaxConcurrentRepairs(int maxConcurrentRepairs)
+        {
+            myMaxConcurrentRepairs = maxConcurrentRepairs;
+            return this;
+        }
+
+        @VisibleForTesting
+        Builder withRepairTaskMonitor(RepairTaskMonitor repairTaskMonitor)
+        {
+            myRepairTaskMonitor = repairTaskMonitor;
+            return this;
+        }
+
+        @VisibleForTesting
+        Builder withAvailableProcessors(int availableProcessors)
+        {
+            myAvailableProcessors = availableProcessors;
+            return this;
+        }
+
+        public RepairAdmissionController build()
+        {
+            if (myJmxProxyFactory == null)
+            {
+                throw new IllegalArgumentException("JMX proxy factory cannot be null");
+            }
+
+            return new RepairAdmissionController(this);
+        }
+    }
+}
@@ -31,6 +31,7 @@ public class RepairConfiguration
     private static final RepairOptions.RepairParallelism DEFAULT_REPAIR_PARALLELISM = RepairOptions.RepairParallelism.PARALLEL;
     private static final double DEFAULT_UNWIND_RATIO = NO_UNWIND;
     private static final long DEFAULT_TARGET_REPAIR_SIZE_IN_BYTES = FULL_REPAIR_SIZE;
+    private static final RepairOptions.RepairType DEFAULT_REPAIR_TYPE = RepairOptions.RepairType.VNODE;
 
     public static final RepairConfiguration DEFAULT = newBuilder().build();
     public static final RepairConfiguration DISABLED = newBuilder().withRepairInterval(0, TimeUnit.MILLISECONDS).build();
@@ -41,6 +42,7 @@ public class RepairConfiguration
     private final long myRepairErrorTimeInMs;
     private final double myRepairUnwindRatio;
     private final long myTargetRepairSizeInBytes;
+    private final RepairOptions.RepairType myRepairType;
 
     private RepairConfiguration(Builder builder)
     {
@@ -50,6 +52,7 @@ public class RepairConfiguration
         myRepairErrorTimeInMs = builder.myRepairErrorTimeInMs;
         myRepairUnwindRatio = builder.myRepairUnwindRatio;
         myTargetRepairSizeInBytes = builder.myTargetRepairSizeInBytes;
+        myRepairType = builder.myRepairType;
     }
 
     public RepairOptions.RepairParallelism getRepairParallelism()
@@ -82,6 +85,11 @@ public class RepairConfiguration
         return myTargetRepairSizeInBytes;
     }
 
+    public RepairOptions.RepairType getRepairType()
+    {
+        return myRepairType;
+    }
+
     public static Builder newBuilder(RepairConfiguration from)
     {
         return new Builder(from);
@@ -95,12 +103,13 @@ public class RepairConfiguration
     @Override
     public String toString()
     {
-        return String.format("RepairConfiguration(interval=%dms,warning=%dms,error=%dms,parallelism=%s,unwindRatio=%.2f)",
+        return String.format("RepairConfiguration(interval=%dms,warning=%dms,error=%dms,parallelism=%s,unwindRatio=%.2f,type=%s)",
                 myRepairIntervalInMs,
                 myRepairWarningTimeInMs,
                 myRepairErrorTimeInMs,
                 myRepairParallelism,
-                myRepairUnwindRatio);
+                myRepairUnwindRatio,
+                myRepairType);
     }
 
     @Override
@@ -114,13 +123,14 @@ public class RepairConfiguration
                 myRepairErrorTimeInMs == that.myRepairErrorTimeInMs &&
                 Double.compare(that.myRepairUnwindRatio, myRepairUnwindRatio) == 0 &&
                 myTargetRepairSizeInBytes == that.myTargetRepairSizeInBytes &&
-                myRepairParallelism == that.myRepairParallelism;
+                myRepairParallelism == that.myRepairParallelism &&
+                myRepairType == that.myRepairType;
     }
 
     @Override
     public int hashCode()
     {
-        return Objects.hash(myRepairParallelism, myRepairIntervalInMs, myRepairWarningTimeInMs, myRepairErrorTimeInMs, myRepairUnwindRatio, myTargetRepairSizeInBytes);
+        return Objects.hash(myRepairParallelism, myRepairIntervalInMs, myRepairWarningTimeInMs, myRepairErrorTimeInMs, myRepairUnwindRatio, myTargetRepairSizeInBytes, myRepairType);
     }
 
     public static class Builder
@@ -131,6 +141,7 @@ public class RepairConfiguration
         private long myRepairErrorTimeInMs = DEFAULT_REPAIR_ERROR_TIME_IN_MS;
         private double myRepairUnwindRatio = DEFAULT_UNWIND_RATIO;
         private long myTargetRepairSizeInBytes = DEFAULT_TARGET_REPAIR_SIZE_IN_BYTES;
+        private RepairOptions.RepairType myRepairType = DEFAULT_REPAIR_TYPE;
 
         public Builder()
         {
@@ -144,6 +155,8 @@ public class RepairConfiguration
             myRepairWarningTimeInMs = from.getRepairWarningTimeInMs();
             myRepairErrorTimeInMs = from.getRepairErrorTimeInMs();
             myRepairUnwindRatio = from.getRepairUnwindRatio();
+            myTargetRepairSizeInBytes = from.getTargetRepairSizeInBytes();
+            myRepairType = from.getRepairType();
         }
 
         /**
@@ -235,6 +248,22 @@ public class RepairConfiguration
             return this;
         }
 
+        /**
+         * Set the type of repair to use.
+         *
+         * With incremental repairs only the unrepaired data of the table is repaired and the repair state is based
+         * on the amount of repaired data instead of the repair history.
+         * The target repair size is not used for incremental repairs.
+         *
+         * @param repairType The repair type
+         * @return The builder
+         */
+        public Builder withRepairType(RepairOptions.RepairType repairType)
+        {
+            myRepairType = repairType;
+            return this;
+        }
+
         public RepairConfiguration build()
         {
             return new RepairConfiguration(this);
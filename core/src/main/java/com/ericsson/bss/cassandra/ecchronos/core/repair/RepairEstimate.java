@@ -0,0 +1,103 @@
+/*
+ * Copyright 2021 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecchronos.core.repair;
+
+import java.util.Objects;
+
+/**
+ * Estimate of the repair of a table based on its repair throughput.
+ *
+ * @see RepairThroughputEstimator
+ */
+public final class RepairEstimate
+{
+    public static final RepairEstimate UNKNOWN = new RepairEstimate(Double.NaN, -1L, 0L);
+
+    private final double myThroughputInBytesPerSecond;
+    private final long myRemainingRepairTimeInMs;
+    private final long myProjectedSlackInMs;
+
+    public RepairEstimate(double throughputInBytesPerSecond, long remainingRepairTimeInMs, long projectedSlackInMs)
+    {
+        myThroughputInBytesPerSecond = throughputInBytesPerSecond;
+        myRemainingRepairTimeInMs = remainingRepairTimeInMs;
+        myProjectedSlackInMs = projectedSlackInMs;
+    }
+
+    /**
+     * @return True if there is an estimate.
+     */
+    public boolean isKnown()
+    {
+        return !Double.isNaN(myThroughputInBytesPerSecond);
+    }
+
+    /**
+     * @return The estimated repair throughput in bytes per second.
+     */
+    public double getThroughputInBytesPerSecond()
+    {
+        return myThroughputInBytesPerSecond;
+    }
+
+    /**
+     * @return The estimated time to repair the ranges that are not repaired within the repair interval.
+     */
+    public long getRemainingRepairTimeInMs()
+    {
+        return myRemainingRepairTimeInMs;
+    }
+
+    /**
+     * The projected slack is the repair interval minus the estimated time to repair the full table.
+     * A negative value means that the table cannot be repaired within the repair interval at the current throughput.
+     *
+     * @return The projected slack in milliseconds.
+     */
+    public long getProjectedSlackInMs()
+    {
+        return myProjectedSlackInMs;
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+        if (this == o)
+        {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass())
+        {
+            return false;
+        }
+        RepairEstimate that = (RepairEstimate) o;
+        return Double.compare(that.myThroughputInBytesPerSecond, myThroughputInBytesPerSecond) == 0
+                && myRemainingRepairTimeInMs == that.myRemainingRepairTimeInMs
+                && myProjectedSlackInMs == that.myProjectedSlackInMs;
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Objects.hash(myThroughputInBytesPerSecond, myRemainingRepairTimeInMs, myProjectedSlackInMs);
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format("(throughput=%.0fB/s,remaining=%dms,slack=%dms)", myThroughputInBytesPerSecond,
+                myRemainingRepairTimeInMs, myProjectedSlackInMs);
+    }
+}
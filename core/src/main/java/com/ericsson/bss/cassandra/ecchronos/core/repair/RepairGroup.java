@@ -15,10 +15,13 @@
 package com.ericsson.bss.cassandra.ecchronos.core.repair;
 
 import com.ericsson.bss.cassandra.ecchronos.core.JmxProxyFactory;
+import com.ericsson.bss.cassandra.ecchronos.core.SizeEstimates;
 import com.ericsson.bss.cassandra.ecchronos.core.exceptions.LockException;
 import com.ericsson.bss.cassandra.ecchronos.core.exceptions.ScheduledJobException;
+import com.ericsson.bss.cassandra.ecchronos.core.metrics.RepairPhase;
 import com.ericsson.bss.cassandra.ecchronos.core.metrics.TableRepairMetrics;
 import com.ericsson.bss.cassandra.ecchronos.core.repair.state.RepairHistory;
+import com.ericsson.bss.cassandra.ecchronos.core.repair.state.RepairHistoryProvider;
 import com.ericsson.bss.cassandra.ecchronos.core.repair.state.ReplicaRepairGroup;
 import com.ericsson.bss.cassandra.ecchronos.core.scheduling.LockFactory;
 import com.ericsson.bss.cassandra.ecchronos.core.scheduling.ScheduledTask;
@@ -32,7 +35,24 @@ import org.slf4j.LoggerFactory;
 
 import java.math.BigInteger;
 import java.util.*;
-
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * A task repairing the ranges of a replica group for one or more tables of the same keyspace.
+ * <p>
+ * All tables are repaired while holding the same lock. By default each table is repaired in separate repair sessions,
+ * with {@link Builder#withCombinedRepairSessions(boolean)} the tables are repaired together in one session per range.
+ * <p>
+ * For incremental repairs all ranges of the replica group are repaired in one session.
+ * <p>
+ * If a repair task fails with ranges of unknown status, a new task repairing only those ranges is executed while still
+ * holding the lock, up to {@link Builder#withRetryAttempts(int)} times per task.
+ * <p>
+ * A {@link Builder#withPreemptible(boolean) preemptible} group stops between repair tasks when work with a higher
+ * priority is waiting for the lock. The ranges already repaired are part of the repair history so the rest of the group
+ * is repaired when the job runs again. Unless a repair task has failed, a preempted group is not reported as failed.
+ */
 public class RepairGroup extends ScheduledTask
 {
     private static final Logger LOG = LoggerFactory.getLogger(RepairGroup.class);
@@ -40,7 +60,11 @@ public class RepairGroup extends ScheduledTask
     private static final String LOCK_METADATA_KEYSPACE = "keyspace";
     private static final String LOCK_METADATA_TABLE = "table";
 
+    public static final int DEFAULT_RETRY_ATTEMPTS = 2;
+
     private final TableReference myTableReference;
+    private final List<TableReference> myTableReferences;
+    private final boolean myCombinedRepairSessions;
     private final RepairConfiguration myRepairConfiguration;
     private final ReplicaRepairGroup myReplicaRepairGroup;
     private final JmxProxyFactory myJmxProxyFactory;
@@ -48,14 +72,23 @@ public class RepairGroup extends ScheduledTask
     private final RepairResourceFactory myRepairResourceFactory;
     private final RepairLockFactory myRepairLockFactory;
     private final BigInteger myTokensPerRepair;
+    private final SizeEstimates mySizeEstimates;
+    private final RepairThroughputEstimator myThroughputEstimator;
     private final List<TableRepairPolicy> myRepairPolicies;
     private final RepairHistory myRepairHistory;
+    private final RepairHistoryProvider myRepairHistoryProvider;
+    private final RepairTaskMonitor myRepairTaskMonitor;
     private final UUID myJobId;
+    private final int myRetryAttempts;
+    private final boolean myPreemptible;
 
     public RepairGroup(int priority, Builder builder)
     {
         super(priority);
-        myTableReference = Preconditions.checkNotNull(builder.tableReference, "Table reference must be set");
+        myTableReferences = new ArrayList<>(Preconditions.checkNotNull(builder.tableReferences, "Table reference must be set"));
+        Preconditions.checkArgument(!myTableReferences.isEmpty(), "Table reference must be set");
+        myTableReference = Preconditions.checkNotNull(myTableReferences.get(0), "Table reference must be set");
+        myCombinedRepairSessions = builder.combinedRepairSessions;
         myRepairConfiguration = Preconditions.checkNotNull(builder.repairConfiguration, "Repair configuration must be set");
         myReplicaRepairGroup = Preconditions.checkNotNull(builder.replicaRepairGroup, "Replica repair group must be set");
         myJmxProxyFactory = Preconditions.checkNotNull(builder.jmxProxyFactory, "Jmx proxy factory must be set");
@@ -63,53 +96,138 @@ public class RepairGroup extends ScheduledTask
         myRepairResourceFactory = Preconditions.checkNotNull(builder.repairResourceFactory, "Repair resource factory must be set");
         myRepairLockFactory = Preconditions.checkNotNull(builder.repairLockFactory, "Repair lock factory must be set");
         myTokensPerRepair = Preconditions.checkNotNull(builder.tokensPerRepair, "Tokens per repair must be set");
+        mySizeEstimates = builder.sizeEstimates;
+        myThroughputEstimator = builder.throughputEstimator;
         myRepairPolicies = new ArrayList<>(Preconditions.checkNotNull(builder.repairPolicies, "Repair policies must be set"));
         myRepairHistory = Preconditions.checkNotNull(builder.repairHistory, "Repair history must be set");
+        myRepairHistoryProvider = builder.repairHistoryProvider;
+        myRepairTaskMonitor = builder.repairTaskMonitor;
         myJobId = Preconditions.checkNotNull(builder.jobId, "Job id must be set");
+        Preconditions.checkArgument(builder.retryAttempts >= 0, "Retry attempts cannot be negative");
+        myRetryAttempts = builder.retryAttempts;
+        myPreemptible = builder.preemptible;
     }
 
     @Override
     public boolean execute()
     {
-        LOG.debug("Table {} running repair job {}", myTableReference, myReplicaRepairGroup);
+        LOG.debug("Table {} running repair job {}", getTablesString(), myReplicaRepairGroup);
         boolean successful = true;
 
         for (RepairTask repairTask : getRepairTasks())
         {
-            if (!shouldContinue())
-            {
-                LOG.info("Repair of {} was stopped by policy, will continue later", this);
-                successful = false;
-                break;
-            }
+            RepairTask currentTask = repairTask;
+            int retryAttempt = 0;
 
-            try
-            {
-                repairTask.execute();
-            }
-            catch (ScheduledJobException e)
+            while (currentTask != null)
             {
-                LOG.warn("Encountered issue when running repair task {}", repairTask, e);
-                successful = false;
+                if (!shouldContinue())
+                {
+                    LOG.info("Repair of {} was stopped by policy, will continue later", this);
+                    return false;
+                }
 
-                if (e.getCause() instanceof InterruptedException)
+                if (myPreemptible && isPreempted())
                 {
-                    LOG.info("{} thread was interrupted", this);
-                    break;
+                    LOG.info("Repair of {} was preempted by work with higher priority, will continue later", this);
+                    if (successful)
+                    {
+                        preempted();
+                    }
+                    return false;
+                }
+
+                try
+                {
+                    executeTask(currentTask);
+                    currentTask = null;
+                }
+                catch (ScheduledJobException e)
+                {
+                    if (e.getCause() instanceof InterruptedException)
+                    {
+                        LOG.info("{} thread was interrupted", this);
+                        return false;
+                    }
+
+                    currentTask = retryAttempt < myRetryAttempts ? getRetryTask(currentTask) : null;
+                    if (currentTask == null)
+                    {
+                        successful = false;
+                    }
+                    else
+                    {
+                        retryAttempt++;
+                        LOG.info("Retrying repair of ranges {} for {} (attempt {}/{})", currentTask.getTokenRanges(),
+                                getTablesString(), retryAttempt, myRetryAttempts);
+                    }
                 }
-            }
-            finally
-            {
-                repairTask.cleanup();
             }
         }
 
         return successful;
     }
 
+    private void executeTask(RepairTask repairTask) throws ScheduledJobException
+    {
+        long start = System.nanoTime();
+        boolean successful = false;
+        try
+        {
+            repairTask.execute();
+            successful = true;
+        }
+        catch (ScheduledJobException e)
+        {
+            LOG.warn("Encountered issue when running repair task {}", repairTask, e);
+            throw e;
+        }
+        finally
+        {
+            updateThroughput(repairTask, successful, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Create a task repairing the ranges of the failed task that have an unknown status.
+     *
+     * @param failedTask The failed repair task.
+     * @return The new repair task or null if there are no ranges to retry.
+     */
+    private RepairTask getRetryTask(RepairTask failedTask)
+    {
+        Collection<LongTokenRange> unknownRanges = failedTask.getUnknownRanges();
+        if (unknownRanges == null || unknownRanges.isEmpty())
+        {
+            return null;
+        }
+
+        return newRepairTaskBuilder()
+                .withTableReferences(failedTask.getTableReferences())
+                .withTokenRanges(unknownRanges)
+                .build();
+    }
+
+    private void updateThroughput(RepairTask repairTask, boolean successful, long timeTakenNanos)
+    {
+        if (myThroughputEstimator != null)
+        {
+            double repairedTokens = 0;
+            if (successful)
+            {
+                for (LongTokenRange range : repairTask.getTokenRanges())
+                {
+                    repairedTokens += range.rangeSize().doubleValue();
+                }
+            }
+            myThroughputEstimator.repaired(repairedTokens, timeTakenNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
     private boolean shouldContinue()
     {
-        return myRepairPolicies.stream().allMatch(repairPolicy -> repairPolicy.shouldRun(myTableReference));
+        return myRepairPolicies.stream()
+                .allMatch(repairPolicy -> myTableReferences.stream().allMatch(repairPolicy::shouldRun));
     }
 
     @Override
@@ -117,16 +235,42 @@ public class RepairGroup extends ScheduledTask
     {
         Map<String, String> metadata = new HashMap<>();
         metadata.put(LOCK_METADATA_KEYSPACE, myTableReference.getKeyspace());
-        metadata.put(LOCK_METADATA_TABLE, myTableReference.getTable());
+        metadata.put(LOCK_METADATA_TABLE, myTableReferences.stream()
+                .map(TableReference::getTable)
+                .collect(Collectors.joining(",")));
 
         Set<RepairResource> repairResources = myRepairResourceFactory.getRepairResources(myReplicaRepairGroup);
-        return myRepairLockFactory.getLock(lockFactory, repairResources, metadata, myPriority);
+
+        long start = System.nanoTime();
+        try
+        {
+            return myRepairLockFactory.getLock(lockFactory, repairResources, metadata, myPriority);
+        }
+        finally
+        {
+            long timeTaken = System.nanoTime() - start;
+            for (TableReference tableReference : myTableReferences)
+            {
+                myTableRepairMetrics.repairPhaseTiming(tableReference, RepairPhase.LOCK, timeTaken,
+                        TimeUnit.NANOSECONDS);
+            }
+        }
     }
 
     @Override
     public String toString()
     {
-        return String.format("Repair job of %s", myTableReference);
+        return String.format("Repair job of %s", getTablesString());
+    }
+
+    private String getTablesString()
+    {
+        return myTableReferences.size() == 1 ? myTableReference.toString() : myTableReferences.toString();
+    }
+
+    List<TableReference> getTableReferences()
+    {
+        return Collections.unmodifiableList(myTableReferences);
     }
 
     @VisibleForTesting
@@ -134,25 +278,100 @@ public class RepairGroup extends ScheduledTask
     {
         Collection<RepairTask> tasks = new ArrayList<>();
 
-        RepairTask.Builder builder = new RepairTask.Builder()
+        RepairTask.Builder builder = newRepairTaskBuilder();
+
+        if (myCombinedRepairSessions)
+        {
+            addRepairTasks(tasks, builder, myTableReferences);
+        }
+        else
+        {
+            for (TableReference tableReference : myTableReferences)
+            {
+                addRepairTasks(tasks, builder, Collections.singletonList(tableReference));
+            }
+        }
+
+        return tasks;
+    }
+
+    private RepairTask.Builder newRepairTaskBuilder()
+    {
+        return new RepairTask.Builder()
                 .withJMXProxyFactory(myJmxProxyFactory)
-                .withTableReference(myTableReference)
                 .withTableRepairMetrics(myTableRepairMetrics)
                 .withRepairConfiguration(myRepairConfiguration)
                 .withReplicas(myReplicaRepairGroup.getReplicas())
                 .withRepairHistory(myRepairHistory)
+                .withRepairHistoryProvider(myRepairHistoryProvider)
+                .withRepairTaskMonitor(myRepairTaskMonitor)
                 .withJobId(myJobId);
+    }
+
+    private void addRepairTasks(Collection<RepairTask> tasks, RepairTask.Builder builder,
+            List<TableReference> tableReferences)
+    {
+        builder.withTableReferences(tableReferences);
+
+        if (myRepairConfiguration.getRepairType() == RepairOptions.RepairType.INCREMENTAL)
+        {
+            List<LongTokenRange> ranges = new ArrayList<>();
+            myReplicaRepairGroup.forEach(ranges::add);
+            builder.withTokenRanges(ranges);
+            tasks.add(builder.build());
+            return;
+        }
 
         for (LongTokenRange range : myReplicaRepairGroup)
         {
-            for (LongTokenRange subRange : new TokenSubRangeUtil(range).generateSubRanges(myTokensPerRepair))
+            BigInteger tokensPerRepair = getTokensPerRepair(range, tableReferences);
+
+            for (LongTokenRange subRange : new TokenSubRangeUtil(range).generateSubRanges(tokensPerRepair))
             {
                 builder.withTokenRanges(Collections.singletonList(subRange));
                 tasks.add(builder.build());
             }
         }
+    }
 
-        return tasks;
+    /**
+     * Get the number of tokens to repair in each session for the provided virtual node.
+     * <p>
+     * If there is a size estimate available for the virtual node it is used to split the virtual node into
+     * sub-ranges of the target repair size, otherwise the uniform tokens per repair is used.
+     * When several tables are repaired in the same session their sizes are combined.
+     *
+     * @param range The virtual node.
+     * @param tableReferences The tables repaired in each session.
+     * @return The number of tokens per repair session.
+     */
+    private BigInteger getTokensPerRepair(LongTokenRange range, List<TableReference> tableReferences)
+    {
+        long targetSizeInBytes = myRepairConfiguration.getTargetRepairSizeInBytes();
+
+        if (mySizeEstimates == null || targetSizeInBytes == RepairConfiguration.FULL_REPAIR_SIZE)
+        {
+            return myTokensPerRepair;
+        }
+
+        long estimatedSizeInBytes = 0;
+        for (TableReference tableReference : tableReferences)
+        {
+            long tableSizeInBytes = mySizeEstimates.getDataSize(tableReference, range);
+            if (tableSizeInBytes < 0)
+            {
+                return myTokensPerRepair;
+            }
+            estimatedSizeInBytes += tableSizeInBytes;
+        }
+
+        BigInteger targetSize = BigInteger.valueOf(targetSizeInBytes);
+        BigInteger subRangeCount = BigInteger.valueOf(estimatedSizeInBytes).add(targetSize).subtract(BigInteger.ONE)
+                .divide(targetSize)
+                .max(BigInteger.ONE);
+
+        BigInteger rangeSize = range.rangeSize();
+        return rangeSize.add(subRangeCount).subtract(BigInteger.ONE).divide(subRangeCount);
     }
 
     public static Builder newBuilder()
@@ -164,8 +383,11 @@ public class RepairGroup extends ScheduledTask
     {
         private List<TableRepairPolicy> repairPolicies = new ArrayList<>();
         private BigInteger tokensPerRepair = LongTokenRange.FULL_RANGE;
+        private SizeEstimates sizeEstimates;
+        private RepairThroughputEstimator throughputEstimator;
 
-        private TableReference tableReference;
+        private List<TableReference> tableReferences;
+        private boolean combinedRepairSessions = false;
         private RepairConfiguration repairConfiguration;
         private ReplicaRepairGroup replicaRepairGroup;
         private JmxProxyFactory jmxProxyFactory;
@@ -173,11 +395,39 @@ public class RepairGroup extends ScheduledTask
         private RepairResourceFactory repairResourceFactory;
         private RepairLockFactory repairLockFactory;
         private RepairHistory repairHistory;
+        private RepairHistoryProvider repairHistoryProvider;
+        private RepairTaskMonitor repairTaskMonitor = RepairTaskMonitor.DEFAULT;
         private UUID jobId;
+        private int retryAttempts = DEFAULT_RETRY_ATTEMPTS;
+        private boolean preemptible = false;
 
         public Builder withTableReference(TableReference tableReference)
         {
-            this.tableReference = tableReference;
+            this.tableReferences = Collections.singletonList(tableReference);
+            return this;
+        }
+
+        /**
+         * Repair several tables of the same keyspace under the same lock.
+         *
+         * @param tableReferences The tables to repair.
+         * @return The builder.
+         */
+        public Builder withTableReferences(Collection<TableReference> tableReferences)
+        {
+            this.tableReferences = new ArrayList<>(tableReferences);
+            return this;
+        }
+
+        /**
+         * Repair all tables together in one repair session per range instead of one session per table and range.
+         *
+         * @param combinedRepairSessions True to repair the tables together.
+         * @return The builder.
+         */
+        public Builder withCombinedRepairSessions(boolean combinedRepairSessions)
+        {
+            this.combinedRepairSessions = combinedRepairSessions;
             return this;
         }
 
@@ -229,12 +479,60 @@ public class RepairGroup extends ScheduledTask
             return this;
         }
 
+        public Builder withSizeEstimates(SizeEstimates sizeEstimates)
+        {
+            this.sizeEstimates = sizeEstimates;
+            return this;
+        }
+
+        public Builder withThroughputEstimator(RepairThroughputEstimator throughputEstimator)
+        {
+            this.throughputEstimator = throughputEstimator;
+            return this;
+        }
+
+        /**
+         * Set the number of times the ranges with an unknown status of a failed repair task are retried.
+         *
+         * @param retryAttempts The number of retry attempts per repair task.
+         * @return The builder.
+         */
+        public Builder withRetryAttempts(int retryAttempts)
+        {
+            this.retryAttempts = retryAttempts;
+            return this;
+        }
+
+        /**
+         * Allow the group to stop between repair tasks when work with a higher priority is waiting for the lock.
+         *
+         * @param preemptible True to let the group be preempted.
+         * @return The builder.
+         */
+        public Builder withPreemptible(boolean preemptible)
+        {
+            this.preemptible = preemptible;
+            return this;
+        }
+
         public Builder withRepairHistory(RepairHistory repairHistory)
         {
             this.repairHistory = repairHistory;
             return this;
         }
 
+        public Builder withRepairHistoryProvider(RepairHistoryProvider repairHistoryProvider)
+        {
+            this.repairHistoryProvider = repairHistoryProvider;
+            return this;
+        }
+
+        public Builder withRepairTaskMonitor(RepairTaskMonitor repairTaskMonitor)
+        {
+            this.repairTaskMonitor = repairTaskMonitor;
+            return this;
+        }
+
         public Builder withJobId(UUID jobId)
         {
             this.jobId = jobId;
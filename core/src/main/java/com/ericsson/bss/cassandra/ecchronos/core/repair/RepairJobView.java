@@ -110,6 +110,14 @@ public abstract class RepairJobView
      */
     public abstract Boolean isRecurring();
 
+    /**
+     * @return the estimate of the repair of the table, {@link RepairEstimate#UNKNOWN} if there is no estimate
+     */
+    public RepairEstimate getRepairEstimate()
+    {
+        return RepairEstimate.UNKNOWN;
+    }
+
 
     @Override
     public boolean equals(Object o) {
@@ -121,11 +129,13 @@ public abstract class RepairJobView
                 Objects.equals(myRepairConfiguration, that.myRepairConfiguration) &&
                 Objects.equals(myRepairStateSnapshot, that.myRepairStateSnapshot) &&
                 Objects.equals(myStatus, that.myStatus) &&
-                Objects.equals(myProgress, that.myProgress);
+                Objects.equals(myProgress, that.myProgress) &&
+                Objects.equals(getRepairEstimate(), that.getRepairEstimate());
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(myId, myTableReference, myRepairConfiguration, myRepairStateSnapshot, myStatus, myProgress);
+        return Objects.hash(myId, myTableReference, myRepairConfiguration, myRepairStateSnapshot, myStatus, myProgress,
+                getRepairEstimate());
     }
 }
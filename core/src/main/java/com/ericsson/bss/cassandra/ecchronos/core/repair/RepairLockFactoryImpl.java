@@ -20,6 +20,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.IntUnaryOperator;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -27,19 +29,62 @@ import org.slf4j.LoggerFactory;
 import com.ericsson.bss.cassandra.ecchronos.core.LockCollection;
 import com.ericsson.bss.cassandra.ecchronos.core.exceptions.LockException;
 import com.ericsson.bss.cassandra.ecchronos.core.scheduling.LockFactory;
-
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+
+/**
+ * A repair lock factory locking one of the slots of each repair resource.
+ * <p>
+ * With more than one lock per resource up to that number of repairs can hold the same repair resource concurrently.
+ * The slots are tried in order starting from a random slot so that nodes are not all competing for the first slot.
+ */
 public class RepairLockFactoryImpl implements RepairLockFactory
 {
     private static final Logger LOG = LoggerFactory.getLogger(RepairLockFactoryImpl.class);
 
-    private static final int LOCKS_PER_RESOURCE = 1;
+    public static final int DEFAULT_LOCKS_PER_RESOURCE = 1;
+
+    private final int myLocksPerResource;
+    private final IntUnaryOperator mySlotSelector;
+
+    public RepairLockFactoryImpl()
+    {
+        this(DEFAULT_LOCKS_PER_RESOURCE);
+    }
+
+    /**
+     * Create a repair lock factory with the provided number of locks per repair resource.
+     *
+     * @param locksPerResource The number of concurrent locks allowed for each repair resource.
+     */
+    public RepairLockFactoryImpl(int locksPerResource)
+    {
+        this(locksPerResource, bound -> ThreadLocalRandom.current().nextInt(bound));
+    }
+
+    /**
+     * @param slotSelector Selector of the first slot to try, given the number of slots it returns a value in the range
+     * [0, number of slots).
+     */
+    @VisibleForTesting
+    RepairLockFactoryImpl(int locksPerResource, IntUnaryOperator slotSelector)
+    {
+        Preconditions.checkArgument(locksPerResource > 0, "At least one lock per resource is required");
+        myLocksPerResource = locksPerResource;
+        mySlotSelector = slotSelector;
+    }
+
+    public int getLocksPerResource()
+    {
+        return myLocksPerResource;
+    }
 
     @Override
     public LockFactory.DistributedLock getLock(LockFactory lockFactory, Set<RepairResource> repairResources, Map<String, String> metadata, int priority) throws LockException
     {
         for (RepairResource repairResource : repairResources)
         {
-            if (!lockFactory.sufficientNodesForLocking(repairResource.getDataCenter(), repairResource.getResourceName(LOCKS_PER_RESOURCE)))
+            if (!lockFactory.sufficientNodesForLocking(repairResource.getDataCenter(), repairResource.getResourceName(1)))
             {
                 throw new LockException(repairResource + " not lockable. Repair will be retried later.");
             }
@@ -63,7 +108,7 @@ public class RepairLockFactoryImpl implements RepairLockFactory
     {
         for (RepairResource repairResource : repairResources)
         {
-            Optional<LockException> cachedException = lockFactory.getCachedFailure(repairResource.getDataCenter(), repairResource.getResourceName(LOCKS_PER_RESOURCE));
+            Optional<LockException> cachedException = getCachedFailure(lockFactory, repairResource);
             if (cachedException.isPresent())
             {
                 LockException e = cachedException.get();
@@ -73,6 +118,26 @@ public class RepairLockFactoryImpl implements RepairLockFactory
         }
     }
 
+    /**
+     * Get a cached locking failure for the repair resource if all slots of the resource have a cached failure.
+     */
+    private Optional<LockException> getCachedFailure(LockFactory lockFactory, RepairResource repairResource)
+    {
+        Optional<LockException> cachedException = Optional.empty();
+
+        for (int slot = 1; slot <= myLocksPerResource; slot++)
+        {
+            cachedException = lockFactory.getCachedFailure(repairResource.getDataCenter(),
+                    repairResource.getResourceName(slot));
+            if (!cachedException.isPresent())
+            {
+                break;
+            }
+        }
+
+        return cachedException;
+    }
+
     private Collection<LockFactory.DistributedLock> getRepairResourceLocks(LockFactory lockFactory, Collection<RepairResource> repairResources, Map<String, String> metadata, int priority) throws LockException
     {
         try (TemporaryLockHolder lockHolder = new TemporaryLockHolder())
@@ -95,12 +160,34 @@ public class RepairLockFactoryImpl implements RepairLockFactory
     }
 
     private LockFactory.DistributedLock getLockForRepairResource(LockFactory lockFactory, RepairResource repairResource, Map<String, String> metadata, int priority) throws LockException
+    {
+        int firstSlot = firstSlot();
+        LockException lockException = null;
+
+        for (int i = 0; i < myLocksPerResource; i++)
+        {
+            int slot = (firstSlot + i) % myLocksPerResource + 1;
+
+            try
+            {
+                return getLockForRepairResource(lockFactory, repairResource, slot, metadata, priority);
+            }
+            catch (LockException e)
+            {
+                lockException = e;
+            }
+        }
+
+        throw lockException;
+    }
+
+    private LockFactory.DistributedLock getLockForRepairResource(LockFactory lockFactory, RepairResource repairResource, int slot, Map<String, String> metadata, int priority) throws LockException
     {
         LockFactory.DistributedLock myLock;
 
         String dataCenter = repairResource.getDataCenter();
 
-        String resource = repairResource.getResourceName(LOCKS_PER_RESOURCE);
+        String resource = repairResource.getResourceName(slot);
         try
         {
             myLock = lockFactory.tryLock(dataCenter, resource, priority, metadata);
@@ -121,6 +208,16 @@ public class RepairLockFactoryImpl implements RepairLockFactory
         }
     }
 
+    private int firstSlot()
+    {
+        if (myLocksPerResource == 1)
+        {
+            return 0;
+        }
+
+        return mySlotSelector.applyAsInt(myLocksPerResource);
+    }
+
     static class TemporaryLockHolder implements AutoCloseable
     {
         private final List<LockFactory.DistributedLock> temporaryLocks = new ArrayList<>();
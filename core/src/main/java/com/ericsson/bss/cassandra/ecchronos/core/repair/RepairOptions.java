@@ -90,4 +90,37 @@ public class RepairOptions
             return myName;
         }
     }
+
+    /**
+     * The type of repair used.
+     */
+    public enum RepairType
+    {
+        /**
+         * Full repairs of the virtual nodes, the repair state is based on the repair history.
+         */
+        VNODE("vnode"),
+
+        /**
+         * Incremental repairs of the unrepaired data, the repair state is based on the repaired data of the table.
+         */
+        INCREMENTAL("incremental");
+
+        private final String myName;
+
+        RepairType(String name)
+        {
+            myName = name;
+        }
+
+        /**
+         * Get the name of the repair type.
+         *
+         * @return The repair type name.
+         */
+        public String getName()
+        {
+            return myName;
+        }
+    }
 }
@@ -0,0 +1,184 @@
+/*
+ * Copyright 2021 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecchronos.core.repair;
+
+/**
+ * Parser of the repair progress messages reporting finished repair sessions, e.g.
+ * <pre>
+ * Repair session 5b5c0530-95d7-11e9-a7fd-9b8c1b3a9c8c for range [(-10,5], (5,12]] finished
+ * </pre>
+ * The parser does not allocate any objects so that it can be used for every progress notification.
+ */
+final class RepairProgressParser
+{
+    private static final String SESSION_PREFIX = "Repair session ";
+    private static final String RANGES_PREFIX = " for range [";
+    private static final String FINISHED_SUFFIX = "] finished";
+    private static final String RANGE_SEPARATOR = ", ";
+
+    private RepairProgressParser()
+    {
+        // Utility class
+    }
+
+    /**
+     * Consumer of the ranges of a finished repair session.
+     */
+    @FunctionalInterface
+    interface RangeConsumer
+    {
+        void accept(long start, long end);
+    }
+
+    /**
+     * Parse a progress message and provide the ranges of the finished repair session to the consumer.
+     * The consumer is only called if the whole message is valid.
+     *
+     * @param message The progress message.
+     * @param consumer The consumer of the finished ranges.
+     * @return True if the message reported a finished repair session.
+     */
+    static boolean parseFinishedRanges(String message, RangeConsumer consumer)
+    {
+        int rangesStart = rangesStart(message);
+
+        if (rangesStart == -1 || !parseRanges(message, rangesStart, null))
+        {
+            return false;
+        }
+
+        return parseRanges(message, rangesStart, consumer);
+    }
+
+    private static int rangesStart(String message)
+    {
+        if (!message.startsWith(SESSION_PREFIX) || !message.endsWith(FINISHED_SUFFIX))
+        {
+            return -1;
+        }
+
+        int rangesPrefix = message.indexOf(RANGES_PREFIX, SESSION_PREFIX.length());
+        if (rangesPrefix <= SESSION_PREFIX.length())
+        {
+            return -1;
+        }
+
+        for (int i = SESSION_PREFIX.length(); i < rangesPrefix; i++)
+        {
+            char c = message.charAt(i);
+            if (!isSessionIdCharacter(c))
+            {
+                return -1;
+            }
+        }
+
+        return rangesPrefix + RANGES_PREFIX.length();
+    }
+
+    private static boolean isSessionIdCharacter(char c)
+    {
+        return (c >= '0' && c <= '9') || (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '-';
+    }
+
+    private static boolean parseRanges(String message, int rangesStart, RangeConsumer consumer)
+    {
+        int rangesEnd = message.length() - FINISHED_SUFFIX.length();
+        int position = rangesStart;
+
+        while (true)
+        {
+            if (position >= rangesEnd || message.charAt(position) != '(')
+            {
+                return false;
+            }
+
+            int comma = message.indexOf(',', position);
+            int bracket = message.indexOf(']', position);
+            if (comma == -1 || bracket == -1 || comma > bracket || bracket >= rangesEnd
+                    || !isLong(message, position + 1, comma) || !isLong(message, comma + 1, bracket))
+            {
+                return false;
+            }
+
+            if (consumer != null)
+            {
+                consumer.accept(parseLong(message, position + 1, comma), parseLong(message, comma + 1, bracket));
+            }
+
+            position = bracket + 1;
+            if (position == rangesEnd)
+            {
+                return true;
+            }
+
+            if (!message.startsWith(RANGE_SEPARATOR, position))
+            {
+                return false;
+            }
+            position += RANGE_SEPARATOR.length();
+        }
+    }
+
+    private static boolean isLong(String message, int start, int end)
+    {
+        int digitsStart = start < end && message.charAt(start) == '-' ? start + 1 : start;
+        if (digitsStart == end || end - digitsStart > 19)
+        {
+            return false;
+        }
+
+        for (int i = digitsStart; i < end; i++)
+        {
+            char c = message.charAt(i);
+            if (c < '0' || c > '9')
+            {
+                return false;
+            }
+        }
+
+        // Verify that the value fits in a long by comparing with the limits of the same length
+        if (end - digitsStart == 19)
+        {
+            String limit = digitsStart == start ? "9223372036854775807" : "9223372036854775808";
+            for (int i = 0; i < 19; i++)
+            {
+                char c = message.charAt(digitsStart + i);
+                if (c != limit.charAt(i))
+                {
+                    return c < limit.charAt(i);
+                }
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Parse a long that has been validated with {@link #isLong(String, int, int)}.
+     * The value is accumulated as a negative number to be able to represent {@link Long#MIN_VALUE}.
+     */
+    private static long parseLong(String message, int start, int end)
+    {
+        boolean negative = message.charAt(start) == '-';
+        long result = 0;
+
+        for (int i = negative ? start + 1 : start; i < end; i++)
+        {
+            result = result * 10 - (message.charAt(i) - '0');
+        }
+
+        return negative ? result : -result;
+    }
+}
@@ -15,12 +15,16 @@
 package com.ericsson.bss.cassandra.ecchronos.core.repair;
 
 import com.ericsson.bss.cassandra.ecchronos.core.JmxProxyFactory;
+import com.ericsson.bss.cassandra.ecchronos.core.SizeEstimates;
 import com.ericsson.bss.cassandra.ecchronos.core.TableStorageStates;
 import com.ericsson.bss.cassandra.ecchronos.core.metrics.TableRepairMetrics;
 import com.ericsson.bss.cassandra.ecchronos.core.repair.state.AlarmPostUpdateHook;
 import com.ericsson.bss.cassandra.ecchronos.core.repair.state.RepairHistory;
+import com.ericsson.bss.cassandra.ecchronos.core.repair.state.RepairHistoryProvider;
 import com.ericsson.bss.cassandra.ecchronos.core.repair.state.RepairState;
 import com.ericsson.bss.cassandra.ecchronos.core.repair.state.RepairStateFactory;
+import com.ericsson.bss.cassandra.ecchronos.core.repair.state.RepairStateRefresher;
+import com.ericsson.bss.cassandra.ecchronos.core.repair.state.ReplicaRepairGroup;
 import com.ericsson.bss.cassandra.ecchronos.core.scheduling.ScheduleManager;
 import com.ericsson.bss.cassandra.ecchronos.core.scheduling.ScheduledJob;
 import com.ericsson.bss.cassandra.ecchronos.core.utils.TableReference;
@@ -30,6 +34,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.Closeable;
+import java.time.Clock;
 import java.util.*;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -38,6 +43,12 @@ import java.util.stream.Collectors;
 
 /**
  * A factory creating {@link TableRepairJob}'s for tables based on the provided repair configuration.
+ * <p>
+ * With a coalescing size threshold small tables of the same keyspace with equal repair configuration are repaired
+ * together in the same repair sessions, see {@link Builder#withCoalescingSizeThreshold(long)}.
+ * <p>
+ * With state refresh threads the repair states are refreshed in the background by a {@link RepairStateRefresher}
+ * instead of by the scheduler when checking if the jobs are runnable, see {@link Builder#withStateRefreshThreads(int)}.
  */
 public class RepairSchedulerImpl implements RepairScheduler, Closeable
 {
@@ -54,9 +65,15 @@ public class RepairSchedulerImpl implements RepairScheduler, Closeable
     private final ScheduleManager myScheduleManager;
     private final RepairStateFactory myRepairStateFactory;
     private final RepairLockType myRepairLockType;
+    private final RepairLockFactory myRepairLockFactory;
     private final TableStorageStates myTableStorageStates;
+    private final SizeEstimates mySizeEstimates;
     private final List<TableRepairPolicy> myRepairPolicies;
     private final RepairHistory myRepairHistory;
+    private final RepairHistoryProvider myRepairHistoryProvider;
+    private final Clock myClock;
+    private final long myCoalescingSizeThresholdInBytes;
+    private final RepairStateRefresher myRepairStateRefresher;
 
     private RepairSchedulerImpl(Builder builder)
     {
@@ -67,9 +84,21 @@ public class RepairSchedulerImpl implements RepairScheduler, Closeable
         myScheduleManager = builder.myScheduleManager;
         myRepairStateFactory = builder.myRepairStateFactory;
         myRepairLockType = builder.myRepairLockType;
+        myRepairLockFactory = new RepairLockFactoryImpl(builder.myLocksPerResource);
         myTableStorageStates = builder.myTableStorageStates;
+        mySizeEstimates = builder.mySizeEstimates;
         myRepairPolicies = new ArrayList<>(builder.myRepairPolicies);
         myRepairHistory = Preconditions.checkNotNull(builder.myRepairHistory, "Repair history must be set");
+        myRepairHistoryProvider = builder.myRepairHistoryProvider;
+        myClock = builder.myClock;
+        myCoalescingSizeThresholdInBytes = builder.myCoalescingSizeThresholdInBytes;
+        myRepairStateRefresher = builder.myStateRefreshThreads > 0
+                ? RepairStateRefresher.builder()
+                        .withThreads(builder.myStateRefreshThreads)
+                        .withRefreshInterval(builder.myStateRefreshIntervalInMs, TimeUnit.MILLISECONDS)
+                        .withClock(myClock)
+                        .build()
+                : null;
     }
 
     @Override
@@ -93,12 +122,17 @@ public class RepairSchedulerImpl implements RepairScheduler, Closeable
         {
             for (TableReference tableReference : myScheduledJobs.keySet())
             {
-                ScheduledJob job = myScheduledJobs.get(tableReference);
+                TableRepairJob job = myScheduledJobs.get(tableReference);
                 descheduleTableJob(job);
             }
 
             myScheduledJobs.clear();
         }
+
+        if (myRepairStateRefresher != null)
+        {
+            myRepairStateRefresher.close();
+        }
     }
 
     @Override
@@ -157,16 +191,21 @@ public class RepairSchedulerImpl implements RepairScheduler, Closeable
     {
         synchronized (myLock)
         {
-            ScheduledJob job = myScheduledJobs.remove(tableReference);
+            TableRepairJob job = myScheduledJobs.remove(tableReference);
             descheduleTableJob(job);
         }
     }
 
-    private void descheduleTableJob(ScheduledJob job)
+    private void descheduleTableJob(TableRepairJob job)
     {
         if (job != null)
         {
             myScheduleManager.deschedule(job);
+
+            if (myRepairStateRefresher != null)
+            {
+                myRepairStateRefresher.unregister(job.getTableReference());
+            }
         }
     }
 
@@ -177,6 +216,7 @@ public class RepairSchedulerImpl implements RepairScheduler, Closeable
         ScheduledJob.Configuration configuration = new ScheduledJob.ConfigurationBuilder()
                 .withPriority(ScheduledJob.Priority.LOW)
                 .withRunInterval(repairIntervalInMs, TimeUnit.MILLISECONDS)
+                .withClock(myClock)
                 .build();
         AlarmPostUpdateHook alarmPostUpdateHook = new AlarmPostUpdateHook(tableReference, repairConfiguration, myFaultReporter);
         RepairState repairState = myRepairStateFactory.create(tableReference, repairConfiguration, alarmPostUpdateHook);
@@ -189,16 +229,128 @@ public class RepairSchedulerImpl implements RepairScheduler, Closeable
                 .withTableRepairMetrics(myTableRepairMetrics)
                 .withRepairConfiguration(repairConfiguration)
                 .withRepairLockType(myRepairLockType)
+                .withRepairLockFactory(myRepairLockFactory)
                 .withTableStorageStates(myTableStorageStates)
+                .withSizeEstimates(mySizeEstimates)
                 .withRepairPolices(myRepairPolicies)
                 .withRepairHistory(myRepairHistory)
+                .withRepairHistoryProvider(myRepairHistoryProvider)
+                .withCoalescedTablesProvider(myCoalescingSizeThresholdInBytes > 0
+                        ? new SchedulerCoalescedTablesProvider()
+                        : CoalescedTablesProvider.NONE)
+                .withRepairStateRefresher(myRepairStateRefresher)
                 .build();
 
         job.runnable();
 
+        if (myRepairStateRefresher != null)
+        {
+            myRepairStateRefresher.register(tableReference, repairState, repairConfiguration);
+        }
+
         return job;
     }
 
+    /**
+     * Get the tables to repair together with the table of the provided job.
+     * <p>
+     * Tables are coalesced with the job if they are in the same keyspace, have an equal repair configuration and
+     * need repair of all ranges in the replica repair group.
+     * Tables are added smallest first as long as the combined data size, including the table of the job, is within
+     * the coalescing size threshold.
+     *
+     * @param job The job repairing the replica repair group.
+     * @param replicaRepairGroup The replica repair group.
+     * @return The tables to repair together with the table of the job.
+     */
+    List<TableReference> getCoalescedTables(TableRepairJob job, ReplicaRepairGroup replicaRepairGroup)
+    {
+        TableReference jobTableReference = job.getTableReference();
+        long combinedSizeInBytes = myTableStorageStates.getDataSize(jobTableReference);
+        if (combinedSizeInBytes > myCoalescingSizeThresholdInBytes)
+        {
+            return Collections.emptyList();
+        }
+
+        Map<TableRepairJob, Long> candidates = new HashMap<>();
+
+        synchronized (myLock)
+        {
+            for (TableRepairJob tableRepairJob : myScheduledJobs.values())
+            {
+                TableReference tableReference = tableRepairJob.getTableReference();
+                if (!tableReference.equals(jobTableReference)
+                        && tableReference.getKeyspace().equals(jobTableReference.getKeyspace())
+                        && tableRepairJob.getRepairConfiguration().equals(job.getRepairConfiguration()))
+                {
+                    candidates.put(tableRepairJob, myTableStorageStates.getDataSize(tableReference));
+                }
+            }
+        }
+
+        List<TableReference> coalescedTables = new ArrayList<>();
+
+        for (Map.Entry<TableRepairJob, Long> candidate : candidates.entrySet().stream()
+                .sorted(Map.Entry.comparingByValue())
+                .collect(Collectors.toList()))
+        {
+            long sizeInBytes = candidate.getValue();
+            if (combinedSizeInBytes + sizeInBytes > myCoalescingSizeThresholdInBytes)
+            {
+                break;
+            }
+
+            if (candidate.getKey().needsRepair(replicaRepairGroup))
+            {
+                coalescedTables.add(candidate.getKey().getTableReference());
+                combinedSizeInBytes += sizeInBytes;
+            }
+        }
+
+        if (!coalescedTables.isEmpty())
+        {
+            LOG.debug("Repairing {} together with {}", jobTableReference, coalescedTables);
+        }
+
+        return coalescedTables;
+    }
+
+    /**
+     * Refresh the repair state of a table that has been repaired outside of its scheduled job,
+     * e.g. by an on demand repair or together with the table of another job.
+     *
+     * @param tableReference The table.
+     */
+    public void refreshRepairState(TableReference tableReference)
+    {
+        TableRepairJob job;
+
+        synchronized (myLock)
+        {
+            job = myScheduledJobs.get(tableReference);
+        }
+
+        if (job != null)
+        {
+            job.refreshRepairState();
+        }
+    }
+
+    private final class SchedulerCoalescedTablesProvider implements CoalescedTablesProvider
+    {
+        @Override
+        public List<TableReference> getCoalescedTables(TableRepairJob job, ReplicaRepairGroup replicaRepairGroup)
+        {
+            return RepairSchedulerImpl.this.getCoalescedTables(job, replicaRepairGroup);
+        }
+
+        @Override
+        public void coalescedTablesRepaired(List<TableReference> tableReferences)
+        {
+            tableReferences.forEach(RepairSchedulerImpl.this::refreshRepairState);
+        }
+    }
+
     public static Builder builder()
     {
         return new Builder();
@@ -212,8 +364,15 @@ public class RepairSchedulerImpl implements RepairScheduler, Closeable
         private ScheduleManager myScheduleManager;
         private RepairStateFactory myRepairStateFactory;
         private RepairLockType myRepairLockType;
+        private int myLocksPerResource = RepairLockFactoryImpl.DEFAULT_LOCKS_PER_RESOURCE;
         private TableStorageStates myTableStorageStates;
+        private SizeEstimates mySizeEstimates;
         private RepairHistory myRepairHistory;
+        private RepairHistoryProvider myRepairHistoryProvider;
+        private Clock myClock = Clock.systemDefaultZone();
+        private long myCoalescingSizeThresholdInBytes = 0L;
+        private int myStateRefreshThreads = 0;
+        private long myStateRefreshIntervalInMs = TimeUnit.SECONDS.toMillis(30);
         private final List<TableRepairPolicy> myRepairPolicies = new ArrayList<>();
 
         public Builder withFaultReporter(RepairFaultReporter repairFaultReporter)
@@ -252,12 +411,30 @@ public class RepairSchedulerImpl implements RepairScheduler, Closeable
             return this;
         }
 
+        /**
+         * Set the number of repairs that can hold each repair resource concurrently.
+         *
+         * @param locksPerResource The number of locks per repair resource.
+         * @return The builder
+         */
+        public Builder withLocksPerResource(int locksPerResource)
+        {
+            myLocksPerResource = locksPerResource;
+            return this;
+        }
+
         public Builder withTableStorageStates(TableStorageStates tableStorageStates)
         {
             myTableStorageStates = tableStorageStates;
             return this;
         }
 
+        public Builder withSizeEstimates(SizeEstimates sizeEstimates)
+        {
+            mySizeEstimates = sizeEstimates;
+            return this;
+        }
+
         public Builder withRepairPolicies(Collection<TableRepairPolicy> tableRepairPolicies)
         {
             myRepairPolicies.addAll(tableRepairPolicies);
@@ -270,6 +447,70 @@ public class RepairSchedulerImpl implements RepairScheduler, Closeable
             return this;
         }
 
+        /**
+         * Set the repair history provider used by the repair tasks to look up the outcome of repair sessions
+         * when notifications from Cassandra were lost.
+         *
+         * @param repairHistoryProvider The repair history provider.
+         * @return The builder
+         */
+        public Builder withRepairHistoryProvider(RepairHistoryProvider repairHistoryProvider)
+        {
+            myRepairHistoryProvider = repairHistoryProvider;
+            return this;
+        }
+
+        public Builder withClock(Clock clock)
+        {
+            myClock = clock;
+            return this;
+        }
+
+        /**
+         * Repair tables with a data size up to the threshold together with other small tables of the same keyspace.
+         * <p>
+         * The tables must have an equal repair configuration and the combined data size of the tables repaired
+         * together is kept within the threshold.
+         * The repair state of each table is still tracked and reported individually.
+         *
+         * @param coalescingSizeThresholdInBytes The threshold in bytes, zero or less disables coalescing.
+         * @return The builder
+         */
+        public Builder withCoalescingSizeThreshold(long coalescingSizeThresholdInBytes)
+        {
+            myCoalescingSizeThresholdInBytes = coalescingSizeThresholdInBytes;
+            return this;
+        }
+
+        /**
+         * Refresh the repair states of the tables in the background using the provided number of threads.
+         * <p>
+         * The scheduler will then only read the latest repair state of the tables instead of updating them.
+         *
+         * @param stateRefreshThreads The number of threads, zero or less updates the repair states in the scheduler.
+         * @return The builder
+         */
+        public Builder withStateRefreshThreads(int stateRefreshThreads)
+        {
+            myStateRefreshThreads = stateRefreshThreads;
+            return this;
+        }
+
+        /**
+         * Set the interval to refresh the repair states of tables that are due for repair.
+         * <p>
+         * Only used when refreshing the repair states in the background.
+         *
+         * @param stateRefreshInterval The interval.
+         * @param timeUnit The time unit of the interval.
+         * @return The builder
+         */
+        public Builder withStateRefreshInterval(long stateRefreshInterval, TimeUnit timeUnit)
+        {
+            myStateRefreshIntervalInMs = timeUnit.toMillis(stateRefreshInterval);
+            return this;
+        }
+
         public RepairSchedulerImpl build()
         {
             return new RepairSchedulerImpl(this);
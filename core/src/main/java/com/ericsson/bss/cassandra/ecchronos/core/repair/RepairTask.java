@@ -17,8 +17,13 @@ package com.ericsson.bss.cassandra.ecchronos.core.repair;
 import com.ericsson.bss.cassandra.ecchronos.core.JmxProxy;
 import com.ericsson.bss.cassandra.ecchronos.core.JmxProxyFactory;
 import com.ericsson.bss.cassandra.ecchronos.core.exceptions.ScheduledJobException;
+import com.ericsson.bss.cassandra.ecchronos.core.jfr.FlightRecorderEvents;
+import com.ericsson.bss.cassandra.ecchronos.core.jfr.FlightRecorderEvents.TimedEvent;
+import com.ericsson.bss.cassandra.ecchronos.core.metrics.RepairPhase;
 import com.ericsson.bss.cassandra.ecchronos.core.metrics.TableRepairMetrics;
+import com.ericsson.bss.cassandra.ecchronos.core.repair.state.RepairEntry;
 import com.ericsson.bss.cassandra.ecchronos.core.repair.state.RepairHistory;
+import com.ericsson.bss.cassandra.ecchronos.core.repair.state.RepairHistoryProvider;
 import com.ericsson.bss.cassandra.ecchronos.core.repair.state.RepairStatus;
 import com.ericsson.bss.cassandra.ecchronos.core.utils.LongTokenRange;
 import com.ericsson.bss.cassandra.ecchronos.core.utils.Node;
@@ -35,43 +40,58 @@ import javax.management.remote.JMXConnectionNotification;
 import java.io.IOException;
 import java.util.*;
 import java.util.concurrent.*;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.stream.Collectors;
 
 /**
  * A task that is run to repair a specific keyspace and table using the options from {@link RepairOptions}.
  * <p>
+ * The task can repair several tables of the same keyspace in one repair session by providing them with
+ * {@link Builder#withTableReferences(Collection)}.
+ * <p>
+ * With the {@link RepairOptions.RepairType#INCREMENTAL incremental} repair type the task runs an incremental repair of
+ * all local ranges, the token ranges of the task should then be all ranges of the local node.
+ * <p>
  * If the repair failed the {@link #getUnknownRanges()} can be used to retrieve the ranges that have an unknown status during the repair.
+ * If notifications were lost and a {@link RepairHistoryProvider} is provided, the repair history is used to recover the
+ * status of the ranges that were not reported as finished.
+ * Without a repair history provider all ranges of the task are considered unknown when notifications were lost,
+ * as the lost notifications could have reported any of them.
  */
 public class RepairTask implements NotificationListener //NOPMD Possible god class, needs refactoring
 {
     private static final Logger LOG = LoggerFactory.getLogger(RepairTask.class);
 
-    private static final Pattern REPAIR_PATTERN = Pattern.compile("Repair session [0-9a-zA-Z-]+ for range \\[\\(([-]?[0-9]+),([-]?[0-9]+)(\\]){2} finished");
-
-    private static final long HANG_PREVENT_TIME_IN_MINUTES = 30;
+    private static final String REPAIR_TAG_PREFIX = "repair:";
+    private static final ProgressEventType[] PROGRESS_EVENT_TYPES = ProgressEventType.values();
 
-    private final ScheduledExecutorService myExecutor = Executors.newScheduledThreadPool(1);
-
-    private final Set<LongTokenRange> completedRanges = Collections.synchronizedSet(new HashSet<>());
     private final CountDownLatch myLatch = new CountDownLatch(1);
 
     private final Set<LongTokenRange> myTokenRanges;
+    private final LongTokenRange[] myRanges;
+    private final long[] myRangeStarts;
+    private final AtomicLongArray myCompletedRanges;
+    private final AtomicReferenceArray<List<RepairHistory.RepairSession>> myRepairSessions;
+    private final RepairProgressParser.RangeConsumer myRangeFinishedConsumer = this::rangeFinished;
     private final Set<Node> myReplicas;
     private final JmxProxyFactory myJmxProxyFactory;
     private final TableReference myTableReference;
+    private final List<TableReference> myTableReferences;
     private final TableRepairMetrics myTableRepairMetrics;
     private final RepairConfiguration myRepairConfiguration;
+    private final RepairHistoryProvider myRepairHistoryProvider;
+    private final RepairTaskMonitor myRepairTaskMonitor;
 
     private volatile boolean hasLostNotification = false;
     private volatile ScheduledJobException myLastError;
     private volatile Collection<LongTokenRange> myUnknownRanges;
 
-    private volatile ScheduledFuture<?> myHangPreventFuture;
+    private volatile long myLastProgressNanos;
+    private volatile boolean myTerminationRequested;
     private volatile int myCommand;
-
-    private final ConcurrentMap<LongTokenRange, RepairHistory.RepairSession> myRepairSessions = new ConcurrentHashMap<>();
+    private volatile String myRepairTag = REPAIR_TAG_PREFIX + 0;
+    private volatile long myStartedAt;
 
     RepairTask(Builder builder)
     {
@@ -79,15 +99,36 @@ public class RepairTask implements NotificationListener //NOPMD Possible god cla
         RepairHistory repairHistory = Preconditions.checkNotNull(builder.repairHistory, "Repair history must be set");
 
         myJmxProxyFactory = builder.jmxProxyFactory;
-        myTableReference = builder.tableReference;
+        myTableReferences = Preconditions.checkNotNull(builder.tableReferences, "Table reference must be set");
+        Preconditions.checkArgument(!myTableReferences.isEmpty(), "Table reference must be set");
+        myTableReference = myTableReferences.get(0);
+        Preconditions.checkArgument(myTableReferences.size() == 1 || myTableReferences.stream()
+                .allMatch(tableReference -> tableReference.getKeyspace().equals(myTableReference.getKeyspace())),
+                "All tables must be in the same keyspace");
         myTokenRanges = builder.tokenRanges;
         myReplicas = Preconditions.checkNotNull(builder.replicas, "Replicas must be set");
         myTableRepairMetrics = builder.tableRepairMetrics;
         myRepairConfiguration = builder.repairConfiguration;
-
-        for (LongTokenRange range : myTokenRanges)
+        myRepairHistoryProvider = builder.repairHistoryProvider;
+        myRepairTaskMonitor = Preconditions.checkNotNull(builder.repairTaskMonitor,
+                "Repair task monitor cannot be null");
+
+        // The ranges are indexed by their position when sorted so that finished ranges can be found without allocations
+        myRanges = myTokenRanges.toArray(new LongTokenRange[0]);
+        Arrays.sort(myRanges, Comparator.<LongTokenRange>comparingLong(range -> range.start).thenComparingLong(range -> range.end));
+        myRangeStarts = new long[myRanges.length];
+        myCompletedRanges = new AtomicLongArray((myRanges.length + Long.SIZE - 1) / Long.SIZE);
+        myRepairSessions = new AtomicReferenceArray<>(myRanges.length);
+
+        for (int i = 0; i < myRanges.length; i++)
         {
-            myRepairSessions.put(range, repairHistory.newSession(myTableReference, jobId, range, myReplicas));
+            myRangeStarts[i] = myRanges[i].start;
+            List<RepairHistory.RepairSession> repairSessions = new ArrayList<>(myTableReferences.size());
+            for (TableReference tableReference : myTableReferences)
+            {
+                repairSessions.add(repairHistory.newSession(tableReference, jobId, myRanges[i], myReplicas));
+            }
+            myRepairSessions.set(i, repairSessions);
         }
     }
 
@@ -97,12 +138,17 @@ public class RepairTask implements NotificationListener //NOPMD Possible god cla
         long end;
         long executionNanos;
         boolean successful = true;
+        myStartedAt = System.currentTimeMillis();
 
-        myRepairSessions.values().forEach(RepairHistory.RepairSession::start);
+        for (int i = 0; i < myRanges.length; i++)
+        {
+            myRepairSessions.get(i).forEach(RepairHistory.RepairSession::start);
+        }
+        reportPhase(RepairPhase.HISTORY, start);
 
         try (JmxProxy proxy = myJmxProxyFactory.connect())
         {
-            rescheduleHangPrevention();
+            startHangPrevention();
             repair(proxy);
             finish(RepairStatus.SUCCESS);
         }
@@ -116,39 +162,137 @@ public class RepairTask implements NotificationListener //NOPMD Possible god cla
         }
         finally
         {
-            if (myHangPreventFuture != null)
-            {
-                myHangPreventFuture.cancel(false);
-            }
+            stopHangPrevention();
             end = System.nanoTime();
             executionNanos = end - start;
 
-            myTableRepairMetrics.repairTiming(myTableReference, executionNanos, TimeUnit.NANOSECONDS, successful);
+            for (TableReference tableReference : myTableReferences)
+            {
+                myTableRepairMetrics.repairTiming(tableReference, executionNanos, TimeUnit.NANOSECONDS, successful);
+            }
         }
 
+        long unwindStart = System.nanoTime();
         lazySleep(executionNanos);
+        reportPhase(RepairPhase.UNWIND, unwindStart);
+    }
+
+    private void reportPhase(RepairPhase repairPhase, long phaseStart)
+    {
+        reportPhaseTime(repairPhase, System.nanoTime() - phaseStart);
+    }
+
+    private void reportPhaseTime(RepairPhase repairPhase, long timeTakenNanos)
+    {
+        for (TableReference tableReference : myTableReferences)
+        {
+            myTableRepairMetrics.repairPhaseTiming(tableReference, repairPhase, timeTakenNanos, TimeUnit.NANOSECONDS);
+        }
     }
 
     private void finish(RepairStatus repairStatus)
     {
-        myRepairSessions.values().forEach(rs -> rs.finish(repairStatus));
-        myRepairSessions.clear();
+        long finishStart = System.nanoTime();
+        for (int i = 0; i < myRanges.length; i++)
+        {
+            List<RepairHistory.RepairSession> repairSessions = myRepairSessions.getAndSet(i, null);
+            if (repairSessions != null)
+            {
+                repairSessions.forEach(rs -> rs.finish(repairStatus));
+            }
+        }
+        reportPhase(RepairPhase.HISTORY, finishStart);
+    }
+
+    private void finish(int rangeIndex, RepairStatus repairStatus)
+    {
+        List<RepairHistory.RepairSession> repairSessions = myRepairSessions.getAndSet(rangeIndex, null);
+        if (repairSessions != null)
+        {
+            for (int i = 0; i < repairSessions.size(); i++)
+            {
+                repairSessions.get(i).finish(repairStatus);
+            }
+        }
+        for (int i = 0; i < myTableReferences.size(); i++)
+        {
+            FlightRecorderEvents.repairRangeFinished(myTableReferences.get(i), myRanges[rangeIndex], repairStatus);
+        }
+    }
+
+    /**
+     * Mark the range with the provided index as completed.
+     *
+     * @param rangeIndex The index of the range.
+     * @return True if the range was not already completed.
+     */
+    private boolean markCompleted(int rangeIndex)
+    {
+        long bit = 1L << rangeIndex;
+        long previous = myCompletedRanges.getAndAccumulate(rangeIndex / Long.SIZE, bit, (word, mask) -> word | mask);
+        return (previous & bit) == 0;
+    }
+
+    private boolean isCompleted(int rangeIndex)
+    {
+        return (myCompletedRanges.get(rangeIndex / Long.SIZE) & (1L << rangeIndex)) != 0;
     }
 
-    private void finish(LongTokenRange range, RepairStatus repairStatus)
+    private void rangeFinished(long start, long end)
     {
-        RepairHistory.RepairSession repairSession = myRepairSessions.remove(range);
-        if (repairSession == null)
+        int rangeIndex = indexOf(start, end);
+        if (rangeIndex == -1)
+        {
+            LOG.error("{}: Finished range ({},{}] - but it was not included in the repaired ranges {}",
+                    this, start, end, myTokenRanges);
+        }
+        else if (markCompleted(rangeIndex))
         {
-            LOG.error("{}: Finished range {} - but it was not included in the known repair sessions {}, all ranges are {}",
-                    this, range, myRepairSessions.keySet(), myTokenRanges);
+            finish(rangeIndex, RepairStatus.SUCCESS);
         }
         else
         {
-            repairSession.finish(repairStatus);
+            LOG.debug("{}: Finished range ({},{}] was already finished", this, start, end);
         }
     }
 
+    private int indexOf(long start, long end)
+    {
+        int index = Arrays.binarySearch(myRangeStarts, start);
+        if (index < 0)
+        {
+            return -1;
+        }
+
+        while (index > 0 && myRangeStarts[index - 1] == start)
+        {
+            index--;
+        }
+
+        for (; index < myRanges.length && myRangeStarts[index] == start; index++)
+        {
+            if (myRanges[index].end == end)
+            {
+                return index;
+            }
+        }
+
+        return -1;
+    }
+
+    private Set<LongTokenRange> getRanges(boolean completed)
+    {
+        Set<LongTokenRange> ranges = new HashSet<>();
+        for (int i = 0; i < myRanges.length; i++)
+        {
+            if (isCompleted(i) == completed)
+            {
+                ranges.add(myRanges[i]);
+            }
+        }
+        return ranges;
+    }
+
     private void lazySleep(long executionNanos) throws ScheduledJobException
     {
         if (myRepairConfiguration.getRepairUnwindRatio() != RepairConfiguration.NO_UNWIND)
@@ -170,11 +314,6 @@ public class RepairTask implements NotificationListener //NOPMD Possible god cla
         }
     }
 
-    public void cleanup()
-    {
-        myExecutor.shutdown();
-    }
-
     /**
      * Get the ranges that failed during this repair.
      *
@@ -192,14 +331,14 @@ public class RepairTask implements NotificationListener //NOPMD Possible god cla
         switch (notification.getType())
         {
             case "progress":
-                rescheduleHangPrevention();
                 String tag = (String) notification.getSource();
-                if (tag.equals("repair:" + myCommand))
+                if (tag.equals(myRepairTag))
                 {
+                    myLastProgressNanos = System.nanoTime();
                     Map<String, Integer> progress = (Map<String, Integer>) notification.getUserData();
 
                     String message = notification.getMessage();
-                    ProgressEventType type = ProgressEventType.values()[progress.get("type")];
+                    ProgressEventType type = PROGRESS_EVENT_TYPES[progress.get("type")];
                     int progressCount = progress.get("progressCount");
                     int total = progress.get("total");
 
@@ -224,7 +363,12 @@ public class RepairTask implements NotificationListener //NOPMD Possible god cla
     @Override
     public String toString()
     {
-        return String.format("Repair of %s", myTableReference);
+        return String.format("Repair of %s", getTablesString());
+    }
+
+    private String getTablesString()
+    {
+        return myTableReferences.size() == 1 ? myTableReference.toString() : myTableReferences.toString();
     }
 
     private Map<String, String> getOptions()
@@ -233,7 +377,16 @@ public class RepairTask implements NotificationListener //NOPMD Possible god cla
 
         options.put(RepairOptions.PARALLELISM_KEY, myRepairConfiguration.getRepairParallelism().getName());
         options.put(RepairOptions.PRIMARY_RANGE_KEY, Boolean.toString(false));
-        options.put(RepairOptions.COLUMNFAMILIES_KEY, myTableReference.getTable());
+        options.put(RepairOptions.COLUMNFAMILIES_KEY, myTableReferences.stream()
+                .map(TableReference::getTable)
+                .collect(Collectors.joining(",")));
+        if (myRepairConfiguration.getRepairType() == RepairOptions.RepairType.INCREMENTAL)
+        {
+            // Incremental repairs cover all local ranges and cannot be restricted to ranges or hosts
+            options.put(RepairOptions.INCREMENTAL_KEY, Boolean.toString(true));
+            return options;
+        }
+
         options.put(RepairOptions.INCREMENTAL_KEY, Boolean.toString(false));
 
         StringBuilder rangesStringBuilder = new StringBuilder();
@@ -256,20 +409,40 @@ public class RepairTask implements NotificationListener //NOPMD Possible god cla
 
     private void repair(JmxProxy proxy) throws ScheduledJobException
     {
+        long submitStart = System.nanoTime();
+        List<TimedEvent> submitEvents = new ArrayList<>(myTableReferences.size());
+        for (int i = 0; i < myTableReferences.size(); i++)
+        {
+            submitEvents.add(FlightRecorderEvents.startRepairSubmit());
+        }
         proxy.addStorageServiceListener(this);
-        myCommand = proxy.repairAsync(myTableReference.getKeyspace(), getOptions());
+        int command = proxy.repairAsync(myTableReference.getKeyspace(), getOptions());
+        myRepairTag = REPAIR_TAG_PREFIX + command;
+        myCommand = command;
+        long submitTime = System.nanoTime() - submitStart;
+        reportPhaseTime(RepairPhase.SUBMIT, submitTime);
+        for (int i = 0; i < myTableReferences.size(); i++)
+        {
+            FlightRecorderEvents.repairSubmitted(submitEvents.get(i), myTableReferences.get(i), myCommand,
+                    myTokenRanges.size());
+        }
 
         if (myCommand > 0)
         {
             try
             {
+                long waitStart = System.nanoTime();
                 myLatch.await();
+                reportPhase(RepairPhase.WAIT, waitStart);
 
                 proxy.removeStorageServiceListener(this);
 
-                verifyRepair(proxy);
+                verifyRepair();
 
-                LOG.debug("{} - {} completed successfully", this, completedRanges);
+                if (LOG.isDebugEnabled())
+                {
+                    LOG.debug("{} - {} completed successfully", this, getRanges(true));
+                }
             }
             catch (InterruptedException e)
             {
@@ -280,11 +453,13 @@ public class RepairTask implements NotificationListener //NOPMD Possible god cla
         }
     }
 
-    private void verifyRepair(JmxProxy proxy) throws ScheduledJobException
+    private void verifyRepair() throws ScheduledJobException
     {
+        boolean recoveredLostNotifications = hasLostNotification && recoverFromRepairHistory();
+
         if (!validateRepairedRanges())
         {
-            proxy.forceTerminateAllRepairSessions();
+            requestTermination();
             String msg = String.format("Unknown status of some ranges for %s", this);
             LOG.warn(msg);
             throw new ScheduledJobException(msg);
@@ -295,22 +470,71 @@ public class RepairTask implements NotificationListener //NOPMD Possible god cla
             throw myLastError;
         }
 
-        if (hasLostNotification)
+        if (hasLostNotification && !recoveredLostNotifications)
         {
-            String msg = String.format("Repair of %s had lost notifications", myTableReference);
+            myUnknownRanges = Collections.unmodifiableSet(new HashSet<>(myTokenRanges));
+            String msg = String.format("%s had lost notifications", this);
             LOG.warn(msg);
             throw new ScheduledJobException(msg);
         }
     }
 
+    /**
+     * Mark the ranges that were not reported as finished but have a successful entry in the repair history for all
+     * tables since this task was started.
+     *
+     * @return True if the repair history could be used to recover the status of the ranges.
+     */
+    private boolean recoverFromRepairHistory()
+    {
+        if (myRepairHistoryProvider == null)
+        {
+            return false;
+        }
+
+        Set<LongTokenRange> unknownRanges = getRanges(false);
+        if (unknownRanges.isEmpty())
+        {
+            return true;
+        }
+
+        try
+        {
+            long now = Math.max(System.currentTimeMillis(), myStartedAt + 1);
+            Set<LongTokenRange> repairedRanges = new HashSet<>(unknownRanges);
+
+            for (TableReference tableReference : myTableReferences)
+            {
+                Set<LongTokenRange> tableRepairedRanges = new HashSet<>();
+                Iterator<RepairEntry> iterator = myRepairHistoryProvider.iterate(tableReference, now, myStartedAt,
+                        repairEntry -> repairEntry.getStatus() == RepairStatus.SUCCESS
+                                && unknownRanges.contains(repairEntry.getRange()));
+                iterator.forEachRemaining(repairEntry -> tableRepairedRanges.add(repairEntry.getRange()));
+                repairedRanges.retainAll(tableRepairedRanges);
+            }
+
+            for (LongTokenRange repairedRange : repairedRanges)
+            {
+                LOG.debug("{} - Recovered finished range {} from repair history", this, repairedRange);
+                rangeFinished(repairedRange.start, repairedRange.end);
+            }
+            return true;
+        }
+        catch (Exception e)
+        {
+            LOG.warn("{} - Unable to recover lost notifications from repair history", this, e);
+            return false;
+        }
+    }
+
     private boolean validateRepairedRanges()
     {
-        Set<LongTokenRange> unknownRanges = Sets.difference(myTokenRanges, completedRanges);
+        Set<LongTokenRange> unknownRanges = getRanges(false);
 
         if (!unknownRanges.isEmpty())
         {
             LOG.debug("Failed ranges: {}", unknownRanges);
-            LOG.debug("Completed ranges: {}", completedRanges);
+            LOG.debug("Completed ranges: {}", getRanges(true));
             myUnknownRanges = Collections.unmodifiableSet(unknownRanges);
             return false;
         }
@@ -320,7 +544,7 @@ public class RepairTask implements NotificationListener //NOPMD Possible god cla
 
     private void handleConnectionFailed()
     {
-        myLastError = new ScheduledJobException(String.format("Unable to repair %s", myTableReference));
+        myLastError = new ScheduledJobException(String.format("Unable to repair %s", getTablesString()));
         myLatch.countDown();
     }
 
@@ -329,18 +553,7 @@ public class RepairTask implements NotificationListener //NOPMD Possible god cla
     {
         if (type == ProgressEventType.PROGRESS)
         {
-            Matcher matcher = REPAIR_PATTERN.matcher(message);
-
-            if (matcher.matches())
-            {
-                long start = Long.parseLong(matcher.group(1));
-                long end = Long.parseLong(matcher.group(2));
-
-                LongTokenRange completedRange = new LongTokenRange(start, end);
-                finish(completedRange, RepairStatus.SUCCESS);
-                completedRanges.add(completedRange);
-            }
-            else
+            if (!RepairProgressParser.parseFinishedRanges(message, myRangeFinishedConsumer))
             {
                 LOG.warn("{} - Unknown progress message received: {}", this, message);
             }
@@ -369,13 +582,15 @@ public class RepairTask implements NotificationListener //NOPMD Possible god cla
         return (progressCount * 100.0d) / total;
     }
 
-    private void rescheduleHangPrevention()
+    private void startHangPrevention()
     {
-        if (myHangPreventFuture != null)
-        {
-            myHangPreventFuture.cancel(false);
-        }
-        myHangPreventFuture = myExecutor.schedule(new HangPreventingTask(), HANG_PREVENT_TIME_IN_MINUTES, TimeUnit.MINUTES);
+        myLastProgressNanos = System.nanoTime();
+        myRepairTaskMonitor.register(this);
+    }
+
+    private void stopHangPrevention()
+    {
+        myRepairTaskMonitor.unregister(this);
     }
 
     /**
@@ -386,11 +601,13 @@ public class RepairTask implements NotificationListener //NOPMD Possible god cla
         private RepairHistory repairHistory;
         private UUID jobId;
         private JmxProxyFactory jmxProxyFactory;
-        private TableReference tableReference;
+        private List<TableReference> tableReferences;
         private Set<LongTokenRange> tokenRanges;
         private Set<Node> replicas;
         private TableRepairMetrics tableRepairMetrics;
         private RepairConfiguration repairConfiguration = RepairConfiguration.DEFAULT;
+        private RepairHistoryProvider repairHistoryProvider;
+        private RepairTaskMonitor repairTaskMonitor = RepairTaskMonitor.DEFAULT;
 
         public Builder withRepairHistory(RepairHistory repairHistory)
         {
@@ -398,6 +615,35 @@ public class RepairTask implements NotificationListener //NOPMD Possible god cla
             return this;
         }
 
+        /**
+         * Use the repair history to recover the status of ranges when notifications are lost during the repair.
+         * <p>
+         * This should be the repair history kept by Cassandra, like
+         * {@link com.ericsson.bss.cassandra.ecchronos.core.repair.state.RepairHistoryProviderImpl}. The ecChronos
+         * repair history is updated from the notifications of this task, so it never has the outcome of a lost one.
+         *
+         * @param repairHistoryProvider The repair history provider.
+         * @return The builder.
+         */
+        public Builder withRepairHistoryProvider(RepairHistoryProvider repairHistoryProvider)
+        {
+            this.repairHistoryProvider = repairHistoryProvider;
+            return this;
+        }
+
+        /**
+         * Set the monitor terminating the repair sessions when no progress is reported for a long time.
+         * Defaults to the shared {@link RepairTaskMonitor#DEFAULT} monitor.
+         *
+         * @param repairTaskMonitor The monitor checking the progress of the running repair tasks.
+         * @return The builder.
+         */
+        public Builder withRepairTaskMonitor(RepairTaskMonitor repairTaskMonitor)
+        {
+            this.repairTaskMonitor = repairTaskMonitor;
+            return this;
+        }
+
         public Builder withJobId(UUID jobId)
         {
             this.jobId = jobId;
@@ -412,7 +658,19 @@ public class RepairTask implements NotificationListener //NOPMD Possible god cla
 
         public Builder withTableReference(TableReference tableReference)
         {
-            this.tableReference = tableReference;
+            this.tableReferences = Collections.singletonList(tableReference);
+            return this;
+        }
+
+        /**
+         * Repair several tables of the same keyspace in the same repair session.
+         *
+         * @param tableReferences The tables to repair.
+         * @return The builder.
+         */
+        public Builder withTableReferences(Collection<TableReference> tableReferences)
+        {
+            this.tableReferences = new ArrayList<>(tableReferences);
             return this;
         }
 
@@ -490,23 +748,44 @@ public class RepairTask implements NotificationListener //NOPMD Possible god cla
         NOTIFICATION
     }
 
-    private class HangPreventingTask implements Runnable
+    /**
+     * Abort this repair task as no progress has been reported for too long, called by the {@link RepairTaskMonitor}.
+     */
+    void preventHang()
+    {
+        FlightRecorderEvents.repairHangPrevention(myTableReference, myCommand);
+        requestTermination();
+        myLatch.countDown();
+    }
+
+    /**
+     * Request the termination of the repair sessions of the node.
+     * The repair task monitor defers the termination while other repair tasks are running.
+     */
+    private void requestTermination()
     {
+        if (!myTerminationRequested)
+        {
+            myTerminationRequested = true;
+            myRepairTaskMonitor.requestTermination(this);
+        }
+    }
 
-        @Override
-        public void run()
+    void terminateRepairSessions()
+    {
+        try (JmxProxy proxy = myJmxProxyFactory.connect())
         {
-            try (JmxProxy proxy = myJmxProxyFactory.connect())
-            {
-                proxy.forceTerminateAllRepairSessions();
-            }
-            catch (IOException e)
-            {
-                LOG.error("Unable to prevent hanging repair task: {}", this, e);
-            }
-            myLatch.countDown();
+            proxy.forceTerminateAllRepairSessions();
+        }
+        catch (IOException e)
+        {
+            LOG.error("Unable to terminate repair sessions for {}", this, e);
         }
+    }
 
+    long getLastProgressNanos()
+    {
+        return myLastProgressNanos;
     }
 
     @VisibleForTesting
@@ -518,7 +797,7 @@ public class RepairTask implements NotificationListener //NOPMD Possible god cla
     @VisibleForTesting
     Collection<LongTokenRange> getCompletedRanges()
     {
-        return Sets.newHashSet(completedRanges);
+        return getRanges(true);
     }
 
     @VisibleForTesting
@@ -533,6 +812,11 @@ public class RepairTask implements NotificationListener //NOPMD Possible god cla
         return myTableReference;
     }
 
+    List<TableReference> getTableReferences()
+    {
+        return new ArrayList<>(myTableReferences);
+    }
+
     @VisibleForTesting
     RepairConfiguration getRepairConfiguration()
     {
@@ -0,0 +1,204 @@
+/*
+ * Copyright 2021 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecchronos.core.repair;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Monitor of the running repair tasks that terminates the repair sessions of tasks without progress.
+ * <p>
+ * A single thread checks all registered repair tasks once a minute, a repair task that has not reported any progress
+ * for {@value #HANG_PREVENT_TIME_IN_MINUTES} minutes is aborted and has its repair sessions terminated.
+ * Repair tasks use the shared {@link #DEFAULT} monitor unless another monitor is provided.
+ * <p>
+ * Cassandra can only terminate all repair sessions of a node at once. When other repair tasks are running the
+ * termination is deferred until the last of them has finished, so that a hanging repair does not abort the repairs
+ * running next to it. No further repairs should be admitted while a termination is pending.
+ */
+public class RepairTaskMonitor implements Closeable
+{
+    private static final Logger LOG = LoggerFactory.getLogger(RepairTaskMonitor.class);
+
+    static final long HANG_PREVENT_TIME_IN_MINUTES = 30;
+    private static final long HANG_PREVENT_CHECK_INTERVAL_IN_MINUTES = 1;
+
+    /**
+     * The monitor shared by all repair tasks of this process.
+     */
+    public static final RepairTaskMonitor DEFAULT = new RepairTaskMonitor();
+
+    private final Object myLock = new Object();
+    private final Set<RepairTask> myRepairTasks = new HashSet<>();
+    private final ScheduledExecutorService myExecutor;
+    private final long myHangPreventTimeInNanos;
+
+    private RepairTask myPendingTermination;
+
+    public RepairTaskMonitor()
+    {
+        this(TimeUnit.MINUTES.toNanos(HANG_PREVENT_TIME_IN_MINUTES));
+    }
+
+    @VisibleForTesting
+    RepairTaskMonitor(long hangPreventTimeInNanos)
+    {
+        myHangPreventTimeInNanos = hangPreventTimeInNanos;
+        myExecutor = Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setNameFormat("RepairTaskMonitor-%d").setDaemon(true).build());
+        myExecutor.scheduleWithFixedDelay(this::checkRepairTasks, HANG_PREVENT_CHECK_INTERVAL_IN_MINUTES,
+                HANG_PREVENT_CHECK_INTERVAL_IN_MINUTES, TimeUnit.MINUTES);
+    }
+
+    void register(RepairTask repairTask)
+    {
+        synchronized (myLock)
+        {
+            myRepairTasks.add(repairTask);
+        }
+    }
+
+    void unregister(RepairTask repairTask)
+    {
+        RepairTask pendingTermination = null;
+
+        synchronized (myLock)
+        {
+            myRepairTasks.remove(repairTask);
+            if (myRepairTasks.isEmpty())
+            {
+                pendingTermination = myPendingTermination;
+                myPendingTermination = null;
+            }
+        }
+
+        if (pendingTermination != null)
+        {
+            pendingTermination.terminateRepairSessions();
+        }
+    }
+
+    /**
+     * Terminate the repair sessions of the node on behalf of the provided repair task.
+     * <p>
+     * The repair sessions are terminated directly if no other repair task is running, otherwise the termination
+     * is deferred until the other repair tasks have finished.
+     *
+     * @param repairTask The repair task that needs its repair sessions terminated.
+     */
+    void requestTermination(RepairTask repairTask)
+    {
+        synchronized (myLock)
+        {
+            for (RepairTask runningRepairTask : myRepairTasks)
+            {
+                if (runningRepairTask != repairTask)
+                {
+                    LOG.info("Deferring termination of repair sessions for {} until running repairs have finished",
+                            repairTask);
+                    myPendingTermination = repairTask;
+                    return;
+                }
+            }
+        }
+
+        repairTask.terminateRepairSessions();
+    }
+
+    /**
+     * Check if a termination of the repair sessions is waiting for running repair tasks to finish.
+     *
+     * @return True if a termination is pending.
+     */
+    public boolean isTerminationPending()
+    {
+        synchronized (myLock)
+        {
+            return myPendingTermination != null;
+        }
+    }
+
+    @VisibleForTesting
+    boolean isRegistered(RepairTask repairTask)
+    {
+        synchronized (myLock)
+        {
+            return myRepairTasks.contains(repairTask);
+        }
+    }
+
+    @VisibleForTesting
+    int getRepairTasks()
+    {
+        synchronized (myLock)
+        {
+            return myRepairTasks.size();
+        }
+    }
+
+    @VisibleForTesting
+    void checkRepairTasks()
+    {
+        long now = System.nanoTime();
+
+        List<RepairTask> hangingRepairTasks = new ArrayList<>();
+        synchronized (myLock)
+        {
+            for (RepairTask repairTask : myRepairTasks)
+            {
+                if (now - repairTask.getLastProgressNanos() >= myHangPreventTimeInNanos)
+                {
+                    hangingRepairTasks.add(repairTask);
+                }
+            }
+        }
+
+        for (RepairTask repairTask : hangingRepairTasks)
+        {
+            try
+            {
+                unregister(repairTask);
+                repairTask.preventHang();
+            }
+            catch (Exception e)
+            {
+                LOG.error("Unable to prevent hanging repair task {}", repairTask, e);
+            }
+        }
+    }
+
+    @Override
+    public void close()
+    {
+        myExecutor.shutdown();
+        synchronized (myLock)
+        {
+            myRepairTasks.clear();
+            myPendingTermination = null;
+        }
+    }
+}
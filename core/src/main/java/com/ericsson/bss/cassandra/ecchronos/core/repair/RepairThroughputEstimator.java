@@ -0,0 +1,140 @@
+/*
+ * Copyright 2021 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecchronos.core.repair;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+import com.ericsson.bss.cassandra.ecchronos.core.repair.state.VnodeRepairState;
+import com.google.common.annotations.VisibleForTesting;
+
+/**
+ * Streaming estimator of the repair throughput of a table.
+ * <p>
+ * The estimator keeps exponentially weighted moving averages of the number of tokens repaired and the time spent
+ * per repair task. The throughput is the ratio of the two averages so that large tasks weigh more than small ones.
+ * Failed tasks contribute their time but no tokens.
+ * <p>
+ * The time includes the repair itself and the unwind delay but not the time spent waiting to be scheduled or
+ * for locks, so the estimates assume that the table is repaired without interruption.
+ */
+public class RepairThroughputEstimator
+{
+    static final double DEFAULT_ALPHA = 0.2d;
+
+    private final double myAlpha;
+
+    private double myTokensAverage;
+    private double myNanosAverage;
+    private boolean myHasSample;
+
+    public RepairThroughputEstimator()
+    {
+        this(DEFAULT_ALPHA);
+    }
+
+    @VisibleForTesting
+    RepairThroughputEstimator(double alpha)
+    {
+        myAlpha = alpha;
+    }
+
+    /**
+     * Add the result of a repair task.
+     *
+     * @param repairedTokens The number of tokens repaired by the task.
+     * @param timeTaken The time the task took.
+     * @param timeUnit The {@link TimeUnit} of the time taken.
+     */
+    public synchronized void repaired(double repairedTokens, long timeTaken, TimeUnit timeUnit)
+    {
+        double nanos = timeUnit.toNanos(timeTaken);
+
+        if (myHasSample)
+        {
+            myTokensAverage += myAlpha * (repairedTokens - myTokensAverage);
+            myNanosAverage += myAlpha * (nanos - myNanosAverage);
+        }
+        else
+        {
+            myTokensAverage = repairedTokens;
+            myNanosAverage = nanos;
+            myHasSample = true;
+        }
+    }
+
+    /**
+     * @return The estimated throughput in tokens per second or NaN if not known.
+     */
+    public synchronized double getTokensPerSecond()
+    {
+        if (!myHasSample || myNanosAverage <= 0)
+        {
+            return Double.NaN;
+        }
+
+        return myTokensAverage / (myNanosAverage / TimeUnit.SECONDS.toNanos(1));
+    }
+
+    /**
+     * Estimate the repair of a table.
+     *
+     * @param vnodeRepairStates The repair state of the ranges of the table.
+     * @param now The current time in milliseconds.
+     * @param repairConfiguration The repair configuration of the table.
+     * @param dataSize The size of the table in bytes.
+     * @return The estimate, {@link RepairEstimate#UNKNOWN} if the throughput is not known.
+     */
+    public RepairEstimate estimate(Collection<VnodeRepairState> vnodeRepairStates, long now,
+            RepairConfiguration repairConfiguration, long dataSize)
+    {
+        double tokensPerSecond = getTokensPerSecond();
+        if (Double.isNaN(tokensPerSecond) || tokensPerSecond <= 0)
+        {
+            return RepairEstimate.UNKNOWN;
+        }
+
+        long repairInterval = repairConfiguration.getRepairIntervalInMs();
+        double totalTokens = 0;
+        double remainingTokens = 0;
+
+        for (VnodeRepairState vnodeRepairState : vnodeRepairStates)
+        {
+            double tokens = vnodeRepairState.getTokenRange().rangeSize().doubleValue();
+            totalTokens += tokens;
+
+            if (now - vnodeRepairState.lastRepairedAt() > repairInterval)
+            {
+                remainingTokens += tokens;
+            }
+        }
+
+        if (totalTokens <= 0)
+        {
+            return RepairEstimate.UNKNOWN;
+        }
+
+        double bytesPerSecond = tokensPerSecond * dataSize / totalTokens;
+        long remainingTimeInMs = toMillis(remainingTokens / tokensPerSecond);
+        long fullRepairTimeInMs = toMillis(totalTokens / tokensPerSecond);
+
+        return new RepairEstimate(bytesPerSecond, remainingTimeInMs, repairInterval - fullRepairTimeInMs);
+    }
+
+    private static long toMillis(double seconds)
+    {
+        return (long) Math.ceil(seconds * TimeUnit.SECONDS.toMillis(1));
+    }
+}
@@ -21,10 +21,19 @@ import com.ericsson.bss.cassandra.ecchronos.core.utils.TableReference;
 
 public class ScheduledRepairJobView extends RepairJobView
 {
+    private final RepairEstimate myRepairEstimate;
+
     public ScheduledRepairJobView(UUID id, TableReference tableReference, RepairConfiguration repairConfiguration,
             RepairStateSnapshot repairStateSnapshot, Status status, double progress)
+    {
+        this(id, tableReference, repairConfiguration, repairStateSnapshot, status, progress, RepairEstimate.UNKNOWN);
+    }
+
+    public ScheduledRepairJobView(UUID id, TableReference tableReference, RepairConfiguration repairConfiguration,
+            RepairStateSnapshot repairStateSnapshot, Status status, double progress, RepairEstimate repairEstimate)
     {
         super(id, tableReference, repairConfiguration, repairStateSnapshot, status, progress);
+        myRepairEstimate = repairEstimate;
     }
 
     @Override
@@ -44,4 +53,10 @@ public class ScheduledRepairJobView extends RepairJobView
     {
         return true;
     }
+
+    @Override
+    public RepairEstimate getRepairEstimate()
+    {
+        return myRepairEstimate;
+    }
 }
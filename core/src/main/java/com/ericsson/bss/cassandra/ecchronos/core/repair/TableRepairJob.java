@@ -15,6 +15,7 @@
 package com.ericsson.bss.cassandra.ecchronos.core.repair;
 
 import com.ericsson.bss.cassandra.ecchronos.core.JmxProxyFactory;
+import com.ericsson.bss.cassandra.ecchronos.core.SizeEstimates;
 import com.ericsson.bss.cassandra.ecchronos.core.TableStorageStates;
 import com.ericsson.bss.cassandra.ecchronos.core.metrics.TableRepairMetrics;
 import com.ericsson.bss.cassandra.ecchronos.core.repair.state.*;
@@ -41,18 +42,26 @@ public class TableRepairJob extends ScheduledJob
 {
     private static final Logger LOG = LoggerFactory.getLogger(TableRepairJob.class);
 
-    private static final RepairLockFactory repairLockFactory = new RepairLockFactoryImpl();
-
     private final TableReference myTableReference;
     private final JmxProxyFactory myJmxProxyFactory;
     private final RepairState myRepairState;
     private final RepairConfiguration myRepairConfiguration;
     private final RepairLockType myRepairLockType;
+    private final RepairLockFactory myRepairLockFactory;
     private final List<TableRepairPolicy> myRepairPolicies;
 
     private final TableRepairMetrics myTableRepairMetrics;
     private final TableStorageStates myTableStorageStates;
+    private final SizeEstimates mySizeEstimates;
     private final RepairHistory myRepairHistory;
+    private final RepairHistoryProvider myRepairHistoryProvider;
+    private final RepairTaskMonitor myRepairTaskMonitor;
+    private final CoalescedTablesProvider myCoalescedTablesProvider;
+    private final RepairStateRefresher myRepairStateRefresher;
+
+    private final RepairThroughputEstimator myThroughputEstimator = new RepairThroughputEstimator();
+
+    private volatile CachedView myCachedView;
 
     TableRepairJob(Builder builder)
     {
@@ -66,10 +75,17 @@ public class TableRepairJob extends ScheduledJob
         myRepairConfiguration = Preconditions
                 .checkNotNull(builder.repairConfiguration, "Repair configuration must be set");
         myRepairLockType = Preconditions.checkNotNull(builder.repairLockType, "Repair lock type must be set");
+        myRepairLockFactory = Preconditions.checkNotNull(builder.repairLockFactory, "Repair lock factory must be set");
         myTableStorageStates = Preconditions
                 .checkNotNull(builder.tableStorageStates, "Table storage states must be set");
+        mySizeEstimates = builder.sizeEstimates;
         myRepairPolicies = Preconditions.checkNotNull(builder.repairPolicies, "Repair policies cannot be null");
         myRepairHistory = Preconditions.checkNotNull(builder.repairHistory, "Repair history must be set");
+        myRepairHistoryProvider = builder.repairHistoryProvider;
+        myRepairTaskMonitor = builder.repairTaskMonitor;
+        myCoalescedTablesProvider = Preconditions
+                .checkNotNull(builder.coalescedTablesProvider, "Coalesced tables provider cannot be null");
+        myRepairStateRefresher = builder.repairStateRefresher;
     }
 
     public TableReference getTableReference()
@@ -82,16 +98,65 @@ public class TableRepairJob extends ScheduledJob
         return myRepairConfiguration;
     }
 
+    /**
+     * Get a view of the current repair status of the table.
+     * <p>
+     * The view is reused as long as the repair state snapshot is unchanged and no repair interval has passed
+     * since the view was created.
+     * The repair estimate is updated together with the repair state snapshot after each repair task.
+     *
+     * @return The view of this job.
+     */
     public RepairJobView getView()
     {
-        long now = System.currentTimeMillis();
-        return new ScheduledRepairJobView(getId(), myTableReference, myRepairConfiguration, myRepairState.getSnapshot(), getStatus(now), getProgress(now));
+        long now = getClock().millis();
+        RepairStateSnapshot repairStateSnapshot = myRepairState.getSnapshot();
+        CachedView cachedView = myCachedView;
+
+        if (cachedView == null || !cachedView.isValid(repairStateSnapshot, now))
+        {
+            cachedView = createView(repairStateSnapshot, now);
+            myCachedView = cachedView;
+        }
+
+        return cachedView.myView;
+    }
+
+    private CachedView createView(RepairStateSnapshot repairStateSnapshot, long now)
+    {
+        Collection<VnodeRepairState> states = repairStateSnapshot.getVnodeRepairStates().getVnodeRepairStates();
+        long repairedAt = repairStateSnapshot.lastCompletedAt();
+
+        long validUntil = Long.MAX_VALUE;
+        for (long statusChangeAt : Arrays.asList(repairedAt + myRepairConfiguration.getRepairIntervalInMs(),
+                repairedAt + myRepairConfiguration.getRepairWarningTimeInMs(),
+                repairedAt + myRepairConfiguration.getRepairErrorTimeInMs()))
+        {
+            if (statusChangeAt > now)
+            {
+                validUntil = Math.min(validUntil, statusChangeAt);
+            }
+        }
+        for (VnodeRepairState state : states)
+        {
+            long progressChangeAt = state.lastRepairedAt() + myRepairConfiguration.getRepairIntervalInMs() + 1;
+            if (progressChangeAt > now)
+            {
+                validUntil = Math.min(validUntil, progressChangeAt);
+            }
+        }
+
+        RepairEstimate repairEstimate = myThroughputEstimator.estimate(states, now, myRepairConfiguration,
+                myTableStorageStates.getDataSize(myTableReference));
+
+        RepairJobView view = new ScheduledRepairJobView(getId(), myTableReference, myRepairConfiguration,
+                repairStateSnapshot, getStatus(repairedAt, now), getProgress(states, now), repairEstimate);
+        return new CachedView(view, repairStateSnapshot, validUntil);
     }
 
-    private double getProgress(long timestamp)
+    private double getProgress(Collection<VnodeRepairState> states, long timestamp)
     {
         long interval = myRepairConfiguration.getRepairIntervalInMs();
-        Collection<VnodeRepairState> states = myRepairState.getSnapshot().getVnodeRepairStates().getVnodeRepairStates();
 
         long nRepaired = states.stream()
                 .filter(isRepaired(timestamp, interval))
@@ -107,9 +172,8 @@ public class TableRepairJob extends ScheduledJob
         return state -> timestamp - state.lastRepairedAt() <= interval;
     }
 
-    private RepairJobView.Status getStatus(long timestamp)
+    private RepairJobView.Status getStatus(long repairedAt, long timestamp)
     {
-        long repairedAt = myRepairState.getSnapshot().lastCompletedAt();
         long msSinceLastRepair = timestamp - repairedAt;
         RepairConfiguration config = myRepairConfiguration;
 
@@ -147,12 +211,28 @@ public class TableRepairJob extends ScheduledJob
                         .withJmxProxyFactory(myJmxProxyFactory)
                         .withTableRepairMetrics(myTableRepairMetrics)
                         .withRepairResourceFactory(myRepairLockType.getLockFactory())
-                        .withRepairLockFactory(repairLockFactory)
+                        .withRepairLockFactory(myRepairLockFactory)
                         .withTokensPerRepair(tokensPerRepair)
+                        .withSizeEstimates(mySizeEstimates)
                         .withRepairPolicies(myRepairPolicies)
                         .withRepairHistory(myRepairHistory)
+                        .withRepairHistoryProvider(myRepairHistoryProvider)
+                        .withRepairTaskMonitor(myRepairTaskMonitor)
+                        .withThroughputEstimator(myThroughputEstimator)
+                        .withPreemptible(true)
                         .withJobId(getId());
 
+                List<TableReference> coalescedTables = myCoalescedTablesProvider.getCoalescedTables(this,
+                        replicaRepairGroup);
+                if (!coalescedTables.isEmpty())
+                {
+                    List<TableReference> tableReferences = new ArrayList<>(coalescedTables.size() + 1);
+                    tableReferences.add(myTableReference);
+                    tableReferences.addAll(coalescedTables);
+                    builder.withTableReferences(tableReferences)
+                            .withCombinedRepairSessions(true);
+                }
+
                 taskList.add(builder.build(getRealPriority()));
             }
 
@@ -164,11 +244,43 @@ public class TableRepairJob extends ScheduledJob
         }
     }
 
+    /**
+     * Check if all ranges of the provided replica repair group are in need of repair for this table.
+     * <p>
+     * Used to decide if this table can be repaired together with another table, a table that is not ready
+     * for repair or only needs some of the ranges repaired is left to be repaired by this job instead.
+     *
+     * @param replicaRepairGroup The replica repair group.
+     * @return True if the table can be repaired for the replica repair group.
+     */
+    boolean needsRepair(ReplicaRepairGroup replicaRepairGroup)
+    {
+        RepairStateSnapshot repairStateSnapshot = myRepairState.getSnapshot();
+        if (!repairStateSnapshot.canRepair())
+        {
+            return false;
+        }
+
+        Set<LongTokenRange> ranges = new HashSet<>();
+        replicaRepairGroup.forEach(ranges::add);
+
+        for (ReplicaRepairGroup repairGroup : repairStateSnapshot.getRepairGroups())
+        {
+            if (repairGroup.getReplicas().equals(replicaRepairGroup.getReplicas()))
+            {
+                repairGroup.forEach(ranges::remove);
+            }
+        }
+
+        return ranges.isEmpty();
+    }
+
     @Override
     public void postExecute(boolean successful, ScheduledTask task)
     {
         try
         {
+            myRepairState.repairFinished(successful);
             myRepairState.update();
         }
         catch (Exception e)
@@ -176,19 +288,68 @@ public class TableRepairJob extends ScheduledJob
             LOG.warn("Unable to check repair history, {}", this, e);
         }
 
+        if (task instanceof RepairGroup)
+        {
+            List<TableReference> coalescedTables = new ArrayList<>(((RepairGroup) task).getTableReferences());
+            coalescedTables.remove(myTableReference);
+            if (!coalescedTables.isEmpty())
+            {
+                myCoalescedTablesProvider.coalescedTablesRepaired(coalescedTables);
+            }
+        }
+
         super.postExecute(successful, task);
     }
 
+    /**
+     * Refresh the repair state of the table, e.g. after the table has been repaired by another job.
+     * <p>
+     * If the repair state is refreshed in the background the refresher is asked to refresh it directly,
+     * otherwise the repair state is updated by the calling thread.
+     */
+    void refreshRepairState()
+    {
+        if (myRepairStateRefresher != null)
+        {
+            myRepairStateRefresher.refresh(myTableReference);
+            return;
+        }
+
+        try
+        {
+            myRepairState.update();
+        }
+        catch (Exception e)
+        {
+            LOG.warn("Unable to check repair history, {}", this, e);
+        }
+    }
+
+    @Override
+    public void postPreempted(ScheduledTask task)
+    {
+        refreshRepairState();
+
+        super.postPreempted(task);
+    }
+
     @Override
     public long getLastSuccessfulRun()
     {
         return myRepairState.getSnapshot().lastCompletedAt();
     }
 
+    /**
+     * Check if the job is runnable based on the latest repair state snapshot.
+     * <p>
+     * Unless the repair state is refreshed in the background the repair state is updated before it is checked.
+     *
+     * @return True if the job is runnable.
+     */
     @Override
     public boolean runnable()
     {
-        if (super.runnable())
+        if (myRepairStateRefresher == null && super.runnable())
         {
             try
             {
@@ -246,8 +407,14 @@ public class TableRepairJob extends ScheduledJob
         private RepairConfiguration repairConfiguration = RepairConfiguration.DEFAULT;
         private RepairLockType repairLockType;
         private TableStorageStates tableStorageStates;
+        private SizeEstimates sizeEstimates;
         private final List<TableRepairPolicy> repairPolicies = new ArrayList<>();
         private RepairHistory repairHistory;
+        private RepairHistoryProvider repairHistoryProvider;
+        private RepairTaskMonitor repairTaskMonitor = RepairTaskMonitor.DEFAULT;
+        private CoalescedTablesProvider coalescedTablesProvider = CoalescedTablesProvider.NONE;
+        private RepairStateRefresher repairStateRefresher = null;
+        private RepairLockFactory repairLockFactory = new RepairLockFactoryImpl();
 
         public Builder withConfiguration(Configuration configuration)
         {
@@ -291,12 +458,24 @@ public class TableRepairJob extends ScheduledJob
             return this;
         }
 
+        public Builder withRepairLockFactory(RepairLockFactory repairLockFactory)
+        {
+            this.repairLockFactory = repairLockFactory;
+            return this;
+        }
+
         public Builder withTableStorageStates(TableStorageStates tableStorageStates)
         {
             this.tableStorageStates = tableStorageStates;
             return this;
         }
 
+        public Builder withSizeEstimates(SizeEstimates sizeEstimates)
+        {
+            this.sizeEstimates = sizeEstimates;
+            return this;
+        }
+
         public Builder withRepairPolices(Collection<TableRepairPolicy> tableRepairPolicies)
         {
             this.repairPolicies.addAll(tableRepairPolicies);
@@ -309,6 +488,45 @@ public class TableRepairJob extends ScheduledJob
             return this;
         }
 
+        public Builder withRepairHistoryProvider(RepairHistoryProvider repairHistoryProvider)
+        {
+            this.repairHistoryProvider = repairHistoryProvider;
+            return this;
+        }
+
+        public Builder withRepairTaskMonitor(RepairTaskMonitor repairTaskMonitor)
+        {
+            this.repairTaskMonitor = repairTaskMonitor;
+            return this;
+        }
+
+        /**
+         * Set the provider of tables to repair in the same repair sessions as this table.
+         *
+         * @param coalescedTablesProvider The coalesced tables provider.
+         * @return The builder
+         */
+        public Builder withCoalescedTablesProvider(CoalescedTablesProvider coalescedTablesProvider)
+        {
+            this.coalescedTablesProvider = coalescedTablesProvider;
+            return this;
+        }
+
+        /**
+         * Set the refresher that refreshes the repair state in the background.
+         * <p>
+         * When refreshed in the background the job only reads the latest repair state snapshot when checking if
+         * it is runnable, the repair state is still updated after each repair task.
+         *
+         * @param repairStateRefresher The repair state refresher, the repair state is registered separately.
+         * @return The builder
+         */
+        public Builder withRepairStateRefresher(RepairStateRefresher repairStateRefresher)
+        {
+            this.repairStateRefresher = repairStateRefresher;
+            return this;
+        }
+
         public TableRepairJob build()
         {
             Preconditions.checkNotNull(tableReference, "Table reference must be set");
@@ -316,4 +534,23 @@ public class TableRepairJob extends ScheduledJob
             return new TableRepairJob(this);
         }
     }
+
+    private static class CachedView
+    {
+        private final RepairJobView myView;
+        private final RepairStateSnapshot myRepairStateSnapshot;
+        private final long myValidUntil;
+
+        CachedView(RepairJobView view, RepairStateSnapshot repairStateSnapshot, long validUntil)
+        {
+            myView = view;
+            myRepairStateSnapshot = repairStateSnapshot;
+            myValidUntil = validUntil;
+        }
+
+        boolean isValid(RepairStateSnapshot repairStateSnapshot, long now)
+        {
+            return myRepairStateSnapshot == repairStateSnapshot && now < myValidUntil;
+        }
+    }
 }
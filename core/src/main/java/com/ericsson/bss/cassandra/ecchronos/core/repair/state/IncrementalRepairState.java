@@ -0,0 +1,217 @@
+/*
+ * Copyright 2021 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecchronos.core.repair.state;
+
+import com.ericsson.bss.cassandra.ecchronos.core.HostStates;
+import com.ericsson.bss.cassandra.ecchronos.core.JmxProxy;
+import com.ericsson.bss.cassandra.ecchronos.core.JmxProxyFactory;
+import com.ericsson.bss.cassandra.ecchronos.core.jfr.FlightRecorderEvents;
+import com.ericsson.bss.cassandra.ecchronos.core.jfr.FlightRecorderEvents.TimedEvent;
+import com.ericsson.bss.cassandra.ecchronos.core.metrics.TableRepairMetrics;
+import com.ericsson.bss.cassandra.ecchronos.core.repair.RepairConfiguration;
+import com.ericsson.bss.cassandra.ecchronos.core.utils.LongTokenRange;
+import com.ericsson.bss.cassandra.ecchronos.core.utils.Node;
+import com.ericsson.bss.cassandra.ecchronos.core.utils.TableReference;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Repair state of a table that is repaired with incremental repairs.
+ * <p>
+ * The state is based on the percentage of repaired data reported by the table metrics instead of the repair history.
+ * The table can be repaired when it contains unrepaired data and the repair interval has passed since the last
+ * successful incremental repair. A table without unrepaired data is considered repaired.
+ * <p>
+ * All local ranges are repaired in one incremental repair which holds the locks of all replicas of the local ranges.
+ * This keeps the anticompaction caused by incremental repairs to one repair at a time for the replicas and
+ * at most one repair per repair interval for the table.
+ * <p>
+ * The time of the last incremental repair is kept in memory. When started it is read from the successful repairs of
+ * all local ranges in the repair history within the last repair interval, if the history does not contain such
+ * repairs the table is considered due for repair.
+ */
+public class IncrementalRepairState implements RepairState
+{
+    private static final Logger LOG = LoggerFactory.getLogger(IncrementalRepairState.class);
+
+    private static final double FULLY_REPAIRED = 100.0d;
+
+    private final AtomicReference<RepairStateSnapshot> myRepairStateSnapshot = new AtomicReference<>();
+
+    private final TableReference myTableReference;
+    private final RepairConfiguration myRepairConfiguration;
+    private final JmxProxyFactory myJmxProxyFactory;
+    private final ReplicationState myReplicationState;
+    private final RepairHistoryProvider myRepairHistoryProvider;
+    private final HostStates myHostStates;
+    private final TableRepairMetrics myTableRepairMetrics;
+    private final PostUpdateHook myPostUpdateHook;
+    private final Clock myClock;
+
+    private volatile long myLastRepairedAt;
+
+    public IncrementalRepairState(TableReference tableReference, RepairConfiguration repairConfiguration,
+            JmxProxyFactory jmxProxyFactory, ReplicationState replicationState,
+            RepairHistoryProvider repairHistoryProvider, HostStates hostStates, TableRepairMetrics tableRepairMetrics,
+            PostUpdateHook postUpdateHook, Clock clock)
+    {
+        myTableReference = tableReference;
+        myRepairConfiguration = repairConfiguration;
+        myJmxProxyFactory = jmxProxyFactory;
+        myReplicationState = replicationState;
+        myRepairHistoryProvider = repairHistoryProvider;
+        myHostStates = hostStates;
+        myTableRepairMetrics = tableRepairMetrics;
+        myPostUpdateHook = postUpdateHook;
+        myClock = clock;
+
+        myLastRepairedAt = getLastRepairedAtFromHistory(clock.millis());
+
+        update();
+    }
+
+    @Override
+    public final void update()
+    {
+        TimedEvent stateUpdateEvent = FlightRecorderEvents.startRepairStateUpdate();
+        long now = myClock.millis();
+        double percentRepaired = getPercentRepaired();
+        boolean repairDue = myLastRepairedAt <= now - myRepairConfiguration.getRepairIntervalInMs();
+
+        if (repairDue && percentRepaired >= FULLY_REPAIRED)
+        {
+            LOG.debug("Table {} has no unrepaired data", myTableReference);
+            myLastRepairedAt = now;
+            repairDue = false;
+        }
+
+        long lastRepairedAt = myLastRepairedAt;
+        Map<LongTokenRange, ImmutableSet<Node>> tokenRangeToReplicas = myReplicationState
+                .getTokenRangeToReplicas(myTableReference);
+
+        ImmutableSet.Builder<Node> replicasBuilder = ImmutableSet.builder();
+        List<VnodeRepairState> vnodeRepairStates = new ArrayList<>(tokenRangeToReplicas.size());
+        for (Map.Entry<LongTokenRange, ImmutableSet<Node>> entry : tokenRangeToReplicas.entrySet())
+        {
+            replicasBuilder.addAll(entry.getValue());
+            vnodeRepairStates.add(new VnodeRepairState(entry.getKey(), entry.getValue(), lastRepairedAt));
+        }
+        ImmutableSet<Node> replicas = replicasBuilder.build();
+
+        List<ReplicaRepairGroup> replicaRepairGroups = Collections.emptyList();
+        if (repairDue && !tokenRangeToReplicas.isEmpty() && replicas.stream().allMatch(myHostStates::isUp))
+        {
+            replicaRepairGroups = Collections.singletonList(new ReplicaRepairGroup(replicas,
+                    ImmutableList.copyOf(tokenRangeToReplicas.keySet())));
+        }
+
+        RepairStateSnapshot repairStateSnapshot = RepairStateSnapshot.newBuilder()
+                .withLastCompletedAt(lastRepairedAt)
+                .withVnodeRepairStates(VnodeRepairStatesImpl.newBuilder(vnodeRepairStates).build())
+                .withReplicaRepairGroups(replicaRepairGroups)
+                .build();
+        myRepairStateSnapshot.set(repairStateSnapshot);
+
+        myTableRepairMetrics.lastRepairedAt(myTableReference, lastRepairedAt);
+        int notRepairedRanges = repairDue ? vnodeRepairStates.size() : 0;
+        myTableRepairMetrics.repairState(myTableReference, vnodeRepairStates.size() - notRepairedRanges,
+                notRepairedRanges);
+
+        LOG.trace("Table {} with {}% repaired data switched to repair state {}", myTableReference, percentRepaired,
+                repairStateSnapshot);
+        myPostUpdateHook.postUpdate(repairStateSnapshot);
+        FlightRecorderEvents.repairStateUpdated(stateUpdateEvent, myTableReference, true);
+    }
+
+    @Override
+    public RepairStateSnapshot getSnapshot()
+    {
+        return myRepairStateSnapshot.get();
+    }
+
+    @Override
+    public void repairFinished(boolean successful)
+    {
+        if (successful)
+        {
+            myLastRepairedAt = myClock.millis();
+        }
+    }
+
+    private long getLastRepairedAtFromHistory(long now)
+    {
+        long repairIntervalStart = now - myRepairConfiguration.getRepairIntervalInMs();
+        Set<LongTokenRange> localRanges = myReplicationState.getTokenRangeToReplicas(myTableReference).keySet();
+        if (localRanges.isEmpty())
+        {
+            return repairIntervalStart;
+        }
+
+        Map<LongTokenRange, Long> rangeRepairedAt = new HashMap<>();
+        try
+        {
+            Iterator<RepairEntry> repairEntryIterator = myRepairHistoryProvider.iterate(myTableReference, now,
+                    repairIntervalStart, repairEntry -> repairEntry.getStatus() == RepairStatus.SUCCESS
+                            && localRanges.contains(repairEntry.getRange()));
+
+            while (repairEntryIterator.hasNext())
+            {
+                RepairEntry repairEntry = repairEntryIterator.next();
+                rangeRepairedAt.merge(repairEntry.getRange(), repairEntry.getStartedAt(), Math::max);
+            }
+        }
+        catch (Exception e)
+        {
+            LOG.warn("Unable to read the repair history of {}, considering it due for repair", myTableReference, e);
+            return repairIntervalStart;
+        }
+
+        if (!rangeRepairedAt.keySet().containsAll(localRanges))
+        {
+            LOG.debug("Table {} has no successful repair of all local ranges within the repair interval",
+                    myTableReference);
+            return repairIntervalStart;
+        }
+
+        return Math.max(repairIntervalStart, Collections.min(rangeRepairedAt.values()));
+    }
+
+    private double getPercentRepaired()
+    {
+        try (JmxProxy proxy = myJmxProxyFactory.connect())
+        {
+            return proxy.getPercentRepaired(myTableReference);
+        }
+        catch (IOException e)
+        {
+            LOG.warn("Unable to get the repaired percentage of {}", myTableReference, e);
+        }
+
+        return -1;
+    }
+}
@@ -32,4 +32,16 @@ public interface RepairState
      * @return The immutable copy.
      */
     RepairStateSnapshot getSnapshot();
+
+    /**
+     * Notify the repair state that a repair of the table has finished.
+     * <p>
+     * Repair states based on the repair history pick up the repair on the next update and can ignore this.
+     *
+     * @param successful True if the repair was successful.
+     */
+    default void repairFinished(boolean successful)
+    {
+        // Repairs are read from the repair history by default
+    }
 }
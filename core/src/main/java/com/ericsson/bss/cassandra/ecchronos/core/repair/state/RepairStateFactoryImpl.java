@@ -15,14 +15,23 @@
 package com.ericsson.bss.cassandra.ecchronos.core.repair.state;
 
 import com.ericsson.bss.cassandra.ecchronos.core.HostStates;
+import com.ericsson.bss.cassandra.ecchronos.core.JmxProxyFactory;
 import com.ericsson.bss.cassandra.ecchronos.core.metrics.TableRepairMetrics;
 import com.ericsson.bss.cassandra.ecchronos.core.repair.RepairConfiguration;
+import com.ericsson.bss.cassandra.ecchronos.core.repair.RepairOptions;
 import com.ericsson.bss.cassandra.ecchronos.core.utils.TableReference;
+import com.google.common.base.Preconditions;
+
+import java.time.Clock;
 
 public class RepairStateFactoryImpl implements RepairStateFactory
 {
     private final HostStates myHostStates;
     private final TableRepairMetrics myTableRepairMetrics;
+    private final Clock myClock;
+    private final ReplicationState myReplicationState;
+    private final JmxProxyFactory myJmxProxyFactory;
+    private final RepairHistoryProvider myRepairHistoryProvider;
 
     private final VnodeRepairStateFactoryImpl myVnodeRepairStateFactory;
     private final VnodeRepairStateFactoryImpl mySubRangeRepairStateFactory;
@@ -31,17 +40,31 @@ public class RepairStateFactoryImpl implements RepairStateFactory
     {
         myHostStates = builder.myHostStates;
         myTableRepairMetrics = builder.myTableRepairMetrics;
+        myClock = builder.myClock;
+        myReplicationState = builder.myReplicationState;
+        myJmxProxyFactory = builder.myJmxProxyFactory;
+        myRepairHistoryProvider = builder.myRepairHistoryProvider;
 
         myVnodeRepairStateFactory = new VnodeRepairStateFactoryImpl(builder.myReplicationState,
-                builder.myRepairHistoryProvider, false);
+                myRepairHistoryProvider, false, myClock);
         mySubRangeRepairStateFactory = new VnodeRepairStateFactoryImpl(builder.myReplicationState,
-                builder.myRepairHistoryProvider, true);
+                myRepairHistoryProvider, true, myClock);
     }
 
     @Override
     public RepairState create(TableReference tableReference, RepairConfiguration repairConfiguration,
             PostUpdateHook postUpdateHook)
     {
+        if (repairConfiguration.getRepairType() == RepairOptions.RepairType.INCREMENTAL)
+        {
+            Preconditions.checkState(myJmxProxyFactory != null,
+                    "JMX proxy factory must be set for incremental repairs");
+
+            return new IncrementalRepairState(tableReference, repairConfiguration, myJmxProxyFactory,
+                    myReplicationState, myRepairHistoryProvider, myHostStates, myTableRepairMetrics, postUpdateHook,
+                    myClock);
+        }
+
         ReplicaRepairGroupFactory replicaRepairGroupFactory = VnodeRepairGroupFactory.INSTANCE;
 
         VnodeRepairStateFactory vnodeRepairStateFactory = myVnodeRepairStateFactory;
@@ -51,7 +74,7 @@ public class RepairStateFactoryImpl implements RepairStateFactory
         }
 
         return new RepairStateImpl(tableReference, repairConfiguration, vnodeRepairStateFactory, myHostStates,
-                myTableRepairMetrics, replicaRepairGroupFactory, postUpdateHook);
+                myTableRepairMetrics, replicaRepairGroupFactory, postUpdateHook, myClock);
     }
 
     public static Builder builder()
@@ -65,6 +88,8 @@ public class RepairStateFactoryImpl implements RepairStateFactory
         private HostStates myHostStates;
         private RepairHistoryProvider myRepairHistoryProvider;
         private TableRepairMetrics myTableRepairMetrics;
+        private Clock myClock = Clock.systemDefaultZone();
+        private JmxProxyFactory myJmxProxyFactory;
 
         public Builder withReplicationState(ReplicationState replicationState)
         {
@@ -90,6 +115,24 @@ public class RepairStateFactoryImpl implements RepairStateFactory
             return this;
         }
 
+        /**
+         * Set the JMX proxy factory used to get the repaired data of tables using incremental repairs.
+         *
+         * @param jmxProxyFactory The JMX proxy factory.
+         * @return The builder
+         */
+        public Builder withJmxProxyFactory(JmxProxyFactory jmxProxyFactory)
+        {
+            myJmxProxyFactory = jmxProxyFactory;
+            return this;
+        }
+
+        public Builder withClock(Clock clock)
+        {
+            myClock = clock;
+            return this;
+        }
+
         public RepairStateFactoryImpl build()
         {
             return new RepairStateFactoryImpl(this);
@@ -15,6 +15,8 @@
 package com.ericsson.bss.cassandra.ecchronos.core.repair.state;
 
 import com.ericsson.bss.cassandra.ecchronos.core.HostStates;
+import com.ericsson.bss.cassandra.ecchronos.core.jfr.FlightRecorderEvents;
+import com.ericsson.bss.cassandra.ecchronos.core.jfr.FlightRecorderEvents.TimedEvent;
 import com.ericsson.bss.cassandra.ecchronos.core.metrics.TableRepairMetrics;
 import com.ericsson.bss.cassandra.ecchronos.core.repair.RepairConfiguration;
 import com.ericsson.bss.cassandra.ecchronos.core.utils.Node;
@@ -23,6 +25,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.text.SimpleDateFormat;
+import java.time.Clock;
 import java.util.Date;
 import java.util.List;
 import java.util.Locale;
@@ -45,11 +48,21 @@ public class RepairStateImpl implements RepairState
     private final TableRepairMetrics myTableRepairMetrics;
     private final ReplicaRepairGroupFactory myReplicaRepairGroupFactory;
     private final PostUpdateHook myPostUpdateHook;
+    private final Clock myClock;
 
     public RepairStateImpl(TableReference tableReference, RepairConfiguration repairConfiguration,
                            VnodeRepairStateFactory vnodeRepairStateFactory, HostStates hostStates,
                            TableRepairMetrics tableRepairMetrics, ReplicaRepairGroupFactory replicaRepairGroupFactory,
                            PostUpdateHook postUpdateHook)
+    {
+        this(tableReference, repairConfiguration, vnodeRepairStateFactory, hostStates, tableRepairMetrics,
+                replicaRepairGroupFactory, postUpdateHook, Clock.systemDefaultZone());
+    }
+
+    public RepairStateImpl(TableReference tableReference, RepairConfiguration repairConfiguration,
+                           VnodeRepairStateFactory vnodeRepairStateFactory, HostStates hostStates,
+                           TableRepairMetrics tableRepairMetrics, ReplicaRepairGroupFactory replicaRepairGroupFactory,
+                           PostUpdateHook postUpdateHook, Clock clock)
     {
         myTableReference = tableReference;
         myRepairConfiguration = repairConfiguration;
@@ -58,6 +71,7 @@ public class RepairStateImpl implements RepairState
         myTableRepairMetrics = tableRepairMetrics;
         myReplicaRepairGroupFactory = replicaRepairGroupFactory;
         myPostUpdateHook = postUpdateHook;
+        myClock = clock;
 
         update();
     }
@@ -65,14 +79,17 @@ public class RepairStateImpl implements RepairState
     @Override
     public final void update()
     {
+        TimedEvent stateUpdateEvent = FlightRecorderEvents.startRepairStateUpdate();
+        boolean snapshotRebuilt = false;
         RepairStateSnapshot oldRepairStateSnapshot = myRepairStateSnapshot.get();
 
         if (oldRepairStateSnapshot == null
-                || oldRepairStateSnapshot.lastCompletedAt() < System.currentTimeMillis() - myRepairConfiguration.getRepairIntervalInMs())
+                || oldRepairStateSnapshot.lastCompletedAt() < myClock.millis() - myRepairConfiguration.getRepairIntervalInMs())
         {
             RepairStateSnapshot newRepairStateSnapshot = generateNewRepairState(oldRepairStateSnapshot);
             if (myRepairStateSnapshot.compareAndSet(oldRepairStateSnapshot, newRepairStateSnapshot))
             {
+                snapshotRebuilt = true;
                 myTableRepairMetrics.lastRepairedAt(myTableReference, newRepairStateSnapshot.lastCompletedAt());
 
                 int nonRepairedRanges = (int)newRepairStateSnapshot.getVnodeRepairStates().getVnodeRepairStates().stream()
@@ -90,6 +107,7 @@ public class RepairStateImpl implements RepairState
             LOG.trace("Table {} keeping repair state {}", myTableReference, oldRepairStateSnapshot);
         }
         myPostUpdateHook.postUpdate(myRepairStateSnapshot.get());
+        FlightRecorderEvents.repairStateUpdated(stateUpdateEvent, myTableReference, snapshotRebuilt);
     }
 
     @Override
@@ -163,7 +181,7 @@ public class RepairStateImpl implements RepairState
     private long partiallyRepairedTableRepairedAt(long maxRepairedAt)
     {
         long runIntervalInMs = myRepairConfiguration.getRepairIntervalInMs();
-        long repairedAt = Math.min(System.currentTimeMillis() - runIntervalInMs, maxRepairedAt);
+        long repairedAt = Math.min(myClock.millis() - runIntervalInMs, maxRepairedAt);
         if (LOG.isInfoEnabled())
         {
             LOG.info("Table {} has been partially repaired, next repair {}", myTableReference, myDateFormat.get().format(new Date(repairedAt + runIntervalInMs)));
@@ -176,7 +194,7 @@ public class RepairStateImpl implements RepairState
     {
         long runIntervalInMs = myRepairConfiguration.getRepairIntervalInMs();
         long minimumRepairWait = Math.min(runIntervalInMs, TimeUnit.DAYS.toMillis(1));
-        long assumedRepairedAt = System.currentTimeMillis() - runIntervalInMs + minimumRepairWait;
+        long assumedRepairedAt = myClock.millis() - runIntervalInMs + minimumRepairWait;
 
         if (LOG.isInfoEnabled())
         {
@@ -201,7 +219,7 @@ public class RepairStateImpl implements RepairState
 
     private boolean vnodeIsRepairable(VnodeRepairState vnodeRepairState)
     {
-        long repairedBefore = System.currentTimeMillis() - myRepairConfiguration.getRepairIntervalInMs();
+        long repairedBefore = myClock.millis() - myRepairConfiguration.getRepairIntervalInMs();
 
         return vnodeRepairState.lastRepairedAt() <= repairedBefore;
     }
@@ -0,0 +1,268 @@
+/*
+ * Copyright 2021 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecchronos.core.repair.state;
+
+import java.io.Closeable;
+import java.time.Clock;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.ericsson.bss.cassandra.ecchronos.core.repair.RepairConfiguration;
+import com.ericsson.bss.cassandra.ecchronos.core.utils.TableReference;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Refreshes repair states in the background so that the scheduler only needs to read the latest published
+ * {@link RepairStateSnapshot} of each table.
+ * <p>
+ * Each repair state is refreshed on its own cadence.
+ * Tables due for repair are refreshed every refresh interval while other tables are refreshed when they become due.
+ * The refreshes are run by a bounded pool of threads in the order they are due,
+ * which means that the tables nearest to being due for repair are refreshed first.
+ */
+public class RepairStateRefresher implements Closeable
+{
+    private static final Logger LOG = LoggerFactory.getLogger(RepairStateRefresher.class);
+
+    private final Map<TableReference, Refresh> myRefreshes = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService myExecutor;
+    private final long myRefreshIntervalInMs;
+    private final Clock myClock;
+
+    private RepairStateRefresher(Builder builder)
+    {
+        this(createExecutor(builder.myThreads), builder.myRefreshIntervalInMs, builder.myClock);
+    }
+
+    @VisibleForTesting
+    RepairStateRefresher(ScheduledExecutorService executor, long refreshIntervalInMs, Clock clock)
+    {
+        myExecutor = executor;
+        myRefreshIntervalInMs = refreshIntervalInMs;
+        myClock = clock;
+    }
+
+    /**
+     * Start refreshing the repair state of a table, replacing any repair state previously registered for the table.
+     * <p>
+     * The repair state is expected to be up to date when registered so the first refresh is scheduled based on
+     * the current snapshot.
+     *
+     * @param tableReference The table.
+     * @param repairState The repair state of the table.
+     * @param repairConfiguration The repair configuration of the table.
+     */
+    public void register(TableReference tableReference, RepairState repairState,
+            RepairConfiguration repairConfiguration)
+    {
+        Refresh refresh = new Refresh(tableReference, repairState, repairConfiguration);
+        cancel(myRefreshes.put(tableReference, refresh));
+        refresh.scheduleNext();
+    }
+
+    /**
+     * Refresh the repair state of a table as soon as possible, e.g. after the table has been repaired by another job.
+     * <p>
+     * If a refresh of the table is already running another refresh is run directly after it.
+     *
+     * @param tableReference The table.
+     */
+    public void refresh(TableReference tableReference)
+    {
+        Refresh refresh = myRefreshes.get(tableReference);
+        if (refresh != null)
+        {
+            refresh.refreshNow();
+        }
+    }
+
+    /**
+     * Stop refreshing the repair state of a table.
+     *
+     * @param tableReference The table.
+     */
+    public void unregister(TableReference tableReference)
+    {
+        cancel(myRefreshes.remove(tableReference));
+    }
+
+    @Override
+    public void close()
+    {
+        for (TableReference tableReference : myRefreshes.keySet())
+        {
+            unregister(tableReference);
+        }
+
+        myExecutor.shutdown();
+    }
+
+    private static void cancel(Refresh refresh)
+    {
+        if (refresh != null)
+        {
+            refresh.cancel();
+        }
+    }
+
+    private static ScheduledExecutorService createExecutor(int threads)
+    {
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(threads,
+                new ThreadFactoryBuilder().setNameFormat("RepairStateRefresher-%d").setDaemon(true).build());
+        executor.setRemoveOnCancelPolicy(true);
+        return executor;
+    }
+
+    private final class Refresh implements Runnable
+    {
+        private final TableReference myTableReference;
+        private final RepairState myRepairState;
+        private final RepairConfiguration myRepairConfiguration;
+
+        private boolean myCancelled = false;
+        private boolean myRefreshRequested = false;
+        private ScheduledFuture<?> myFuture;
+
+        Refresh(TableReference tableReference, RepairState repairState, RepairConfiguration repairConfiguration)
+        {
+            myTableReference = tableReference;
+            myRepairState = repairState;
+            myRepairConfiguration = repairConfiguration;
+        }
+
+        @Override
+        public void run()
+        {
+            try
+            {
+                myRepairState.update();
+            }
+            catch (Exception e)
+            {
+                LOG.warn("Unable to refresh repair state of {}", myTableReference, e);
+            }
+
+            scheduleNext();
+        }
+
+        synchronized void scheduleNext()
+        {
+            if (!myCancelled)
+            {
+                long nextRefreshInMs = myRefreshRequested ? 0 : nextRefreshInMs();
+                myRefreshRequested = false;
+                myFuture = myExecutor.schedule(this, nextRefreshInMs, TimeUnit.MILLISECONDS);
+            }
+        }
+
+        synchronized void refreshNow()
+        {
+            if (myCancelled)
+            {
+                return;
+            }
+
+            if (myFuture != null && myFuture.cancel(false))
+            {
+                myFuture = myExecutor.schedule(this, 0, TimeUnit.MILLISECONDS);
+            }
+            else
+            {
+                // The refresh is running, schedule the next one directly when it is done
+                myRefreshRequested = true;
+            }
+        }
+
+        synchronized void cancel()
+        {
+            myCancelled = true;
+            if (myFuture != null)
+            {
+                myFuture.cancel(false);
+            }
+        }
+
+        private long nextRefreshInMs()
+        {
+            RepairStateSnapshot repairStateSnapshot = myRepairState.getSnapshot();
+            if (repairStateSnapshot == null)
+            {
+                return myRefreshIntervalInMs;
+            }
+
+            long dueAt = repairStateSnapshot.lastCompletedAt() + myRepairConfiguration.getRepairIntervalInMs();
+            return Math.max(dueAt - myClock.millis(), myRefreshIntervalInMs);
+        }
+    }
+
+    public static Builder builder()
+    {
+        return new Builder();
+    }
+
+    public static class Builder
+    {
+        private int myThreads = 1;
+        private long myRefreshIntervalInMs = TimeUnit.SECONDS.toMillis(30);
+        private Clock myClock = Clock.systemDefaultZone();
+
+        /**
+         * Set the number of threads used to refresh repair states.
+         *
+         * @param threads The number of threads.
+         * @return The builder
+         */
+        public Builder withThreads(int threads)
+        {
+            Preconditions.checkArgument(threads > 0, "At least one thread is required");
+            myThreads = threads;
+            return this;
+        }
+
+        /**
+         * Set the interval to refresh the repair state of tables that are due for repair.
+         *
+         * @param refreshInterval The interval.
+         * @param timeUnit The time unit of the interval.
+         * @return The builder
+         */
+        public Builder withRefreshInterval(long refreshInterval, TimeUnit timeUnit)
+        {
+            myRefreshIntervalInMs = timeUnit.toMillis(refreshInterval);
+            return this;
+        }
+
+        public Builder withClock(Clock clock)
+        {
+            myClock = clock;
+            return this;
+        }
+
+        public RepairStateRefresher build()
+        {
+            return new RepairStateRefresher(this);
+        }
+    }
+}
@@ -21,21 +21,28 @@ import com.google.common.collect.ImmutableSet;
 
 import java.util.ArrayList;
 import java.util.Comparator;
-import java.util.HashSet;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 /**
  * A factory for {@link ReplicaRepairGroup} that creates repair groups for all vnodes with common replicas.
  *
  * The generated list will contain the vnode groups in a sorted order so that the most urgent vnode to
  * repair is first in the list.
+ * <p>
+ * The vnodes are grouped by replica set in a single pass.
+ * The replica sets of the vnodes are shared by all tables of a keyspace through the {@link ReplicationState},
+ * which keeps the lookup of each group cheap as equal replica sets are normally the same instance.
  */
 public final class VnodeRepairGroupFactory implements ReplicaRepairGroupFactory
 {
     public static final VnodeRepairGroupFactory INSTANCE = new VnodeRepairGroupFactory();
 
+    private static final Comparator<VnodeGroup> MOST_URGENT_FIRST = Comparator
+            .comparingLong((VnodeGroup group) -> group.myOldestRepairedAt)
+            .thenComparingInt(group -> group.myOldestIndex);
+
     private VnodeRepairGroupFactory()
     {
         // Nothing to do here
@@ -44,28 +51,64 @@ public final class VnodeRepairGroupFactory implements ReplicaRepairGroupFactory
     @Override
     public List<ReplicaRepairGroup> generateReplicaRepairGroups(List<VnodeRepairState> availableVnodeRepairStates)
     {
-        List<VnodeRepairState> sortedVnodeRepairStates = availableVnodeRepairStates.stream()
-                .sorted(Comparator.comparingLong(VnodeRepairState::lastRepairedAt))
-                .collect(Collectors.toList());
-
-        List<ReplicaRepairGroup> sortedRepairGroups = new ArrayList<>();
-        Set<Set<Node>> countedReplicaGroups = new HashSet<>();
+        Map<ImmutableSet<Node>, VnodeGroup> groups = new HashMap<>();
+        List<VnodeGroup> sortedGroups = new ArrayList<>();
 
-        for (VnodeRepairState vnodeRepairState : sortedVnodeRepairStates)
+        int index = 0;
+        for (VnodeRepairState vnodeRepairState : availableVnodeRepairStates)
         {
             ImmutableSet<Node> replicas = vnodeRepairState.getReplicas();
 
-            if (countedReplicaGroups.add(replicas))
+            VnodeGroup group = groups.get(replicas);
+            if (group == null)
             {
-                List<LongTokenRange> commonVnodes = availableVnodeRepairStates.stream()
-                        .filter(v -> v.getReplicas().equals(replicas))
-                        .map(VnodeRepairState::getTokenRange)
-                        .collect(Collectors.toList());
-
-                sortedRepairGroups.add(new ReplicaRepairGroup(replicas, ImmutableList.copyOf(commonVnodes)));
+                group = new VnodeGroup(replicas);
+                groups.put(replicas, group);
+                sortedGroups.add(group);
             }
+
+            group.add(vnodeRepairState, index++);
+        }
+
+        sortedGroups.sort(MOST_URGENT_FIRST);
+
+        List<ReplicaRepairGroup> sortedRepairGroups = new ArrayList<>(sortedGroups.size());
+        for (VnodeGroup group : sortedGroups)
+        {
+            sortedRepairGroups.add(new ReplicaRepairGroup(group.myReplicas, group.myVnodes.build()));
         }
 
         return sortedRepairGroups;
     }
+
+    /**
+     * The vnodes of one replica set, in the order they were provided, together with the vnode repaired the longest
+     * time ago.
+     * The first of the oldest vnodes is tracked to keep the order between groups with equal repair times.
+     */
+    private static final class VnodeGroup
+    {
+        private final ImmutableSet<Node> myReplicas;
+        private final ImmutableList.Builder<LongTokenRange> myVnodes = ImmutableList.builder();
+
+        private long myOldestRepairedAt;
+        private int myOldestIndex = -1;
+
+        VnodeGroup(ImmutableSet<Node> replicas)
+        {
+            myReplicas = replicas;
+        }
+
+        void add(VnodeRepairState vnodeRepairState, int index)
+        {
+            myVnodes.add(vnodeRepairState.getTokenRange());
+
+            long lastRepairedAt = vnodeRepairState.lastRepairedAt();
+            if (myOldestIndex == -1 || lastRepairedAt < myOldestRepairedAt)
+            {
+                myOldestRepairedAt = lastRepairedAt;
+                myOldestIndex = index;
+            }
+        }
+    }
 }
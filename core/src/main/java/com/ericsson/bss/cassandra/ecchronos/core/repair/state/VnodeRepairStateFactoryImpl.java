@@ -14,6 +14,8 @@
  */
 package com.ericsson.bss.cassandra.ecchronos.core.repair.state;
 
+import com.ericsson.bss.cassandra.ecchronos.core.jfr.FlightRecorderEvents;
+import com.ericsson.bss.cassandra.ecchronos.core.jfr.FlightRecorderEvents.TimedEvent;
 import com.ericsson.bss.cassandra.ecchronos.core.utils.LongTokenRange;
 import com.ericsson.bss.cassandra.ecchronos.core.utils.Node;
 import com.ericsson.bss.cassandra.ecchronos.core.utils.TableReference;
@@ -21,6 +23,7 @@ import com.google.common.collect.ImmutableSet;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Clock;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
@@ -36,20 +39,28 @@ public class VnodeRepairStateFactoryImpl implements VnodeRepairStateFactory
     private final ReplicationState myReplicationState;
     private final RepairHistoryProvider myRepairHistoryProvider;
     private final boolean useSubRanges;
+    private final Clock myClock;
 
     public VnodeRepairStateFactoryImpl(ReplicationState replicationState, RepairHistoryProvider repairHistoryProvider, boolean useSubRanges)
+    {
+        this(replicationState, repairHistoryProvider, useSubRanges, Clock.systemDefaultZone());
+    }
+
+    public VnodeRepairStateFactoryImpl(ReplicationState replicationState, RepairHistoryProvider repairHistoryProvider, boolean useSubRanges, Clock clock)
     {
         myReplicationState = replicationState;
         myRepairHistoryProvider = repairHistoryProvider;
         this.useSubRanges = useSubRanges;
+        myClock = clock;
     }
 
     @Override
     public VnodeRepairStates calculateNewState(TableReference tableReference, RepairStateSnapshot previous)
     {
+        TimedEvent historyReadEvent = FlightRecorderEvents.startRepairHistoryRead();
         Map<LongTokenRange, ImmutableSet<Node>> tokenRangeToReplicaMap = myReplicationState.getTokenRangeToReplicas(tableReference);
         long lastRepairedAt = previousLastRepairedAt(previous, tokenRangeToReplicaMap);
-        long now = System.currentTimeMillis();
+        long now = myClock.millis();
 
         Iterator<RepairEntry> repairEntryIterator;
 
@@ -64,10 +75,11 @@ public class VnodeRepairStateFactoryImpl implements VnodeRepairStateFactory
             repairEntryIterator = myRepairHistoryProvider.iterate(tableReference, now, lastRepairedAt, (repairEntry) -> acceptRepairEntries(repairEntry, tokenRangeToReplicaMap));
         }
 
-        return generateVnodeRepairStates(lastRepairedAt, previous, repairEntryIterator, tokenRangeToReplicaMap);
+        return generateVnodeRepairStates(tableReference, historyReadEvent, lastRepairedAt, previous, repairEntryIterator,
+                tokenRangeToReplicaMap);
     }
 
-    private VnodeRepairStates generateVnodeRepairStates(long lastRepairedAt, RepairStateSnapshot previous, Iterator<RepairEntry> repairEntryIterator, Map<LongTokenRange, ImmutableSet<Node>> tokenRangeToReplicaMap)
+    private VnodeRepairStates generateVnodeRepairStates(TableReference tableReference, TimedEvent historyReadEvent, long lastRepairedAt, RepairStateSnapshot previous, Iterator<RepairEntry> repairEntryIterator, Map<LongTokenRange, ImmutableSet<Node>> tokenRangeToReplicaMap)
     {
         List<VnodeRepairState> vnodeRepairStatesBase = new ArrayList<>();
 
@@ -93,9 +105,11 @@ public class VnodeRepairStateFactoryImpl implements VnodeRepairStateFactory
             vnodeRepairStatusesBuilder.updateVnodeRepairStates(previous.getVnodeRepairStates().getVnodeRepairStates());
         }
 
+        int repairEntries = 0;
         while(repairEntryIterator.hasNext())
         {
             RepairEntry repairEntry = repairEntryIterator.next();
+            repairEntries++;
             LongTokenRange longTokenRange = repairEntry.getRange();
             ImmutableSet<Node> replicas = getReplicasForRange(longTokenRange, tokenRangeToReplicaMap);
 
@@ -104,6 +118,7 @@ public class VnodeRepairStateFactoryImpl implements VnodeRepairStateFactory
             vnodeRepairStatusesBuilder.updateVnodeRepairState(vnodeRepairState);
         }
 
+        FlightRecorderEvents.repairHistoryRead(historyReadEvent, tableReference, repairEntries);
         return vnodeRepairStatusesBuilder.build();
     }
 
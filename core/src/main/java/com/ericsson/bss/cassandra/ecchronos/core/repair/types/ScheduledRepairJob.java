@@ -17,6 +17,7 @@ package com.ericsson.bss.cassandra.ecchronos.core.repair.types;
 import java.util.Objects;
 import java.util.UUID;
 
+import com.ericsson.bss.cassandra.ecchronos.core.repair.RepairEstimate;
 import com.ericsson.bss.cassandra.ecchronos.core.repair.RepairJobView;
 import com.google.common.annotations.VisibleForTesting;
 
@@ -35,6 +36,9 @@ public class ScheduledRepairJob
     public final long nextRepairInMs;
     public final UUID id;
     public final boolean recurring;
+    public final Double repairThroughputInBytesPerSecond;
+    public final Long remainingRepairTimeInMs;
+    public final Long projectedSlackInMs;
 
     @VisibleForTesting
     public ScheduledRepairJob(UUID id, String keyspace, String table, RepairJobView.Status status, double repairedRatio, long lastRepairedAtInMs, long nextRepairInMs, boolean recurring)
@@ -47,6 +51,9 @@ public class ScheduledRepairJob
         this.lastRepairedAtInMs = lastRepairedAtInMs;
         this.nextRepairInMs = nextRepairInMs;
         this.recurring = recurring;
+        this.repairThroughputInBytesPerSecond = null;
+        this.remainingRepairTimeInMs = null;
+        this.projectedSlackInMs = null;
     }
 
     public ScheduledRepairJob(RepairJobView repairJobView)
@@ -59,6 +66,20 @@ public class ScheduledRepairJob
         this.lastRepairedAtInMs = repairJobView.getLastCompletedAt();
         this.nextRepairInMs = repairJobView.getNextRepair();
         this.recurring = repairJobView.isRecurring();
+
+        RepairEstimate repairEstimate = repairJobView.getRepairEstimate();
+        if (repairEstimate.isKnown())
+        {
+            this.repairThroughputInBytesPerSecond = repairEstimate.getThroughputInBytesPerSecond();
+            this.remainingRepairTimeInMs = repairEstimate.getRemainingRepairTimeInMs();
+            this.projectedSlackInMs = repairEstimate.getProjectedSlackInMs();
+        }
+        else
+        {
+            this.repairThroughputInBytesPerSecond = null;
+            this.remainingRepairTimeInMs = null;
+            this.projectedSlackInMs = null;
+        }
     }
 
     @Override
@@ -76,12 +97,16 @@ public class ScheduledRepairJob
                 table.equals(that.table) &&
                 status == that.status &&
                 id.equals(that.id) &&
-                recurring == that.recurring;
+                recurring == that.recurring &&
+                Objects.equals(repairThroughputInBytesPerSecond, that.repairThroughputInBytesPerSecond) &&
+                Objects.equals(remainingRepairTimeInMs, that.remainingRepairTimeInMs) &&
+                Objects.equals(projectedSlackInMs, that.projectedSlackInMs);
     }
 
     @Override
     public int hashCode()
     {
-        return Objects.hash(id, keyspace, table, lastRepairedAtInMs, repairedRatio, status, nextRepairInMs, recurring);
+        return Objects.hash(id, keyspace, table, lastRepairedAtInMs, repairedRatio, status, nextRepairInMs, recurring,
+                repairThroughputInBytesPerSecond, remainingRepairTimeInMs, projectedSlackInMs);
     }
 }
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2021 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecchronos.core.scheduling;
+
+/**
+ * Node-local control of how many jobs the {@link ScheduleManagerImpl} runs at the same time.
+ */
+public interface AdmissionController
+{
+    /**
+     * Get the maximum number of jobs that can run concurrently on the local node.
+     *
+     * @return The maximum number of concurrent jobs, at least one.
+     */
+    int getMaxConcurrentJobs();
+
+    /**
+     * Check if another job can be started while the provided number of jobs are running.
+     * <p>
+     * This is only consulted when fewer than the maximum number of jobs are running, the first job is always admitted.
+     *
+     * @param runningJobs
+     *            The number of jobs currently running on the local node.
+     * @return True if another job can be started.
+     */
+    boolean admit(int runningJobs);
+}
@@ -91,5 +91,16 @@ public interface LockFactory
          */
         @Override
         void close();
+
+        /**
+         * Check if a higher priority than the priority of this lock has been announced for the locked resource
+         * while the lock was held.
+         *
+         * @return True if the lock should be released to let the higher priority work run.
+         */
+        default boolean isPreempted()
+        {
+            return false;
+        }
     }
 }
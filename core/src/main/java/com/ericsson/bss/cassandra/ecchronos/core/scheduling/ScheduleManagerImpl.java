@@ -15,15 +15,23 @@
 package com.ericsson.bss.cassandra.ecchronos.core.scheduling;
 
 import java.io.Closeable;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
 import com.ericsson.bss.cassandra.ecchronos.core.exceptions.LockException;
+import com.ericsson.bss.cassandra.ecchronos.core.jfr.FlightRecorderEvents;
+import com.ericsson.bss.cassandra.ecchronos.core.jfr.FlightRecorderEvents.TimedEvent;
+import com.ericsson.bss.cassandra.ecchronos.core.metrics.SchedulerMetrics;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -43,10 +51,20 @@ public class ScheduleManagerImpl implements ScheduleManager, Closeable
     private final JobRunTask myRunTask = new JobRunTask();
     private final LockFactory myLockFactory;
     private final ScheduledExecutorService myExecutor = Executors.newSingleThreadScheduledExecutor();
+    private final SchedulerMetrics mySchedulerMetrics;
+    private final Map<ScheduledJob, Long> myLockWaitStart = new ConcurrentHashMap<>();
+    private final AdmissionController myAdmissionController;
+    private final int myMaxConcurrentJobs;
+    private final ExecutorService myJobExecutor;
+    private final Set<ScheduledJob> myRunningJobs = Sets.newConcurrentHashSet();
 
     private ScheduleManagerImpl(Builder builder)
     {
         myLockFactory = builder.myLockFactory;
+        mySchedulerMetrics = builder.mySchedulerMetrics;
+        myAdmissionController = builder.myAdmissionController;
+        myMaxConcurrentJobs = Math.max(1, myAdmissionController.getMaxConcurrentJobs());
+        myJobExecutor = myMaxConcurrentJobs > 1 ? createJobExecutor(myMaxConcurrentJobs) : null;
         myRunFuture = myExecutor.scheduleWithFixedDelay(myRunTask, builder.myRunIntervalInMs, builder.myRunIntervalInMs, TimeUnit.MILLISECONDS);
     }
 
@@ -72,6 +90,7 @@ public class ScheduleManagerImpl implements ScheduleManager, Closeable
     public void deschedule(ScheduledJob job)
     {
         myQueue.remove(job);
+        myLockWaitStart.remove(job);
     }
 
     @Override
@@ -83,6 +102,10 @@ public class ScheduleManagerImpl implements ScheduleManager, Closeable
         }
 
         myExecutor.shutdown();
+        if (myJobExecutor != null)
+        {
+            myJobExecutor.shutdown();
+        }
         myRunPolicies.clear();
     }
 
@@ -95,6 +118,12 @@ public class ScheduleManagerImpl implements ScheduleManager, Closeable
     @VisibleForTesting
     public int getQueueSize() { return myQueue.size(); }
 
+    @VisibleForTesting
+    int getRunningJobs()
+    {
+        return myRunningJobs.size();
+    }
+
     private Long validateJob(ScheduledJob job)
     {
         for (RunPolicy runPolicy : myRunPolicies)
@@ -103,6 +132,7 @@ public class ScheduleManagerImpl implements ScheduleManager, Closeable
             if (nextRun != -1)
             {
                 LOG.debug("Job {} rejected for {} ms by {}", job, nextRun, runPolicy);
+                FlightRecorderEvents.jobRejected(job, runPolicy, nextRun);
                 return nextRun;
             }
         }
@@ -110,11 +140,20 @@ public class ScheduleManagerImpl implements ScheduleManager, Closeable
         return -1L;
     }
 
+    private static ExecutorService createJobExecutor(int threads)
+    {
+        return Executors.newFixedThreadPool(threads,
+                new ThreadFactoryBuilder().setNameFormat("ScheduledJobRunner-%d").setDaemon(true).build());
+    }
 
     /**
      * Internal run task that is scheduled by the {@link ScheduleManagerImpl}.
      * <p>
      * Retrieves a job from the queue and tries to run it provided that it's possible to get the required locks.
+     * <p>
+     * When the {@link AdmissionController} allows more than one concurrent job the admitted job is handed over
+     * to a pool of job runners instead. At most one job is started per run, so the admission controller sees
+     * the load from the previously started jobs before another one is admitted.
      */
     private class JobRunTask implements Runnable
     {
@@ -133,13 +172,98 @@ public class ScheduleManagerImpl implements ScheduleManager, Closeable
 
         private void tryRunNext()
         {
-            for (ScheduledJob next : myQueue)
+            long start = System.nanoTime();
+            TimedEvent schedulerRunEvent = FlightRecorderEvents.startSchedulerRun();
+            int examinedJobs = 0;
+
+            try
             {
-                if (validate(next) && tryRunTasks(next))
+                for (ScheduledJob next : myQueue)
                 {
-                    break;
+                    if (myJobExecutor == null)
+                    {
+                        examinedJobs++;
+                        if (validate(next) && tryRunTasks(next))
+                        {
+                            break;
+                        }
+                    }
+                    else if (!myRunningJobs.contains(next))
+                    {
+                        if (!admit())
+                        {
+                            break;
+                        }
+                        examinedJobs++;
+                        if (validate(next))
+                        {
+                            dispatch(next);
+                            break;
+                        }
+                    }
                 }
             }
+            finally
+            {
+                long timeTaken = System.nanoTime() - start;
+                int queueSize = myQueue.size();
+                mySchedulerMetrics.run(timeTaken, TimeUnit.NANOSECONDS, examinedJobs, queueSize);
+                FlightRecorderEvents.schedulerRun(schedulerRunEvent, examinedJobs, queueSize);
+            }
+        }
+
+        private boolean admit()
+        {
+            int runningJobs = myRunningJobs.size();
+            if (runningJobs >= myMaxConcurrentJobs)
+            {
+                return false;
+            }
+
+            try
+            {
+                if (runningJobs == 0 || myAdmissionController.admit(runningJobs))
+                {
+                    return true;
+                }
+            }
+            catch (Exception e)
+            {
+                LOG.warn("Unable to check if more jobs can run", e);
+            }
+
+            LOG.debug("Not admitting more jobs while {} jobs are running", runningJobs);
+            return false;
+        }
+
+        private void dispatch(ScheduledJob job)
+        {
+            myRunningJobs.add(job);
+            try
+            {
+                myJobExecutor.execute(() -> runJob(job));
+            }
+            catch (RejectedExecutionException e)
+            {
+                LOG.debug("Unable to start job {}", job, e);
+                myRunningJobs.remove(job);
+            }
+        }
+
+        private void runJob(ScheduledJob job)
+        {
+            try
+            {
+                tryRunTasks(job);
+            }
+            catch (Exception e)
+            {
+                LOG.error("Unexpected exception while running job {}", job, e);
+            }
+            finally
+            {
+                myRunningJobs.remove(job);
+            }
         }
 
         private boolean validate(ScheduledJob job)
@@ -159,6 +283,7 @@ public class ScheduleManagerImpl implements ScheduleManager, Closeable
         private boolean tryRunTasks(ScheduledJob next)
         {
             boolean hasRun = false;
+            FlightRecorderEvents.jobPicked(next, next.getPriority());
 
             for (ScheduledTask task : next)
             {
@@ -167,6 +292,11 @@ public class ScheduleManagerImpl implements ScheduleManager, Closeable
                     LOG.info("Job {} was stopped, will continue later", next);
                     break;
                 }
+                if (hasHigherPriorityJobWaiting(next))
+                {
+                    LOG.info("Job {} was preempted by a job with higher priority, will continue later", next);
+                    break;
+                }
                 hasRun |= tryRunTask(next, task);
             }
 
@@ -178,8 +308,28 @@ public class ScheduleManagerImpl implements ScheduleManager, Closeable
             LOG.debug("Trying to acquire lock for {}", task);
             try (LockFactory.DistributedLock lock = task.getLock(myLockFactory))
             {
-                boolean successful = runTask(task);
-                job.postExecute(successful, task);
+                lockAcquired(job);
+                task.setPreemptionCheck(() -> lock.isPreempted() || hasHigherPriorityJobWaiting(job));
+                boolean successful;
+                boolean preempted;
+                try
+                {
+                    successful = runTask(task);
+                    preempted = task.wasPreempted();
+                }
+                finally
+                {
+                    task.setPreemptionCheck(null);
+                }
+
+                if (!successful && preempted)
+                {
+                    job.postPreempted(task);
+                }
+                else
+                {
+                    job.postExecute(successful, task);
+                }
                 return true;
             }
             catch (LockException e)
@@ -188,10 +338,39 @@ public class ScheduleManagerImpl implements ScheduleManager, Closeable
                 {
                     LOG.warn("Unable to get schedule lock on task {}", task, e);
                 }
+                myLockWaitStart.putIfAbsent(job, System.nanoTime());
                 return false;
             }
         }
 
+        /**
+         * Check if a runnable job with a higher configured priority is waiting for the provided job.
+         * <p>
+         * As all local jobs compete for the local node a waiting job only preempts running jobs
+         * when it would not be able to start by itself.
+         * Jobs that have failed to acquire their locks are waiting for other resources and are not considered.
+         */
+        private boolean hasHigherPriorityJobWaiting(ScheduledJob job)
+        {
+            if (myJobExecutor != null && myRunningJobs.size() < myMaxConcurrentJobs)
+            {
+                return false;
+            }
+
+            return myQueue.hasRunnableJob(job.getPriority(),
+                    waiting -> !myRunningJobs.contains(waiting) && !myLockWaitStart.containsKey(waiting));
+        }
+
+        /**
+         * Report the time the job has waited for a lock, counted from the first failed attempt.
+         */
+        private void lockAcquired(ScheduledJob job)
+        {
+            Long waitStart = myLockWaitStart.remove(job);
+            long waitTime = waitStart == null ? 0L : System.nanoTime() - waitStart;
+            mySchedulerMetrics.lockWaitTiming(waitTime, TimeUnit.NANOSECONDS);
+        }
+
         private boolean runTask(ScheduledTask task)
         {
             try
@@ -217,6 +396,8 @@ public class ScheduleManagerImpl implements ScheduleManager, Closeable
     {
         private LockFactory myLockFactory;
         private long myRunIntervalInMs = DEFAULT_RUN_DELAY_IN_MS;
+        private SchedulerMetrics mySchedulerMetrics = NoOpSchedulerMetrics.INSTANCE;
+        private AdmissionController myAdmissionController = SingleJobAdmissionController.INSTANCE;
 
         public Builder withLockFactory(LockFactory lockFactory)
         {
@@ -230,10 +411,61 @@ public class ScheduleManagerImpl implements ScheduleManager, Closeable
             return this;
         }
 
+        public Builder withSchedulerMetrics(SchedulerMetrics schedulerMetrics)
+        {
+            mySchedulerMetrics = schedulerMetrics;
+            return this;
+        }
+
+        public Builder withAdmissionController(AdmissionController admissionController)
+        {
+            myAdmissionController = admissionController;
+            return this;
+        }
 
         public ScheduleManagerImpl build()
         {
             return new ScheduleManagerImpl(this);
         }
     }
-}
\ No newline at end of file
+
+    private static final class SingleJobAdmissionController implements AdmissionController
+    {
+        private static final SingleJobAdmissionController INSTANCE = new SingleJobAdmissionController();
+
+        @Override
+        public int getMaxConcurrentJobs()
+        {
+            return 1;
+        }
+
+        @Override
+        public boolean admit(int runningJobs)
+        {
+            return false;
+        }
+    }
+
+    private static final class NoOpSchedulerMetrics implements SchedulerMetrics
+    {
+        private static final NoOpSchedulerMetrics INSTANCE = new NoOpSchedulerMetrics();
+
+        @Override
+        public void run(long timeTaken, TimeUnit timeUnit, int examinedJobs, int queueSize)
+        {
+            // Metrics not enabled
+        }
+
+        @Override
+        public void lockWaitTiming(long timeTaken, TimeUnit timeUnit)
+        {
+            // Metrics not enabled
+        }
+
+        @Override
+        public void lockCacheLookup(boolean hit)
+        {
+            // Metrics not enabled
+        }
+    }
+}
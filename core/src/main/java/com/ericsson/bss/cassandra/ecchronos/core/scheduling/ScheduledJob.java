@@ -14,6 +14,7 @@
  */
 package com.ericsson.bss.cassandra.ecchronos.core.scheduling;
 
+import java.time.Clock;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 
@@ -30,6 +31,7 @@ public abstract class ScheduledJob implements Iterable<ScheduledTask>
     protected volatile long myLastSuccessfulRun = -1;
     private volatile long myNextRunTime = -1;
     private final UUID myId;
+    private final Clock myClock;
 
     public ScheduledJob(Configuration configuration)
     {
@@ -41,7 +43,8 @@ public abstract class ScheduledJob implements Iterable<ScheduledTask>
         myId = id;
         myPriority = configuration.priority;
         myRunIntervalInMs = configuration.runIntervalInMs;
-        myLastSuccessfulRun = System.currentTimeMillis() - myRunIntervalInMs;
+        myClock = configuration.clock;
+        myLastSuccessfulRun = myClock.millis() - myRunIntervalInMs;
     }
 
     /**
@@ -58,15 +61,30 @@ public abstract class ScheduledJob implements Iterable<ScheduledTask>
     {
         if (successful)
         {
-            myLastSuccessfulRun = System.currentTimeMillis();
+            myLastSuccessfulRun = myClock.millis();
             myNextRunTime = -1;
         }
         else
         {
-            myNextRunTime = System.currentTimeMillis() + DEFAULT_WAIT_BETWEEN_UNSUCCESSFUL_RUNS_IN_MILLISECONDS;
+            myNextRunTime = myClock.millis() + DEFAULT_WAIT_BETWEEN_UNSUCCESSFUL_RUNS_IN_MILLISECONDS;
         }
     }
 
+    /**
+     * This method gets run instead of {@link #postExecute(boolean, ScheduledTask)} when a task stopped early to let
+     * work with a higher priority run.
+     * <p>
+     * The job is runnable again directly and continues with the remaining work the next time it is picked.
+     * When overriding this method make sure to call super.postPreempted(task) in the end.
+     *
+     * @param task
+     *            The task that was preempted
+     */
+    protected void postPreempted(ScheduledTask task)
+    {
+        myNextRunTime = -1;
+    }
+
     /**
      * This method gets run after the job is removed from the Queue. It will run whether the job fails or succeeds.
      */
@@ -80,7 +98,7 @@ public abstract class ScheduledJob implements Iterable<ScheduledTask>
      */
     public final void setRunnableIn(long delay)
     {
-        myNextRunTime = System.currentTimeMillis() + delay;
+        myNextRunTime = myClock.millis() + delay;
     }
 
     /**
@@ -90,7 +108,7 @@ public abstract class ScheduledJob implements Iterable<ScheduledTask>
      */
     public boolean runnable()
     {
-        return myNextRunTime <= System.currentTimeMillis() && getRealPriority() > -1;
+        return myNextRunTime <= myClock.millis() && getRealPriority() > -1;
     }
 
     /**
@@ -139,7 +157,7 @@ public abstract class ScheduledJob implements Iterable<ScheduledTask>
      */
     public final int getRealPriority()
     {
-        long now = System.currentTimeMillis();
+        long now = myClock.millis();
 
         long diff = now - (getLastSuccessfulRun() + myRunIntervalInMs);
 
@@ -153,6 +171,16 @@ public abstract class ScheduledJob implements Iterable<ScheduledTask>
         return hours * myPriority.getValue();
     }
 
+    /**
+     * Get the clock used by this job to determine when it should run.
+     *
+     * @return The clock of this job.
+     */
+    protected final Clock getClock()
+    {
+        return myClock;
+    }
+
     /**
      * @return unique identifier for Job
      */
@@ -241,10 +269,16 @@ public abstract class ScheduledJob implements Iterable<ScheduledTask>
          */
         public final long runIntervalInMs;
 
+        /**
+         * The clock used to determine when the job should run.
+         */
+        public final Clock clock;
+
         Configuration(ConfigurationBuilder builder)
         {
             priority = builder.priority;
             runIntervalInMs = builder.runIntervalInMs;
+            clock = builder.clock;
         }
     }
 
@@ -255,6 +289,7 @@ public abstract class ScheduledJob implements Iterable<ScheduledTask>
     {
         private Priority priority = Priority.LOW;
         private long runIntervalInMs = TimeUnit.DAYS.toMillis(1);
+        private Clock clock = Clock.systemDefaultZone();
 
         public ConfigurationBuilder withPriority(Priority priority)
         {
@@ -268,6 +303,12 @@ public abstract class ScheduledJob implements Iterable<ScheduledTask>
             return this;
         }
 
+        public ConfigurationBuilder withClock(Clock clock)
+        {
+            this.clock = clock;
+            return this;
+        }
+
         public Configuration build()
         {
             return new Configuration(this);
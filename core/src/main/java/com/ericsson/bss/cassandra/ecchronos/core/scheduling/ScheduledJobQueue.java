@@ -18,7 +18,9 @@ import java.util.Collection;
 import java.util.Comparator;
 import java.util.EnumMap;
 import java.util.Iterator;
+import java.util.Map;
 import java.util.PriorityQueue;
+import java.util.function.Predicate;
 
 import com.google.common.collect.AbstractIterator;
 import org.slf4j.Logger;
@@ -113,6 +115,36 @@ public class ScheduledJobQueue implements Iterable<ScheduledJob>
         return size;
     }
 
+    /**
+     * Check if there is a runnable job with a higher priority than the provided priority.
+     *
+     * @param priority
+     *            The priority to compare with.
+     * @param filter
+     *            Additional condition for the jobs to consider.
+     * @return True if there is a matching runnable job.
+     */
+    synchronized boolean hasRunnableJob(ScheduledJob.Priority priority, Predicate<ScheduledJob> filter)
+    {
+        for (Map.Entry<ScheduledJob.Priority, PriorityQueue<ScheduledJob>> entry : myJobQueues.entrySet())
+        {
+            if (entry.getKey().getValue() <= priority.getValue())
+            {
+                continue;
+            }
+
+            for (ScheduledJob job : entry.getValue())
+            {
+                if (filter.test(job) && job.getState() == ScheduledJob.State.RUNNABLE)
+                {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
     @Override
     public synchronized Iterator<ScheduledJob> iterator()
     {
@@ -18,6 +18,7 @@ import com.ericsson.bss.cassandra.ecchronos.core.exceptions.LockException;
 import com.ericsson.bss.cassandra.ecchronos.core.exceptions.ScheduledJobException;
 
 import java.util.HashMap;
+import java.util.function.BooleanSupplier;
 
 /**
  * A scheduled task run by the scheduled job.
@@ -25,9 +26,13 @@ import java.util.HashMap;
 public abstract class ScheduledTask
 {
     private static final String DEFAULT_SCHEDULE_RESOURCE = "SCHEDULE_LOCK";
+    private static final BooleanSupplier NOT_PREEMPTED = () -> false;
 
     protected final int myPriority;
 
+    private volatile BooleanSupplier myPreemptionCheck = NOT_PREEMPTED;
+    private volatile boolean myPreempted = false;
+
     protected ScheduledTask()
     {
         this(1);
@@ -52,6 +57,46 @@ public abstract class ScheduledTask
      */
     public abstract boolean execute() throws ScheduledJobException;
 
+    /**
+     * Check if work with a higher priority is waiting for the resources held by this task.
+     * <p>
+     * Tasks consisting of several steps can check this between the steps and stop early,
+     * the remaining work is then picked up when the job runs again.
+     *
+     * @return True if the task should stop to let the higher priority work run.
+     */
+    protected boolean isPreempted()
+    {
+        return myPreemptionCheck.getAsBoolean();
+    }
+
+    /**
+     * Report that the task stopped early since it was {@link #isPreempted() preempted}.
+     * <p>
+     * An unsuccessful run of a preempted task is not treated as a failure of the job,
+     * the job is runnable again directly instead of waiting for failed runs to be retried.
+     */
+    protected final void preempted()
+    {
+        myPreempted = true;
+    }
+
+    /**
+     * Check if the last run of the task stopped early since it was preempted.
+     *
+     * @return True if the task reported that it was preempted.
+     */
+    public final boolean wasPreempted()
+    {
+        return myPreempted;
+    }
+
+    final void setPreemptionCheck(BooleanSupplier preemptionCheck)
+    {
+        myPreemptionCheck = preemptionCheck != null ? preemptionCheck : NOT_PREEMPTED;
+        myPreempted = false;
+    }
+
     /**
      * Cleanup of the task that should be run after the task has been executed.
      */
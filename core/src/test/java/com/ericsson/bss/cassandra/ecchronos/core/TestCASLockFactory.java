@@ -53,6 +53,7 @@ import com.datastax.driver.core.SimpleStatement;
 import com.datastax.driver.core.Statement;
 import com.datastax.driver.core.exceptions.NoHostAvailableException;
 import com.ericsson.bss.cassandra.ecchronos.core.exceptions.LockException;
+import com.ericsson.bss.cassandra.ecchronos.core.exceptions.PreemptionPendingException;
 import com.ericsson.bss.cassandra.ecchronos.core.scheduling.LockFactory.DistributedLock;
 
 import net.jcip.annotations.NotThreadSafe;
@@ -126,6 +127,38 @@ public class TestCASLockFactory extends AbstractCassandraTest
         assertThat(myLockFactory.getCachedFailure(DATA_CENTER, "lock")).isEmpty();
     }
 
+    @Test
+    public void testGetUncontendedLockTwiceSkipsPriorityAnnouncement() throws LockException
+    {
+        try (DistributedLock lock = myLockFactory.tryLock(DATA_CENTER, "lock", 1, new HashMap<>()))
+        {
+        }
+
+        long expectedLockPriorityReadCount = getReadCount(TABLE_LOCK_PRIORITY) + 1; // We always read the priorities
+        long expectedLockPriorityWriteCount = getWriteCount(TABLE_LOCK_PRIORITY); // No need to announce our priority
+
+        try (DistributedLock lock = myLockFactory.tryLock(DATA_CENTER, "lock", 1, new HashMap<>()))
+        {
+        }
+
+        assertThat(getReadCount(TABLE_LOCK_PRIORITY)).isEqualTo(expectedLockPriorityReadCount);
+        assertThat(getWriteCount(TABLE_LOCK_PRIORITY)).isEqualTo(expectedLockPriorityWriteCount);
+        assertPriorityListEmpty("lock");
+    }
+
+    @Test
+    public void testGetUncontendedLockWithHigherPriorityAnnounced() throws LockException
+    {
+        try (DistributedLock lock = myLockFactory.tryLock(DATA_CENTER, "lock", 1, new HashMap<>()))
+        {
+        }
+
+        execute(myCompeteStatement.bind("lock", UUID.randomUUID(), 2));
+
+        assertThatExceptionOfType(LockException.class).isThrownBy(() -> myLockFactory.tryLock(DATA_CENTER, "lock", 1, new HashMap<>()));
+        assertPrioritiesInList("lock", 1, 2);
+    }
+
     @Test
     public void testGetGlobalLock() throws LockException
     {
@@ -169,6 +202,43 @@ public class TestCASLockFactory extends AbstractCassandraTest
         assertThat(myLockFactory.getCachedFailure(null, "lock")).isNotEmpty();
     }
 
+    @Test
+    public void testUncontendedLockTakenAnnouncesPriority() throws LockException
+    {
+        try (DistributedLock lock = myLockFactory.tryLock(DATA_CENTER, "lock", 1, new HashMap<>()))
+        {
+        }
+
+        execute(myLockStatement.bind("lock", UUID.randomUUID(), new HashMap<>()));
+
+        assertThatExceptionOfType(LockException.class).isThrownBy(() -> myLockFactory.tryLock(DATA_CENTER, "lock", 1, new HashMap<>()));
+        assertPrioritiesInList("lock", 1);
+    }
+
+    @Test
+    public void testLockTakenWithLowerPriorityIsPreemptionPending()
+    {
+        UUID lockHolder = UUID.randomUUID();
+        execute(myLockStatement.bind("lock", lockHolder, new HashMap<>()));
+        execute(myCompeteStatement.bind("lock", lockHolder, 1));
+
+        assertThatExceptionOfType(PreemptionPendingException.class).isThrownBy(() -> myLockFactory.tryLock(DATA_CENTER, "lock", 2, new HashMap<>()));
+        assertPrioritiesInList("lock", 1, 2);
+        assertThat(myLockFactory.getCachedFailure(DATA_CENTER, "lock")).isNotEmpty();
+    }
+
+    @Test
+    public void testLockTakenWithSamePriorityIsNotPreemptionPending()
+    {
+        UUID lockHolder = UUID.randomUUID();
+        execute(myLockStatement.bind("lock", lockHolder, new HashMap<>()));
+        execute(myCompeteStatement.bind("lock", lockHolder, 1));
+
+        assertThatExceptionOfType(LockException.class)
+                .isThrownBy(() -> myLockFactory.tryLock(DATA_CENTER, "lock", 1, new HashMap<>()))
+                .isNotInstanceOf(PreemptionPendingException.class);
+    }
+
     @Test
     public void testGetLockWithLowerPriority()
     {
@@ -281,6 +351,55 @@ public class TestCASLockFactory extends AbstractCassandraTest
         assertThat(myLockFactory.getCachedFailure(DATA_CENTER, "lock")).isEmpty();
     }
 
+    @Test
+    public void testLockPreemptedByHigherPriority()
+    {
+        try (CASLockFactory.CASLock lock = myLockFactory.new CASLock(DATA_CENTER, "lock", 1, new HashMap<>()))
+        {
+            assertThat(lock.lock()).isTrue();
+
+            lock.run();
+            assertThat(lock.isPreempted()).isFalse();
+
+            execute(myCompeteStatement.bind("lock", UUID.randomUUID(), 2));
+            lock.run();
+            assertThat(lock.isPreempted()).isTrue();
+        }
+    }
+
+    @Test
+    public void testUncontendedLockAnnouncesPriorityWhenContended() throws LockException
+    {
+        try (DistributedLock lock = myLockFactory.tryLock(DATA_CENTER, "lock", 1, new HashMap<>()))
+        {
+        }
+
+        try (CASLockFactory.CASLock lock = myLockFactory.new CASLock(DATA_CENTER, "lock", 1, new HashMap<>()))
+        {
+            assertThat(lock.lock()).isTrue();
+
+            lock.run();
+            assertPriorityListEmpty("lock");
+
+            execute(myCompeteStatement.bind("lock", UUID.randomUUID(), 2));
+            lock.run();
+            assertPrioritiesInList("lock", 1, 2);
+        }
+    }
+
+    @Test
+    public void testLockNotPreemptedByLowerPriority()
+    {
+        try (CASLockFactory.CASLock lock = myLockFactory.new CASLock(DATA_CENTER, "lock", 2, new HashMap<>()))
+        {
+            assertThat(lock.lock()).isTrue();
+
+            execute(myCompeteStatement.bind("lock", UUID.randomUUID(), 1));
+            lock.run();
+            assertThat(lock.isPreempted()).isFalse();
+        }
+    }
+
     @Test
     public void testActivateWithoutAllTablesCausesIllegalStateException()
     {
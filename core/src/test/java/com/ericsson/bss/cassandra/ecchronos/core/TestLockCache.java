@@ -14,7 +14,10 @@
  */
 package com.ericsson.bss.cassandra.ecchronos.core;
 
+import com.ericsson.bss.cassandra.ecchronos.core.exceptions.InsufficientNodesException;
 import com.ericsson.bss.cassandra.ecchronos.core.exceptions.LockException;
+import com.ericsson.bss.cassandra.ecchronos.core.exceptions.PreemptionPendingException;
+import com.ericsson.bss.cassandra.ecchronos.core.metrics.SchedulerMetrics;
 import com.ericsson.bss.cassandra.ecchronos.core.scheduling.LockFactory.DistributedLock;
 import nl.jqno.equalsverifier.EqualsVerifier;
 import org.junit.Before;
@@ -23,6 +26,7 @@ import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
+import java.time.Clock;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
@@ -31,6 +35,8 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -40,12 +46,24 @@ public class TestLockCache
     private static final String RESOURCE = "RepairResource-91e32362-7af4-11e9-8f9e-2a86e4085a59-1";
     private static final int PRIORITY = 1;
     private static final Map<String, String> METADATA = new HashMap<>();
+    // The largest jitter below one gives the full backoff
+    private static final double MAX_JITTER = Math.nextDown(1.0d);
 
     @Mock
     private LockCache.LockSupplier mockedLockSupplier;
 
+    @Mock
+    private SchedulerMetrics mockedSchedulerMetrics;
+
+    @Mock
+    private Clock mockedClock;
+
     private LockCache myLockCache;
 
+    private long myTime = 1_000_000L;
+
+    private double myJitter = MAX_JITTER;
+
     @Before
     public void setup()
     {
@@ -111,12 +129,124 @@ public class TestLockCache
         assertGetLockRetrievesExpectedLock(expectedLock);
     }
 
+    @Test
+    public void testBackoffIncreasesWithConsecutiveFailures() throws LockException
+    {
+        useLockCacheWithBackoff(1000, 3000);
+        doThrowOnGetLock();
+
+        assertBackoff(1000);
+        assertBackoff(2000);
+        assertBackoff(3000);
+        assertBackoff(3000);
+    }
+
+    @Test
+    public void testBackoffIsResetOnSuccessfulLock() throws LockException
+    {
+        useLockCacheWithBackoff(1000, 3000);
+        doThrowOnGetLock();
+
+        assertBackoff(1000);
+        assertBackoff(2000);
+
+        DistributedLock expectedLock = doReturnLockOnGetLock();
+        assertGetLockRetrievesExpectedLock(expectedLock);
+
+        doThrowOnGetLock();
+        assertBackoff(1000);
+    }
+
+    @Test
+    public void testBackoffWithInsufficientNodes() throws LockException
+    {
+        useLockCacheWithBackoff(1000, 3000);
+        doThrowOnGetLock(new InsufficientNodesException(""));
+
+        assertBackoff(2000);
+        assertBackoff(3000);
+    }
+
+    @Test
+    public void testBackoffWithPreemptionPending() throws LockException
+    {
+        useLockCacheWithBackoff(1000, 3000);
+        doThrowOnGetLock(new PreemptionPendingException(""));
+
+        assertBackoff(1000);
+        assertBackoff(1000);
+        assertBackoff(1000);
+    }
+
+    @Test
+    public void testBackoffWithJitter() throws LockException
+    {
+        useLockCacheWithBackoff(1000, 3000);
+        myJitter = 0.0d;
+        doThrowOnGetLock();
+
+        assertBackoff(500);
+    }
+
+    @Test
+    public void testBackoffWithHalfJitter() throws LockException
+    {
+        useLockCacheWithBackoff(1000, 3000);
+        myJitter = 0.5d;
+        doThrowOnGetLock();
+
+        assertBackoff(750);
+    }
+
+    @Test
+    public void testCacheLookupMetrics() throws LockException
+    {
+        useLockCacheWithBackoff(1000, 3000);
+        LockException expectedException = doThrowOnGetLock();
+
+        assertGetLockThrowsException(expectedException);
+        assertGetLockThrowsException(expectedException);
+
+        // A miss for the first lock, followed by hits for the cached failure
+        verify(mockedSchedulerMetrics, times(1)).lockCacheLookup(eq(false));
+        verify(mockedSchedulerMetrics, times(3)).lockCacheLookup(eq(true));
+    }
+
     @Test
     public void testEqualsContract()
     {
         EqualsVerifier.forClass(LockCache.LockKey.class).usingGetClass().verify();
     }
 
+    private void useLockCacheWithBackoff(long expireTimeInMs, long maxExpireTimeInMs)
+    {
+        when(mockedClock.millis()).thenReturn(myTime);
+        myLockCache = new LockCache(mockedLockSupplier, mockedSchedulerMetrics, expireTimeInMs, maxExpireTimeInMs,
+                mockedClock, () -> myJitter);
+    }
+
+    /**
+     * Fail to get the lock at the current time and verify that the failure is cached for the expected backoff.
+     * The time is moved to when the failure expires.
+     */
+    private void assertBackoff(long expectedBackoffInMs)
+    {
+        assertThatThrownBy(() -> myLockCache.getLock(DATA_CENTER, RESOURCE, PRIORITY, METADATA))
+                .isInstanceOf(LockException.class);
+
+        setTime(myTime + expectedBackoffInMs - 1);
+        assertThat(myLockCache.getCachedFailure(DATA_CENTER, RESOURCE)).isNotEmpty();
+
+        setTime(myTime + 1);
+        assertThat(myLockCache.getCachedFailure(DATA_CENTER, RESOURCE)).isEmpty();
+    }
+
+    private void setTime(long time)
+    {
+        myTime = time;
+        when(mockedClock.millis()).thenReturn(myTime);
+    }
+
     private void assertGetLockRetrievesExpectedLock(DistributedLock expectedLock) throws LockException
     {
         assertGetLockRetrievesExpectedLock(RESOURCE, expectedLock);
@@ -162,4 +292,9 @@ public class TestLockCache
         when(mockedLockSupplier.getLock(eq(DATA_CENTER), eq(resource), eq(PRIORITY), eq(METADATA))).thenThrow(expectedException);
         return expectedException;
     }
+
+    private void doThrowOnGetLock(LockException expectedException) throws LockException
+    {
+        when(mockedLockSupplier.getLock(eq(DATA_CENTER), eq(RESOURCE), eq(PRIORITY), eq(METADATA))).thenThrow(expectedException);
+    }
 }
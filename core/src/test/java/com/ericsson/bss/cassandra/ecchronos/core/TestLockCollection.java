@@ -71,6 +71,41 @@ public class TestLockCollection
         }
     }
 
+    @Test
+    public void testPreemptedIfAnyLockPreempted()
+    {
+        List<DistributedLock> locks = new ArrayList<>();
+        locks.add(new DummyLock());
+        locks.add(new PreemptedLock());
+
+        assertThat(new LockCollection(locks).isPreempted()).isTrue();
+    }
+
+    @Test
+    public void testNotPreempted()
+    {
+        List<DistributedLock> locks = new ArrayList<>();
+        locks.add(new DummyLock());
+        locks.add(new DummyLock());
+
+        assertThat(new LockCollection(locks).isPreempted()).isFalse();
+    }
+
+    private class PreemptedLock implements DistributedLock
+    {
+        @Override
+        public void close()
+        {
+            // Nothing to release
+        }
+
+        @Override
+        public boolean isPreempted()
+        {
+            return true;
+        }
+    }
+
     private class ThrowingLock implements DistributedLock
     {
         @Override
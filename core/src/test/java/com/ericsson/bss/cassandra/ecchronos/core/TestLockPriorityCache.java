@@ -0,0 +1,109 @@
+/*
+ * Copyright 2021 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecchronos.core;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.time.Clock;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class TestLockPriorityCache
+{
+    private static final String DATA_CENTER = "DC1";
+    private static final String RESOURCE = "RepairResource-DC1-1";
+
+    @Mock
+    private Clock mockedClock;
+
+    private LockPriorityCache myLockPriorityCache;
+
+    @Before
+    public void setup()
+    {
+        when(mockedClock.millis()).thenReturn(1000L);
+        myLockPriorityCache = new LockPriorityCache(10, TimeUnit.SECONDS, mockedClock);
+    }
+
+    @Test
+    public void testUnknownResourceIsContended()
+    {
+        assertThat(myLockPriorityCache.isUncontended(DATA_CENTER, RESOURCE)).isFalse();
+        assertThat(myLockPriorityCache.generation(DATA_CENTER, RESOURCE)).isEqualTo(0L);
+    }
+
+    @Test
+    public void testObservedEmptyIsUncontended()
+    {
+        long generation = myLockPriorityCache.generation(DATA_CENTER, RESOURCE);
+        myLockPriorityCache.observedEmpty(DATA_CENTER, RESOURCE, generation);
+
+        assertThat(myLockPriorityCache.isUncontended(DATA_CENTER, RESOURCE)).isTrue();
+        assertThat(myLockPriorityCache.isUncontended(DATA_CENTER, "other")).isFalse();
+        assertThat(myLockPriorityCache.isUncontended("DC2", RESOURCE)).isFalse();
+    }
+
+    @Test
+    public void testObservedEmptyExpires()
+    {
+        myLockPriorityCache.observedEmpty(DATA_CENTER, RESOURCE, 0L);
+
+        when(mockedClock.millis()).thenReturn(10999L);
+        assertThat(myLockPriorityCache.isUncontended(DATA_CENTER, RESOURCE)).isTrue();
+
+        when(mockedClock.millis()).thenReturn(11000L);
+        assertThat(myLockPriorityCache.isUncontended(DATA_CENTER, RESOURCE)).isFalse();
+    }
+
+    @Test
+    public void testContendedClearsObservedEmpty()
+    {
+        myLockPriorityCache.observedEmpty(DATA_CENTER, RESOURCE, 0L);
+
+        myLockPriorityCache.contended(DATA_CENTER, RESOURCE);
+
+        assertThat(myLockPriorityCache.isUncontended(DATA_CENTER, RESOURCE)).isFalse();
+        assertThat(myLockPriorityCache.generation(DATA_CENTER, RESOURCE)).isEqualTo(1L);
+    }
+
+    @Test
+    public void testObservationFromOldGenerationIsDiscarded()
+    {
+        long generation = myLockPriorityCache.generation(DATA_CENTER, RESOURCE);
+
+        myLockPriorityCache.contended(DATA_CENTER, RESOURCE);
+        myLockPriorityCache.observedEmpty(DATA_CENTER, RESOURCE, generation);
+
+        assertThat(myLockPriorityCache.isUncontended(DATA_CENTER, RESOURCE)).isFalse();
+    }
+
+    @Test
+    public void testObservationFromCurrentGenerationAfterContention()
+    {
+        myLockPriorityCache.contended(DATA_CENTER, RESOURCE);
+
+        long generation = myLockPriorityCache.generation(DATA_CENTER, RESOURCE);
+        myLockPriorityCache.observedEmpty(DATA_CENTER, RESOURCE, generation);
+
+        assertThat(myLockPriorityCache.isUncontended(DATA_CENTER, RESOURCE)).isTrue();
+    }
+}
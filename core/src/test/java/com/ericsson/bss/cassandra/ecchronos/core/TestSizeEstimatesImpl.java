@@ -0,0 +1,129 @@
+/*
+ * Copyright 2021 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecchronos.core;
+
+import com.datastax.driver.core.BoundStatement;
+import com.datastax.driver.core.PreparedStatement;
+import com.datastax.driver.core.RegularStatement;
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.Row;
+import com.datastax.driver.core.Session;
+import com.ericsson.bss.cassandra.ecchronos.connection.StatementDecorator;
+import com.ericsson.bss.cassandra.ecchronos.core.utils.LongTokenRange;
+import com.ericsson.bss.cassandra.ecchronos.core.utils.TableReference;
+import com.google.common.collect.ImmutableMap;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static com.ericsson.bss.cassandra.ecchronos.core.MockTableReferenceFactory.tableReference;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class TestSizeEstimatesImpl
+{
+    @Test
+    public void testExactRangeMatch()
+    {
+        SizeEstimatesImpl.TableSizeEstimates estimates = new SizeEstimatesImpl.TableSizeEstimates(ImmutableMap.of(
+                new LongTokenRange(0, 10), 100L,
+                new LongTokenRange(10, 20), 200L));
+
+        assertThat(estimates.getDataSize(new LongTokenRange(0, 10))).isEqualTo(100L);
+        assertThat(estimates.getDataSize(new LongTokenRange(10, 20))).isEqualTo(200L);
+    }
+
+    @Test
+    public void testCoveredRangesAreSummarized()
+    {
+        SizeEstimatesImpl.TableSizeEstimates estimates = new SizeEstimatesImpl.TableSizeEstimates(ImmutableMap.of(
+                new LongTokenRange(100, Long.MAX_VALUE), 100L,
+                new LongTokenRange(Long.MIN_VALUE, -100), 200L));
+
+        assertThat(estimates.getDataSize(new LongTokenRange(100, -100))).isEqualTo(300L);
+    }
+
+    @Test
+    public void testUnknownRange()
+    {
+        SizeEstimatesImpl.TableSizeEstimates estimates = new SizeEstimatesImpl.TableSizeEstimates(ImmutableMap.of(
+                new LongTokenRange(0, 10), 100L));
+
+        assertThat(estimates.getDataSize(new LongTokenRange(10, 20))).isEqualTo(-1L);
+    }
+
+    @Test
+    public void testEmptyEstimates()
+    {
+        SizeEstimatesImpl.TableSizeEstimates estimates = new SizeEstimatesImpl.TableSizeEstimates(ImmutableMap.of());
+
+        assertThat(estimates.getDataSize(new LongTokenRange(0, 10))).isEqualTo(-1L);
+    }
+
+    @Test
+    public void testPreviousEstimatesUsedDuringRefresh() throws InterruptedException
+    {
+        TableReference tableReference = tableReference("keyspace", "table");
+        LongTokenRange tokenRange = new LongTokenRange(0, 10);
+        CountDownLatch refreshLatch = new CountDownLatch(1);
+
+        Session session = mock(Session.class);
+        PreparedStatement preparedStatement = mock(PreparedStatement.class);
+        BoundStatement boundStatement = mock(BoundStatement.class);
+        when(session.prepare(any(RegularStatement.class))).thenReturn(preparedStatement);
+        when(preparedStatement.bind(any())).thenReturn(boundStatement);
+        ResultSet firstResultSet = resultSet(100L);
+        ResultSet secondResultSet = resultSet(200L);
+        when(session.execute(boundStatement)).thenReturn(firstResultSet).thenAnswer(invocation -> {
+            refreshLatch.await();
+            return secondResultSet;
+        });
+
+        StatementDecorator statementDecorator = statement -> statement;
+        try (SizeEstimatesImpl sizeEstimates = SizeEstimatesImpl.builder()
+                .withSession(session)
+                .withStatementDecorator(statementDecorator)
+                .withRefreshInterval(1, TimeUnit.MILLISECONDS)
+                .build())
+        {
+            assertThat(sizeEstimates.getDataSize(tableReference, tokenRange)).isEqualTo(100L);
+
+            Thread.sleep(10);
+            assertThat(sizeEstimates.getDataSize(tableReference, tokenRange)).isEqualTo(100L);
+
+            refreshLatch.countDown();
+            await().atMost(5, TimeUnit.SECONDS)
+                    .until(() -> sizeEstimates.getDataSize(tableReference, tokenRange) == 200L);
+        }
+    }
+
+    private static ResultSet resultSet(long partitionsCount)
+    {
+        Row row = mock(Row.class);
+        when(row.getString("range_start")).thenReturn("0");
+        when(row.getString("range_end")).thenReturn("10");
+        when(row.getLong("mean_partition_size")).thenReturn(1L);
+        when(row.getLong("partitions_count")).thenReturn(partitionsCount);
+
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.iterator()).thenAnswer(invocation -> Collections.singletonList(row).iterator());
+        return resultSet;
+    }
+}
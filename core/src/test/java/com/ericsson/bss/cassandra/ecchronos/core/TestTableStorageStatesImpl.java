@@ -27,6 +27,8 @@ import java.io.IOException;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static com.ericsson.bss.cassandra.ecchronos.core.MockTableReferenceFactory.tableReference;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -210,6 +212,32 @@ public class TestTableStorageStatesImpl
         assertThat(myTableStorageeStatesImpl.getDataSize(tableReference2)).isEqualTo(expectedTableDataSize2);
     }
 
+    @Test
+    public void testRefreshListenerCalledAfterUpdate()
+    {
+        TableReference tableReference = tableReference("keyspace", "table");
+        AtomicLong dataSizeAtRefresh = new AtomicLong(-1);
+
+        mockTable(tableReference, 1000);
+
+        myTableStorageeStatesImpl.addRefreshListener(() -> dataSizeAtRefresh.set(myTableStorageeStatesImpl.getDataSize()));
+        myTableStorageeStatesImpl.updateTableStates();
+
+        assertThat(dataSizeAtRefresh.get()).isEqualTo(1000);
+    }
+
+    @Test
+    public void testRefreshListenerNotCalledWhenUnableToConnectToJmx() throws IOException
+    {
+        AtomicInteger refreshes = new AtomicInteger();
+        doThrow(IOException.class).when(myJmxProxyFactory).connect();
+
+        myTableStorageeStatesImpl.addRefreshListener(refreshes::incrementAndGet);
+        myTableStorageeStatesImpl.updateTableStates();
+
+        assertThat(refreshes.get()).isZero();
+    }
+
     private void mockTable(TableReference tableReference, long dataSize)
     {
         myReplicatedTables.add(tableReference);
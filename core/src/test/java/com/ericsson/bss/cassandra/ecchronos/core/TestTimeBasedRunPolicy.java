@@ -317,6 +317,53 @@ public class TestTimeBasedRunPolicy extends AbstractCassandraTest
                         .build());
     }
 
+    @Test
+    public void testRejectionsForMultipleTablesAreReadOnce()
+    {
+        // mock
+        Session session = mock(Session.class);
+        Cluster cluster = mock(Cluster.class);
+        Metadata metadata = mock(Metadata.class);
+        KeyspaceMetadata keyspaceMetadata = mock(KeyspaceMetadata.class);
+        PreparedStatement preparedStatement = mock(PreparedStatement.class);
+        BoundStatement boundStatement = mock(BoundStatement.class);
+        ResultSet resultSet = mock(ResultSet.class);
+        Row row = mock(Row.class);
+
+        doReturn(cluster).when(session).getCluster();
+        doReturn(metadata).when(cluster).getMetadata();
+        doReturn(keyspaceMetadata).when(metadata).getKeyspace(eq(myKeyspaceName));
+        doReturn(mock(TableMetadata.class)).when(keyspaceMetadata).getTable(eq(TABLE_REJECT_CONFIGURATION));
+        doReturn(preparedStatement).when(session).prepare(any(RegularStatement.class));
+        doReturn(boundStatement).when(preparedStatement).bind();
+        doReturn(resultSet).when(session).execute(any(Statement.class));
+        doReturn(Arrays.asList(row).iterator()).when(resultSet).iterator();
+
+        doReturn("test").when(row).getString(eq("keyspace_name"));
+        doReturn("table1").when(row).getString(eq("table_name"));
+        doReturn(0).when(row).getInt(anyString());
+
+        TimeBasedRunPolicy runPolicy = TimeBasedRunPolicy.builder()
+                .withSession(session)
+                .withStatementDecorator(s -> s)
+                .withKeyspaceName(myKeyspaceName)
+                .build();
+
+        try
+        {
+            // test
+            assertThat(runPolicy.shouldRun(tableReference("test", "table1"))).isFalse();
+            assertThat(runPolicy.shouldRun(tableReference("test", "table2"))).isTrue();
+            assertThat(runPolicy.shouldRun(tableReference("test2", "table1"))).isTrue();
+
+            verify(session, times(1)).execute(any(Statement.class));
+        }
+        finally
+        {
+            runPolicy.close();
+        }
+    }
+
     private void policyWithClock(Clock clock)
     {
         myRunPolicy = TimeBasedRunPolicy.builder()
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2021 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecchronos.core.jfr;
+
+import static com.ericsson.bss.cassandra.ecchronos.core.MockTableReferenceFactory.tableReference;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.ericsson.bss.cassandra.ecchronos.core.utils.LongTokenRange;
+import com.ericsson.bss.cassandra.ecchronos.core.utils.TableReference;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+public class TestFlightRecorderEvents
+{
+    private final TableReference myTableReference = tableReference("keyspace", "table");
+
+    private Recording myRecording;
+    private Path myRecordingFile;
+
+    @Before
+    public void startRecording() throws IOException
+    {
+        myRecordingFile = Files.createTempFile("ecchronos", ".jfr");
+        myRecording = new Recording();
+        for (String event : new String[] { "SchedulerRun", "JobPicked", "JobRejected", "CasLock", "RepairSubmit",
+                "RepairRangeFinished", "RepairHangPrevention", "RepairHistoryRead", "RepairStateUpdate" })
+        {
+            myRecording.enable(FlightRecorderEvents.NAME_PREFIX + event);
+        }
+        myRecording.start();
+    }
+
+    @After
+    public void stopRecording() throws IOException
+    {
+        myRecording.close();
+        Files.deleteIfExists(myRecordingFile);
+    }
+
+    @Test
+    public void testIsAvailable()
+    {
+        assertThat(FlightRecorderEvents.isAvailable()).isTrue();
+    }
+
+    @Test
+    public void testSchedulerEvents() throws IOException, InterruptedException
+    {
+        FlightRecorderEvents.TimedEvent schedulerRunEvent = FlightRecorderEvents.startSchedulerRun();
+        Thread.sleep(10);
+        FlightRecorderEvents.schedulerRun(schedulerRunEvent, 2, 3);
+        FlightRecorderEvents.jobPicked("job", "HIGH");
+        FlightRecorderEvents.jobRejected("job", "policy", 5000L);
+
+        List<RecordedEvent> events = recordedEvents();
+
+        assertThat(events).hasSize(3);
+        assertThat(event(events, "SchedulerRun").getDuration().toMillis()).isGreaterThanOrEqualTo(10L);
+        assertThat(event(events, "SchedulerRun").getInt("examinedJobs")).isEqualTo(2);
+        assertThat(event(events, "SchedulerRun").getInt("queueSize")).isEqualTo(3);
+        assertThat(event(events, "JobPicked").getString("job")).isEqualTo("job");
+        assertThat(event(events, "JobPicked").getString("priority")).isEqualTo("HIGH");
+        assertThat(event(events, "JobRejected").getString("runPolicy")).isEqualTo("policy");
+        assertThat(event(events, "JobRejected").getDuration("rejectedFor").toMillis()).isEqualTo(5000L);
+    }
+
+    @Test
+    public void testCasLockEvent() throws IOException
+    {
+        FlightRecorderEvents.casLock(FlightRecorderEvents.startCasLock(), FlightRecorderEvents.LockOperation.ACQUIRE,
+                "dc1", "resource", 1, false);
+
+        RecordedEvent event = event(recordedEvents(), "CasLock");
+
+        assertThat(event.getString("operation")).isEqualTo("ACQUIRE");
+        assertThat(event.getString("dataCenter")).isEqualTo("dc1");
+        assertThat(event.getString("resource")).isEqualTo("resource");
+        assertThat(event.getInt("priority")).isEqualTo(1);
+        assertThat(event.getBoolean("successful")).isFalse();
+    }
+
+    @Test
+    public void testRepairEvents() throws IOException
+    {
+        FlightRecorderEvents.repairSubmitted(FlightRecorderEvents.startRepairSubmit(), myTableReference, 1, 2);
+        FlightRecorderEvents.repairRangeFinished(myTableReference, new LongTokenRange(1, 2), "SUCCESS");
+        FlightRecorderEvents.repairHangPrevention(myTableReference, 1);
+        FlightRecorderEvents.repairHistoryRead(FlightRecorderEvents.startRepairHistoryRead(), myTableReference, 5);
+        FlightRecorderEvents.repairStateUpdated(FlightRecorderEvents.startRepairStateUpdate(), myTableReference, true);
+
+        List<RecordedEvent> events = recordedEvents();
+
+        assertThat(events).hasSize(5);
+        assertThat(events).allMatch(e -> "keyspace".equals(e.getString("keyspace")) && "table".equals(e.getString("table")));
+        assertThat(event(events, "RepairSubmit").getInt("ranges")).isEqualTo(2);
+        assertThat(event(events, "RepairRangeFinished").getLong("rangeStart")).isEqualTo(1L);
+        assertThat(event(events, "RepairRangeFinished").getLong("rangeEnd")).isEqualTo(2L);
+        assertThat(event(events, "RepairRangeFinished").getString("status")).isEqualTo("SUCCESS");
+        assertThat(event(events, "RepairHangPrevention").getInt("command")).isEqualTo(1);
+        assertThat(event(events, "RepairHistoryRead").getInt("rows")).isEqualTo(5);
+        assertThat(event(events, "RepairStateUpdate").getBoolean("snapshotRebuilt")).isTrue();
+    }
+
+    @Test
+    public void testTimedEventNotCommittedAsOtherEvent() throws IOException
+    {
+        FlightRecorderEvents.repairStateUpdated(FlightRecorderEvents.startSchedulerRun(), myTableReference, true);
+
+        assertThat(recordedEvents()).isEmpty();
+    }
+
+    private List<RecordedEvent> recordedEvents() throws IOException
+    {
+        myRecording.stop();
+        myRecording.dump(myRecordingFile);
+
+        return RecordingFile.readAllEvents(myRecordingFile).stream()
+                .filter(e -> e.getEventType().getName().startsWith(FlightRecorderEvents.NAME_PREFIX))
+                .collect(Collectors.toList());
+    }
+
+    private static RecordedEvent event(List<RecordedEvent> events, String name)
+    {
+        return events.stream()
+                .filter(e -> e.getEventType().getName().equals(FlightRecorderEvents.NAME_PREFIX + name))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No event " + name));
+    }
+}
@@ -23,6 +23,7 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
@@ -32,6 +33,7 @@ import static com.ericsson.bss.cassandra.ecchronos.core.MockTableReferenceFactor
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.verify;
 
 @RunWith(MockitoJUnitRunner.class)
 public class TestNodeMetricHolder
@@ -124,6 +126,41 @@ public class TestNodeMetricHolder
         assertThat(getGauge(NodeMetricHolder.REPAIRED_DATA).getValue()).isEqualTo(expectedFullRepairedDataRatio);
     }
 
+    @Test
+    public void testUpdateRepairStateTwice()
+    {
+        TableReference tableReference = tableReference("keyspace", "table");
+        doReturn(1000L).when(myTableStorageStates).getDataSize();
+
+        addRepairedTable(tableReference, 0.3, 1000);
+        addRepairedTable(tableReference, 0.8, 1000);
+
+        assertThat(getGauge(NodeMetricHolder.REPAIRED_TABLES).getValue()).isEqualTo(0.8);
+        assertThat(getGauge(NodeMetricHolder.REPAIRED_DATA).getValue()).isEqualTo(0.8);
+    }
+
+    @Test
+    public void testDataSizesRefreshed()
+    {
+        TableReference tableReference = tableReference("keyspace", "table");
+        TableReference tableReferenceTableTwo = tableReference("keyspace", "table2");
+        ArgumentCaptor<Runnable> refreshListener = ArgumentCaptor.forClass(Runnable.class);
+        verify(myTableStorageStates).addRefreshListener(refreshListener.capture());
+
+        doReturn(2000L).when(myTableStorageStates).getDataSize();
+        addRepairedTable(tableReference, 1.0, 1000);
+        addRepairedTable(tableReferenceTableTwo, 0.0, 1000);
+
+        assertThat(getGauge(NodeMetricHolder.REPAIRED_DATA).getValue()).isEqualTo(0.5);
+
+        doReturn(4000L).when(myTableStorageStates).getDataSize();
+        doReturn(3000L).when(myTableStorageStates).getDataSize(eq(tableReference));
+        refreshListener.getValue().run();
+
+        assertThat(getGauge(NodeMetricHolder.REPAIRED_DATA).getValue()).isEqualTo(0.75);
+        assertThat(getGauge(NodeMetricHolder.REPAIRED_TABLES).getValue()).isEqualTo(0.5);
+    }
+
     @Test
     public void testUpdateRepairTimingSuccessful()
     {
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2021 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecchronos.core.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.codahale.metrics.MetricRegistry;
+
+public class TestSchedulerMetricHolder
+{
+    private final MetricRegistry myMetricRegistry = new MetricRegistry();
+
+    private SchedulerMetricHolder mySchedulerMetricHolder;
+
+    @Before
+    public void init()
+    {
+        mySchedulerMetricHolder = new SchedulerMetricHolder(myMetricRegistry);
+    }
+
+    @After
+    public void cleanup()
+    {
+        mySchedulerMetricHolder.close();
+    }
+
+    @Test
+    public void testMetricsAdded()
+    {
+        assertThat(myMetricRegistry.getMetrics().keySet()).containsExactlyInAnyOrder(
+                SchedulerMetricHolder.RUN_TIME,
+                SchedulerMetricHolder.EXAMINED_JOBS,
+                SchedulerMetricHolder.QUEUE_SIZE,
+                SchedulerMetricHolder.LOCK_WAIT_TIME,
+                SchedulerMetricHolder.LOCK_CACHE_HITS,
+                SchedulerMetricHolder.LOCK_CACHE_MISSES);
+    }
+
+    @Test
+    public void testRun()
+    {
+        mySchedulerMetricHolder.run(1234, TimeUnit.NANOSECONDS, 3, 10);
+
+        assertThat(myMetricRegistry.getTimers().get(SchedulerMetricHolder.RUN_TIME).getCount()).isEqualTo(1);
+        assertThat(myMetricRegistry.getTimers().get(SchedulerMetricHolder.RUN_TIME).getSnapshot().getMean())
+                .isEqualTo(1234);
+        assertThat(myMetricRegistry.getHistograms().get(SchedulerMetricHolder.EXAMINED_JOBS).getSnapshot().getMean())
+                .isEqualTo(3);
+        assertThat(myMetricRegistry.getGauges().get(SchedulerMetricHolder.QUEUE_SIZE).getValue()).isEqualTo(10);
+    }
+
+    @Test
+    public void testLockWaitTiming()
+    {
+        mySchedulerMetricHolder.lockWaitTiming(5, TimeUnit.SECONDS);
+
+        assertThat(myMetricRegistry.getTimers().get(SchedulerMetricHolder.LOCK_WAIT_TIME).getSnapshot().getMean())
+                .isEqualTo(TimeUnit.SECONDS.toNanos(5));
+    }
+
+    @Test
+    public void testLockCacheLookup()
+    {
+        mySchedulerMetricHolder.lockCacheLookup(true);
+        mySchedulerMetricHolder.lockCacheLookup(true);
+        mySchedulerMetricHolder.lockCacheLookup(false);
+
+        assertThat(myMetricRegistry.getMeters().get(SchedulerMetricHolder.LOCK_CACHE_HITS).getCount()).isEqualTo(2);
+        assertThat(myMetricRegistry.getMeters().get(SchedulerMetricHolder.LOCK_CACHE_MISSES).getCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void testClose()
+    {
+        mySchedulerMetricHolder.close();
+
+        assertThat(myMetricRegistry.getMetrics()).isEmpty();
+    }
+}
@@ -83,7 +83,12 @@ public class TestTableMetricHolder
                 metricName(TableMetricHolder.LAST_REPAIRED_AT),
                 metricName(TableMetricHolder.REPAIR_STATE),
                 metricName(TableMetricHolder.REPAIR_TIMING_FAILED),
-                metricName(TableMetricHolder.REPAIR_TIMING_SUCCESS));
+                metricName(TableMetricHolder.REPAIR_TIMING_SUCCESS),
+                metricName(RepairPhase.LOCK.getMetricName()),
+                metricName(RepairPhase.SUBMIT.getMetricName()),
+                metricName(RepairPhase.WAIT.getMetricName()),
+                metricName(RepairPhase.HISTORY.getMetricName()),
+                metricName(RepairPhase.UNWIND.getMetricName()));
 
         assertThat(getGague(TableMetricHolder.REPAIR_STATE).getValue()).isEqualTo(Double.NaN);
         assertThat(getGague(TableMetricHolder.LAST_REPAIRED_AT).getValue()).isEqualTo(0L);
@@ -172,6 +177,32 @@ public class TestTableMetricHolder
         verify(myNodeMetricHolder).repairTiming(eq(timeTaken), eq(TimeUnit.NANOSECONDS), eq(successful));
     }
 
+    @Test
+    public void testUpdateRepairPhaseTiming()
+    {
+        long timeTaken = 1234;
+
+        myTableMetricHolder.repairPhaseTiming(RepairPhase.WAIT, timeTaken, TimeUnit.NANOSECONDS);
+
+        assertThat(getTimer(RepairPhase.WAIT.getMetricName()).getCount()).isEqualTo(1);
+        assertThat(getTimer(RepairPhase.WAIT.getMetricName()).getSnapshot().getMean()).isEqualTo(timeTaken);
+
+        assertThat(getTimer(RepairPhase.LOCK.getMetricName()).getCount()).isEqualTo(0);
+
+        verify(myNodeMetricHolder).repairPhaseTiming(eq(RepairPhase.WAIT), eq(timeTaken), eq(TimeUnit.NANOSECONDS));
+    }
+
+    @Test
+    public void testCloseRemovesRepairPhaseTimers()
+    {
+        myTableMetricHolder.close();
+
+        for (RepairPhase repairPhase : RepairPhase.values())
+        {
+            assertThat(myMetricRegistry.getMetrics()).doesNotContainKey(metricName(repairPhase.getMetricName()));
+        }
+    }
+
     private Timer getTimer(String name)
     {
         return myMetricRegistry.getTimers().get(metricName(name));
@@ -81,6 +81,29 @@ public class TestTableRepairMetricsImpl
                         .build());
     }
 
+    @Test
+    public void testCsvReporterDisabled()
+    {
+        File statisticsDirectory = new File(metricsFolder.getRoot(), "disabled");
+        TableReference tableReference = tableReference("keyspace", "table");
+        MetricRegistry metricRegistry = new MetricRegistry();
+
+        TableRepairMetricsImpl tableRepairMetrics = TableRepairMetricsImpl.builder()
+                .withTableStorageStates(myTableStorageStates)
+                .withStatisticsDirectory(statisticsDirectory.getAbsolutePath())
+                .withCsvReporterEnabled(false)
+                .withMetricRegistry(metricRegistry)
+                .build();
+
+        tableRepairMetrics.repairState(tableReference, 1, 0);
+        tableRepairMetrics.report();
+
+        assertThat(metricRegistry.getGauges()).containsKey("TableRepairState");
+        tableRepairMetrics.close();
+
+        assertThat(statisticsDirectory).doesNotExist();
+    }
+
     @Test
     public void testFullRepairedSingleTable() throws Exception
     {
@@ -32,12 +32,14 @@ import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 import static com.ericsson.bss.cassandra.ecchronos.core.MockTableReferenceFactory.tableReference;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -162,6 +164,41 @@ public class TestOnDemandRepairJob
         assertThat(repairJob.getState()).isEqualTo(ScheduledJob.State.FAILED);
     }
 
+    @Test
+    public void testOnFinishedHookCalledWhenFinishJobFails()
+    {
+        OngoingJob otherOngoingJob = mock(OngoingJob.class);
+        when(otherOngoingJob.getTableReference()).thenReturn(tableReference(keyspaceName, "other_table"));
+        Set<UUID> finishedJobs = new HashSet<>();
+        OnDemandRepairJob repairJob = createOnDemandRepairJob(otherOngoingJob, finishedJobs::add);
+        doThrow(new IllegalStateException("write failed")).when(myOngoingJob).finishJob();
+        Iterator<ScheduledTask> it = repairJob.iterator();
+        repairJob.postExecute(true, it.next());
+        repairJob.postExecute(true, it.next());
+
+        repairJob.finishJob();
+
+        verify(otherOngoingJob).finishJob();
+        assertThat(finishedJobs).containsExactly(repairJob.getId());
+    }
+
+    @Test
+    public void testOnFinishedHookCalledWhenFailJobFails()
+    {
+        OngoingJob otherOngoingJob = mock(OngoingJob.class);
+        when(otherOngoingJob.getTableReference()).thenReturn(tableReference(keyspaceName, "other_table"));
+        Set<UUID> finishedJobs = new HashSet<>();
+        OnDemandRepairJob repairJob = createOnDemandRepairJob(otherOngoingJob, finishedJobs::add);
+        doThrow(new IllegalStateException("write failed")).when(myOngoingJob).failJob();
+        Iterator<ScheduledTask> it = repairJob.iterator();
+        repairJob.postExecute(false, it.next());
+
+        repairJob.finishJob();
+
+        verify(otherOngoingJob).failJob();
+        assertThat(finishedJobs).containsExactly(repairJob.getId());
+    }
+
     @Test
     public void testGetProgress()
     {
@@ -174,16 +211,81 @@ public class TestOnDemandRepairJob
         assertThat(repairJob.getProgress()).isEqualTo(1);
     }
 
+    @Test
+    public void testJobForMultipleTables()
+    {
+        TableReference otherTableReference = tableReference(keyspaceName, "other_table");
+        OngoingJob otherOngoingJob = mock(OngoingJob.class);
+        UUID otherJobId = UUID.randomUUID();
+        when(otherOngoingJob.getTableReference()).thenReturn(otherTableReference);
+        when(otherOngoingJob.getJobId()).thenReturn(otherJobId);
+
+        OnDemandRepairJob repairJob = createOnDemandRepairJob(otherOngoingJob);
+
+        assertThat(repairJob.getId()).isEqualTo(myOngoingJob.getJobId());
+        assertThat(repairJob.getTableReferences()).containsExactly(myTableReference, otherTableReference);
+        assertThat(repairJob.getViews()).extracting(RepairJobView::getId)
+                .containsExactly(myOngoingJob.getJobId(), otherJobId);
+        assertThat(repairJob.getViews()).extracting(RepairJobView::getTableReference)
+                .containsExactly(myTableReference, otherTableReference);
+
+        Iterator<ScheduledTask> it = repairJob.iterator();
+        ScheduledTask task = it.next();
+        assertThat(task).isInstanceOf(RepairGroup.class);
+        assertThat(((RepairGroup) task).getRepairTasks()).extracting(RepairTask::getTableReference)
+                .containsOnly(myTableReference, otherTableReference);
+
+        repairJob.postExecute(true, task);
+        verify(myOngoingJob).finishRanges(any());
+        verify(otherOngoingJob).finishRanges(any());
+
+        repairJob.postExecute(true, it.next());
+        assertThat(repairJob.getState()).isEqualTo(ScheduledJob.State.FINISHED);
+
+        repairJob.finishJob();
+        verify(myOngoingJob).finishJob();
+        verify(otherOngoingJob).finishJob();
+    }
+
+    @Test
+    public void testJobForMultipleTablesFailedWhenTopologyChange()
+    {
+        OngoingJob otherOngoingJob = mock(OngoingJob.class);
+        when(otherOngoingJob.getTableReference()).thenReturn(tableReference(keyspaceName, "other_table"));
+
+        OnDemandRepairJob repairJob = createOnDemandRepairJob(otherOngoingJob);
+        when(otherOngoingJob.hasTopologyChanged()).thenReturn(true);
+
+        assertThat(repairJob.getState()).isEqualTo(ScheduledJob.State.FAILED);
+    }
+
+    private OnDemandRepairJob createOnDemandRepairJob(OngoingJob otherOngoingJob)
+    {
+        return createOnDemandRepairJob(otherOngoingJob, id -> {});
+    }
+
+    private OnDemandRepairJob createOnDemandRepairJob(OngoingJob otherOngoingJob, Consumer<UUID> onFinishedHook)
+    {
+        mockTokenRanges();
+
+        return new OnDemandRepairJob.Builder()
+                .withJmxProxyFactory(myJmxProxyFactory)
+                .withTableRepairMetrics(myTableRepairMetrics)
+                .withRepairLockType(RepairLockType.VNODE)
+                .withRepairHistory(myRepairHistory)
+                .withOngoingJobs(Arrays.asList(myOngoingJob, otherOngoingJob))
+                .withOnFinished(onFinishedHook)
+                .build();
+    }
+
     private OnDemandRepairJob createOnDemandRepairJob()
     {
-        LongTokenRange range1 = new LongTokenRange(1, 2);
-        LongTokenRange range2 = new LongTokenRange(1, 3);
-        Map<LongTokenRange, ImmutableSet<Node>> tokenRangeToReplicas = new HashMap<>();
-        tokenRangeToReplicas.put(range1,
-                ImmutableSet.of(mockReplica1, mockReplica2, mockReplica3));
-        tokenRangeToReplicas.put(range2,
-                ImmutableSet.of(mockReplica1, mockReplica2));
-        when(myOngoingJob.getTokens()).thenReturn(tokenRangeToReplicas);
+        return createOnDemandRepairJob(id -> {});
+    }
+
+    private OnDemandRepairJob createOnDemandRepairJob(Consumer<UUID> onFinishedHook)
+    {
+        mockTokenRanges();
 
         return new OnDemandRepairJob.Builder()
                 .withJmxProxyFactory(myJmxProxyFactory)
@@ -191,9 +293,22 @@ public class TestOnDemandRepairJob
                 .withRepairLockType(RepairLockType.VNODE)
                 .withRepairHistory(myRepairHistory)
                 .withOngoingJob(myOngoingJob)
+                .withOnFinished(onFinishedHook)
                 .build();
     }
 
+    private void mockTokenRanges()
+    {
+        LongTokenRange range1 = new LongTokenRange(1, 2);
+        LongTokenRange range2 = new LongTokenRange(1, 3);
+        Map<LongTokenRange, ImmutableSet<Node>> tokenRangeToReplicas = new HashMap<>();
+        tokenRangeToReplicas.put(range1,
+                ImmutableSet.of(mockReplica1, mockReplica2, mockReplica3));
+        tokenRangeToReplicas.put(range2,
+                ImmutableSet.of(mockReplica1, mockReplica2));
+        when(myOngoingJob.getTokens()).thenReturn(tokenRangeToReplicas);
+    }
+
     private OnDemandRepairJob createRestartedOnDemandRepairJob()
     {
         LongTokenRange range1 = new LongTokenRange(1, 2);
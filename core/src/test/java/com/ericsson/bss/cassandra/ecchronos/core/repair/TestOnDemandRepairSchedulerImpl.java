@@ -20,24 +20,33 @@ import com.datastax.driver.core.Metadata;
 import com.datastax.driver.core.TableMetadata;
 import com.datastax.driver.core.exceptions.NoHostAvailableException;
 import com.ericsson.bss.cassandra.ecchronos.core.JmxProxyFactory;
+import com.ericsson.bss.cassandra.ecchronos.core.MockTableReferenceFactory;
 import com.ericsson.bss.cassandra.ecchronos.core.exceptions.EcChronosException;
 import com.ericsson.bss.cassandra.ecchronos.core.metrics.TableRepairMetrics;
 import com.ericsson.bss.cassandra.ecchronos.core.repair.state.RepairHistory;
 import com.ericsson.bss.cassandra.ecchronos.core.repair.state.ReplicationState;
 import com.ericsson.bss.cassandra.ecchronos.core.scheduling.ScheduleManager;
 import com.ericsson.bss.cassandra.ecchronos.core.scheduling.ScheduledJob;
+import com.ericsson.bss.cassandra.ecchronos.core.utils.LongTokenRange;
+import com.ericsson.bss.cassandra.ecchronos.core.utils.Node;
 import com.ericsson.bss.cassandra.ecchronos.core.utils.TableReference;
+import com.google.common.collect.ImmutableSet;
 
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
 
 import static com.ericsson.bss.cassandra.ecchronos.core.MockTableReferenceFactory.tableReference;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -103,6 +112,93 @@ public class TestOnDemandRepairSchedulerImpl
         verifyNoMoreInteractions(scheduleManager);
     }
 
+    @Test
+    public void testScheduleRepairOnTables() throws EcChronosException
+    {
+        TableReference otherTableReference = tableReference("keyspace", "other_table");
+        TableMetadata otherTableMetadata = mock(TableMetadata.class);
+        when(metadata.getKeyspace("keyspace")).thenReturn(myKeyspaceMetadata);
+        when(myKeyspaceMetadata.getName()).thenReturn("keyspace");
+        when(myKeyspaceMetadata.getTable("table")).thenReturn(myTableMetadata);
+        when(myKeyspaceMetadata.getTable("other_table")).thenReturn(otherTableMetadata);
+        when(myTableMetadata.getName()).thenReturn("table");
+        when(otherTableMetadata.getName()).thenReturn("other_table");
+        OnDemandRepairSchedulerImpl repairScheduler = defaultOnDemandRepairSchedulerImplBuilder()
+                .withTableReferenceFactory(new MockTableReferenceFactory())
+                .build();
+
+        List<RepairJobView> repairJobViews = repairScheduler.scheduleJobs("keyspace",
+                Arrays.asList("table", "other_table"), false);
+        verify(scheduleManager).schedule(any(ScheduledJob.class));
+
+        assertThat(repairJobViews).extracting(RepairJobView::getTableReference)
+                .containsExactlyInAnyOrder(TABLE_REFERENCE, otherTableReference);
+        assertThat(repairJobViews).extracting(RepairJobView::getId).doesNotHaveDuplicates();
+        assertTableViewExist(repairScheduler, repairJobViews.toArray(new RepairJobView[0]));
+
+        repairScheduler.close();
+        verify(scheduleManager).deschedule(any(ScheduledJob.class));
+
+        verifyNoMoreInteractions(ignoreStubs(myTableRepairMetrics));
+        verifyNoMoreInteractions(scheduleManager);
+    }
+
+    @Test
+    public void testScheduleRepairOnKeyspace() throws EcChronosException
+    {
+        when(metadata.getKeyspace("keyspace")).thenReturn(myKeyspaceMetadata);
+        when(myKeyspaceMetadata.getName()).thenReturn("keyspace");
+        when(myKeyspaceMetadata.getTables()).thenReturn(Collections.singletonList(myTableMetadata));
+        when(myKeyspaceMetadata.getTable("table")).thenReturn(myTableMetadata);
+        when(myTableMetadata.getName()).thenReturn("table");
+        OnDemandRepairSchedulerImpl repairScheduler = defaultOnDemandRepairSchedulerImplBuilder()
+                .withTableReferenceFactory(new MockTableReferenceFactory())
+                .build();
+
+        List<RepairJobView> repairJobViews = repairScheduler.scheduleJobs("keyspace", Collections.emptyList(), true);
+        verify(scheduleManager).schedule(any(ScheduledJob.class));
+
+        assertThat(repairJobViews).extracting(RepairJobView::getTableReference).containsExactly(TABLE_REFERENCE);
+
+        repairScheduler.close();
+        verify(scheduleManager).deschedule(any(ScheduledJob.class));
+        verifyNoMoreInteractions(scheduleManager);
+    }
+
+    @Test (expected = EcChronosException.class)
+    public void testScheduleRepairOnTablesInNonExistentKeyspace() throws EcChronosException
+    {
+        OnDemandRepairSchedulerImpl repairScheduler = defaultOnDemandRepairSchedulerImplBuilder().build();
+
+        try
+        {
+            repairScheduler.scheduleJobs("keyspace", Collections.singletonList("table"), false);
+        }
+        finally
+        {
+            verify(scheduleManager, never()).schedule(any(ScheduledJob.class));
+            repairScheduler.close();
+        }
+    }
+
+    @Test (expected = EcChronosException.class)
+    public void testScheduleRepairOnNonExistentTables() throws EcChronosException
+    {
+        when(metadata.getKeyspace("keyspace")).thenReturn(myKeyspaceMetadata);
+        when(myKeyspaceMetadata.getName()).thenReturn("keyspace");
+        OnDemandRepairSchedulerImpl repairScheduler = defaultOnDemandRepairSchedulerImplBuilder().build();
+
+        try
+        {
+            repairScheduler.scheduleJobs("keyspace", Collections.singletonList("table"), false);
+        }
+        finally
+        {
+            verify(scheduleManager, never()).schedule(any(ScheduledJob.class));
+            repairScheduler.close();
+        }
+    }
+
     @Test
     public void testScheduleTwoRepairOnTable() throws EcChronosException
     {
@@ -161,6 +257,104 @@ public class TestOnDemandRepairSchedulerImpl
         verifyNoMoreInteractions(scheduleManager);
     }
 
+    @Test
+    public void testGetAllRepairJobsReadsStatusOnce()
+    {
+        UUID jobId = UUID.randomUUID();
+        Set<OngoingJob> allJobs = new HashSet<>();
+        allJobs.add(myOngingJob);
+        when(myOngingJob.getJobId()).thenReturn(jobId);
+        when(myOngingJob.getTableReference()).thenReturn(TABLE_REFERENCE);
+        when(myOngingJob.getStatus()).thenReturn(OngoingJob.Status.finished);
+        when(myOnDemandStatus.getAllJobs(replicationState)).thenReturn(allJobs);
+
+        OnDemandRepairSchedulerImpl repairScheduler = defaultOnDemandRepairSchedulerImplBuilder().build();
+
+        assertThat(repairScheduler.getAllRepairJobs()).extracting(RepairJobView::getId).containsExactly(jobId);
+        assertThat(repairScheduler.getAllRepairJobs()).extracting(RepairJobView::getStatus)
+                .containsExactly(RepairJobView.Status.COMPLETED);
+
+        verify(myOnDemandStatus, times(1)).getAllJobs(replicationState);
+
+        repairScheduler.close();
+    }
+
+    @Test
+    public void testGetAllRepairJobsWithStartedJob()
+    {
+        UUID jobId = UUID.randomUUID();
+        LongTokenRange repairedRange = new LongTokenRange(1, 2);
+        Map<LongTokenRange, ImmutableSet<Node>> tokens = new HashMap<>();
+        tokens.put(repairedRange, ImmutableSet.of());
+        tokens.put(new LongTokenRange(2, 3), ImmutableSet.of());
+        Set<OngoingJob> allJobs = new HashSet<>();
+        allJobs.add(myOngingJob);
+        when(myOngingJob.getJobId()).thenReturn(jobId);
+        when(myOngingJob.getTableReference()).thenReturn(TABLE_REFERENCE);
+        when(myOngingJob.getStatus()).thenReturn(OngoingJob.Status.started);
+        when(myOngingJob.getTokens()).thenReturn(tokens);
+        when(myOngingJob.getRepairedTokens()).thenReturn(Collections.singleton(repairedRange));
+        when(myOnDemandStatus.getAllJobs(replicationState)).thenReturn(allJobs);
+
+        OnDemandRepairSchedulerImpl repairScheduler = defaultOnDemandRepairSchedulerImplBuilder().build();
+
+        List<RepairJobView> allRepairJobs = repairScheduler.getAllRepairJobs();
+        assertThat(allRepairJobs).extracting(RepairJobView::getId).containsExactly(jobId);
+        assertThat(allRepairJobs).extracting(RepairJobView::getStatus).containsExactly(RepairJobView.Status.IN_QUEUE);
+        assertThat(allRepairJobs).extracting(RepairJobView::getProgress).containsExactly(0.5d);
+
+        repairScheduler.close();
+    }
+
+    @Test
+    public void testGetAllRepairJobsAfterLocalJobFinished() throws EcChronosException
+    {
+        when(myOnDemandStatus.getAllJobs(replicationState)).thenReturn(new HashSet<>());
+        OnDemandRepairSchedulerImpl repairScheduler = defaultOnDemandRepairSchedulerImplBuilder().build();
+        when(metadata.getKeyspace(TABLE_REFERENCE.getKeyspace())).thenReturn(myKeyspaceMetadata);
+        when(myKeyspaceMetadata.getTable(TABLE_REFERENCE.getTable())).thenReturn(myTableMetadata);
+
+        RepairJobView repairJobView = repairScheduler.scheduleJob(TABLE_REFERENCE);
+        assertThat(repairScheduler.getAllRepairJobs()).containsExactly(repairJobView);
+
+        ArgumentCaptor<ScheduledJob> jobCaptor = ArgumentCaptor.forClass(ScheduledJob.class);
+        verify(scheduleManager).schedule(jobCaptor.capture());
+        ((OnDemandRepairJob) jobCaptor.getValue()).finishJob();
+
+        assertThat(repairScheduler.getActiveRepairJobs()).isEmpty();
+        List<RepairJobView> allRepairJobs = repairScheduler.getAllRepairJobs();
+        assertThat(allRepairJobs).extracting(RepairJobView::getId).containsExactly(repairJobView.getId());
+        assertThat(allRepairJobs).extracting(RepairJobView::getStatus).containsExactly(RepairJobView.Status.COMPLETED);
+        assertThat(allRepairJobs.get(0).getLastCompletedAt()).isPositive();
+
+        verify(myOnDemandStatus, times(1)).getAllJobs(replicationState);
+        verify(myOnDemandStatus).finishJob(repairJobView.getId());
+
+        repairScheduler.close();
+    }
+
+    @Test
+    public void testOnRepairedHookCalledWhenJobFinished() throws EcChronosException
+    {
+        List<TableReference> repairedTables = new ArrayList<>();
+        OnDemandRepairSchedulerImpl repairScheduler = defaultOnDemandRepairSchedulerImplBuilder()
+                .withOnRepaired(repairedTables::add)
+                .build();
+        when(metadata.getKeyspace(TABLE_REFERENCE.getKeyspace())).thenReturn(myKeyspaceMetadata);
+        when(myKeyspaceMetadata.getTable(TABLE_REFERENCE.getTable())).thenReturn(myTableMetadata);
+
+        repairScheduler.scheduleJob(TABLE_REFERENCE);
+        assertThat(repairedTables).isEmpty();
+
+        ArgumentCaptor<ScheduledJob> jobCaptor = ArgumentCaptor.forClass(ScheduledJob.class);
+        verify(scheduleManager).schedule(jobCaptor.capture());
+        ((OnDemandRepairJob) jobCaptor.getValue()).finishJob();
+
+        assertThat(repairedTables).containsExactly(TABLE_REFERENCE);
+
+        repairScheduler.close();
+    }
+
     @Test (expected = EcChronosException.class)
     public void testScheduleRepairOnNonExistentKeyspaceTable() throws EcChronosException
     {
@@ -60,6 +60,7 @@ public class TestOnDemandStatus extends AbstractCassandraTest
     private static final String TABLE_REFERENCE_COLUMN_NAME = "table_reference";
     private static final String TOKEN_MAP_HASH_COLUMN_NAME = "token_map_hash";
     private static final String REPAIRED_TOKENS_COLUMN_NAME = "repaired_tokens";
+    private static final String COMPLETED_TOKENS_COLUMN_NAME = "completed_tokens";
     private static final String UDT_TABLE_REFERENCE_NAME = "table_reference";
     private static final String UDT_ID_NAME = "id";
     private static final String UDT_KAYSPACE_NAME = "keyspace_name";
@@ -81,7 +82,7 @@ public class TestOnDemandStatus extends AbstractCassandraTest
         mySession.execute(String.format("CREATE KEYSPACE IF NOT EXISTS %s WITH replication = {'class': 'NetworkTopologyStrategy', 'DC1': 1}", KEYSPACE_NAME ));
         mySession.execute(String.format("CREATE TYPE IF NOT EXISTS %s.token_range (start text, end text)", KEYSPACE_NAME));
         mySession.execute(String.format("CREATE TYPE IF NOT EXISTS %s.table_reference (id uuid, keyspace_name text, table_name text)", KEYSPACE_NAME));
-        mySession.execute(String.format("CREATE TABLE IF NOT EXISTS %s.%s (host_id uuid, job_id uuid, table_reference frozen<table_reference>, token_map_hash int, repaired_tokens frozen<set<frozen<token_range>>>, status text, completed_time timestamp, PRIMARY KEY(host_id, job_id)) WITH default_time_to_live = 2592000 AND gc_grace_seconds = 0", KEYSPACE_NAME, TABLE_NAME));
+        mySession.execute(String.format("CREATE TABLE IF NOT EXISTS %s.%s (host_id uuid, job_id uuid, table_reference frozen<table_reference>, token_map_hash int, repaired_tokens frozen<set<frozen<token_range>>>, completed_tokens set<frozen<token_range>>, status text, completed_time timestamp, PRIMARY KEY(host_id, job_id)) WITH default_time_to_live = 2592000 AND gc_grace_seconds = 0", KEYSPACE_NAME, TABLE_NAME));
         mySession.execute(String.format("CREATE TABLE IF NOT EXISTS %s.%s (col1 int, col2 int, PRIMARY KEY(col1))", KEYSPACE_NAME, TEST_TABLE_NAME));
 
         myTableReferenceFactory = new TableReferenceFactoryImpl(mySession.getCluster().getMetadata());
@@ -141,6 +142,7 @@ public class TestOnDemandStatus extends AbstractCassandraTest
         assertThat(uDTTableReference.getString(UDT_TABLE_NAME)).isEqualTo(tableReference.getTable());
         assertThat(row.getInt(TOKEN_MAP_HASH_COLUMN_NAME)).isEqualTo(hashValue);
         assertThat(row.getSet(REPAIRED_TOKENS_COLUMN_NAME, UDTValue.class)).isEmpty();
+        assertThat(row.getSet(COMPLETED_TOKENS_COLUMN_NAME, UDTValue.class)).isEmpty();
         assertThat(row.getString(STATUS_COLUMN_NAME)).isEqualTo(STATUS_STARTED);
         assertThat(row.get(COMPLEDED_TIME_COLUMN_NAME, Long.class)).isNull();
     }
@@ -158,7 +160,7 @@ public class TestOnDemandStatus extends AbstractCassandraTest
 
         Set<UDTValue> repairedTokens = new HashSet<>();
         repairedTokens.add(onDemandStatus.createUDTTokenRangeValue(-50L, 700L));
-        onDemandStatus.updateJob(jobId, repairedTokens);
+        onDemandStatus.updateJob(jobId, repairedTokens).getUninterruptibly();
 
         ResultSet result = mySession.execute("SELECT * FROM " + KEYSPACE_NAME + "." + TABLE_NAME);
 
@@ -174,7 +176,7 @@ public class TestOnDemandStatus extends AbstractCassandraTest
         assertThat(uDTTableReference.getUUID(UDT_ID_NAME)).isEqualTo(tableReference.getId());
         assertThat(uDTTableReference.getString(UDT_KAYSPACE_NAME)).isEqualTo(tableReference.getKeyspace());
         assertThat(row.getInt(TOKEN_MAP_HASH_COLUMN_NAME)).isEqualTo(hashValue);
-        assertThat(row.getSet(REPAIRED_TOKENS_COLUMN_NAME, UDTValue.class)).isEqualTo(repairedTokens);
+        assertThat(row.getSet(COMPLETED_TOKENS_COLUMN_NAME, UDTValue.class)).isEqualTo(repairedTokens);
         assertThat(row.getString(STATUS_COLUMN_NAME)).isEqualTo(STATUS_STARTED);
         assertThat(row.get(COMPLEDED_TIME_COLUMN_NAME, Long.class)).isNull();
     }
@@ -192,7 +194,7 @@ public class TestOnDemandStatus extends AbstractCassandraTest
 
         Set<UDTValue> repairedTokens = new HashSet<>();
         repairedTokens.add(onDemandStatus.createUDTTokenRangeValue(-50L, 700L));
-        onDemandStatus.updateJob(jobId, repairedTokens);
+        onDemandStatus.updateJob(jobId, repairedTokens).getUninterruptibly();
 
         onDemandStatus.finishJob(jobId);
 
@@ -210,7 +212,7 @@ public class TestOnDemandStatus extends AbstractCassandraTest
         assertThat(uDTTableReference.getUUID(UDT_ID_NAME)).isEqualTo(tableReference.getId());
         assertThat(uDTTableReference.getString(UDT_KAYSPACE_NAME)).isEqualTo(tableReference.getKeyspace());
         assertThat(row.getInt(TOKEN_MAP_HASH_COLUMN_NAME)).isEqualTo(hashValue);
-        assertThat(row.getSet(REPAIRED_TOKENS_COLUMN_NAME, UDTValue.class)).isEqualTo(repairedTokens);
+        assertThat(row.getSet(COMPLETED_TOKENS_COLUMN_NAME, UDTValue.class)).isEqualTo(repairedTokens);
         assertThat(row.getString(STATUS_COLUMN_NAME)).isEqualTo(STATUS_FINISHED);
         assertThat(row.get(COMPLEDED_TIME_COLUMN_NAME, Long.class)).isNotNull();
     }
@@ -228,7 +230,7 @@ public class TestOnDemandStatus extends AbstractCassandraTest
 
         Set<UDTValue> repairedTokens = new HashSet<>();
         repairedTokens.add(onDemandStatus.createUDTTokenRangeValue(-50L, 700L));
-        onDemandStatus.updateJob(jobId, repairedTokens);
+        onDemandStatus.updateJob(jobId, repairedTokens).getUninterruptibly();
 
         onDemandStatus.failJob(jobId);
 
@@ -246,7 +248,7 @@ public class TestOnDemandStatus extends AbstractCassandraTest
         assertThat(uDTTableReference.getUUID(UDT_ID_NAME)).isEqualTo(tableReference.getId());
         assertThat(uDTTableReference.getString(UDT_KAYSPACE_NAME)).isEqualTo(tableReference.getKeyspace());
         assertThat(row.getInt(TOKEN_MAP_HASH_COLUMN_NAME)).isEqualTo(hashValue);
-        assertThat(row.getSet(REPAIRED_TOKENS_COLUMN_NAME, UDTValue.class)).isEqualTo(repairedTokens);
+        assertThat(row.getSet(COMPLETED_TOKENS_COLUMN_NAME, UDTValue.class)).isEqualTo(repairedTokens);
         assertThat(row.getString(STATUS_COLUMN_NAME)).isEqualTo(STATUS_FAILED);
         assertThat(row.get(COMPLEDED_TIME_COLUMN_NAME, Long.class)).isNotNull();
     }
@@ -323,7 +325,7 @@ public class TestOnDemandStatus extends AbstractCassandraTest
         expectedRepairedTokens.add(new LongTokenRange(-50L, 700L));
         Set<UDTValue> repairedTokens = new HashSet<>();
         repairedTokens.add(onDemandStatus.createUDTTokenRangeValue(-50L, 700L));
-        onDemandStatus.updateJob(jobId, repairedTokens);
+        onDemandStatus.updateJob(jobId, repairedTokens).getUninterruptibly();
 
         Set<OngoingJob> ongoingJobs = onDemandStatus.getOngoingJobs(myReplicationState);
 
@@ -336,6 +338,64 @@ public class TestOnDemandStatus extends AbstractCassandraTest
         assertThat(ongoingJob.getCompletedTime()).isEqualTo(-1L);
     }
 
+    @Test
+    public void testGetOngoingJobsWithMultipleUpdates()
+    {
+        OnDemandStatus onDemandStatus = new OnDemandStatus(getNativeConnectionProvider());
+
+        UUID jobId = UUID.randomUUID();
+        int hashValue = 1;
+        TableReference tableReference = myTableReferenceFactory.forTable(KEYSPACE_NAME, TEST_TABLE_NAME);
+        Map<LongTokenRange, ImmutableSet<Node>> tokenMap = new HashMap<>();
+        when(myReplicationState.getTokenRangeToReplicas(tableReference)).thenReturn(tokenMap );
+        onDemandStatus.addNewJob(jobId, tableReference, hashValue);
+
+        Set<LongTokenRange> expectedRepairedTokens = new HashSet<>();
+        expectedRepairedTokens.add(new LongTokenRange(-50L, 700L));
+        expectedRepairedTokens.add(new LongTokenRange(700L, 1000L));
+        Set<UDTValue> firstRepairedTokens = new HashSet<>();
+        firstRepairedTokens.add(onDemandStatus.createUDTTokenRangeValue(-50L, 700L));
+        onDemandStatus.updateJob(jobId, firstRepairedTokens).getUninterruptibly();
+        Set<UDTValue> secondRepairedTokens = new HashSet<>();
+        secondRepairedTokens.add(onDemandStatus.createUDTTokenRangeValue(700L, 1000L));
+        onDemandStatus.updateJob(jobId, secondRepairedTokens).getUninterruptibly();
+
+        Set<OngoingJob> ongoingJobs = onDemandStatus.getOngoingJobs(myReplicationState);
+
+        OngoingJob ongoingJob = ongoingJobs.iterator().next();
+        assertThat(ongoingJob.getJobId()).isEqualTo(jobId);
+        assertThat(ongoingJob.getRepairedTokens()).isEqualTo(expectedRepairedTokens);
+        assertThat(ongoingJob.getStatus()).isEqualTo(Status.started);
+    }
+
+    @Test
+    public void testGetOngoingJobsWithLegacyRepairedTokens()
+    {
+        OnDemandStatus onDemandStatus = new OnDemandStatus(getNativeConnectionProvider());
+
+        UUID jobId = UUID.randomUUID();
+        int hashValue = 1;
+        TableReference tableReference = myTableReferenceFactory.forTable(KEYSPACE_NAME, TEST_TABLE_NAME);
+        Map<LongTokenRange, ImmutableSet<Node>> tokenMap = new HashMap<>();
+        when(myReplicationState.getTokenRangeToReplicas(tableReference)).thenReturn(tokenMap );
+        onDemandStatus.addNewJob(jobId, tableReference, hashValue);
+
+        Set<LongTokenRange> expectedRepairedTokens = new HashSet<>();
+        expectedRepairedTokens.add(new LongTokenRange(-50L, 700L));
+        expectedRepairedTokens.add(new LongTokenRange(700L, 1000L));
+        mySession.execute(String.format("UPDATE %s.%s SET %s = {{start: '-50', end: '700'}} WHERE host_id = %s AND job_id = %s",
+                KEYSPACE_NAME, TABLE_NAME, REPAIRED_TOKENS_COLUMN_NAME, myHostId, jobId));
+        Set<UDTValue> repairedTokens = new HashSet<>();
+        repairedTokens.add(onDemandStatus.createUDTTokenRangeValue(700L, 1000L));
+        onDemandStatus.updateJob(jobId, repairedTokens).getUninterruptibly();
+
+        Set<OngoingJob> ongoingJobs = onDemandStatus.getOngoingJobs(myReplicationState);
+
+        OngoingJob ongoingJob = ongoingJobs.iterator().next();
+        assertThat(ongoingJob.getJobId()).isEqualTo(jobId);
+        assertThat(ongoingJob.getRepairedTokens()).isEqualTo(expectedRepairedTokens);
+    }
+
     @Test
     public void testGetOngoingJobsWithFinishedJob()
     {
@@ -352,7 +412,7 @@ public class TestOnDemandStatus extends AbstractCassandraTest
         expectedRepairedTokens.add(new LongTokenRange(-50L, 700L));
         Set<UDTValue> repairedTokens = new HashSet<>();
         repairedTokens.add(onDemandStatus.createUDTTokenRangeValue(-50L, 700L));
-        onDemandStatus.updateJob(jobId, repairedTokens);
+        onDemandStatus.updateJob(jobId, repairedTokens).getUninterruptibly();
         onDemandStatus.finishJob(jobId);
 
         Set<OngoingJob> ongoingJobs = onDemandStatus.getOngoingJobs(myReplicationState);
@@ -376,7 +436,7 @@ public class TestOnDemandStatus extends AbstractCassandraTest
         expectedRepairedTokens.add(new LongTokenRange(-50L, 700L));
         Set<UDTValue> repairedTokens = new HashSet<>();
         repairedTokens.add(onDemandStatus.createUDTTokenRangeValue(-50L, 700L));
-        onDemandStatus.updateJob(jobId, repairedTokens);
+        onDemandStatus.updateJob(jobId, repairedTokens).getUninterruptibly();
         onDemandStatus.failJob(jobId);
 
         Set<OngoingJob> ongoingJobs = onDemandStatus.getOngoingJobs(myReplicationState);
@@ -456,7 +516,7 @@ public class TestOnDemandStatus extends AbstractCassandraTest
         expectedRepairedTokens.add(new LongTokenRange(-50L, 700L));
         Set<UDTValue> repairedTokens = new HashSet<>();
         repairedTokens.add(onDemandStatus.createUDTTokenRangeValue(-50L, 700L));
-        onDemandStatus.updateJob(jobId, repairedTokens);
+        onDemandStatus.updateJob(jobId, repairedTokens).getUninterruptibly();
 
         Set<OngoingJob> ongoingJobs = onDemandStatus.getAllJobs(myReplicationState);
 
@@ -485,7 +545,7 @@ public class TestOnDemandStatus extends AbstractCassandraTest
         expectedRepairedTokens.add(new LongTokenRange(-50L, 700L));
         Set<UDTValue> repairedTokens = new HashSet<>();
         repairedTokens.add(onDemandStatus.createUDTTokenRangeValue(-50L, 700L));
-        onDemandStatus.updateJob(jobId, repairedTokens);
+        onDemandStatus.updateJob(jobId, repairedTokens).getUninterruptibly();
         onDemandStatus.finishJob(jobId);
 
         Set<OngoingJob> ongoingJobs = onDemandStatus.getAllJobs(myReplicationState);
@@ -515,7 +575,7 @@ public class TestOnDemandStatus extends AbstractCassandraTest
         expectedRepairedTokens.add(new LongTokenRange(-50L, 700L));
         Set<UDTValue> repairedTokens = new HashSet<>();
         repairedTokens.add(onDemandStatus.createUDTTokenRangeValue(-50L, 700L));
-        onDemandStatus.updateJob(jobId, repairedTokens);
+        onDemandStatus.updateJob(jobId, repairedTokens).getUninterruptibly();
         onDemandStatus.failJob(jobId);
 
         Set<OngoingJob> ongoingJobs = onDemandStatus.getAllJobs(myReplicationState);
@@ -159,6 +159,36 @@ public class TestOngoingJob
         assertThat(rangeSet).containsOnly(myUdtValue);
     }
 
+    @Test
+    public void testFinishRangeOnlyStoresNewRanges()
+    {
+        UUID jobId = UUID.randomUUID();
+        Set<UDTValue> repairedTokens = new HashSet<>();
+        repairedTokens.add(myUdtValue);
+        UDTValue newUdtValue = mock(UDTValue.class);
+
+        when(myOnDemandStatus.getStartTokenFrom(myUdtValue)).thenReturn(-50L);
+        when(myOnDemandStatus.getEndTokenFrom(myUdtValue)).thenReturn(700L);
+        when(myOnDemandStatus.getStartTokenFrom(newUdtValue)).thenReturn(700L);
+        when(myOnDemandStatus.getEndTokenFrom(newUdtValue)).thenReturn(1000L);
+
+        OngoingJob ongoingJob = new OngoingJob.Builder()
+                .withOnDemandStatus(myOnDemandStatus)
+                .withReplicationState(myReplicationState)
+                .withTableReference(myTableReference)
+                .withOngoingJobInfo(jobId, myTokenMap.keySet().hashCode(), repairedTokens, Status.started, null)
+                .build();
+
+        Set<LongTokenRange> finishedRanges = new HashSet<>();
+        finishedRanges.add(new LongTokenRange(700L, 1000L));
+        when(myOnDemandStatus.createUDTTokenRangeValue(700L, 1000L)).thenReturn(newUdtValue);
+        ongoingJob.finishRanges(finishedRanges);
+
+        verify(myOnDemandStatus).updateJob(eq(jobId), myUdtSetCaptor.capture());
+        assertThat(myUdtSetCaptor.getValue()).containsOnly(newUdtValue);
+        assertThat(ongoingJob.getRepairedTokens()).containsOnly(new LongTokenRange(-50L, 700L), new LongTokenRange(700L, 1000L));
+    }
+
     @Test
     public void testFinishJob()
     {
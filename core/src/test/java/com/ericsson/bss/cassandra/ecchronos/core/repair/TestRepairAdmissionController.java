@@ -0,0 +1,146 @@
+/*
+ * Copyright 2021 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecchronos.core.repair;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import com.ericsson.bss.cassandra.ecchronos.core.JmxProxy;
+import com.ericsson.bss.cassandra.ecchronos.core.JmxProxyFactory;
+
+@RunWith(MockitoJUnitRunner.class)
+public class TestRepairAdmissionController
+{
+    @Mock
+    private JmxProxyFactory myJmxProxyFactory;
+
+    @Mock
+    private JmxProxy myJmxProxy;
+
+    @Mock
+    private RepairTaskMonitor myRepairTaskMonitor;
+
+    @Before
+    public void setup() throws IOException
+    {
+        when(myJmxProxyFactory.connect()).thenReturn(myJmxProxy);
+    }
+
+    @Test
+    public void testConfiguredMaxConcurrentRepairs()
+    {
+        RepairAdmissionController admissionController = RepairAdmissionController.builder()
+                .withJmxProxyFactory(myJmxProxyFactory)
+                .withMaxConcurrentRepairs(3)
+                .withAvailableProcessors(4)
+                .build();
+
+        assertThat(admissionController.getMaxConcurrentJobs()).isEqualTo(3);
+    }
+
+    @Test
+    public void testMaxConcurrentRepairsFromAvailableProcessors()
+    {
+        RepairAdmissionController admissionController = RepairAdmissionController.builder()
+                .withJmxProxyFactory(myJmxProxyFactory)
+                .withMaxConcurrentRepairs(0)
+                .withAvailableProcessors(32)
+                .build();
+
+        assertThat(admissionController.getMaxConcurrentJobs()).isEqualTo(4);
+    }
+
+    @Test
+    public void testMaxConcurrentRepairsFromFewAvailableProcessors()
+    {
+        RepairAdmissionController admissionController = RepairAdmissionController.builder()
+                .withJmxProxyFactory(myJmxProxyFactory)
+                .withMaxConcurrentRepairs(0)
+                .withAvailableProcessors(2)
+                .build();
+
+        assertThat(admissionController.getMaxConcurrentJobs()).isEqualTo(1);
+    }
+
+    @Test
+    public void testAdmitWithLowValidationBacklog()
+    {
+        when(myJmxProxy.getValidationBacklog()).thenReturn(7L);
+
+        assertThat(admissionController(16).admit(1)).isTrue();
+    }
+
+    @Test
+    public void testNotAdmittedWithHighValidationBacklog()
+    {
+        when(myJmxProxy.getValidationBacklog()).thenReturn(8L);
+
+        assertThat(admissionController(16).admit(1)).isFalse();
+    }
+
+    @Test
+    public void testNotAdmittedWithUnknownValidationBacklog()
+    {
+        when(myJmxProxy.getValidationBacklog()).thenReturn(-1L);
+
+        assertThat(admissionController(16).admit(1)).isFalse();
+    }
+
+    @Test
+    public void testNotAdmittedWhenJmxUnavailable() throws IOException
+    {
+        when(myJmxProxyFactory.connect()).thenThrow(new IOException());
+
+        assertThat(admissionController(16).admit(1)).isFalse();
+    }
+
+    @Test
+    public void testNotAdmittedAboveMaxConcurrentRepairs() throws IOException
+    {
+        assertThat(admissionController(16).admit(2)).isFalse();
+
+        verify(myJmxProxyFactory, never()).connect();
+    }
+
+    @Test
+    public void testNotAdmittedWhileTerminationPending() throws IOException
+    {
+        when(myRepairTaskMonitor.isTerminationPending()).thenReturn(true);
+
+        assertThat(admissionController(16).admit(1)).isFalse();
+
+        verify(myJmxProxyFactory, never()).connect();
+    }
+
+    private RepairAdmissionController admissionController(int availableProcessors)
+    {
+        return RepairAdmissionController.builder()
+                .withJmxProxyFactory(myJmxProxyFactory)
+                .withMaxConcurrentRepairs(2)
+                .withAvailableProcessors(availableProcessors)
+                .withRepairTaskMonitor(myRepairTaskMonitor)
+                .build();
+    }
+}
@@ -29,6 +29,7 @@ public class TestRepairConfiguration
     private static final RepairOptions.RepairParallelism DEFAULT_REPAIR_PARALLELISM = RepairOptions.RepairParallelism.PARALLEL;
     private static final double DEFAULT_REPAIR_UNWIND_RATIO = 0.0d;
     private static final long DEFAULT_TARGET_REPAIR_SIZE_IN_BYTES = Long.MAX_VALUE;
+    private static final RepairOptions.RepairType DEFAULT_REPAIR_TYPE = RepairOptions.RepairType.VNODE;
 
     @Test
     public void testDefaultValues()
@@ -43,6 +44,7 @@ public class TestRepairConfiguration
         assertThat(repairConfiguration.getRepairErrorTimeInMs()).isEqualTo(DEFAULT_REPAIR_ERROR_TIME_IN_MS);
         assertThat(repairConfiguration.getRepairUnwindRatio()).isEqualTo(DEFAULT_REPAIR_UNWIND_RATIO);
         assertThat(repairConfiguration.getTargetRepairSizeInBytes()).isEqualTo(DEFAULT_TARGET_REPAIR_SIZE_IN_BYTES);
+        assertThat(repairConfiguration.getRepairType()).isEqualTo(DEFAULT_REPAIR_TYPE);
     }
 
     @Test
@@ -120,6 +122,22 @@ public class TestRepairConfiguration
         assertThat(repairConfiguration.getTargetRepairSizeInBytes()).isEqualTo(1024L);
     }
 
+    @Test
+    public void testSetRepairType()
+    {
+        RepairConfiguration repairConfiguration = RepairConfiguration.newBuilder()
+                .withRepairType(RepairOptions.RepairType.INCREMENTAL)
+                .build();
+
+        assertThat(repairConfiguration.getRepairParallelism()).isEqualTo(DEFAULT_REPAIR_PARALLELISM);
+        assertThat(repairConfiguration.getRepairIntervalInMs()).isEqualTo(DEFAULT_REPAIR_INTERVAL_IN_MS);
+        assertThat(repairConfiguration.getRepairUnwindRatio()).isEqualTo(DEFAULT_REPAIR_UNWIND_RATIO);
+        assertThat(repairConfiguration.getTargetRepairSizeInBytes()).isEqualTo(DEFAULT_TARGET_REPAIR_SIZE_IN_BYTES);
+        assertThat(repairConfiguration.getRepairType()).isEqualTo(RepairOptions.RepairType.INCREMENTAL);
+        assertThat(RepairConfiguration.newBuilder(repairConfiguration).build().getRepairType())
+                .isEqualTo(RepairOptions.RepairType.INCREMENTAL);
+    }
+
     @Test
     public void testEqualsContract()
     {
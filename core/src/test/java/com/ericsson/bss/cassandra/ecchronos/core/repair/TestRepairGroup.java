@@ -18,6 +18,7 @@ import static com.ericsson.bss.cassandra.ecchronos.core.MockTableReferenceFactor
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
@@ -30,6 +31,7 @@ import static org.mockito.Mockito.when;
 import java.math.BigInteger;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -47,7 +49,9 @@ import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 
 import com.ericsson.bss.cassandra.ecchronos.core.JmxProxyFactory;
+import com.ericsson.bss.cassandra.ecchronos.core.SizeEstimates;
 import com.ericsson.bss.cassandra.ecchronos.core.exceptions.LockException;
+import com.ericsson.bss.cassandra.ecchronos.core.metrics.RepairPhase;
 import com.ericsson.bss.cassandra.ecchronos.core.metrics.TableRepairMetrics;
 import com.ericsson.bss.cassandra.ecchronos.core.repair.state.RepairHistory;
 import com.ericsson.bss.cassandra.ecchronos.core.repair.state.ReplicaRepairGroup;
@@ -92,6 +96,9 @@ public class TestRepairGroup
     @Mock
     private RepairHistory.RepairSession myRepairSession;
 
+    @Mock
+    private SizeEstimates mySizeEstimates;
+
     private final UUID myJobId = UUID.randomUUID();
 
     private RepairConfiguration repairConfiguration;
@@ -134,6 +141,8 @@ public class TestRepairGroup
 
         verify(myRepairResourceFactory).getRepairResources(eq(replicaRepairGroup));
         verify(myRepairLockFactory).getLock(eq(myLockFactory), eq(repairResources), eq(metadata), eq(priority));
+        verify(myTableRepairMetrics).repairPhaseTiming(eq(tableReference), eq(RepairPhase.LOCK), anyLong(),
+                eq(TimeUnit.NANOSECONDS));
     }
 
     @Test
@@ -154,6 +163,8 @@ public class TestRepairGroup
 
         verify(myRepairResourceFactory).getRepairResources(eq(replicaRepairGroup));
         verify(myRepairLockFactory).getLock(eq(myLockFactory), eq(repairResources), eq(metadata), eq(priority));
+        verify(myTableRepairMetrics).repairPhaseTiming(eq(tableReference), eq(RepairPhase.LOCK), anyLong(),
+                eq(TimeUnit.NANOSECONDS));
     }
 
     @Test
@@ -180,6 +191,84 @@ public class TestRepairGroup
         assertThat(repairTask.getRepairConfiguration().getRepairParallelism()).isEqualTo(RepairOptions.RepairParallelism.PARALLEL);
     }
 
+    @Test
+    public void testGetLockForMultipleTables() throws LockException
+    {
+        TableReference otherTableReference = tableReference(keyspaceName, "other_table");
+        Map<String, String> metadata = new HashMap<>();
+        metadata.put("keyspace", keyspaceName);
+        metadata.put("table", tableName + ",other_table");
+        ReplicaRepairGroup replicaRepairGroup = new ReplicaRepairGroup(ImmutableSet.of(), ImmutableList.of());
+        Set<RepairResource> repairResources = Sets.newHashSet(new RepairResource("DC1", "my-resource"));
+
+        doReturn(repairResources).when(myRepairResourceFactory).getRepairResources(eq(replicaRepairGroup));
+        doReturn(new DummyLock()).when(myRepairLockFactory).getLock(eq(myLockFactory), eq(repairResources), eq(metadata), eq(priority));
+
+        RepairGroup repairGroup = builderFor(replicaRepairGroup)
+                .withTableReferences(Arrays.asList(tableReference, otherTableReference))
+                .build(priority);
+
+        repairGroup.getLock(myLockFactory);
+
+        verify(myRepairResourceFactory).getRepairResources(eq(replicaRepairGroup));
+        verify(myRepairLockFactory).getLock(eq(myLockFactory), eq(repairResources), eq(metadata), eq(priority));
+        verify(myTableRepairMetrics).repairPhaseTiming(eq(tableReference), eq(RepairPhase.LOCK), anyLong(),
+                eq(TimeUnit.NANOSECONDS));
+        verify(myTableRepairMetrics).repairPhaseTiming(eq(otherTableReference), eq(RepairPhase.LOCK), anyLong(),
+                eq(TimeUnit.NANOSECONDS));
+    }
+
+    @Test
+    public void testGetRepairTasksForMultipleTables()
+    {
+        TableReference otherTableReference = tableReference(keyspaceName, "other_table");
+        Node node = mockNode("DC1");
+        LongTokenRange range1 = new LongTokenRange(1, 2);
+        LongTokenRange range2 = new LongTokenRange(2, 3);
+
+        ReplicaRepairGroup replicaRepairGroup = new ReplicaRepairGroup(ImmutableSet.of(node),
+                ImmutableList.of(range1, range2));
+
+        RepairGroup repairGroup = builderFor(replicaRepairGroup)
+                .withTableReferences(Arrays.asList(tableReference, otherTableReference))
+                .build(priority);
+
+        Collection<RepairTask> repairTasks = repairGroup.getRepairTasks();
+
+        assertThat(repairTasks).hasSize(4);
+        assertThat(repairTasks).extracting(RepairTask::getTableReferences).containsExactly(
+                Collections.singletonList(tableReference),
+                Collections.singletonList(tableReference),
+                Collections.singletonList(otherTableReference),
+                Collections.singletonList(otherTableReference));
+        assertThat(repairTasks).flatExtracting(RepairTask::getTokenRanges)
+                .containsExactly(range1, range2, range1, range2);
+    }
+
+    @Test
+    public void testGetCombinedRepairTasksForMultipleTables()
+    {
+        TableReference otherTableReference = tableReference(keyspaceName, "other_table");
+        Node node = mockNode("DC1");
+        LongTokenRange range1 = new LongTokenRange(1, 2);
+        LongTokenRange range2 = new LongTokenRange(2, 3);
+
+        ReplicaRepairGroup replicaRepairGroup = new ReplicaRepairGroup(ImmutableSet.of(node),
+                ImmutableList.of(range1, range2));
+
+        RepairGroup repairGroup = builderFor(replicaRepairGroup)
+                .withTableReferences(Arrays.asList(tableReference, otherTableReference))
+                .withCombinedRepairSessions(true)
+                .build(priority);
+
+        Collection<RepairTask> repairTasks = repairGroup.getRepairTasks();
+
+        assertThat(repairTasks).hasSize(2);
+        assertThat(repairTasks).extracting(RepairTask::getTableReferences)
+                .containsOnly(Arrays.asList(tableReference, otherTableReference));
+        assertThat(repairTasks).flatExtracting(RepairTask::getTokenRanges).containsExactly(range1, range2);
+    }
+
     @Test
     public void testGetRepairTaskWithSubRange()
     {
@@ -222,6 +311,88 @@ public class TestRepairGroup
         }
     }
 
+    @Test
+    public void testGetIncrementalRepairTask()
+    {
+        // setup
+        Node node = mockNode("DC1");
+        LongTokenRange range1 = new LongTokenRange(0, 5);
+        LongTokenRange range2 = new LongTokenRange(10, 15);
+
+        ImmutableSet<Node> nodes = ImmutableSet.of(node);
+
+        ReplicaRepairGroup replicaRepairGroup = new ReplicaRepairGroup(nodes, ImmutableList.of(range1, range2));
+        RepairConfiguration repairConfiguration = RepairConfiguration.newBuilder()
+                .withRepairType(RepairOptions.RepairType.INCREMENTAL)
+                .build();
+
+        RepairGroup repairGroup = builderFor(replicaRepairGroup)
+                .withRepairConfiguration(repairConfiguration)
+                .withTokensPerRepair(BigInteger.ONE)
+                .build(priority);
+
+        Collection<RepairTask> repairTasks = repairGroup.getRepairTasks();
+
+        assertThat(repairTasks).hasSize(1);
+        RepairTask repairTask = repairTasks.iterator().next();
+
+        assertThat(repairTask.getReplicas()).containsExactlyInAnyOrderElementsOf(nodes);
+        assertThat(repairTask.getTokenRanges()).containsExactlyInAnyOrder(range1, range2);
+        assertThat(repairTask.getRepairConfiguration()).isEqualTo(repairConfiguration);
+    }
+
+    @Test
+    public void testGetRepairTaskWithSizeEstimates()
+    {
+        LongTokenRange largeVnode = new LongTokenRange(0, 10);
+        LongTokenRange smallVnode = new LongTokenRange(10, 20);
+        LongTokenRange unknownVnode = new LongTokenRange(20, 30);
+
+        List<LongTokenRange> expectedTokenRanges = Arrays.asList(
+                new LongTokenRange(0, 4),
+                new LongTokenRange(4, 8),
+                new LongTokenRange(8, 10),
+                new LongTokenRange(10, 20),
+                new LongTokenRange(20, 25),
+                new LongTokenRange(25, 30)
+        );
+
+        // setup
+        Node node = mockNode("DC1");
+        ImmutableSet<Node> nodes = ImmutableSet.of(node);
+
+        ReplicaRepairGroup replicaRepairGroup = new ReplicaRepairGroup(nodes, ImmutableList.of(largeVnode, smallVnode, unknownVnode));
+
+        when(mySizeEstimates.getDataSize(eq(tableReference), eq(largeVnode))).thenReturn(120L);
+        when(mySizeEstimates.getDataSize(eq(tableReference), eq(smallVnode))).thenReturn(20L);
+        when(mySizeEstimates.getDataSize(eq(tableReference), eq(unknownVnode))).thenReturn(-1L);
+
+        RepairConfiguration sizeTargetConfiguration = RepairConfiguration.newBuilder()
+                .withParallelism(RepairOptions.RepairParallelism.PARALLEL)
+                .withTargetRepairSizeInBytes(50)
+                .build();
+
+        RepairGroup repairGroup = builderFor(replicaRepairGroup)
+                .withRepairConfiguration(sizeTargetConfiguration)
+                .withTokensPerRepair(BigInteger.valueOf(5))
+                .withSizeEstimates(mySizeEstimates)
+                .build(priority);
+
+        Collection<RepairTask> repairTasks = repairGroup.getRepairTasks();
+
+        assertThat(repairTasks).hasSize(expectedTokenRanges.size());
+        Iterator<RepairTask> iterator = repairTasks.iterator();
+
+        for (LongTokenRange expectedRange : expectedTokenRanges)
+        {
+            assertThat(iterator.hasNext()).isTrue();
+            RepairTask repairTask = iterator.next();
+
+            assertThat(repairTask.getReplicas()).containsExactlyInAnyOrderElementsOf(nodes);
+            assertThat(repairTask.getTokenRanges()).containsExactly(expectedRange);
+        }
+    }
+
     @Test
     public void testGetPartialRepairTasks()
     {
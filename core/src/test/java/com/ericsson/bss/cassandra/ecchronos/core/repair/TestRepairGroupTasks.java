@@ -41,6 +41,7 @@ import java.util.function.BiConsumer;
 
 import javax.management.Notification;
 import javax.management.NotificationListener;
+import javax.management.remote.JMXConnectionNotification;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -176,6 +177,138 @@ public class TestRepairGroupTasks
         verify(repairSessions.get(range(2, 3)), never()).finish(RepairStatus.FAILED);
     }
 
+    @Test (timeout = 1000L)
+    public void testExecuteRetriesUnknownRanges() throws Exception
+    {
+        ReplicaRepairGroup replicaRepairGroup = new ReplicaRepairGroup(ImmutableSet.of(withNode("127.0.0.1")),
+                ImmutableList.of(range(1, 2)));
+
+        CustomJmxProxy jmxProxy = new CustomJmxProxy((notificationListener, i) -> {
+            if (i == 1) // First repair completes without reporting the range
+            {
+                complete(notificationListener);
+            }
+            else
+            {
+                progressAndComplete(notificationListener, range(1, 2));
+            }
+        });
+        when(mockJmxProxyFactory.connect()).thenReturn(jmxProxy);
+
+        RepairGroup repairGroup = builderFor(replicaRepairGroup).build(priority);
+
+        assertThat(repairGroup.execute()).isTrue();
+        assertThat(jmxProxy.repairCount.get()).isEqualTo(2);
+    }
+
+    @Test (timeout = 1000L)
+    public void testExecuteRetriesRangesAfterLostNotification() throws Exception
+    {
+        ReplicaRepairGroup replicaRepairGroup = new ReplicaRepairGroup(ImmutableSet.of(withNode("127.0.0.1")),
+                ImmutableList.of(range(1, 2)));
+
+        CustomJmxProxy jmxProxy = new CustomJmxProxy((notificationListener, i) -> {
+            if (i == 1)
+            {
+                notificationListener.handleNotification(new Notification(JMXConnectionNotification.NOTIFS_LOST, "", 0), null);
+            }
+            progressAndComplete(notificationListener, range(1, 2));
+        });
+        when(mockJmxProxyFactory.connect()).thenReturn(jmxProxy);
+
+        RepairGroup repairGroup = builderFor(replicaRepairGroup).build(priority);
+
+        assertThat(repairGroup.execute()).isTrue();
+        assertThat(jmxProxy.repairCount.get()).isEqualTo(2);
+    }
+
+    @Test (timeout = 1000L)
+    public void testExecuteRetryAttemptsExhausted() throws Exception
+    {
+        ReplicaRepairGroup replicaRepairGroup = new ReplicaRepairGroup(ImmutableSet.of(withNode("127.0.0.1")),
+                ImmutableList.of(range(1, 2)));
+
+        CustomJmxProxy jmxProxy = new CustomJmxProxy((notificationListener, i) -> complete(notificationListener));
+        when(mockJmxProxyFactory.connect()).thenReturn(jmxProxy);
+
+        RepairGroup repairGroup = builderFor(replicaRepairGroup).build(priority);
+
+        assertThat(repairGroup.execute()).isFalse();
+        assertThat(jmxProxy.repairCount.get()).isEqualTo(1 + RepairGroup.DEFAULT_RETRY_ATTEMPTS);
+    }
+
+    @Test (timeout = 1000L)
+    public void testExecuteWithoutRetryAttempts() throws Exception
+    {
+        ReplicaRepairGroup replicaRepairGroup = new ReplicaRepairGroup(ImmutableSet.of(withNode("127.0.0.1")),
+                ImmutableList.of(range(1, 2)));
+
+        CustomJmxProxy jmxProxy = new CustomJmxProxy((notificationListener, i) -> complete(notificationListener));
+        when(mockJmxProxyFactory.connect()).thenReturn(jmxProxy);
+
+        RepairGroup repairGroup = builderFor(replicaRepairGroup)
+                .withRetryAttempts(0)
+                .build(priority);
+
+        assertThat(repairGroup.execute()).isFalse();
+        assertThat(jmxProxy.repairCount.get()).isEqualTo(1);
+    }
+
+    @Test (timeout = 1000L)
+    public void testExecutePreemptedAfterFirstTask() throws Exception
+    {
+        ReplicaRepairGroup replicaRepairGroup = new ReplicaRepairGroup(ImmutableSet.of(withNode("127.0.0.1")),
+                ImmutableList.of(range(1, 2), range(2, 3)));
+        AtomicBoolean preempted = new AtomicBoolean(false);
+
+        CustomJmxProxy jmxProxy = new CustomJmxProxy((notificationListener, i) -> {
+            progressAndComplete(notificationListener, i == 1 ? range(1, 2) : range(2, 3));
+            preempted.set(true);
+        });
+        when(mockJmxProxyFactory.connect()).thenReturn(jmxProxy);
+
+        RepairGroup repairGroup = preemptibleRepairGroup(builderFor(replicaRepairGroup).withPreemptible(true), preempted);
+
+        assertThat(repairGroup.execute()).isFalse();
+        assertThat(repairGroup.wasPreempted()).isTrue();
+        assertThat(jmxProxy.repairCount.get()).isEqualTo(1);
+        verify(repairSessions.get(range(1, 2))).finish(RepairStatus.SUCCESS);
+        verify(repairSessions.get(range(2, 3)), never()).start();
+    }
+
+    @Test (timeout = 1000L)
+    public void testExecuteNotPreemptible() throws Exception
+    {
+        ReplicaRepairGroup replicaRepairGroup = new ReplicaRepairGroup(ImmutableSet.of(withNode("127.0.0.1")),
+                ImmutableList.of(range(1, 2), range(2, 3)));
+        AtomicBoolean preempted = new AtomicBoolean(false);
+
+        CustomJmxProxy jmxProxy = new CustomJmxProxy((notificationListener, i) -> {
+            progressAndComplete(notificationListener, i == 1 ? range(1, 2) : range(2, 3));
+            preempted.set(true);
+        });
+        when(mockJmxProxyFactory.connect()).thenReturn(jmxProxy);
+
+        RepairGroup repairGroup = preemptibleRepairGroup(builderFor(replicaRepairGroup), preempted);
+
+        assertThat(repairGroup.execute()).isTrue();
+        assertThat(repairGroup.wasPreempted()).isFalse();
+        assertThat(jmxProxy.repairCount.get()).isEqualTo(2);
+        verify(repairSessions.get(range(2, 3))).finish(RepairStatus.SUCCESS);
+    }
+
+    private RepairGroup preemptibleRepairGroup(RepairGroup.Builder builder, AtomicBoolean preempted)
+    {
+        return new RepairGroup(priority, builder)
+        {
+            @Override
+            protected boolean isPreempted()
+            {
+                return preempted.get();
+            }
+        };
+    }
+
     private RepairGroup.Builder builderFor(ReplicaRepairGroup replicaRepairGroup)
     {
         return RepairGroup.newBuilder()
@@ -206,6 +339,13 @@ public class TestRepairGroupTasks
         notificationListener.handleNotification(notification, null);
     }
 
+    private void complete(NotificationListener notificationListener)
+    {
+        Notification notification = new Notification("progress", "repair:0", 0, "Done with repair");
+        notification.setUserData(getNotificationData(RepairTask.ProgressEventType.COMPLETE.ordinal(), 1, 1));
+        notificationListener.handleNotification(notification, null);
+    }
+
     private LongTokenRange range(long start, long end)
     {
         return new LongTokenRange(start, end);
@@ -275,7 +415,7 @@ public class TestRepairGroupTasks
         @Override
         public void forceTerminateAllRepairSessions()
         {
-            throw new UnsupportedOperationException();
+            // Nothing to terminate
         }
 
         @Override
@@ -290,6 +430,18 @@ public class TestRepairGroupTasks
             throw new UnsupportedOperationException();
         }
 
+        @Override
+        public double getPercentRepaired(TableReference tableReference)
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public long getValidationBacklog()
+        {
+            throw new UnsupportedOperationException();
+        }
+
         @Override
         public void close()
         {
@@ -14,12 +14,14 @@
  */
 package com.ericsson.bss.cassandra.ecchronos.core.repair;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyMap;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -27,6 +29,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.IntUnaryOperator;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -227,6 +230,103 @@ public class TestRepairLockFactoryImpl
         verify(mockLock, never()).close();
     }
 
+    @Test
+    public void testMultipleSlotsStartsFromRandomSlot() throws LockException
+    {
+        RepairResource repairResource = new RepairResource("DC1", "my-resource");
+        RepairLockFactoryImpl repairLockFactory = new RepairLockFactoryImpl(3, slotSelector(3, 1));
+        Map<String, String> metadata = Collections.singletonMap("metadatakey", "metadatavalue");
+        int priority = 1;
+
+        withSufficientNodesForLocking(repairResource);
+        withSuccessfulLocking(repairResource, 2, priority, metadata);
+
+        repairLockFactory.getLock(mockLockFactory, Sets.newHashSet(repairResource), metadata, priority);
+
+        verify(mockLockFactory).tryLock(eq("DC1"), eq(repairResource.getResourceName(2)), eq(priority), eq(metadata));
+        verify(mockLockFactory, never()).tryLock(eq("DC1"), eq(repairResource.getResourceName(1)), anyInt(), anyMap());
+        verify(mockLockFactory, never()).tryLock(eq("DC1"), eq(repairResource.getResourceName(3)), anyInt(), anyMap());
+    }
+
+    @Test
+    public void testMultipleSlotsTriesNextSlot() throws LockException
+    {
+        RepairResource repairResource = new RepairResource("DC1", "my-resource");
+        RepairLockFactoryImpl repairLockFactory = new RepairLockFactoryImpl(3, slotSelector(3, 2));
+        Map<String, String> metadata = Collections.singletonMap("metadatakey", "metadatavalue");
+        int priority = 1;
+
+        withSufficientNodesForLocking(repairResource);
+        withUnsuccessfulLocking(repairResource, 3, priority, metadata);
+        withSuccessfulLocking(repairResource, 1, priority, metadata);
+
+        repairLockFactory.getLock(mockLockFactory, Sets.newHashSet(repairResource), metadata, priority);
+
+        verify(mockLockFactory).tryLock(eq("DC1"), eq(repairResource.getResourceName(3)), eq(priority), eq(metadata));
+        verify(mockLockFactory).tryLock(eq("DC1"), eq(repairResource.getResourceName(1)), eq(priority), eq(metadata));
+        verify(mockLockFactory, never()).tryLock(eq("DC1"), eq(repairResource.getResourceName(2)), anyInt(), anyMap());
+        verify(mockLock, never()).close();
+    }
+
+    @Test
+    public void testMultipleSlotsAllFailing() throws LockException
+    {
+        RepairResource repairResource = new RepairResource("DC1", "my-resource");
+        RepairLockFactoryImpl repairLockFactory = new RepairLockFactoryImpl(2, slotSelector(2, 0));
+        Map<String, String> metadata = Collections.singletonMap("metadatakey", "metadatavalue");
+        int priority = 1;
+
+        withSufficientNodesForLocking(repairResource);
+        withUnsuccessfulLocking(repairResource, 1, priority, metadata);
+        withUnsuccessfulLocking(repairResource, 2, priority, metadata);
+
+        verifyExceptionIsThrownWhenGettingLock(repairLockFactory, priority, metadata, repairResource);
+        verify(mockLockFactory, times(2)).tryLock(anyString(), anyString(), anyInt(), anyMap());
+    }
+
+    @Test
+    public void testMultipleSlotsOneSlotHasCachedFailure() throws LockException
+    {
+        RepairResource repairResource = new RepairResource("DC1", "my-resource");
+        RepairLockFactoryImpl repairLockFactory = new RepairLockFactoryImpl(2, slotSelector(2, 0));
+        Map<String, String> metadata = Collections.singletonMap("metadatakey", "metadatavalue");
+        int priority = 1;
+
+        withUnsuccessfulCachedLock(repairResource, 1);
+        withSufficientNodesForLocking(repairResource);
+        withUnsuccessfulLocking(repairResource, 1, priority, metadata);
+        withSuccessfulLocking(repairResource, 2, priority, metadata);
+
+        repairLockFactory.getLock(mockLockFactory, Sets.newHashSet(repairResource), metadata, priority);
+
+        verify(mockLockFactory).tryLock(eq("DC1"), eq(repairResource.getResourceName(2)), eq(priority), eq(metadata));
+    }
+
+    @Test
+    public void testMultipleSlotsAllSlotsHaveCachedFailure() throws LockException
+    {
+        RepairResource repairResource = new RepairResource("DC1", "my-resource");
+        RepairLockFactoryImpl repairLockFactory = new RepairLockFactoryImpl(2, slotSelector(2, 0));
+        Map<String, String> metadata = Collections.singletonMap("metadatakey", "metadatavalue");
+        int priority = 1;
+
+        withUnsuccessfulCachedLock(repairResource, 1);
+        withUnsuccessfulCachedLock(repairResource, 2);
+        withSufficientNodesForLocking(repairResource);
+
+        verifyExceptionIsThrownWhenGettingLock(repairLockFactory, priority, metadata, repairResource);
+        verifyNoLockWasTried();
+    }
+
+    private static IntUnaryOperator slotSelector(int expectedBound, int slot)
+    {
+        return bound ->
+        {
+            assertThat(bound).isEqualTo(expectedBound);
+            return slot;
+        };
+    }
+
     private void verifyNoLockWasTried() throws LockException
     {
         verify(mockLockFactory, never()).tryLock(anyString(), anyString(), anyInt(), anyMap());
@@ -255,17 +355,32 @@ public class TestRepairLockFactoryImpl
 
     private void withUnsuccessfulCachedLock(RepairResource repairResource)
     {
-        when(mockLockFactory.getCachedFailure(eq(repairResource.getDataCenter()), eq(repairResource.getResourceName(LOCKS_PER_RESOURCE)))).thenReturn(Optional.of(new LockException("")));
+        withUnsuccessfulCachedLock(repairResource, LOCKS_PER_RESOURCE);
+    }
+
+    private void withUnsuccessfulCachedLock(RepairResource repairResource, int slot)
+    {
+        when(mockLockFactory.getCachedFailure(eq(repairResource.getDataCenter()), eq(repairResource.getResourceName(slot)))).thenReturn(Optional.of(new LockException("")));
     }
 
     private void withSuccessfulLocking(RepairResource repairResource, int priority, Map<String, String> metadata) throws LockException
     {
-        when(mockLockFactory.tryLock(eq(repairResource.getDataCenter()), eq(repairResource.getResourceName(LOCKS_PER_RESOURCE)), eq(priority), eq(metadata))).thenReturn(mockLock);
+        withSuccessfulLocking(repairResource, LOCKS_PER_RESOURCE, priority, metadata);
+    }
+
+    private void withSuccessfulLocking(RepairResource repairResource, int slot, int priority, Map<String, String> metadata) throws LockException
+    {
+        when(mockLockFactory.tryLock(eq(repairResource.getDataCenter()), eq(repairResource.getResourceName(slot)), eq(priority), eq(metadata))).thenReturn(mockLock);
     }
 
     private void withUnsuccessfulLocking(RepairResource repairResource, int priority, Map<String, String> metadata) throws LockException
     {
-        when(mockLockFactory.tryLock(eq(repairResource.getDataCenter()), eq(repairResource.getResourceName(LOCKS_PER_RESOURCE)), eq(priority), eq(metadata))).thenThrow(new LockException(""));
+        withUnsuccessfulLocking(repairResource, LOCKS_PER_RESOURCE, priority, metadata);
+    }
+
+    private void withUnsuccessfulLocking(RepairResource repairResource, int slot, int priority, Map<String, String> metadata) throws LockException
+    {
+        when(mockLockFactory.tryLock(eq(repairResource.getDataCenter()), eq(repairResource.getResourceName(slot)), eq(priority), eq(metadata))).thenThrow(new LockException(""));
     }
 
     private void withUnexpectedLockingFailure(RepairResource repairResource, int priority, Map<String, String> metadata, Class exceptionClass) throws LockException
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2021 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecchronos.core.repair;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.ericsson.bss.cassandra.ecchronos.core.utils.LongTokenRange;
+
+public class TestRepairProgressParser
+{
+    private final List<LongTokenRange> myFinishedRanges = new ArrayList<>();
+
+    @Test
+    public void testSingleRange()
+    {
+        assertThat(parse("Repair session 5b5c0530-95d7-11e9-a7fd-9b8c1b3a9c8c for range [(1,2]] finished")).isTrue();
+
+        assertThat(myFinishedRanges).containsExactly(new LongTokenRange(1, 2));
+    }
+
+    @Test
+    public void testMultipleRanges()
+    {
+        assertThat(parse("Repair session RepairSession for range [(-10,-5], (-5,0], (0,12]] finished")).isTrue();
+
+        assertThat(myFinishedRanges).containsExactly(
+                new LongTokenRange(-10, -5),
+                new LongTokenRange(-5, 0),
+                new LongTokenRange(0, 12));
+    }
+
+    @Test
+    public void testLimits()
+    {
+        assertThat(parse("Repair session s for range [(-9223372036854775808,9223372036854775807]] finished")).isTrue();
+
+        assertThat(myFinishedRanges).containsExactly(new LongTokenRange(Long.MIN_VALUE, Long.MAX_VALUE));
+    }
+
+    @Test
+    public void testOutOfLimits()
+    {
+        assertThat(parse("Repair session s for range [(-9223372036854775809,1]] finished")).isFalse();
+        assertThat(parse("Repair session s for range [(1,9223372036854775808]] finished")).isFalse();
+        assertThat(parse("Repair session s for range [(1,12345678901234567890]] finished")).isFalse();
+
+        assertThat(myFinishedRanges).isEmpty();
+    }
+
+    @Test
+    public void testFailedSession()
+    {
+        assertThat(parse("Repair session RepairSession for range [(1,2]] failed with error ...")).isFalse();
+
+        assertThat(myFinishedRanges).isEmpty();
+    }
+
+    @Test
+    public void testInvalidMessages()
+    {
+        assertThat(parse("Done with repair")).isFalse();
+        assertThat(parse("Repair session  for range [(1,2]] finished")).isFalse();
+        assertThat(parse("Repair session a.b for range [(1,2]] finished")).isFalse();
+        assertThat(parse("Repair session s for range [] finished")).isFalse();
+        assertThat(parse("Repair session s for range [(1,2)] finished")).isFalse();
+        assertThat(parse("Repair session s for range [(1,a]] finished")).isFalse();
+        assertThat(parse("Repair session s for range [(1,]] finished")).isFalse();
+        assertThat(parse("Repair session s for range [(-,2]] finished")).isFalse();
+        assertThat(parse("Repair session s for range [(1,2],(2,3]] finished")).isFalse();
+        assertThat(parse("Repair session s for range [(1,2] (2,3]] finished")).isFalse();
+
+        assertThat(myFinishedRanges).isEmpty();
+    }
+
+    @Test
+    public void testInvalidLaterRangeDoesNotReportEarlierRanges()
+    {
+        assertThat(parse("Repair session s for range [(1,2], (2,x]] finished")).isFalse();
+
+        assertThat(myFinishedRanges).isEmpty();
+    }
+
+    private boolean parse(String message)
+    {
+        return RepairProgressParser.parseFinishedRanges(message,
+                (start, end) -> myFinishedRanges.add(new LongTokenRange(start, end)));
+    }
+}
@@ -20,17 +20,24 @@ import com.ericsson.bss.cassandra.ecchronos.core.metrics.TableRepairMetrics;
 import com.ericsson.bss.cassandra.ecchronos.core.repair.state.*;
 import com.ericsson.bss.cassandra.ecchronos.core.scheduling.ScheduleManager;
 import com.ericsson.bss.cassandra.ecchronos.core.scheduling.ScheduledJob;
+import com.ericsson.bss.cassandra.ecchronos.core.scheduling.ScheduledTask;
+import com.ericsson.bss.cassandra.ecchronos.core.utils.LongTokenRange;
+import com.ericsson.bss.cassandra.ecchronos.core.utils.Node;
 import com.ericsson.bss.cassandra.ecchronos.core.utils.TableReference;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static com.ericsson.bss.cassandra.ecchronos.core.MockTableReferenceFactory.tableReference;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -43,6 +50,8 @@ public class TestRepairSchedulerImpl
 {
     private static final TableReference TABLE_REFERENCE = tableReference("keyspace", "table");
     private static final TableReference TABLE_REFERENCE2 = tableReference("keyspace", "table2");
+    private static final TableReference TABLE_REFERENCE3 = tableReference("keyspace", "table3");
+    private static final TableReference OTHER_KEYSPACE_TABLE_REFERENCE = tableReference("keyspace2", "table");
     private static final VnodeRepairState VNODE_REPAIR_STATE = TestUtils.createVnodeRepairState(1, 2, ImmutableSet.of(), System.currentTimeMillis());
 
     @Mock
@@ -100,6 +109,27 @@ public class TestRepairSchedulerImpl
         verifyNoMoreInteractions(scheduleManager);
     }
 
+    @Test
+    public void testConfigureNewTableWithStateRefreshThreads()
+    {
+        RepairSchedulerImpl repairSchedulerImpl = defaultRepairSchedulerImplBuilder()
+                .withStateRefreshThreads(1)
+                .withStateRefreshInterval(10, TimeUnit.MILLISECONDS)
+                .build();
+
+        repairSchedulerImpl.putConfiguration(TABLE_REFERENCE, RepairConfiguration.DEFAULT);
+
+        verify(scheduleManager, timeout(1000)).schedule(any(ScheduledJob.class));
+        verify(myRepairState, timeout(1000).atLeast(3)).update();
+
+        repairSchedulerImpl.removeConfiguration(TABLE_REFERENCE);
+        verify(scheduleManager, timeout(1000)).deschedule(any(ScheduledJob.class));
+
+        repairSchedulerImpl.close();
+        clearInvocations(myRepairState);
+        verify(myRepairState, after(100).never()).update();
+    }
+
     @Test
     public void testConfigureTwoTables()
     {
@@ -207,6 +237,132 @@ public class TestRepairSchedulerImpl
         verifyNoMoreInteractions(scheduleManager);
     }
 
+    @Test
+    public void testCoalescedTables()
+    {
+        ReplicaRepairGroup replicaRepairGroup = mockReplicaRepairGroup();
+        when(myTableStorageStates.getDataSize(eq(TABLE_REFERENCE))).thenReturn(10L);
+        when(myTableStorageStates.getDataSize(eq(TABLE_REFERENCE2))).thenReturn(20L);
+        when(myTableStorageStates.getDataSize(eq(TABLE_REFERENCE3))).thenReturn(80L);
+        when(myTableStorageStates.getDataSize(eq(OTHER_KEYSPACE_TABLE_REFERENCE))).thenReturn(10L);
+        RepairSchedulerImpl repairSchedulerImpl = defaultRepairSchedulerImplBuilder()
+                .withCoalescingSizeThreshold(100L)
+                .build();
+
+        List<TableRepairJob> jobs = scheduleJobs(repairSchedulerImpl, TABLE_REFERENCE, TABLE_REFERENCE2,
+                TABLE_REFERENCE3, OTHER_KEYSPACE_TABLE_REFERENCE);
+
+        assertThat(repairSchedulerImpl.getCoalescedTables(jobs.get(0), replicaRepairGroup))
+                .containsExactly(TABLE_REFERENCE2);
+        assertThat(repairSchedulerImpl.getCoalescedTables(jobs.get(2), replicaRepairGroup))
+                .containsExactly(TABLE_REFERENCE);
+        assertThat(repairSchedulerImpl.getCoalescedTables(jobs.get(3), replicaRepairGroup)).isEmpty();
+
+        repairSchedulerImpl.close();
+    }
+
+    @Test
+    public void testCoalescedTableNotRepairedAgain()
+    {
+        ReplicaRepairGroup replicaRepairGroup = mockReplicaRepairGroup();
+        RepairState coalescedRepairState = mock(RepairState.class);
+        RepairStateSnapshot coalescedRepairStateSnapshot = mock(RepairStateSnapshot.class);
+        when(coalescedRepairStateSnapshot.canRepair()).thenReturn(true);
+        when(coalescedRepairStateSnapshot.getRepairGroups()).thenReturn(Collections.singletonList(replicaRepairGroup));
+        AtomicReference<RepairStateSnapshot> coalescedSnapshot = new AtomicReference<>(coalescedRepairStateSnapshot);
+        when(coalescedRepairState.getSnapshot()).thenAnswer(invocation -> coalescedSnapshot.get());
+        RepairSchedulerImpl repairSchedulerImpl = defaultRepairSchedulerImplBuilder()
+                .withCoalescingSizeThreshold(100L)
+                .build();
+
+        repairSchedulerImpl.putConfiguration(TABLE_REFERENCE, RepairConfiguration.DEFAULT);
+        verify(scheduleManager, timeout(1000)).schedule(any(ScheduledJob.class));
+        when(myRepairStateFactory.create(eq(TABLE_REFERENCE2), any(), any())).thenReturn(coalescedRepairState);
+        repairSchedulerImpl.putConfiguration(TABLE_REFERENCE2, RepairConfiguration.DEFAULT);
+        ArgumentCaptor<TableRepairJob> jobCaptor = ArgumentCaptor.forClass(TableRepairJob.class);
+        verify(scheduleManager, timeout(1000).times(2)).schedule(jobCaptor.capture());
+        TableRepairJob job = jobCaptor.getAllValues().get(0);
+        TableRepairJob coalescedJob = jobCaptor.getAllValues().get(1);
+
+        RepairStateSnapshot repairedSnapshot = mock(RepairStateSnapshot.class);
+        doAnswer(invocation -> {
+            coalescedSnapshot.set(repairedSnapshot);
+            return null;
+        }).when(coalescedRepairState).update();
+
+        ScheduledTask task = job.iterator().next();
+        assertThat(((RepairGroup) task).getTableReferences()).containsExactly(TABLE_REFERENCE, TABLE_REFERENCE2);
+        job.postExecute(true, task);
+
+        assertThat(coalescedJob.iterator().hasNext()).isFalse();
+        assertThat(coalescedJob.runnable()).isFalse();
+
+        repairSchedulerImpl.close();
+    }
+
+    @Test
+    public void testCoalescedTablesWithLargeTable()
+    {
+        ReplicaRepairGroup replicaRepairGroup = mockReplicaRepairGroup();
+        when(myTableStorageStates.getDataSize(eq(TABLE_REFERENCE))).thenReturn(200L);
+        RepairSchedulerImpl repairSchedulerImpl = defaultRepairSchedulerImplBuilder()
+                .withCoalescingSizeThreshold(100L)
+                .build();
+
+        List<TableRepairJob> jobs = scheduleJobs(repairSchedulerImpl, TABLE_REFERENCE, TABLE_REFERENCE2);
+
+        assertThat(repairSchedulerImpl.getCoalescedTables(jobs.get(0), replicaRepairGroup)).isEmpty();
+        assertThat(repairSchedulerImpl.getCoalescedTables(jobs.get(1), replicaRepairGroup)).isEmpty();
+
+        repairSchedulerImpl.close();
+    }
+
+    @Test
+    public void testCoalescedTablesWithDifferentConfiguration()
+    {
+        ReplicaRepairGroup replicaRepairGroup = mockReplicaRepairGroup();
+        RepairSchedulerImpl repairSchedulerImpl = defaultRepairSchedulerImplBuilder()
+                .withCoalescingSizeThreshold(100L)
+                .build();
+        RepairConfiguration otherRepairConfiguration = RepairConfiguration.newBuilder()
+                .withRepairInterval(1, TimeUnit.DAYS)
+                .build();
+
+        repairSchedulerImpl.putConfiguration(TABLE_REFERENCE, RepairConfiguration.DEFAULT);
+        repairSchedulerImpl.putConfiguration(TABLE_REFERENCE2, otherRepairConfiguration);
+
+        ArgumentCaptor<TableRepairJob> jobCaptor = ArgumentCaptor.forClass(TableRepairJob.class);
+        verify(scheduleManager, timeout(1000).times(2)).schedule(jobCaptor.capture());
+
+        assertThat(repairSchedulerImpl.getCoalescedTables(jobCaptor.getAllValues().get(0), replicaRepairGroup))
+                .isEmpty();
+
+        repairSchedulerImpl.close();
+    }
+
+    private List<TableRepairJob> scheduleJobs(RepairSchedulerImpl repairSchedulerImpl,
+            TableReference... tableReferences)
+    {
+        for (TableReference tableReference : tableReferences)
+        {
+            when(myRepairStateFactory.create(eq(tableReference), any(), any())).thenReturn(myRepairState);
+            repairSchedulerImpl.putConfiguration(tableReference, RepairConfiguration.DEFAULT);
+        }
+
+        ArgumentCaptor<TableRepairJob> jobCaptor = ArgumentCaptor.forClass(TableRepairJob.class);
+        verify(scheduleManager, timeout(1000).times(tableReferences.length)).schedule(jobCaptor.capture());
+        return jobCaptor.getAllValues();
+    }
+
+    private ReplicaRepairGroup mockReplicaRepairGroup()
+    {
+        ReplicaRepairGroup replicaRepairGroup = new ReplicaRepairGroup(ImmutableSet.of(mock(Node.class)),
+                ImmutableList.of(new LongTokenRange(1, 2)));
+        when(myRepairStateSnapshot.canRepair()).thenReturn(true);
+        when(myRepairStateSnapshot.getRepairGroups()).thenReturn(Collections.singletonList(replicaRepairGroup));
+        return replicaRepairGroup;
+    }
+
     private void assertOneTableViewExist(RepairScheduler repairScheduler, TableReference tableReference, RepairConfiguration repairConfiguration)
     {
         List<RepairJobView> repairJobViews = repairScheduler.getCurrentRepairJobs();
@@ -16,12 +16,15 @@ package com.ericsson.bss.cassandra.ecchronos.core.repair;
 
 import static com.ericsson.bss.cassandra.ecchronos.core.MockTableReferenceFactory.tableReference;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.awaitility.Awaitility.await;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeast;
 import static org.mockito.Mockito.ignoreStubs;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
@@ -41,6 +44,7 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.management.Notification;
 import javax.management.NotificationListener;
@@ -56,13 +60,18 @@ import org.mockito.junit.MockitoJUnitRunner;
 import com.ericsson.bss.cassandra.ecchronos.core.JmxProxy;
 import com.ericsson.bss.cassandra.ecchronos.core.JmxProxyFactory;
 import com.ericsson.bss.cassandra.ecchronos.core.exceptions.ScheduledJobException;
+import com.ericsson.bss.cassandra.ecchronos.core.metrics.RepairPhase;
 import com.ericsson.bss.cassandra.ecchronos.core.metrics.TableRepairMetrics;
 import com.ericsson.bss.cassandra.ecchronos.core.repair.RepairTask.ProgressEventType;
+import com.ericsson.bss.cassandra.ecchronos.core.repair.state.RepairEntry;
 import com.ericsson.bss.cassandra.ecchronos.core.repair.state.RepairHistory;
+import com.ericsson.bss.cassandra.ecchronos.core.repair.state.RepairHistoryProvider;
 import com.ericsson.bss.cassandra.ecchronos.core.repair.state.RepairStatus;
 import com.ericsson.bss.cassandra.ecchronos.core.utils.LongTokenRange;
 import com.ericsson.bss.cassandra.ecchronos.core.utils.Node;
 import com.ericsson.bss.cassandra.ecchronos.core.utils.TableReference;
+import com.google.common.base.Predicate;
+import com.google.common.collect.Iterators;
 import com.google.common.collect.Sets;
 
 @RunWith(MockitoJUnitRunner.Silent.class)
@@ -109,6 +118,8 @@ public class TestRepairTask
     @After
     public void finalVerification()
     {
+        verify(myTableRepairMetrics, atLeast(0)).repairPhaseTiming(eq(TABLE_REFERENCE), any(RepairPhase.class),
+                anyLong(), eq(TimeUnit.NANOSECONDS));
         verifyNoMoreInteractions(ignoreStubs(myTableRepairMetrics));
     }
 
@@ -153,12 +164,65 @@ public class TestRepairTask
         assertThat(proxy.myOptions.get(RepairOptions.RANGES_KEY)).isNotEmpty();
 
         verify(myTableRepairMetrics).repairTiming(eq(TABLE_REFERENCE), anyLong(), any(TimeUnit.class), eq(true));
+        verify(myTableRepairMetrics, times(2)).repairPhaseTiming(eq(TABLE_REFERENCE), eq(RepairPhase.HISTORY),
+                anyLong(), eq(TimeUnit.NANOSECONDS));
+        verify(myTableRepairMetrics).repairPhaseTiming(eq(TABLE_REFERENCE), eq(RepairPhase.SUBMIT), anyLong(),
+                eq(TimeUnit.NANOSECONDS));
+        verify(myTableRepairMetrics).repairPhaseTiming(eq(TABLE_REFERENCE), eq(RepairPhase.WAIT), anyLong(),
+                eq(TimeUnit.NANOSECONDS));
+        verify(myTableRepairMetrics).repairPhaseTiming(eq(TABLE_REFERENCE), eq(RepairPhase.UNWIND), anyLong(),
+                eq(TimeUnit.NANOSECONDS));
         verify(repairSessions.get(range1)).start();
         verify(repairSessions.get(range2)).start();
         verify(repairSessions.get(range1)).finish(eq(RepairStatus.SUCCESS));
         verify(repairSessions.get(range2)).finish(eq(RepairStatus.SUCCESS));
     }
 
+    @Test
+    public void testRepairMultipleTablesSuccessfully() throws InterruptedException
+    {
+        TableReference otherTableReference = tableReference(KEYSPACE_NAME, "other_table");
+        RepairHistory.RepairSession otherRepairSession = mock(RepairHistory.RepairSession.class);
+        when(repairHistory.newSession(eq(otherTableReference), eq(jobId), any(), eq(participants)))
+                .thenReturn(otherRepairSession);
+
+        LongTokenRange range = new LongTokenRange(1, 2);
+
+        final RepairTask repairTask = new RepairTask.Builder()
+                .withJMXProxyFactory(jmxProxyFactory)
+                .withTableReferences(Arrays.asList(myTableReference, otherTableReference))
+                .withTokenRanges(Collections.singletonList(range))
+                .withTableRepairMetrics(myTableRepairMetrics)
+                .withRepairHistory(repairHistory)
+                .withJobId(jobId)
+                .withReplicas(participants)
+                .build();
+
+        CountDownLatch cdl = startRepair(repairTask, false);
+
+        Notification notification = new Notification("progress", "repair:1", 0, getRepairMessage(range));
+        notification.setUserData(getNotificationData(RepairTask.ProgressEventType.PROGRESS.ordinal(), 1, 2));
+        proxy.notify(notification);
+
+        notification = new Notification("progress", "repair:1", 1, "Done with repair");
+        notification.setUserData(getNotificationData(RepairTask.ProgressEventType.COMPLETE.ordinal(), 2, 2));
+        proxy.notify(notification);
+
+        cdl.await();
+
+        assertThat(repairTask.getUnknownRanges()).isNull();
+        assertThat(proxy.myOptions.get(RepairOptions.COLUMNFAMILIES_KEY)).isEqualTo(TABLE_NAME + ",other_table");
+
+        verify(myTableRepairMetrics).repairTiming(eq(TABLE_REFERENCE), anyLong(), any(TimeUnit.class), eq(true));
+        verify(myTableRepairMetrics).repairTiming(eq(otherTableReference), anyLong(), any(TimeUnit.class), eq(true));
+        verify(myTableRepairMetrics, times(5)).repairPhaseTiming(eq(otherTableReference), any(RepairPhase.class),
+                anyLong(), eq(TimeUnit.NANOSECONDS));
+        verify(repairSessions.get(range)).start();
+        verify(repairSessions.get(range)).finish(eq(RepairStatus.SUCCESS));
+        verify(otherRepairSession).start();
+        verify(otherRepairSession).finish(eq(RepairStatus.SUCCESS));
+    }
+
     @Test
     public void testRepairSingleRangeSuccessfully() throws InterruptedException
     {
@@ -287,6 +351,110 @@ public class TestRepairTask
         verify(repairSessions.get(range2)).finish(eq(RepairStatus.FAILED));
     }
 
+    @Test
+    public void testLostNotificationWithoutRepairHistoryProvider() throws InterruptedException
+    {
+        LongTokenRange range1 = new LongTokenRange(1, 2);
+        LongTokenRange range2 = new LongTokenRange(3, 4);
+
+        final RepairTask repairTask = new RepairTask.Builder()
+                .withJMXProxyFactory(jmxProxyFactory)
+                .withTableReference(myTableReference)
+                .withTokenRanges(Arrays.asList(range1, range2))
+                .withTableRepairMetrics(myTableRepairMetrics)
+                .withRepairHistory(repairHistory)
+                .withJobId(jobId)
+                .withReplicas(participants)
+                .build();
+
+        CountDownLatch cdl = startRepair(repairTask, true);
+
+        notifyProgress(range1, 1);
+        proxy.notify(new Notification(JMXConnectionNotification.NOTIFS_LOST, "repair:1", 1));
+        notifyProgress(range2, 2);
+        notifyComplete();
+
+        cdl.await();
+
+        assertThat(repairTask.getUnknownRanges()).containsExactlyInAnyOrder(range1, range2);
+
+        verify(myTableRepairMetrics).repairTiming(eq(TABLE_REFERENCE), anyLong(), any(TimeUnit.class), eq(false));
+    }
+
+    @Test
+    public void testLostNotificationRecoveredFromRepairHistory() throws InterruptedException
+    {
+        LongTokenRange range1 = new LongTokenRange(1, 2);
+        LongTokenRange range2 = new LongTokenRange(3, 4);
+
+        RepairHistoryProvider repairHistoryProvider = mockRepairHistoryProvider(
+                new RepairEntry(range2, System.currentTimeMillis(), participants, "SUCCESS"));
+
+        final RepairTask repairTask = new RepairTask.Builder()
+                .withJMXProxyFactory(jmxProxyFactory)
+                .withTableReference(myTableReference)
+                .withTokenRanges(Arrays.asList(range1, range2))
+                .withTableRepairMetrics(myTableRepairMetrics)
+                .withRepairHistory(repairHistory)
+                .withRepairHistoryProvider(repairHistoryProvider)
+                .withJobId(jobId)
+                .withReplicas(participants)
+                .build();
+
+        CountDownLatch cdl = startRepair(repairTask, false);
+
+        notifyProgress(range1, 1);
+        proxy.notify(new Notification(JMXConnectionNotification.NOTIFS_LOST, "repair:1", 1));
+        notifyComplete();
+
+        cdl.await();
+
+        assertThat(repairTask.getUnknownRanges()).isNull();
+        assertThat(repairTask.getCompletedRanges()).containsExactlyInAnyOrder(range1, range2);
+
+        verify(myTableRepairMetrics).repairTiming(eq(TABLE_REFERENCE), anyLong(), any(TimeUnit.class), eq(true));
+        verify(repairSessions.get(range1)).finish(eq(RepairStatus.SUCCESS));
+        verify(repairSessions.get(range2)).finish(eq(RepairStatus.SUCCESS));
+    }
+
+    @Test
+    public void testLostNotificationPartiallyRecoveredFromRepairHistory() throws InterruptedException
+    {
+        LongTokenRange range1 = new LongTokenRange(1, 2);
+        LongTokenRange range2 = new LongTokenRange(3, 4);
+        LongTokenRange range3 = new LongTokenRange(5, 6);
+
+        RepairHistoryProvider repairHistoryProvider = mockRepairHistoryProvider(
+                new RepairEntry(range2, System.currentTimeMillis(), participants, "SUCCESS"),
+                new RepairEntry(range3, System.currentTimeMillis(), participants, "FAILED"));
+
+        final RepairTask repairTask = new RepairTask.Builder()
+                .withJMXProxyFactory(jmxProxyFactory)
+                .withTableReference(myTableReference)
+                .withTokenRanges(Arrays.asList(range1, range2, range3))
+                .withTableRepairMetrics(myTableRepairMetrics)
+                .withRepairHistory(repairHistory)
+                .withRepairHistoryProvider(repairHistoryProvider)
+                .withJobId(jobId)
+                .withReplicas(participants)
+                .build();
+
+        CountDownLatch cdl = startRepair(repairTask, true);
+
+        notifyProgress(range1, 1);
+        proxy.notify(new Notification(JMXConnectionNotification.NOTIFS_LOST, "repair:1", 1));
+        notifyComplete();
+
+        cdl.await();
+
+        assertThat(repairTask.getUnknownRanges()).containsExactly(range3);
+        assertThat(repairTask.getCompletedRanges()).containsExactlyInAnyOrder(range1, range2);
+
+        verify(myTableRepairMetrics).repairTiming(eq(TABLE_REFERENCE), anyLong(), any(TimeUnit.class), eq(false));
+        verify(repairSessions.get(range2)).finish(eq(RepairStatus.SUCCESS));
+        verify(repairSessions.get(range3)).finish(eq(RepairStatus.FAILED));
+    }
+
     @Test
     public void testPartialRepair() throws InterruptedException
     {
@@ -355,7 +523,270 @@ public class TestRepairTask
         verify(repairSessions.get(range)).finish(eq(RepairStatus.SUCCESS));
     }
 
+    @Test
+    public void testShouldMatchProgressNotificationPatternWithMultipleRanges()
+    {
+        LongTokenRange range1 = new LongTokenRange(1, 2);
+        LongTokenRange range2 = new LongTokenRange(-5, -3);
+
+        final RepairTask repairTask = new RepairTask.Builder()
+                .withJMXProxyFactory(jmxProxyFactory)
+                .withTableReference(myTableReference)
+                .withTokenRanges(Arrays.asList(range1, range2))
+                .withTableRepairMetrics(myTableRepairMetrics)
+                .withRepairHistory(repairHistory)
+                .withJobId(jobId)
+                .withReplicas(participants)
+                .build();
+
+        repairTask.progress(ProgressEventType.PROGRESS, 1, 1, getRepairMessage(range1, range2));
+
+        assertThat(repairTask.getCompletedRanges()).containsExactlyInAnyOrder(range1, range2);
+        verify(repairSessions.get(range1)).finish(eq(RepairStatus.SUCCESS));
+        verify(repairSessions.get(range2)).finish(eq(RepairStatus.SUCCESS));
+    }
+
+    @Test
+    public void testShouldMatchProgressNotificationPatternWithManyRanges()
+    {
+        List<LongTokenRange> ranges = new ArrayList<>();
+        for (int i = 0; i < 200; i++)
+        {
+            ranges.add(new LongTokenRange(i * 10, i * 10 + 10));
+        }
+
+        final RepairTask repairTask = new RepairTask.Builder()
+                .withJMXProxyFactory(jmxProxyFactory)
+                .withTableReference(myTableReference)
+                .withTokenRanges(ranges)
+                .withTableRepairMetrics(myTableRepairMetrics)
+                .withRepairHistory(repairHistory)
+                .withJobId(jobId)
+                .withReplicas(participants)
+                .build();
+
+        List<LongTokenRange> reportedRanges = ranges.subList(50, 150);
+        repairTask.progress(ProgressEventType.PROGRESS, 1, 2, getRepairMessage(reportedRanges.toArray(new LongTokenRange[0])));
+        repairTask.progress(ProgressEventType.PROGRESS, 2, 2, getRepairMessage(ranges.get(100)));
+
+        assertThat(repairTask.getCompletedRanges()).containsExactlyInAnyOrderElementsOf(reportedRanges);
+        for (LongTokenRange range : reportedRanges)
+        {
+            verify(repairSessions.get(range)).finish(eq(RepairStatus.SUCCESS));
+        }
+    }
+
+    @Test
+    public void testProgressOfOtherRepairDoesNotCountAsProgress() throws InterruptedException
+    {
+        LongTokenRange range = new LongTokenRange(1, 2);
+
+        final RepairTask repairTask = new RepairTask.Builder()
+                .withJMXProxyFactory(jmxProxyFactory)
+                .withTableReference(myTableReference)
+                .withTokenRanges(Collections.singletonList(range))
+                .withTableRepairMetrics(myTableRepairMetrics)
+                .withRepairHistory(repairHistory)
+                .withJobId(jobId)
+                .withReplicas(participants)
+                .build();
+
+        CountDownLatch cdl = startRepair(repairTask, false);
+        long startProgress = repairTask.getLastProgressNanos();
+
+        Notification notification = new Notification("progress", "repair:2", 0, getRepairMessage(range));
+        notification.setUserData(getNotificationData(RepairTask.ProgressEventType.PROGRESS.ordinal(), 1, 1));
+        proxy.notify(notification);
+
+        assertThat(repairTask.getLastProgressNanos()).isEqualTo(startProgress);
+
+        notification = new Notification("progress", "repair:1", 1, getRepairMessage(range));
+        notification.setUserData(getNotificationData(RepairTask.ProgressEventType.PROGRESS.ordinal(), 1, 1));
+        proxy.notify(notification);
+
+        assertThat(repairTask.getLastProgressNanos()).isGreaterThan(startProgress);
+
+        notification = new Notification("progress", "repair:1", 2, "Done with repair");
+        notification.setUserData(getNotificationData(RepairTask.ProgressEventType.COMPLETE.ordinal(), 1, 1));
+        proxy.notify(notification);
+
+        cdl.await();
+
+        assertThat(repairTask.getUnknownRanges()).isNull();
+        verify(myTableRepairMetrics).repairTiming(eq(TABLE_REFERENCE), anyLong(), any(TimeUnit.class), eq(true));
+        verify(repairSessions.get(range)).finish(eq(RepairStatus.SUCCESS));
+    }
+
+    @Test
+    public void testRepairTaskIsMonitoredByDefault() throws InterruptedException
+    {
+        LongTokenRange range = new LongTokenRange(1, 2);
+
+        final RepairTask repairTask = new RepairTask.Builder()
+                .withJMXProxyFactory(jmxProxyFactory)
+                .withTableReference(myTableReference)
+                .withTokenRanges(Collections.singletonList(range))
+                .withTableRepairMetrics(myTableRepairMetrics)
+                .withRepairHistory(repairHistory)
+                .withJobId(jobId)
+                .withReplicas(participants)
+                .build();
+
+        CountDownLatch cdl = startRepair(repairTask, false);
+
+        assertThat(RepairTaskMonitor.DEFAULT.isRegistered(repairTask)).isTrue();
+
+        notifyProgress(range, 1);
+        Notification notification = new Notification("progress", "repair:1", 2, "Done with repair");
+        notification.setUserData(getNotificationData(RepairTask.ProgressEventType.COMPLETE.ordinal(), 1, 1));
+        proxy.notify(notification);
+
+        cdl.await();
+
+        assertThat(RepairTaskMonitor.DEFAULT.isRegistered(repairTask)).isFalse();
+        verify(myTableRepairMetrics).repairTiming(eq(TABLE_REFERENCE), anyLong(), any(TimeUnit.class), eq(true));
+        verify(repairSessions.get(range)).finish(eq(RepairStatus.SUCCESS));
+    }
+
+    @Test
+    public void testRepairTaskWithoutMonitor()
+    {
+        RepairTask.Builder builder = new RepairTask.Builder()
+                .withJMXProxyFactory(jmxProxyFactory)
+                .withTableReference(myTableReference)
+                .withTokenRanges(Collections.singletonList(new LongTokenRange(1, 2)))
+                .withTableRepairMetrics(myTableRepairMetrics)
+                .withRepairHistory(repairHistory)
+                .withJobId(jobId)
+                .withReplicas(participants)
+                .withRepairTaskMonitor(null);
+
+        assertThatExceptionOfType(NullPointerException.class).isThrownBy(builder::build);
+    }
+
+    @Test
+    public void testHangingRepairDoesNotAbortConcurrentRepair() throws InterruptedException
+    {
+        LongTokenRange hangingRange = new LongTokenRange(1, 2);
+        LongTokenRange range = new LongTokenRange(3, 4);
+        long hangPreventTimeInNanos = TimeUnit.SECONDS.toNanos(1);
+
+        MockedJmxProxy otherProxy = new MockedJmxProxy(KEYSPACE_NAME, TABLE_NAME);
+        RepairTaskMonitor repairTaskMonitor = new RepairTaskMonitor(hangPreventTimeInNanos);
+
+        try
+        {
+            final RepairTask hangingRepairTask = new RepairTask.Builder()
+                    .withJMXProxyFactory(jmxProxyFactory)
+                    .withTableReference(myTableReference)
+                    .withTokenRanges(Collections.singletonList(hangingRange))
+                    .withTableRepairMetrics(myTableRepairMetrics)
+                    .withRepairHistory(repairHistory)
+                    .withJobId(jobId)
+                    .withReplicas(participants)
+                    .withRepairTaskMonitor(repairTaskMonitor)
+                    .build();
+
+            final RepairTask repairTask = new RepairTask.Builder()
+                    .withJMXProxyFactory(() -> otherProxy)
+                    .withTableReference(myTableReference)
+                    .withTokenRanges(Collections.singletonList(range))
+                    .withTableRepairMetrics(myTableRepairMetrics)
+                    .withRepairHistory(repairHistory)
+                    .withJobId(jobId)
+                    .withReplicas(participants)
+                    .withRepairTaskMonitor(repairTaskMonitor)
+                    .build();
+
+            CountDownLatch hangingCdl = startRepair(hangingRepairTask, true, proxy);
+            CountDownLatch cdl = startRepair(repairTask, false, otherProxy);
+
+            await().pollInterval(10, TimeUnit.MILLISECONDS).atMost(5, TimeUnit.SECONDS)
+                    .until(() -> System.nanoTime() - hangingRepairTask.getLastProgressNanos() > hangPreventTimeInNanos);
+
+            Notification notification = new Notification("progress", "repair:1", 0, getRepairMessage(range));
+            notification.setUserData(getNotificationData(RepairTask.ProgressEventType.PROGRESS.ordinal(), 1, 1));
+            otherProxy.notify(notification);
+
+            repairTaskMonitor.checkRepairTasks();
+            hangingCdl.await();
+
+            assertThat(hangingRepairTask.getUnknownRanges()).containsExactly(hangingRange);
+            assertThat(repairTaskMonitor.isTerminationPending()).isTrue();
+            assertThat(proxy.myTerminations.get()).isZero();
+            assertThat(otherProxy.myTerminations.get()).isZero();
+
+            notification = new Notification("progress", "repair:1", 1, "Done with repair");
+            notification.setUserData(getNotificationData(RepairTask.ProgressEventType.COMPLETE.ordinal(), 1, 1));
+            otherProxy.notify(notification);
+
+            cdl.await();
+
+            assertThat(repairTask.getUnknownRanges()).isNull();
+            assertThat(repairTask.getCompletedRanges()).containsExactly(range);
+            assertThat(repairTaskMonitor.isTerminationPending()).isFalse();
+            assertThat(proxy.myTerminations.get()).isEqualTo(1);
+            assertThat(otherProxy.myTerminations.get()).isZero();
+
+            verify(myTableRepairMetrics).repairTiming(eq(TABLE_REFERENCE), anyLong(), any(TimeUnit.class), eq(false));
+            verify(myTableRepairMetrics).repairTiming(eq(TABLE_REFERENCE), anyLong(), any(TimeUnit.class), eq(true));
+            verify(repairSessions.get(hangingRange)).finish(eq(RepairStatus.FAILED));
+            verify(repairSessions.get(range)).finish(eq(RepairStatus.SUCCESS));
+        }
+        finally
+        {
+            repairTaskMonitor.close();
+        }
+    }
+
+    @Test
+    public void testIncrementalRepairSuccessfully() throws InterruptedException
+    {
+        LongTokenRange range1 = new LongTokenRange(1, 2);
+        LongTokenRange range2 = new LongTokenRange(3, 4);
+
+        final RepairTask repairTask = new RepairTask.Builder()
+                .withJMXProxyFactory(jmxProxyFactory)
+                .withTableReference(myTableReference)
+                .withTokenRanges(Arrays.asList(range1, range2))
+                .withTableRepairMetrics(myTableRepairMetrics)
+                .withRepairConfiguration(RepairConfiguration.newBuilder()
+                        .withRepairType(RepairOptions.RepairType.INCREMENTAL)
+                        .build())
+                .withRepairHistory(repairHistory)
+                .withJobId(jobId)
+                .withReplicas(participants)
+                .build();
+
+        CountDownLatch cdl = startRepair(repairTask, false);
+
+        Notification notification = new Notification("progress", "repair:1", 0, getRepairMessage(range1, range2));
+        notification.setUserData(getNotificationData(RepairTask.ProgressEventType.PROGRESS.ordinal(), 1, 1));
+        proxy.notify(notification);
+
+        notification = new Notification("progress", "repair:1", 1, "Done with repair");
+        notification.setUserData(getNotificationData(RepairTask.ProgressEventType.COMPLETE.ordinal(), 1, 1));
+        proxy.notify(notification);
+
+        cdl.await();
+
+        assertThat(repairTask.getUnknownRanges()).isNull();
+        assertThat(repairTask.getCompletedRanges()).containsExactlyInAnyOrder(range1, range2);
+        assertThat(proxy.myOptions.get(RepairOptions.INCREMENTAL_KEY)).isEqualTo("true");
+        assertThat(proxy.myOptions).doesNotContainKeys(RepairOptions.RANGES_KEY, RepairOptions.HOSTS_KEY);
+
+        verify(myTableRepairMetrics).repairTiming(eq(TABLE_REFERENCE), anyLong(), any(TimeUnit.class), eq(true));
+        verify(repairSessions.get(range1)).finish(eq(RepairStatus.SUCCESS));
+        verify(repairSessions.get(range2)).finish(eq(RepairStatus.SUCCESS));
+    }
+
     private CountDownLatch startRepair(final RepairTask repairTask, final boolean assertFailed)
+    {
+        return startRepair(repairTask, assertFailed, proxy);
+    }
+
+    private CountDownLatch startRepair(final RepairTask repairTask, final boolean assertFailed,
+            final MockedJmxProxy jmxProxy)
     {
         final CountDownLatch cdl = new CountDownLatch(1);
 
@@ -380,11 +811,36 @@ public class TestRepairTask
             }
         }.start();
 
-        await().pollInterval(10, TimeUnit.MILLISECONDS).atMost(1, TimeUnit.SECONDS).until(() -> proxy.myListener != null);
+        await().pollInterval(10, TimeUnit.MILLISECONDS).atMost(1, TimeUnit.SECONDS).until(() -> jmxProxy.myListener != null);
 
         return cdl;
     }
 
+    private void notifyProgress(LongTokenRange range, int progressCount)
+    {
+        Notification notification = new Notification("progress", "repair:1", progressCount, getRepairMessage(range));
+        notification.setUserData(getNotificationData(RepairTask.ProgressEventType.PROGRESS.ordinal(), progressCount, 3));
+        proxy.notify(notification);
+    }
+
+    private void notifyComplete()
+    {
+        Notification notification = new Notification("progress", "repair:1", 4, "Done with repair");
+        notification.setUserData(getNotificationData(RepairTask.ProgressEventType.COMPLETE.ordinal(), 3, 3));
+        proxy.notify(notification);
+    }
+
+    private RepairHistoryProvider mockRepairHistoryProvider(RepairEntry... repairEntries)
+    {
+        RepairHistoryProvider repairHistoryProvider = mock(RepairHistoryProvider.class);
+        when(repairHistoryProvider.iterate(eq(myTableReference), anyLong(), anyLong(), any())).thenAnswer(invocation ->
+        {
+            Predicate<RepairEntry> predicate = invocation.getArgument(3);
+            return Iterators.filter(Arrays.asList(repairEntries).iterator(), predicate);
+        });
+        return repairHistoryProvider;
+    }
+
     private String getFailedRepairMessage(LongTokenRange... ranges)
     {
         Collection<LongTokenRange> rangeCollection = Arrays.asList(ranges);
@@ -423,6 +879,8 @@ public class TestRepairTask
 
         public volatile Map<String, String> myOptions;
 
+        public final AtomicInteger myTerminations = new AtomicInteger();
+
         public MockedJmxProxy(String keyspace, String table)
         {
             myKeyspace = keyspace;
@@ -451,7 +909,7 @@ public class TestRepairTask
         @Override
         public void forceTerminateAllRepairSessions()
         {
-            // NOOP
+            myTerminations.incrementAndGet();
         }
 
         @Override
@@ -466,6 +924,18 @@ public class TestRepairTask
             return 0;
         }
 
+        @Override
+        public double getPercentRepaired(TableReference tableReference)
+        {
+            return 0;
+        }
+
+        @Override
+        public long getValidationBacklog()
+        {
+            return 0;
+        }
+
         public void notify(Notification notification)
         {
             myListener.handleNotification(notification, null);
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2021 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecchronos.core.repair;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class TestRepairTaskMonitor
+{
+    private static final long HANG_PREVENT_TIME_IN_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    @Mock
+    private RepairTask myRepairTask;
+
+    @Mock
+    private RepairTask myOtherRepairTask;
+
+    private RepairTaskMonitor myRepairTaskMonitor;
+
+    @Before
+    public void setup()
+    {
+        myRepairTaskMonitor = new RepairTaskMonitor(HANG_PREVENT_TIME_IN_NANOS);
+    }
+
+    @After
+    public void cleanup()
+    {
+        myRepairTaskMonitor.close();
+    }
+
+    @Test
+    public void testTaskWithRecentProgressIsKept()
+    {
+        when(myRepairTask.getLastProgressNanos()).thenReturn(System.nanoTime());
+        myRepairTaskMonitor.register(myRepairTask);
+
+        myRepairTaskMonitor.checkRepairTasks();
+
+        verify(myRepairTask, never()).preventHang();
+        assertThat(myRepairTaskMonitor.getRepairTasks()).isEqualTo(1);
+    }
+
+    @Test
+    public void testTaskWithoutProgressIsTerminated()
+    {
+        when(myRepairTask.getLastProgressNanos()).thenReturn(System.nanoTime() - HANG_PREVENT_TIME_IN_NANOS);
+        when(myOtherRepairTask.getLastProgressNanos()).thenReturn(System.nanoTime());
+        myRepairTaskMonitor.register(myRepairTask);
+        myRepairTaskMonitor.register(myOtherRepairTask);
+
+        myRepairTaskMonitor.checkRepairTasks();
+
+        verify(myRepairTask).preventHang();
+        verify(myOtherRepairTask, never()).preventHang();
+        assertThat(myRepairTaskMonitor.getRepairTasks()).isEqualTo(1);
+
+        myRepairTaskMonitor.checkRepairTasks();
+
+        verify(myRepairTask).preventHang();
+    }
+
+    @Test
+    public void testTerminationWithoutOtherTasks()
+    {
+        myRepairTaskMonitor.register(myRepairTask);
+
+        myRepairTaskMonitor.requestTermination(myRepairTask);
+
+        verify(myRepairTask).terminateRepairSessions();
+        assertThat(myRepairTaskMonitor.isTerminationPending()).isFalse();
+    }
+
+    @Test
+    public void testTerminationDeferredWhileOtherTasksRun()
+    {
+        myRepairTaskMonitor.register(myRepairTask);
+        myRepairTaskMonitor.register(myOtherRepairTask);
+
+        myRepairTaskMonitor.requestTermination(myRepairTask);
+        myRepairTaskMonitor.unregister(myRepairTask);
+
+        verify(myRepairTask, never()).terminateRepairSessions();
+        assertThat(myRepairTaskMonitor.isTerminationPending()).isTrue();
+
+        myRepairTaskMonitor.unregister(myOtherRepairTask);
+
+        verify(myRepairTask).terminateRepairSessions();
+        verify(myOtherRepairTask, never()).terminateRepairSessions();
+        assertThat(myRepairTaskMonitor.isTerminationPending()).isFalse();
+    }
+
+    @Test
+    public void testUnregisteredTaskIsNotChecked()
+    {
+        myRepairTaskMonitor.register(myRepairTask);
+        myRepairTaskMonitor.unregister(myRepairTask);
+
+        myRepairTaskMonitor.checkRepairTasks();
+
+        verify(myRepairTask, never()).preventHang();
+        assertThat(myRepairTaskMonitor.getRepairTasks()).isEqualTo(0);
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2021 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecchronos.core.repair;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.ericsson.bss.cassandra.ecchronos.core.repair.state.VnodeRepairState;
+import com.google.common.collect.ImmutableSet;
+
+public class TestRepairThroughputEstimator
+{
+    private static final long REPAIR_INTERVAL = TimeUnit.DAYS.toMillis(1);
+    private static final RepairConfiguration REPAIR_CONFIGURATION = RepairConfiguration.newBuilder()
+            .withRepairInterval(REPAIR_INTERVAL, TimeUnit.MILLISECONDS)
+            .build();
+
+    private final RepairThroughputEstimator myEstimator = new RepairThroughputEstimator(0.5d);
+
+    @Test
+    public void testNoSamples()
+    {
+        assertThat(myEstimator.getTokensPerSecond()).isNaN();
+        assertThat(myEstimator.estimate(states(0, 0), 0, REPAIR_CONFIGURATION, 100)).isEqualTo(RepairEstimate.UNKNOWN);
+        assertThat(RepairEstimate.UNKNOWN.isKnown()).isFalse();
+    }
+
+    @Test
+    public void testFirstSample()
+    {
+        myEstimator.repaired(100, 10, TimeUnit.SECONDS);
+
+        assertThat(myEstimator.getTokensPerSecond()).isEqualTo(10.0d);
+    }
+
+    @Test
+    public void testWeightedByTaskSize()
+    {
+        myEstimator.repaired(100, 10, TimeUnit.SECONDS);
+        myEstimator.repaired(1000, 20, TimeUnit.SECONDS);
+
+        // (100 + 0.5 * 900) / (10 + 0.5 * 10)
+        assertThat(myEstimator.getTokensPerSecond()).isCloseTo(550.0d / 15.0d, within(0.0001d));
+    }
+
+    @Test
+    public void testFailedTaskLowersThroughput()
+    {
+        myEstimator.repaired(100, 10, TimeUnit.SECONDS);
+        myEstimator.repaired(0, 10, TimeUnit.SECONDS);
+
+        assertThat(myEstimator.getTokensPerSecond()).isEqualTo(5.0d);
+    }
+
+    @Test
+    public void testEstimate()
+    {
+        long now = TimeUnit.DAYS.toMillis(10);
+        long repairedAt = now - TimeUnit.HOURS.toMillis(1);
+        long notRepairedAt = now - TimeUnit.DAYS.toMillis(2);
+
+        // 100 tokens per range, 10 tokens per second
+        myEstimator.repaired(100, 10, TimeUnit.SECONDS);
+
+        RepairEstimate estimate = myEstimator.estimate(states(repairedAt, notRepairedAt), now, REPAIR_CONFIGURATION,
+                2000);
+
+        assertThat(estimate.isKnown()).isTrue();
+        assertThat(estimate.getThroughputInBytesPerSecond()).isEqualTo(100.0d);
+        assertThat(estimate.getRemainingRepairTimeInMs()).isEqualTo(TimeUnit.SECONDS.toMillis(10));
+        assertThat(estimate.getProjectedSlackInMs()).isEqualTo(REPAIR_INTERVAL - TimeUnit.SECONDS.toMillis(20));
+    }
+
+    @Test
+    public void testNegativeSlackWhenTooSlow()
+    {
+        // 1 token per hour
+        myEstimator.repaired(1, 1, TimeUnit.HOURS);
+
+        RepairEstimate estimate = myEstimator.estimate(states(0, 0), TimeUnit.DAYS.toMillis(10), REPAIR_CONFIGURATION,
+                2000);
+
+        assertThat(estimate.getRemainingRepairTimeInMs()).isEqualTo(TimeUnit.HOURS.toMillis(200));
+        assertThat(estimate.getProjectedSlackInMs()).isEqualTo(REPAIR_INTERVAL - TimeUnit.HOURS.toMillis(200));
+    }
+
+    private static List<VnodeRepairState> states(long firstRepairedAt, long secondRepairedAt)
+    {
+        return Arrays.asList(TestUtils.createVnodeRepairState(0, 100, ImmutableSet.of(), firstRepairedAt),
+                TestUtils.createVnodeRepairState(100, 200, ImmutableSet.of(), secondRepairedAt));
+    }
+}
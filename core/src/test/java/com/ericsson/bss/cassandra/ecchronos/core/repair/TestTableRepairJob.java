@@ -16,13 +16,16 @@ package com.ericsson.bss.cassandra.ecchronos.core.repair;
 
 import static com.ericsson.bss.cassandra.ecchronos.core.MockTableReferenceFactory.tableReference;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.ignoreStubs;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
@@ -50,6 +53,7 @@ import com.ericsson.bss.cassandra.ecchronos.core.TableStorageStates;
 import com.ericsson.bss.cassandra.ecchronos.core.metrics.TableRepairMetrics;
 import com.ericsson.bss.cassandra.ecchronos.core.repair.state.RepairHistory;
 import com.ericsson.bss.cassandra.ecchronos.core.repair.state.RepairState;
+import com.ericsson.bss.cassandra.ecchronos.core.repair.state.RepairStateRefresher;
 import com.ericsson.bss.cassandra.ecchronos.core.repair.state.RepairStateSnapshot;
 import com.ericsson.bss.cassandra.ecchronos.core.repair.state.ReplicaRepairGroup;
 import com.ericsson.bss.cassandra.ecchronos.core.repair.state.VnodeRepairState;
@@ -195,6 +199,32 @@ public class TestTableRepairJob
         verify(myRepairStateSnapshot, times(2)).canRepair();
     }
 
+    @Test
+    public void testPrevalidateRepairStateRefreshedInBackground()
+    {
+        TableRepairJob repairJob = repairJobRefreshedBy(mock(RepairStateRefresher.class));
+
+        // mock
+        doReturn(true).when(myRepairStateSnapshot).canRepair();
+
+        assertThat(repairJob.runnable()).isTrue();
+
+        verify(myRepairState, never()).update();
+        verify(myRepairStateSnapshot, times(1)).canRepair();
+    }
+
+    @Test
+    public void testPostPreemptedRepairStateRefreshedInBackground()
+    {
+        RepairStateRefresher repairStateRefresher = mock(RepairStateRefresher.class);
+        TableRepairJob repairJob = repairJobRefreshedBy(repairStateRefresher);
+
+        repairJob.postPreempted(null);
+
+        verify(repairStateRefresher).refresh(myTableReference);
+        verify(myRepairState, never()).update();
+    }
+
     @Test
     public void testPrevalidateUpdateThrowsOverloadException()
     {
@@ -230,6 +260,7 @@ public class TestTableRepairJob
         myRepairJob.postExecute(true, null);
 
         assertThat(myRepairJob.getLastSuccessfulRun()).isEqualTo(repairedAt);
+        verify(myRepairState, times(1)).repairFinished(true);
         verify(myRepairState, times(1)).update();
     }
 
@@ -244,6 +275,7 @@ public class TestTableRepairJob
         myRepairJob.postExecute(false, null);
 
         assertThat(myRepairJob.getLastSuccessfulRun()).isEqualTo(repairedAt);
+        verify(myRepairState, times(1)).repairFinished(false);
         verify(myRepairState, times(1)).update();
     }
 
@@ -258,6 +290,7 @@ public class TestTableRepairJob
         myRepairJob.postExecute(true, null);
 
         assertThat(myRepairJob.getLastSuccessfulRun()).isEqualTo(lastRun);
+        verify(myRepairState, times(1)).repairFinished(true);
         verify(myRepairState, times(1)).update();
     }
 
@@ -272,9 +305,25 @@ public class TestTableRepairJob
         myRepairJob.postExecute(false, null);
 
         assertThat(myRepairJob.getLastSuccessfulRun()).isEqualTo(lastRun);
+        verify(myRepairState, times(1)).repairFinished(false);
         verify(myRepairState, times(1)).update();
     }
 
+    @Test
+    public void testPostPreempted()
+    {
+        // mock
+        doReturn(true).when(myRepairStateSnapshot).canRepair();
+
+        long lastRun = myRepairJob.getLastSuccessfulRun();
+
+        myRepairJob.postPreempted(null);
+
+        assertThat(myRepairJob.getLastSuccessfulRun()).isEqualTo(lastRun);
+        assertThat(myRepairJob.runnable()).isTrue();
+        verify(myRepairState, never()).repairFinished(anyBoolean());
+    }
+
     @Test
     public void testPostExecuteUpdateThrowsException()
     {
@@ -286,6 +335,7 @@ public class TestTableRepairJob
         myRepairJob.postExecute(true, null);
 
         assertThat(myRepairJob.getLastSuccessfulRun()).isEqualTo(lastRun);
+        verify(myRepairState, times(1)).repairFinished(true);
     }
 
     @Test
@@ -336,6 +386,80 @@ public class TestTableRepairJob
         assertThat(repairTask.getTableReference()).isEqualTo(myTableReference);
     }
 
+    @Test
+    public void testIteratorWithCoalescedTables()
+    {
+        TableReference coalescedTable = tableReference(keyspaceName, "table2");
+        LongTokenRange tokenRange = new LongTokenRange(0, 10);
+        ImmutableSet<Node> replicas = ImmutableSet.of(mock(Node.class), mock(Node.class));
+        ReplicaRepairGroup replicaRepairGroup = new ReplicaRepairGroup(replicas, ImmutableList.of(tokenRange));
+        when(myRepairState.getSnapshot()).thenReturn(snapshotOf(replicaRepairGroup, tokenRange, replicas));
+
+        TableRepairJob repairJob = new TableRepairJob.Builder()
+                .withTableReference(myTableReference)
+                .withJmxProxyFactory(myJmxProxyFactory)
+                .withRepairState(myRepairState)
+                .withTableRepairMetrics(myTableRepairMetrics)
+                .withRepairConfiguration(myRepairConfiguration)
+                .withRepairLockType(RepairLockType.VNODE)
+                .withTableStorageStates(myTableStorageStates)
+                .withRepairHistory(myRepairHistory)
+                .withCoalescedTablesProvider((job, group) -> Collections.singletonList(coalescedTable))
+                .build();
+
+        Iterator<ScheduledTask> iterator = repairJob.iterator();
+
+        ScheduledTask task = iterator.next();
+        assertThat(task).isInstanceOf(RepairGroup.class);
+        Collection<RepairTask> repairTasks = ((RepairGroup)task).getRepairTasks();
+
+        assertThat(repairTasks).hasSize(1);
+        RepairTask repairTask = repairTasks.iterator().next();
+        assertThat(repairTask.getTokenRanges()).containsExactly(tokenRange);
+        assertThat(repairTask.getTableReferences()).containsExactly(myTableReference, coalescedTable);
+        assertThat(iterator.hasNext()).isFalse();
+    }
+
+    @Test
+    public void testNeedsRepair()
+    {
+        LongTokenRange tokenRange = new LongTokenRange(0, 10);
+        ImmutableSet<Node> replicas = ImmutableSet.of(mock(Node.class), mock(Node.class));
+        ReplicaRepairGroup replicaRepairGroup = new ReplicaRepairGroup(replicas, ImmutableList.of(tokenRange));
+        when(myRepairState.getSnapshot()).thenReturn(snapshotOf(replicaRepairGroup, tokenRange, replicas));
+
+        assertThat(myRepairJob.needsRepair(replicaRepairGroup)).isTrue();
+    }
+
+    @Test
+    public void testNeedsRepairWithRangeNotInNeedOfRepair()
+    {
+        LongTokenRange tokenRange = new LongTokenRange(0, 10);
+        LongTokenRange otherTokenRange = new LongTokenRange(10, 20);
+        ImmutableSet<Node> replicas = ImmutableSet.of(mock(Node.class), mock(Node.class));
+        ReplicaRepairGroup replicaRepairGroup = new ReplicaRepairGroup(replicas, ImmutableList.of(tokenRange));
+        when(myRepairState.getSnapshot()).thenReturn(snapshotOf(replicaRepairGroup, tokenRange, replicas));
+
+        ReplicaRepairGroup otherReplicaRepairGroup = new ReplicaRepairGroup(replicas,
+                ImmutableList.of(tokenRange, otherTokenRange));
+
+        assertThat(myRepairJob.needsRepair(otherReplicaRepairGroup)).isFalse();
+    }
+
+    @Test
+    public void testNeedsRepairWithOtherReplicas()
+    {
+        LongTokenRange tokenRange = new LongTokenRange(0, 10);
+        ImmutableSet<Node> replicas = ImmutableSet.of(mock(Node.class), mock(Node.class));
+        ReplicaRepairGroup replicaRepairGroup = new ReplicaRepairGroup(replicas, ImmutableList.of(tokenRange));
+        when(myRepairState.getSnapshot()).thenReturn(snapshotOf(replicaRepairGroup, tokenRange, replicas));
+
+        ReplicaRepairGroup otherReplicaRepairGroup = new ReplicaRepairGroup(
+                ImmutableSet.of(mock(Node.class), mock(Node.class)), ImmutableList.of(tokenRange));
+
+        assertThat(myRepairJob.needsRepair(otherReplicaRepairGroup)).isFalse();
+    }
+
     @Test
     public void testIteratorWithTargetSize()
     {
@@ -437,6 +561,65 @@ public class TestTableRepairJob
         assertThat(myRepairJob.getView().getStatus()).isEqualTo(RepairJobView.Status.WARNING);
     }
 
+    @Test
+    public void testViewIsReusedForSameSnapshot()
+    {
+        long repairedAt = System.currentTimeMillis() - TimeUnit.HOURS.toMillis(1);
+        VnodeRepairState vnodeRepairState = TestUtils.createVnodeRepairState(1, 2, ImmutableSet.of(), repairedAt);
+        VnodeRepairStatesImpl vnodeRepairStates = VnodeRepairStatesImpl.newBuilder(Arrays.asList(vnodeRepairState)).build();
+        when(myRepairStateSnapshot.getVnodeRepairStates()).thenReturn(vnodeRepairStates);
+        doReturn(repairedAt).when(myRepairStateSnapshot).lastCompletedAt();
+
+        RepairJobView repairJobView = myRepairJob.getView();
+
+        assertThat(myRepairJob.getView()).isSameAs(repairJobView);
+    }
+
+    @Test
+    public void testViewIsUpdatedForNewSnapshot()
+    {
+        long repairedAt = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(1);
+        VnodeRepairState vnodeRepairState = TestUtils.createVnodeRepairState(1, 2, ImmutableSet.of(), repairedAt);
+        VnodeRepairStatesImpl vnodeRepairStates = VnodeRepairStatesImpl.newBuilder(Arrays.asList(vnodeRepairState)).build();
+        when(myRepairStateSnapshot.getVnodeRepairStates()).thenReturn(vnodeRepairStates);
+        doReturn(repairedAt).when(myRepairStateSnapshot).lastCompletedAt();
+
+        RepairJobView repairJobView = myRepairJob.getView();
+        assertThat(repairJobView.getStatus()).isEqualTo(RepairJobView.Status.IN_QUEUE);
+
+        long newRepairedAt = System.currentTimeMillis();
+        RepairStateSnapshot newRepairStateSnapshot = mock(RepairStateSnapshot.class);
+        VnodeRepairState newVnodeRepairState = TestUtils.createVnodeRepairState(1, 2, ImmutableSet.of(), newRepairedAt);
+        when(newRepairStateSnapshot.getVnodeRepairStates())
+                .thenReturn(VnodeRepairStatesImpl.newBuilder(Arrays.asList(newVnodeRepairState)).build());
+        doReturn(newRepairedAt).when(newRepairStateSnapshot).lastCompletedAt();
+        doReturn(newRepairStateSnapshot).when(myRepairState).getSnapshot();
+
+        RepairJobView updatedRepairJobView = myRepairJob.getView();
+
+        assertThat(updatedRepairJobView).isNotSameAs(repairJobView);
+        assertThat(updatedRepairJobView.getRepairStateSnapshot()).isSameAs(newRepairStateSnapshot);
+        assertThat(updatedRepairJobView.getStatus()).isEqualTo(RepairJobView.Status.COMPLETED);
+    }
+
+    @Test
+    public void testViewIsUpdatedWhenStatusChanges()
+    {
+        long repairInterval = myRepairConfiguration.getRepairIntervalInMs();
+        long repairedAt = System.currentTimeMillis() - repairInterval + 50;
+        VnodeRepairState vnodeRepairState = TestUtils.createVnodeRepairState(1, 2, ImmutableSet.of(), repairedAt);
+        VnodeRepairStatesImpl vnodeRepairStates = VnodeRepairStatesImpl.newBuilder(Arrays.asList(vnodeRepairState)).build();
+        when(myRepairStateSnapshot.getVnodeRepairStates()).thenReturn(vnodeRepairStates);
+        doReturn(repairedAt).when(myRepairStateSnapshot).lastCompletedAt();
+
+        RepairJobView repairJobView = myRepairJob.getView();
+        assertThat(repairJobView.getStatus()).isEqualTo(RepairJobView.Status.COMPLETED);
+
+        await().pollInterval(10, TimeUnit.MILLISECONDS).atMost(1, TimeUnit.SECONDS)
+                .until(() -> myRepairJob.getView().getStatus() == RepairJobView.Status.IN_QUEUE);
+        assertThat(myRepairJob.getView().getProgress()).isEqualTo(0.0d);
+    }
+
 
     @Test
     public void testHalfCompleteProgress()
@@ -485,4 +668,32 @@ public class TestTableRepairJob
         assertThat(myRepairJob.getView().getProgress()).isEqualTo(0);
     }
 
+    private RepairStateSnapshot snapshotOf(ReplicaRepairGroup replicaRepairGroup, LongTokenRange tokenRange,
+            ImmutableSet<Node> replicas)
+    {
+        VnodeRepairStates vnodeRepairStates = VnodeRepairStatesImpl
+                .newBuilder(ImmutableList.of(new VnodeRepairState(tokenRange, replicas, 1234L)))
+                .build();
+
+        return RepairStateSnapshot.newBuilder()
+                .withReplicaRepairGroups(Collections.singletonList(replicaRepairGroup))
+                .withLastCompletedAt(1234L)
+                .withVnodeRepairStates(vnodeRepairStates)
+                .build();
+    }
+
+    private TableRepairJob repairJobRefreshedBy(RepairStateRefresher repairStateRefresher)
+    {
+        return new TableRepairJob.Builder()
+                .withTableReference(myTableReference)
+                .withJmxProxyFactory(myJmxProxyFactory)
+                .withRepairState(myRepairState)
+                .withTableRepairMetrics(myTableRepairMetrics)
+                .withRepairConfiguration(myRepairConfiguration)
+                .withRepairLockType(RepairLockType.VNODE)
+                .withTableStorageStates(myTableStorageStates)
+                .withRepairHistory(myRepairHistory)
+                .withRepairStateRefresher(repairStateRefresher)
+                .build();
+    }
 }
@@ -71,6 +71,7 @@ public class TestUtils
 
         private double progress = 0;
         private RepairJobView.Status status = RepairJobView.Status.IN_QUEUE;
+        private RepairEstimate repairEstimate = RepairEstimate.UNKNOWN;
 
         public ScheduledRepairJobBuilder withId(UUID id)
         {
@@ -120,6 +121,12 @@ public class TestUtils
             return this;
         }
 
+        public ScheduledRepairJobBuilder withRepairEstimate(RepairEstimate repairEstimate)
+        {
+            this.repairEstimate = repairEstimate;
+            return this;
+        }
+
         public RepairJobView build()
         {
             Preconditions.checkNotNull(keyspace, "Keyspace cannot be null");
@@ -139,7 +146,7 @@ public class TestUtils
 
             return new ScheduledRepairJobView(id, tableReference(keyspace, table),
                     generateRepairConfiguration(repairInterval),
-                    generateRepairStateSnapshot(lastRepairedAt, vnodeRepairStates), status,progress);
+                    generateRepairStateSnapshot(lastRepairedAt, vnodeRepairStates), status, progress, repairEstimate);
         }
     }
 
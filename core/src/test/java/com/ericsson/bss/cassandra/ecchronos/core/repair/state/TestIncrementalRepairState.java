@@ -0,0 +1,253 @@
+/*
+ * Copyright 2021 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecchronos.core.repair.state;
+
+import static com.ericsson.bss.cassandra.ecchronos.core.MockTableReferenceFactory.tableReference;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import com.ericsson.bss.cassandra.ecchronos.core.HostStates;
+import com.ericsson.bss.cassandra.ecchronos.core.JmxProxy;
+import com.ericsson.bss.cassandra.ecchronos.core.JmxProxyFactory;
+import com.ericsson.bss.cassandra.ecchronos.core.metrics.TableRepairMetrics;
+import com.ericsson.bss.cassandra.ecchronos.core.repair.RepairConfiguration;
+import com.ericsson.bss.cassandra.ecchronos.core.repair.RepairOptions;
+import com.ericsson.bss.cassandra.ecchronos.core.utils.LongTokenRange;
+import com.ericsson.bss.cassandra.ecchronos.core.utils.Node;
+import com.ericsson.bss.cassandra.ecchronos.core.utils.TableReference;
+import com.google.common.base.Predicate;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterators;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class TestIncrementalRepairState
+{
+    private static final TableReference tableReference = tableReference("ks", "tb");
+    private static final long REPAIR_INTERVAL_IN_MS = TimeUnit.DAYS.toMillis(1);
+    private static final long NOW = TimeUnit.DAYS.toMillis(100);
+
+    private static final LongTokenRange RANGE1 = new LongTokenRange(1, 2);
+    private static final LongTokenRange RANGE2 = new LongTokenRange(2, 3);
+
+    @Mock
+    private JmxProxyFactory mockJmxProxyFactory;
+
+    @Mock
+    private JmxProxy mockJmxProxy;
+
+    @Mock
+    private ReplicationState mockReplicationState;
+
+    @Mock
+    private RepairHistoryProvider mockRepairHistoryProvider;
+
+    @Mock
+    private HostStates mockHostStates;
+
+    @Mock
+    private TableRepairMetrics mockTableRepairMetrics;
+
+    @Mock
+    private PostUpdateHook mockPostUpdateHook;
+
+    @Mock
+    private Clock mockClock;
+
+    private Node node1;
+    private Node node2;
+    private Node node3;
+
+    @Before
+    public void setup() throws IOException
+    {
+        node1 = mock(Node.class);
+        node2 = mock(Node.class);
+        node3 = mock(Node.class);
+
+        Map<LongTokenRange, ImmutableSet<Node>> tokenRangeToReplicas = new LinkedHashMap<>();
+        tokenRangeToReplicas.put(RANGE1, ImmutableSet.of(node1, node2));
+        tokenRangeToReplicas.put(RANGE2, ImmutableSet.of(node1, node3));
+
+        when(mockJmxProxyFactory.connect()).thenReturn(mockJmxProxy);
+        when(mockReplicationState.getTokenRangeToReplicas(eq(tableReference))).thenReturn(tokenRangeToReplicas);
+        when(mockHostStates.isUp(any(Node.class))).thenReturn(true);
+        when(mockClock.millis()).thenReturn(NOW);
+        when(mockRepairHistoryProvider.iterate(eq(tableReference), anyLong(), anyLong(), any()))
+                .thenReturn(Collections.emptyIterator());
+    }
+
+    @Test
+    public void testInitialStateWithUnrepairedData()
+    {
+        when(mockJmxProxy.getPercentRepaired(eq(tableReference))).thenReturn(50.0d);
+
+        RepairStateSnapshot repairStateSnapshot = newRepairState().getSnapshot();
+
+        assertThat(repairStateSnapshot.canRepair()).isTrue();
+        assertThat(repairStateSnapshot.lastCompletedAt()).isEqualTo(NOW - REPAIR_INTERVAL_IN_MS);
+        assertThat(repairStateSnapshot.getRepairGroups()).hasSize(1);
+
+        ReplicaRepairGroup replicaRepairGroup = repairStateSnapshot.getRepairGroups().get(0);
+        assertThat(replicaRepairGroup.getReplicas()).containsExactlyInAnyOrder(node1, node2, node3);
+        assertThat(replicaRepairGroup).containsExactly(RANGE1, RANGE2);
+        assertThat(repairStateSnapshot.getVnodeRepairStates().getVnodeRepairStates()).hasSize(2);
+
+        verify(mockTableRepairMetrics).repairState(eq(tableReference), eq(0), eq(2));
+        verify(mockTableRepairMetrics).lastRepairedAt(eq(tableReference), eq(NOW - REPAIR_INTERVAL_IN_MS));
+        verify(mockPostUpdateHook).postUpdate(eq(repairStateSnapshot));
+    }
+
+    @Test
+    public void testInitialStateFullyRepaired()
+    {
+        when(mockJmxProxy.getPercentRepaired(eq(tableReference))).thenReturn(100.0d);
+
+        RepairStateSnapshot repairStateSnapshot = newRepairState().getSnapshot();
+
+        assertThat(repairStateSnapshot.canRepair()).isFalse();
+        assertThat(repairStateSnapshot.lastCompletedAt()).isEqualTo(NOW);
+        verify(mockTableRepairMetrics).repairState(eq(tableReference), eq(2), eq(0));
+    }
+
+    @Test
+    public void testInitialStateWithUnknownRepairedData()
+    {
+        when(mockJmxProxy.getPercentRepaired(eq(tableReference))).thenReturn(-1.0d);
+
+        RepairStateSnapshot repairStateSnapshot = newRepairState().getSnapshot();
+
+        assertThat(repairStateSnapshot.canRepair()).isTrue();
+    }
+
+    @Test
+    public void testReplicaDown()
+    {
+        when(mockJmxProxy.getPercentRepaired(eq(tableReference))).thenReturn(50.0d);
+        when(mockHostStates.isUp(eq(node3))).thenReturn(false);
+
+        RepairStateSnapshot repairStateSnapshot = newRepairState().getSnapshot();
+
+        assertThat(repairStateSnapshot.canRepair()).isFalse();
+        assertThat(repairStateSnapshot.lastCompletedAt()).isEqualTo(NOW - REPAIR_INTERVAL_IN_MS);
+    }
+
+    @Test
+    public void testRepairFinished()
+    {
+        when(mockJmxProxy.getPercentRepaired(eq(tableReference))).thenReturn(50.0d);
+        RepairState repairState = newRepairState();
+
+        long repairedAt = NOW + TimeUnit.HOURS.toMillis(1);
+        when(mockClock.millis()).thenReturn(repairedAt);
+        repairState.repairFinished(true);
+        repairState.update();
+
+        RepairStateSnapshot repairStateSnapshot = repairState.getSnapshot();
+        assertThat(repairStateSnapshot.canRepair()).isFalse();
+        assertThat(repairStateSnapshot.lastCompletedAt()).isEqualTo(repairedAt);
+        assertThat(repairStateSnapshot.getVnodeRepairStates().getVnodeRepairStates())
+                .allMatch(vnodeRepairState -> vnodeRepairState.lastRepairedAt() == repairedAt);
+
+        when(mockClock.millis()).thenReturn(repairedAt + REPAIR_INTERVAL_IN_MS);
+        repairState.update();
+
+        assertThat(repairState.getSnapshot().canRepair()).isTrue();
+        assertThat(repairState.getSnapshot().lastCompletedAt()).isEqualTo(repairedAt);
+    }
+
+    @Test
+    public void testRepairFinishedUnsuccessfully()
+    {
+        when(mockJmxProxy.getPercentRepaired(eq(tableReference))).thenReturn(50.0d);
+        RepairState repairState = newRepairState();
+
+        repairState.repairFinished(false);
+        repairState.update();
+
+        assertThat(repairState.getSnapshot().canRepair()).isTrue();
+        assertThat(repairState.getSnapshot().lastCompletedAt()).isEqualTo(NOW - REPAIR_INTERVAL_IN_MS);
+    }
+
+    @Test
+    public void testInitialStateRepairedInHistory()
+    {
+        long repairedAt = NOW - TimeUnit.HOURS.toMillis(1);
+        RepairEntry range1Entry = new RepairEntry(RANGE1, repairedAt, ImmutableSet.of(node1, node2), "SUCCESS");
+        RepairEntry range2Entry = new RepairEntry(RANGE2, repairedAt + 1, ImmutableSet.of(node1, node3), "SUCCESS");
+        withRepairHistory(range1Entry, range2Entry);
+        when(mockJmxProxy.getPercentRepaired(eq(tableReference))).thenReturn(50.0d);
+
+        RepairState repairState = newRepairState();
+
+        RepairStateSnapshot repairStateSnapshot = repairState.getSnapshot();
+        assertThat(repairStateSnapshot.canRepair()).isFalse();
+        assertThat(repairStateSnapshot.lastCompletedAt()).isEqualTo(repairedAt);
+    }
+
+    @Test
+    public void testInitialStatePartiallyRepairedInHistory()
+    {
+        long repairedAt = NOW - TimeUnit.HOURS.toMillis(1);
+        RepairEntry range1Entry = new RepairEntry(RANGE1, repairedAt, ImmutableSet.of(node1, node2), "SUCCESS");
+        RepairEntry range2Entry = new RepairEntry(RANGE2, repairedAt, ImmutableSet.of(node1, node3), "FAILED");
+        withRepairHistory(range1Entry, range2Entry);
+        when(mockJmxProxy.getPercentRepaired(eq(tableReference))).thenReturn(50.0d);
+
+        RepairState repairState = newRepairState();
+
+        RepairStateSnapshot repairStateSnapshot = repairState.getSnapshot();
+        assertThat(repairStateSnapshot.canRepair()).isTrue();
+        assertThat(repairStateSnapshot.lastCompletedAt()).isEqualTo(NOW - REPAIR_INTERVAL_IN_MS);
+    }
+
+    private void withRepairHistory(RepairEntry... repairEntries)
+    {
+        when(mockRepairHistoryProvider.iterate(eq(tableReference), eq(NOW), eq(NOW - REPAIR_INTERVAL_IN_MS), any()))
+                .thenAnswer(invocation -> {
+                    Predicate<RepairEntry> predicate = invocation.getArgument(3);
+                    return Iterators.filter(Iterators.forArray(repairEntries), predicate);
+                });
+    }
+
+    private RepairState newRepairState()
+    {
+        RepairConfiguration repairConfiguration = RepairConfiguration.newBuilder()
+                .withRepairInterval(REPAIR_INTERVAL_IN_MS, TimeUnit.MILLISECONDS)
+                .withRepairType(RepairOptions.RepairType.INCREMENTAL)
+                .build();
+
+        return new IncrementalRepairState(tableReference, repairConfiguration, mockJmxProxyFactory,
+                mockReplicationState, mockRepairHistoryProvider, mockHostStates, mockTableRepairMetrics,
+                mockPostUpdateHook, mockClock);
+    }
+}
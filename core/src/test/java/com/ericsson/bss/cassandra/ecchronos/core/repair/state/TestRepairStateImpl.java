@@ -25,6 +25,7 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
+import java.time.Clock;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -145,6 +146,31 @@ public class TestRepairStateImpl
         verify(mockPostUpdateHook, times(1)).postUpdate(repairStateSnapshot);
     }
 
+    @Test
+    public void testInitialEmptyStateUsesClock()
+    {
+        long now = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(30);
+        long repairIntervalInMs = TimeUnit.HOURS.toMillis(1);
+        Clock clock = mock(Clock.class);
+        when(clock.millis()).thenReturn(now);
+
+        RepairConfiguration repairConfiguration = repairConfiguration(repairIntervalInMs);
+
+        VnodeRepairState vnodeRepairState = new VnodeRepairState(new LongTokenRange(1, 2), ImmutableSet.of(mockNode("DC1")), VnodeRepairState.UNREPAIRED);
+
+        VnodeRepairStates vnodeRepairStates = VnodeRepairStatesImpl.newBuilder(Collections.singletonList(vnodeRepairState))
+                .build();
+
+        when(mockVnodeRepairStateFactory.calculateNewState(eq(tableReference), isNull())).thenReturn(vnodeRepairStates);
+        when(mockReplicaRepairGroupFactory.generateReplicaRepairGroups(repairGroupCaptor.capture())).thenReturn(Lists.emptyList());
+
+        RepairState repairState = new RepairStateImpl(tableReference, repairConfiguration,
+                mockVnodeRepairStateFactory, mockHostStates,
+                mockTableRepairMetrics, mockReplicaRepairGroupFactory, mockPostUpdateHook, clock);
+
+        assertThat(repairState.getSnapshot().lastCompletedAt()).isEqualTo(now);
+    }
+
     @Test
     public void testUpdateRepaired()
     {
@@ -0,0 +1,219 @@
+/*
+ * Copyright 2021 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecchronos.core.repair.state;
+
+import static com.ericsson.bss.cassandra.ecchronos.core.MockTableReferenceFactory.tableReference;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import com.ericsson.bss.cassandra.ecchronos.core.repair.RepairConfiguration;
+import com.ericsson.bss.cassandra.ecchronos.core.utils.TableReference;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class TestRepairStateRefresher
+{
+    private static final TableReference TABLE_REFERENCE = tableReference("keyspace", "table");
+    private static final long REFRESH_INTERVAL_IN_MS = TimeUnit.SECONDS.toMillis(30);
+    private static final long NOW = TimeUnit.DAYS.toMillis(30);
+
+    private static final RepairConfiguration REPAIR_CONFIGURATION = RepairConfiguration.newBuilder()
+            .withRepairInterval(1, TimeUnit.DAYS)
+            .build();
+
+    @Mock
+    private ScheduledExecutorService myExecutor;
+
+    @Mock
+    private ScheduledFuture<?> myFuture;
+
+    @Mock
+    private Clock myClock;
+
+    @Mock
+    private RepairState myRepairState;
+
+    @Mock
+    private RepairStateSnapshot myRepairStateSnapshot;
+
+    private RepairStateRefresher myRepairStateRefresher;
+
+    @Before
+    public void setup()
+    {
+        when(myClock.millis()).thenReturn(NOW);
+        when(myRepairState.getSnapshot()).thenReturn(myRepairStateSnapshot);
+        doReturn(myFuture).when(myExecutor).schedule(any(Runnable.class), anyLong(), eq(TimeUnit.MILLISECONDS));
+
+        myRepairStateRefresher = new RepairStateRefresher(myExecutor, REFRESH_INTERVAL_IN_MS, myClock);
+    }
+
+    @Test
+    public void testRegisterNotDueIsRefreshedWhenDue()
+    {
+        long untilDue = TimeUnit.HOURS.toMillis(2);
+        whenLastCompletedAt(NOW - TimeUnit.DAYS.toMillis(1) + untilDue);
+
+        myRepairStateRefresher.register(TABLE_REFERENCE, myRepairState, REPAIR_CONFIGURATION);
+
+        verify(myExecutor).schedule(any(Runnable.class), eq(untilDue), eq(TimeUnit.MILLISECONDS));
+        verify(myRepairState, never()).update();
+    }
+
+    @Test
+    public void testRegisterDueIsRefreshedWithInterval()
+    {
+        whenLastCompletedAt(NOW - TimeUnit.DAYS.toMillis(2));
+
+        myRepairStateRefresher.register(TABLE_REFERENCE, myRepairState, REPAIR_CONFIGURATION);
+
+        verify(myExecutor).schedule(any(Runnable.class), eq(REFRESH_INTERVAL_IN_MS), eq(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testRefreshUpdatesAndReschedules()
+    {
+        whenLastCompletedAt(NOW - TimeUnit.DAYS.toMillis(2));
+
+        myRepairStateRefresher.register(TABLE_REFERENCE, myRepairState, REPAIR_CONFIGURATION);
+        Runnable refresh = captureRefresh(1);
+
+        whenLastCompletedAt(NOW);
+        refresh.run();
+
+        verify(myRepairState).update();
+        verify(myExecutor).schedule(any(Runnable.class), eq(TimeUnit.DAYS.toMillis(1)), eq(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testRefreshFailureIsRescheduled()
+    {
+        whenLastCompletedAt(NOW - TimeUnit.DAYS.toMillis(2));
+        doThrow(new RuntimeException("Expected exception")).when(myRepairState).update();
+
+        myRepairStateRefresher.register(TABLE_REFERENCE, myRepairState, REPAIR_CONFIGURATION);
+        captureRefresh(1).run();
+
+        verify(myExecutor, times(2)).schedule(any(Runnable.class), eq(REFRESH_INTERVAL_IN_MS),
+                eq(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testRefreshNow()
+    {
+        whenLastCompletedAt(NOW);
+        when(myFuture.cancel(false)).thenReturn(true);
+
+        myRepairStateRefresher.register(TABLE_REFERENCE, myRepairState, REPAIR_CONFIGURATION);
+        myRepairStateRefresher.refresh(TABLE_REFERENCE);
+
+        verify(myFuture).cancel(false);
+        verify(myExecutor).schedule(any(Runnable.class), eq(0L), eq(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testRefreshNowWhileRefreshing()
+    {
+        whenLastCompletedAt(NOW);
+        when(myFuture.cancel(false)).thenReturn(false);
+
+        myRepairStateRefresher.register(TABLE_REFERENCE, myRepairState, REPAIR_CONFIGURATION);
+        Runnable refresh = captureRefresh(1);
+        myRepairStateRefresher.refresh(TABLE_REFERENCE);
+        verify(myExecutor, never()).schedule(any(Runnable.class), eq(0L), eq(TimeUnit.MILLISECONDS));
+
+        refresh.run();
+
+        verify(myExecutor).schedule(any(Runnable.class), eq(0L), eq(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testRefreshNowNotRegistered()
+    {
+        myRepairStateRefresher.refresh(TABLE_REFERENCE);
+
+        verifyZeroInteractions(myExecutor);
+    }
+
+    @Test
+    public void testUnregisterStopsRefresh()
+    {
+        whenLastCompletedAt(NOW - TimeUnit.DAYS.toMillis(2));
+
+        myRepairStateRefresher.register(TABLE_REFERENCE, myRepairState, REPAIR_CONFIGURATION);
+        Runnable refresh = captureRefresh(1);
+
+        myRepairStateRefresher.unregister(TABLE_REFERENCE);
+        verify(myFuture).cancel(false);
+
+        refresh.run();
+        verify(myExecutor, times(1)).schedule(any(Runnable.class), anyLong(), eq(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testRegisterAgainReplacesRefresh()
+    {
+        whenLastCompletedAt(NOW - TimeUnit.DAYS.toMillis(2));
+
+        myRepairStateRefresher.register(TABLE_REFERENCE, myRepairState, REPAIR_CONFIGURATION);
+        myRepairStateRefresher.register(TABLE_REFERENCE, myRepairState, REPAIR_CONFIGURATION);
+
+        verify(myFuture).cancel(false);
+        verify(myExecutor, times(2)).schedule(any(Runnable.class), anyLong(), eq(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testClose()
+    {
+        whenLastCompletedAt(NOW - TimeUnit.DAYS.toMillis(2));
+
+        myRepairStateRefresher.register(TABLE_REFERENCE, myRepairState, REPAIR_CONFIGURATION);
+        myRepairStateRefresher.close();
+
+        verify(myFuture).cancel(false);
+        verify(myExecutor).shutdown();
+    }
+
+    private void whenLastCompletedAt(long lastCompletedAt)
+    {
+        when(myRepairStateSnapshot.lastCompletedAt()).thenReturn(lastCompletedAt);
+    }
+
+    private Runnable captureRefresh(int times)
+    {
+        ArgumentCaptor<Runnable> runnableCaptor = ArgumentCaptor.forClass(Runnable.class);
+        verify(myExecutor, times(times)).schedule(runnableCaptor.capture(), anyLong(), eq(TimeUnit.MILLISECONDS));
+        return runnableCaptor.getValue();
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2021 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecchronos.core.repair.state;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.ericsson.bss.cassandra.ecchronos.core.utils.LongTokenRange;
+import com.ericsson.bss.cassandra.ecchronos.core.utils.Node;
+import com.google.common.collect.ImmutableSet;
+
+public class TestVnodeRepairGroupFactory
+{
+    private final Node node1 = mock(Node.class);
+    private final Node node2 = mock(Node.class);
+    private final Node node3 = mock(Node.class);
+    private final Node node4 = mock(Node.class);
+
+    @Test
+    public void testNoVnodes()
+    {
+        assertThat(VnodeRepairGroupFactory.INSTANCE.generateReplicaRepairGroups(Collections.emptyList())).isEmpty();
+    }
+
+    @Test
+    public void testVnodesWithSameReplicas()
+    {
+        ImmutableSet<Node> replicas = ImmutableSet.of(node1, node2, node3);
+        List<VnodeRepairState> vnodeRepairStates = new ArrayList<>();
+        vnodeRepairStates.add(new VnodeRepairState(range(1, 2), replicas, 3));
+        vnodeRepairStates.add(new VnodeRepairState(range(2, 3), replicas, 1));
+        vnodeRepairStates.add(new VnodeRepairState(range(3, 4), replicas, 2));
+
+        List<ReplicaRepairGroup> replicaRepairGroups = VnodeRepairGroupFactory.INSTANCE
+                .generateReplicaRepairGroups(vnodeRepairStates);
+
+        assertThat(replicaRepairGroups).hasSize(1);
+        assertGroup(replicaRepairGroups.get(0), replicas, range(1, 2), range(2, 3), range(3, 4));
+    }
+
+    @Test
+    public void testGroupsSortedByOldestVnode()
+    {
+        ImmutableSet<Node> replicas = ImmutableSet.of(node1, node2, node3);
+        ImmutableSet<Node> replicas2 = ImmutableSet.of(node2, node3, node4);
+        ImmutableSet<Node> replicas3 = ImmutableSet.of(node3, node4, node1);
+        List<VnodeRepairState> vnodeRepairStates = new ArrayList<>();
+        vnodeRepairStates.add(new VnodeRepairState(range(1, 2), replicas, 5));
+        vnodeRepairStates.add(new VnodeRepairState(range(2, 3), replicas2, 4));
+        vnodeRepairStates.add(new VnodeRepairState(range(3, 4), replicas3, 6));
+        vnodeRepairStates.add(new VnodeRepairState(range(4, 5), replicas, 7));
+        vnodeRepairStates.add(new VnodeRepairState(range(5, 6), replicas3, 1));
+
+        List<ReplicaRepairGroup> replicaRepairGroups = VnodeRepairGroupFactory.INSTANCE
+                .generateReplicaRepairGroups(vnodeRepairStates);
+
+        assertThat(replicaRepairGroups).hasSize(3);
+        assertGroup(replicaRepairGroups.get(0), replicas3, range(3, 4), range(5, 6));
+        assertGroup(replicaRepairGroups.get(1), replicas2, range(2, 3));
+        assertGroup(replicaRepairGroups.get(2), replicas, range(1, 2), range(4, 5));
+    }
+
+    @Test
+    public void testGroupsWithEqualRepairTimeKeepOrder()
+    {
+        ImmutableSet<Node> replicas = ImmutableSet.of(node1, node2, node3);
+        ImmutableSet<Node> replicas2 = ImmutableSet.of(node2, node3, node4);
+        List<VnodeRepairState> vnodeRepairStates = new ArrayList<>();
+        vnodeRepairStates.add(new VnodeRepairState(range(1, 2), replicas2, 2));
+        vnodeRepairStates.add(new VnodeRepairState(range(2, 3), replicas, 1));
+        vnodeRepairStates.add(new VnodeRepairState(range(3, 4), replicas2, 1));
+
+        List<ReplicaRepairGroup> replicaRepairGroups = VnodeRepairGroupFactory.INSTANCE
+                .generateReplicaRepairGroups(vnodeRepairStates);
+
+        assertThat(replicaRepairGroups).hasSize(2);
+        assertGroup(replicaRepairGroups.get(0), replicas, range(2, 3));
+        assertGroup(replicaRepairGroups.get(1), replicas2, range(1, 2), range(3, 4));
+    }
+
+    @Test
+    public void testEqualReplicaSetsAreGrouped()
+    {
+        List<VnodeRepairState> vnodeRepairStates = new ArrayList<>();
+        vnodeRepairStates.add(new VnodeRepairState(range(1, 2), ImmutableSet.of(node1, node2), 1));
+        vnodeRepairStates.add(new VnodeRepairState(range(2, 3), ImmutableSet.of(node2, node1), 2));
+
+        List<ReplicaRepairGroup> replicaRepairGroups = VnodeRepairGroupFactory.INSTANCE
+                .generateReplicaRepairGroups(vnodeRepairStates);
+
+        assertThat(replicaRepairGroups).hasSize(1);
+        assertGroup(replicaRepairGroups.get(0), ImmutableSet.of(node1, node2), range(1, 2), range(2, 3));
+    }
+
+    private void assertGroup(ReplicaRepairGroup replicaRepairGroup, ImmutableSet<Node> replicas,
+            LongTokenRange... ranges)
+    {
+        assertThat(replicaRepairGroup.getReplicas()).isEqualTo(replicas);
+        assertThat(replicaRepairGroup.iterator()).toIterable().containsExactly(ranges);
+    }
+
+    private LongTokenRange range(long start, long end)
+    {
+        return new LongTokenRange(start, end);
+    }
+}
@@ -14,6 +14,7 @@
  */
 package com.ericsson.bss.cassandra.ecchronos.core.repair.types;
 
+import com.ericsson.bss.cassandra.ecchronos.core.repair.RepairEstimate;
 import com.ericsson.bss.cassandra.ecchronos.core.repair.RepairJobView;
 import com.ericsson.bss.cassandra.ecchronos.core.repair.state.VnodeRepairState;
 import com.ericsson.bss.cassandra.ecchronos.core.repair.TestUtils;
@@ -56,6 +57,29 @@ public class TestScheduledRepairJob
         assertThat(scheduledRepairJob.lastRepairedAtInMs).isEqualTo(lastRepairedAt);
         assertThat(scheduledRepairJob.status).isEqualTo(Status.COMPLETED);
         assertThat(scheduledRepairJob.nextRepairInMs).isEqualTo(lastRepairedAt + repairInterval);
+        assertThat(scheduledRepairJob.repairThroughputInBytesPerSecond).isNull();
+        assertThat(scheduledRepairJob.remainingRepairTimeInMs).isNull();
+        assertThat(scheduledRepairJob.projectedSlackInMs).isNull();
+    }
+
+    @Test
+    public void testJobWithRepairEstimate()
+    {
+        long repairInterval = TimeUnit.DAYS.toMillis(7);
+        long lastRepairedAt = System.currentTimeMillis();
+        RepairJobView repairJobView = new TestUtils.ScheduledRepairJobBuilder()
+                .withKeyspace("ks")
+                .withTable("tb")
+                .withLastRepairedAt(lastRepairedAt)
+                .withRepairInterval(repairInterval)
+                .withRepairEstimate(new RepairEstimate(1024.0d, 1000L, -2000L))
+                .build();
+
+        ScheduledRepairJob scheduledRepairJob = new ScheduledRepairJob(repairJobView);
+
+        assertThat(scheduledRepairJob.repairThroughputInBytesPerSecond).isEqualTo(1024.0d);
+        assertThat(scheduledRepairJob.remainingRepairTimeInMs).isEqualTo(1000L);
+        assertThat(scheduledRepairJob.projectedSlackInMs).isEqualTo(-2000L);
     }
 
     @Test
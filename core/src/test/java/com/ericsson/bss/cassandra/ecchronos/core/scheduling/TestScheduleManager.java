@@ -15,10 +15,15 @@
 package com.ericsson.bss.cassandra.ecchronos.core.scheduling;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyMap;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.longThat;
+import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -30,6 +35,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.After;
@@ -40,6 +46,7 @@ import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 
 import com.ericsson.bss.cassandra.ecchronos.core.exceptions.LockException;
+import com.ericsson.bss.cassandra.ecchronos.core.metrics.SchedulerMetrics;
 
 @RunWith (MockitoJUnitRunner.Silent.class)
 public class TestScheduleManager
@@ -50,6 +57,12 @@ public class TestScheduleManager
     @Mock
     private RunPolicy myRunPolicy;
 
+    @Mock
+    private SchedulerMetrics mySchedulerMetrics;
+
+    @Mock
+    private AdmissionController myAdmissionController;
+
     private ScheduleManagerImpl myScheduler;
 
     @Before
@@ -57,6 +70,7 @@ public class TestScheduleManager
     {
         myScheduler = ScheduleManagerImpl.builder()
                 .withLockFactory(myLockFactory)
+                .withSchedulerMetrics(mySchedulerMetrics)
                 .build();
         myScheduler.addRunPolicy(job -> myRunPolicy.validate(job));
 
@@ -90,6 +104,29 @@ public class TestScheduleManager
         assertThat(myScheduler.getQueueSize()).isEqualTo(1);
     }
 
+    @Test
+    public void testSchedulerMetricsReported() throws LockException
+    {
+        DummyJob job = new DummyJob(ScheduledJob.Priority.LOW);
+        myScheduler.schedule(job);
+
+        when(myLockFactory.tryLock(any(), anyString(), anyInt(), anyMap())).thenThrow(new LockException(""));
+
+        myScheduler.run();
+
+        assertThat(job.hasRun()).isFalse();
+        verify(mySchedulerMetrics).run(anyLong(), eq(TimeUnit.NANOSECONDS), eq(1), eq(1));
+        verify(mySchedulerMetrics, never()).lockWaitTiming(anyLong(), any(TimeUnit.class));
+
+        doReturn(new DummyLock()).when(myLockFactory).tryLock(any(), anyString(), anyInt(), anyMap());
+
+        myScheduler.run();
+
+        assertThat(job.hasRun()).isTrue();
+        verify(mySchedulerMetrics, times(2)).run(anyLong(), eq(TimeUnit.NANOSECONDS), eq(1), eq(1));
+        verify(mySchedulerMetrics).lockWaitTiming(longThat(waitTime -> waitTime > 0), eq(TimeUnit.NANOSECONDS));
+    }
+
     @Test
     public void testRunningJobWithFailingRunPolicy()
     {
@@ -262,6 +299,208 @@ public class TestScheduleManager
         assertThat(myScheduler.getQueueSize()).isEqualTo(0);
     }
 
+    @Test
+    public void testJobPreemptedByHigherPriorityJob()
+    {
+        DummyJob highPriorityJob = new DummyJob(ScheduledJob.Priority.HIGHEST);
+        AtomicBoolean scheduled = new AtomicBoolean(false);
+        ShortRunningMultipleTasks job = new ShortRunningMultipleTasks(ScheduledJob.Priority.LOW, 3, () -> {
+            if (scheduled.compareAndSet(false, true))
+            {
+                myScheduler.schedule(highPriorityJob);
+            }
+        });
+        myScheduler.schedule(job);
+
+        myScheduler.run();
+
+        assertThat(job.getNumRuns()).isEqualTo(1);
+        assertThat(highPriorityJob.hasRun()).isFalse();
+
+        myScheduler.run();
+
+        assertThat(highPriorityJob.hasRun()).isTrue();
+    }
+
+    @Test
+    public void testHigherPriorityJobWaitingForLockDoesNotPreempt() throws LockException
+    {
+        DummyJob highPriorityJob = new DummyJob(ScheduledJob.Priority.HIGHEST);
+        ShortRunningMultipleTasks job = new ShortRunningMultipleTasks(ScheduledJob.Priority.LOW, 3);
+        myScheduler.schedule(highPriorityJob);
+        myScheduler.schedule(job);
+
+        when(myLockFactory.tryLock(any(), anyString(), anyInt(), anyMap()))
+                .thenThrow(new LockException(""))
+                .thenReturn(new DummyLock());
+
+        myScheduler.run();
+
+        assertThat(highPriorityJob.hasRun()).isFalse();
+        assertThat(job.getNumRuns()).isEqualTo(3);
+    }
+
+    @Test
+    public void testTaskPreemptedByLock() throws LockException
+    {
+        PreemptionCheckingJob job = new PreemptionCheckingJob();
+        myScheduler.schedule(job);
+
+        when(myLockFactory.tryLock(any(), anyString(), anyInt(), anyMap())).thenReturn(new LockFactory.DistributedLock()
+        {
+            @Override
+            public void close()
+            {
+                // Nothing to release
+            }
+
+            @Override
+            public boolean isPreempted()
+            {
+                return true;
+            }
+        });
+
+        myScheduler.run();
+
+        assertThat(job.wasPreempted()).isTrue();
+    }
+
+    @Test
+    public void testPreemptedJobRunsAgainAfterHigherPriorityJob()
+    {
+        DummyJob highPriorityJob = new DummyJob(ScheduledJob.Priority.HIGHEST);
+        AtomicBoolean scheduled = new AtomicBoolean(false);
+        PreemptionCheckingJob job = new PreemptionCheckingJob(() -> {
+            if (scheduled.compareAndSet(false, true))
+            {
+                myScheduler.schedule(highPriorityJob);
+            }
+        });
+        myScheduler.schedule(job);
+
+        myScheduler.run();
+
+        assertThat(job.wasPreempted()).isTrue();
+        assertThat(job.hasRun()).isFalse();
+        assertThat(job.runnable()).isTrue();
+
+        myScheduler.run();
+
+        assertThat(highPriorityJob.hasRun()).isTrue();
+
+        myScheduler.run();
+
+        assertThat(job.getNumRuns()).isEqualTo(2);
+        assertThat(job.hasRun()).isTrue();
+    }
+
+    @Test
+    public void testTaskNotPreempted()
+    {
+        PreemptionCheckingJob job = new PreemptionCheckingJob();
+        myScheduler.schedule(job);
+
+        myScheduler.run();
+
+        assertThat(job.hasRun()).isTrue();
+        assertThat(job.wasPreempted()).isFalse();
+    }
+
+    @Test (timeout = 5000L)
+    public void testRunningTwoJobsConcurrently()
+    {
+        when(myAdmissionController.getMaxConcurrentJobs()).thenReturn(2);
+        when(myAdmissionController.admit(anyInt())).thenReturn(true);
+
+        try (ScheduleManagerImpl scheduler = concurrentScheduler())
+        {
+            LongRunningJob job = new LongRunningJob(ScheduledJob.Priority.HIGH);
+            LongRunningJob job2 = new LongRunningJob(ScheduledJob.Priority.LOW);
+            scheduler.schedule(job);
+            scheduler.schedule(job2);
+
+            scheduler.run();
+
+            await().pollInterval(10, TimeUnit.MILLISECONDS).until(job::hasStarted);
+            assertThat(job2.hasStarted()).isFalse();
+
+            scheduler.run();
+
+            await().pollInterval(10, TimeUnit.MILLISECONDS).until(job2::hasStarted);
+            assertThat(scheduler.getRunningJobs()).isEqualTo(2);
+            verify(myAdmissionController).admit(1);
+
+            scheduler.run();
+
+            verify(myAdmissionController, never()).admit(2);
+            await().pollInterval(10, TimeUnit.MILLISECONDS).until(() -> scheduler.getRunningJobs() == 0);
+            assertThat(job.hasRun()).isTrue();
+            assertThat(job2.hasRun()).isTrue();
+            assertThat(scheduler.getQueueSize()).isEqualTo(2);
+        }
+    }
+
+    @Test (timeout = 5000L)
+    public void testConcurrentJobNotAdmitted()
+    {
+        when(myAdmissionController.getMaxConcurrentJobs()).thenReturn(2);
+        when(myAdmissionController.admit(anyInt())).thenReturn(false);
+
+        try (ScheduleManagerImpl scheduler = concurrentScheduler())
+        {
+            LongRunningJob job = new LongRunningJob(ScheduledJob.Priority.HIGH);
+            LongRunningJob job2 = new LongRunningJob(ScheduledJob.Priority.LOW);
+            scheduler.schedule(job);
+            scheduler.schedule(job2);
+
+            scheduler.run();
+            scheduler.run();
+
+            await().pollInterval(10, TimeUnit.MILLISECONDS).until(() -> scheduler.getRunningJobs() == 0);
+            assertThat(job.hasRun()).isTrue();
+            assertThat(job2.hasStarted()).isFalse();
+            verify(myAdmissionController).admit(1);
+        }
+    }
+
+    @Test (timeout = 5000L)
+    public void testConcurrentJobsLimitedByMaxConcurrentJobs()
+    {
+        when(myAdmissionController.getMaxConcurrentJobs()).thenReturn(2);
+        when(myAdmissionController.admit(anyInt())).thenReturn(true);
+
+        try (ScheduleManagerImpl scheduler = concurrentScheduler())
+        {
+            LongRunningJob job = new LongRunningJob(ScheduledJob.Priority.HIGH);
+            LongRunningJob job2 = new LongRunningJob(ScheduledJob.Priority.MEDIUM);
+            LongRunningJob job3 = new LongRunningJob(ScheduledJob.Priority.LOW);
+            scheduler.schedule(job);
+            scheduler.schedule(job2);
+            scheduler.schedule(job3);
+
+            scheduler.run();
+            scheduler.run();
+            scheduler.run();
+
+            await().pollInterval(10, TimeUnit.MILLISECONDS).until(() -> scheduler.getRunningJobs() == 0);
+            assertThat(job.hasRun()).isTrue();
+            assertThat(job2.hasRun()).isTrue();
+            assertThat(job3.hasStarted()).isFalse();
+            verify(myAdmissionController, never()).admit(2);
+        }
+    }
+
+    private ScheduleManagerImpl concurrentScheduler()
+    {
+        ScheduleManagerImpl scheduler = ScheduleManagerImpl.builder()
+                .withLockFactory(myLockFactory)
+                .withAdmissionController(myAdmissionController)
+                .build();
+        scheduler.addRunPolicy(job -> myRunPolicy.validate(job));
+        return scheduler;
+    }
+
 
 
 
@@ -323,6 +562,62 @@ public class TestScheduleManager
         }
     }
 
+    private class PreemptionCheckingJob extends ScheduledJob
+    {
+        private final AtomicInteger numRuns = new AtomicInteger();
+        private final Runnable onExecute;
+        private volatile boolean hasRun = false;
+        private volatile boolean wasPreempted = false;
+
+        PreemptionCheckingJob()
+        {
+            this(() -> {});
+        }
+
+        PreemptionCheckingJob(Runnable onExecute)
+        {
+            super(new ConfigurationBuilder().withPriority(Priority.LOW).withRunInterval(1, TimeUnit.SECONDS).build());
+            this.onExecute = onExecute;
+        }
+
+        boolean hasRun()
+        {
+            return hasRun;
+        }
+
+        boolean wasPreempted()
+        {
+            return wasPreempted;
+        }
+
+        int getNumRuns()
+        {
+            return numRuns.get();
+        }
+
+        @Override
+        public Iterator<ScheduledTask> iterator()
+        {
+            return Arrays.<ScheduledTask> asList(new ScheduledTask()
+            {
+                @Override
+                public boolean execute()
+                {
+                    onExecute.run();
+                    numRuns.incrementAndGet();
+                    if (isPreempted())
+                    {
+                        wasPreempted = true;
+                        preempted();
+                        return false;
+                    }
+                    hasRun = true;
+                    return true;
+                }
+            }).iterator();
+        }
+    }
+
     private class ShortRunningMultipleTasks extends ScheduledJob
     {
         private final AtomicInteger numRuns = new AtomicInteger();
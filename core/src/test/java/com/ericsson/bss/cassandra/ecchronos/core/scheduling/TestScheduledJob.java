@@ -0,0 +1,91 @@
+/*
+ * Copyright 2021 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecchronos.core.scheduling;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestScheduledJob
+{
+    private static final long RUN_INTERVAL_IN_MS = TimeUnit.DAYS.toMillis(1);
+
+    private final Clock myClock = mock(Clock.class);
+
+    private long myNow;
+
+    @Before
+    public void setup()
+    {
+        myNow = TimeUnit.DAYS.toMillis(365);
+        when(myClock.millis()).thenAnswer(invocation -> myNow);
+    }
+
+    @Test
+    public void testRunnableFollowsClock()
+    {
+        ScheduledJob job = new ClockJob(myClock);
+
+        assertThat(job.runnable()).isTrue();
+
+        job.postExecute(true, null);
+
+        assertThat(job.getLastSuccessfulRun()).isEqualTo(myNow);
+        assertThat(job.runnable()).isFalse();
+
+        myNow += RUN_INTERVAL_IN_MS;
+
+        assertThat(job.runnable()).isTrue();
+    }
+
+    @Test
+    public void testSetRunnableInFollowsClock()
+    {
+        ScheduledJob job = new ClockJob(myClock);
+
+        job.setRunnableIn(TimeUnit.MINUTES.toMillis(1));
+
+        assertThat(job.runnable()).isFalse();
+
+        myNow += TimeUnit.MINUTES.toMillis(1);
+
+        assertThat(job.runnable()).isTrue();
+    }
+
+    private static class ClockJob extends ScheduledJob
+    {
+        ClockJob(Clock clock)
+        {
+            super(new ConfigurationBuilder()
+                    .withRunInterval(RUN_INTERVAL_IN_MS, TimeUnit.MILLISECONDS)
+                    .withClock(clock)
+                    .build());
+        }
+
+        @Override
+        public Iterator<ScheduledTask> iterator()
+        {
+            return Collections.emptyIterator();
+        }
+    }
+}
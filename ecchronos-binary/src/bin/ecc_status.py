@@ -24,11 +24,13 @@ from argparse import ArgumentParser
 
 try:
     from ecchronoslib import rest, table_formatter
+    from ecchronoslib.types import parse_interval
 except ImportError:
     SCRIPT_DIR = os.path.dirname(__file__)
     LIB_DIR = os.path.join(SCRIPT_DIR, "..", "pylib")
     sys.path.append(LIB_DIR)
     from ecchronoslib import rest, table_formatter
+    from ecchronoslib.types import parse_interval
 
 
 def add_vnode_state_to_table(vnode_state, table):
@@ -57,6 +59,9 @@ def print_verbose_repair_job(repair_job, max_lines):
     print(verbose_print_format.format("Completed at", repair_job.get_last_repaired_at()))
     print(verbose_print_format.format("Next repair", repair_job.get_next_repair()))
     print(verbose_print_format.format("Recurring", repair_job.recurring))
+    print(verbose_print_format.format("Throughput", repair_job.get_repair_throughput()))
+    print(verbose_print_format.format("Remaining time", repair_job.get_remaining_repair_time()))
+    print(verbose_print_format.format("Slack", repair_job.get_projected_slack()))
 
     vnode_state_table = list()
     vnode_state_table.append(["Start token", "End token", "Replicas", "Repaired at", "Repaired"])
@@ -88,11 +93,16 @@ def convert_repair_job(repair_job):
 
 def print_summary(repair_jobs):
     status_list = [job.status for job in repair_jobs]
+    remaining_times = [int(job.remaining_repair_time_in_ms) for job in repair_jobs
+                       if job.remaining_repair_time_in_ms is not None]
     summary_format = "Summary: {0} completed, {1} in queue, {2} warning, {3} error"
-    print(summary_format.format(status_list.count('COMPLETED'),
-                                status_list.count('IN_QUEUE'),
-                                status_list.count('WARNING'),
-                                status_list.count('ERROR')))
+    summary = summary_format.format(status_list.count('COMPLETED'),
+                                    status_list.count('IN_QUEUE'),
+                                    status_list.count('WARNING'),
+                                    status_list.count('ERROR'))
+    if remaining_times:
+        summary += ", estimated remaining repair time {0}".format(parse_interval(sum(remaining_times)).strip())
+    print(summary)
 
 
 def print_repair_jobs(repair_jobs, max_lines):
@@ -57,6 +57,9 @@ class RepairJob(object):
         self.next_repair_in_ms = int(data["nextRepairInMs"] if "nextRepairInMs" in data else -1)
         self.recurring = data["recurring"] if "recurring" in data else "<UNKNOWN>"
         self.job_id = data["id"] if "id" in data else "<UNKNOWN>"
+        self.repair_throughput_in_bytes_per_second = data.get("repairThroughputInBytesPerSecond")
+        self.remaining_repair_time_in_ms = data.get("remainingRepairTimeInMs")
+        self.projected_slack_in_ms = data.get("projectedSlackInMs")
 
     def is_valid(self):
         return self.keyspace != "<UNKNOWN>"
@@ -74,6 +77,24 @@ class RepairJob(object):
             return "-"
         return datetime.datetime.fromtimestamp(self.next_repair_in_ms / 1000).strftime('%Y-%m-%d %H:%M:%S')
 
+    def get_repair_throughput(self):
+        if self.repair_throughput_in_bytes_per_second is None:
+            return "-"
+        return "{0:.2f} MiB/s".format(float(self.repair_throughput_in_bytes_per_second) / (1024 * 1024))
+
+    def get_remaining_repair_time(self):
+        if self.remaining_repair_time_in_ms is None:
+            return "-"
+        return parse_interval(int(self.remaining_repair_time_in_ms))
+
+    def get_projected_slack(self):
+        if self.projected_slack_in_ms is None:
+            return "-"
+        slack = int(self.projected_slack_in_ms)
+        if slack < 0:
+            return "-" + parse_interval(-slack).lstrip()
+        return parse_interval(slack)
+
 
 class VerboseRepairJob(RepairJob):
     def __init__(self, data):
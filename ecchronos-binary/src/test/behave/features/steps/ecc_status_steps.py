@@ -97,9 +97,9 @@ def step_show_table_with_limit(context, keyspace, table, limit):
     run_ecc_status(context, ['--id', job_id, '--limit', limit])
     output_data = context.out.decode('ascii').lstrip().rstrip().split('\n')
 
-    context.table_info = output_data[0:7]
-    context.header = output_data[8:9]
-    context.rows = output_data[11:]
+    context.table_info = output_data[0:11]
+    context.header = output_data[11:12]
+    context.rows = output_data[14:]
 
 
 @when(u'we list jobs for table {keyspace}.{table}')
@@ -164,6 +164,12 @@ def step_validate_expected_show_table_header(context, keyspace, table):
         "Completed at : .*", strip_and_collapse(table_info[5])), "Faulty repaired at '{0}'".format(table_info[5])
     assert re.match(
         "Next repair : .*", strip_and_collapse(table_info[6])), "Faulty next repair '{0}'".format(table_info[6])
+    assert re.match(
+        "Throughput : .*", strip_and_collapse(table_info[8])), "Faulty throughput '{0}'".format(table_info[8])
+    assert re.match(
+        "Remaining time : .*", strip_and_collapse(table_info[9])), "Faulty remaining time '{0}'".format(table_info[9])
+    assert re.match(
+        "Slack : .*", strip_and_collapse(table_info[10])), "Faulty slack '{0}'".format(table_info[10])
 
 
 def remove_token_row(context):
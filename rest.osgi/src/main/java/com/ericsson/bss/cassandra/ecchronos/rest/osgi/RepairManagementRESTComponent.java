@@ -14,6 +14,8 @@
  */
 package com.ericsson.bss.cassandra.ecchronos.rest.osgi;
 
+import java.util.List;
+
 import com.ericsson.bss.cassandra.ecchronos.core.repair.OnDemandRepairScheduler;
 import com.ericsson.bss.cassandra.ecchronos.core.repair.RepairScheduler;
 import com.ericsson.bss.cassandra.ecchronos.core.utils.TableReferenceFactory;
@@ -98,4 +100,10 @@ public class RepairManagementRESTComponent implements RepairManagementREST
     {
         return myDelegateRESTImpl.scheduleJob(keyspace, table);
     }
+
+    @Override
+    public String scheduleKeyspaceJob(String keyspace, List<String> tables, boolean combined)
+    {
+        return myDelegateRESTImpl.scheduleKeyspaceJob(keyspace, tables, combined);
+    }
 }
@@ -14,6 +14,8 @@
  */
 package com.ericsson.bss.cassandra.ecchronos.rest;
 
+import java.util.List;
+
 import com.ericsson.bss.cassandra.ecchronos.core.repair.types.CompleteRepairJob;
 import com.ericsson.bss.cassandra.ecchronos.core.repair.types.ScheduledRepairJob;
 import com.ericsson.bss.cassandra.ecchronos.core.repair.types.TableRepairConfig;
@@ -100,4 +102,18 @@ public interface RepairManagementREST
      */
     String scheduleJob(String keyspace,
                        String table);
+
+    /**
+     * Schedule an on demand repair to be run on several tables in a keyspace.
+     * <p>
+     * The tables are repaired by one job that locks each replica group once for all tables.
+     *
+     * @param keyspace The keyspace of the tables
+     * @param tables The tables to repair, all tables in the keyspace if empty
+     * @param combined If the tables should be repaired together in one repair session per range
+     * @return A list of JSON representations of {@link ScheduledRepairJob}
+     */
+    String scheduleKeyspaceJob(String keyspace,
+                               List<String> tables,
+                               boolean combined);
 }
@@ -16,6 +16,8 @@ package com.ericsson.bss.cassandra.ecchronos.rest;
 
 import static org.springframework.http.HttpStatus.NOT_FOUND;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -24,9 +26,15 @@ import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ResponseStatusException;
 
@@ -39,6 +47,7 @@ import com.ericsson.bss.cassandra.ecchronos.core.repair.types.ScheduledRepairJob
 import com.ericsson.bss.cassandra.ecchronos.core.repair.types.TableRepairConfig;
 import com.ericsson.bss.cassandra.ecchronos.core.utils.TableReference;
 import com.ericsson.bss.cassandra.ecchronos.core.utils.TableReferenceFactory;
+import com.ericsson.bss.cassandra.ecchronos.rest.RepairStatusPublisher.StatusDocument;
 import com.google.gson.Gson;
 
 /**
@@ -51,6 +60,7 @@ public class RepairManagementRESTImpl implements RepairManagementREST
     private static final String ENDPOINT_PREFIX = "/repair-management/" + PROTOCOL_VERSION;
 
     private static final Gson GSON = new Gson();
+    private static final String GZIP_ENCODING = "gzip";
 
     @Autowired
     private final RepairScheduler myRepairScheduler;
@@ -61,21 +71,57 @@ public class RepairManagementRESTImpl implements RepairManagementREST
     @Autowired
     private final TableReferenceFactory myTableReferenceFactory;
 
+    private final RepairStatusPublisher myRepairStatusPublisher;
+
     public RepairManagementRESTImpl(RepairScheduler repairScheduler, OnDemandRepairScheduler demandRepairScheduler,
             TableReferenceFactory tableReferenceFactory)
     {
         myRepairScheduler = repairScheduler;
         myOnDemandRepairScheduler = demandRepairScheduler;
         myTableReferenceFactory = tableReferenceFactory;
+        myRepairStatusPublisher = new RepairStatusPublisher(this::getAllRepairJobViews);
     }
 
     @Override
-    @GetMapping(ENDPOINT_PREFIX + "/status")
     public String status()
     {
-        List<ScheduledRepairJob> repairJobs = getScheduledRepairJobs(job -> true);
+        return myRepairStatusPublisher.getStatusDocument().getJson();
+    }
 
-        return GSON.toJson(repairJobs);
+    /**
+     * Get the status of all scheduled repair jobs.
+     * <p>
+     * The response is served from a precomputed document with an entity tag.
+     * If the entity tag matches the If-None-Match header a response without body is returned.
+     *
+     * @param ifNoneMatch The If-None-Match header of the request
+     * @param acceptEncoding The Accept-Encoding header of the request
+     * @return A list of JSON representations of {@link ScheduledRepairJob}
+     */
+    @GetMapping(value = ENDPOINT_PREFIX + "/status", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> status(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding)
+    {
+        StatusDocument statusDocument = myRepairStatusPublisher.getStatusDocument();
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag(statusDocument.getETag());
+        headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+        if (statusDocument.matches(ifNoneMatch))
+        {
+            return new ResponseEntity<>(headers, HttpStatus.NOT_MODIFIED);
+        }
+
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        if (acceptsGzip(acceptEncoding))
+        {
+            headers.add(HttpHeaders.CONTENT_ENCODING, GZIP_ENCODING);
+            return new ResponseEntity<>(statusDocument.getGzippedJson(), headers, HttpStatus.OK);
+        }
+
+        return new ResponseEntity<>(statusDocument.getJson().getBytes(StandardCharsets.UTF_8), headers, HttpStatus.OK);
     }
 
     @Override
@@ -171,9 +217,91 @@ public class RepairManagementRESTImpl implements RepairManagementREST
         {
             throw new ResponseStatusException(NOT_FOUND, "Not Found", e);
         }
+        myRepairStatusPublisher.invalidate();
         return GSON.toJson(new ScheduledRepairJob(repairJobView));
     }
 
+    @Override
+    @PostMapping(ENDPOINT_PREFIX + "/schedule/keyspaces/{keyspace}")
+    public String scheduleKeyspaceJob(@PathVariable String keyspace,
+            @RequestParam(required = false) List<String> tables,
+            @RequestParam(defaultValue = "false") boolean combined)
+    {
+        List<RepairJobView> repairJobViews;
+        try
+        {
+            repairJobViews = myOnDemandRepairScheduler.scheduleJobs(keyspace,
+                    tables == null ? Collections.emptyList() : tables, combined);
+        } catch (EcChronosException e)
+        {
+            throw new ResponseStatusException(NOT_FOUND, "Not Found", e);
+        }
+        myRepairStatusPublisher.invalidate();
+        return GSON.toJson(repairJobViews.stream()
+                .map(ScheduledRepairJob::new)
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * Check if gzip is an acceptable content coding for an Accept-Encoding header.
+     * <p>
+     * An explicit gzip coding takes precedence over the wildcard coding and a quality value of zero means
+     * that the coding is not acceptable.
+     *
+     * @param acceptEncoding The value of the Accept-Encoding header, may be null.
+     * @return True if the response can be gzip compressed.
+     */
+    static boolean acceptsGzip(String acceptEncoding)
+    {
+        if (acceptEncoding == null)
+        {
+            return false;
+        }
+
+        double gzipQuality = -1;
+        double wildcardQuality = -1;
+
+        for (String codingWithParameters : acceptEncoding.split(","))
+        {
+            String[] parts = codingWithParameters.split(";");
+            String coding = parts[0].trim();
+            if (GZIP_ENCODING.equalsIgnoreCase(coding))
+            {
+                gzipQuality = quality(parts);
+            }
+            else if ("*".equals(coding))
+            {
+                wildcardQuality = quality(parts);
+            }
+        }
+
+        if (gzipQuality >= 0)
+        {
+            return gzipQuality > 0;
+        }
+        return wildcardQuality > 0;
+    }
+
+    private static double quality(String[] codingParts)
+    {
+        for (int i = 1; i < codingParts.length; i++)
+        {
+            String parameter = codingParts[i].trim();
+            if (parameter.length() > 2 && parameter.substring(0, 2).equalsIgnoreCase("q="))
+            {
+                try
+                {
+                    return Double.parseDouble(parameter.substring(2).trim());
+                }
+                catch (NumberFormatException e)
+                {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
     private List<ScheduledRepairJob> getScheduledRepairJobs(Predicate<RepairJobView> filter)
     {
         return Stream
@@ -184,6 +312,14 @@ public class RepairManagementRESTImpl implements RepairManagementREST
                 .collect(Collectors.toList());
     }
 
+    private List<RepairJobView> getAllRepairJobViews()
+    {
+        return Stream
+                .concat(myRepairScheduler.getCurrentRepairJobs().stream(),
+                        myOnDemandRepairScheduler.getAllRepairJobs().stream())
+                .collect(Collectors.toList());
+    }
+
     private Optional<RepairJobView> getCompleteRepairJob(UUID id)
     {
         return Stream
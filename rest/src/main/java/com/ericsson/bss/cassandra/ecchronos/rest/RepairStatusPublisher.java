@@ -0,0 +1,202 @@
+/*
+ * Copyright 2021 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecchronos.rest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+
+import com.ericsson.bss.cassandra.ecchronos.core.repair.RepairJobView;
+import com.ericsson.bss.cassandra.ecchronos.core.repair.types.ScheduledRepairJob;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+import com.google.common.hash.Hashing;
+import com.google.gson.Gson;
+
+/**
+ * Publisher of the status of all repair jobs as a precomputed JSON document.
+ * <p>
+ * The views of the repair jobs are only read again when the document is invalidated or when it is older than the
+ * refresh interval, other requests are served the last document directly.
+ * The document itself is only rebuilt when the views of the repair jobs have changed.
+ */
+public class RepairStatusPublisher
+{
+    private static final Gson GSON = new Gson();
+
+    static final long DEFAULT_REFRESH_INTERVAL_IN_MS = TimeUnit.SECONDS.toMillis(1);
+
+    private final Supplier<List<RepairJobView>> myRepairJobViews;
+    private final long myRefreshIntervalInMs;
+    private final Clock myClock;
+
+    private volatile StatusDocument myStatusDocument;
+    private volatile long myNextRefreshInMs;
+
+    public RepairStatusPublisher(Supplier<List<RepairJobView>> repairJobViews)
+    {
+        this(repairJobViews, DEFAULT_REFRESH_INTERVAL_IN_MS, Clock.systemDefaultZone());
+    }
+
+    @VisibleForTesting
+    RepairStatusPublisher(Supplier<List<RepairJobView>> repairJobViews, long refreshIntervalInMs, Clock clock)
+    {
+        myRepairJobViews = repairJobViews;
+        myRefreshIntervalInMs = refreshIntervalInMs;
+        myClock = clock;
+    }
+
+    /**
+     * Get the status document for the current repair jobs.
+     *
+     * @return The status document.
+     */
+    public StatusDocument getStatusDocument()
+    {
+        StatusDocument statusDocument = myStatusDocument;
+        if (statusDocument != null && myClock.millis() < myNextRefreshInMs)
+        {
+            return statusDocument;
+        }
+
+        return refresh();
+    }
+
+    /**
+     * Signal that the repair jobs have changed, the next request reads the views of the repair jobs again.
+     */
+    public void invalidate()
+    {
+        myNextRefreshInMs = 0;
+    }
+
+    private synchronized StatusDocument refresh()
+    {
+        StatusDocument statusDocument = myStatusDocument;
+        long now = myClock.millis();
+        if (statusDocument != null && now < myNextRefreshInMs)
+        {
+            return statusDocument;
+        }
+
+        myNextRefreshInMs = now + myRefreshIntervalInMs;
+        List<RepairJobView> repairJobViews = myRepairJobViews.get();
+        if (statusDocument == null || !statusDocument.myRepairJobViews.equals(repairJobViews))
+        {
+            statusDocument = new StatusDocument(repairJobViews);
+            myStatusDocument = statusDocument;
+        }
+
+        return statusDocument;
+    }
+
+    /**
+     * A serialized list of {@link ScheduledRepairJob}.
+     */
+    public static class StatusDocument
+    {
+        private final List<RepairJobView> myRepairJobViews;
+        private final String myJson;
+        private final byte[] myGzippedJson;
+        private final String myETag;
+
+        StatusDocument(List<RepairJobView> repairJobViews)
+        {
+            myRepairJobViews = ImmutableList.copyOf(repairJobViews);
+            myJson = GSON.toJson(repairJobViews.stream()
+                    .map(ScheduledRepairJob::new)
+                    .collect(Collectors.toList()));
+
+            byte[] json = myJson.getBytes(StandardCharsets.UTF_8);
+            myGzippedJson = gzip(json);
+            myETag = "\"" + Hashing.murmur3_128().hashBytes(json).toString() + "\"";
+        }
+
+        /**
+         * @return The status as JSON.
+         */
+        public String getJson()
+        {
+            return myJson;
+        }
+
+        /**
+         * @return The status as gzip compressed JSON.
+         */
+        public byte[] getGzippedJson()
+        {
+            return myGzippedJson.clone();
+        }
+
+        /**
+         * @return The entity tag of the document, including quotes.
+         */
+        public String getETag()
+        {
+            return myETag;
+        }
+
+        /**
+         * Check if the document matches the entity tags of an If-None-Match header.
+         *
+         * @param ifNoneMatch The value of the If-None-Match header, may be null.
+         * @return True if the document matches one of the entity tags.
+         */
+        public boolean matches(String ifNoneMatch)
+        {
+            if (ifNoneMatch == null)
+            {
+                return false;
+            }
+
+            for (String entityTag : ifNoneMatch.split(","))
+            {
+                String trimmedEntityTag = entityTag.trim();
+                if (trimmedEntityTag.startsWith("W/"))
+                {
+                    trimmedEntityTag = trimmedEntityTag.substring(2);
+                }
+
+                if ("*".equals(trimmedEntityTag) || myETag.equals(trimmedEntityTag))
+                {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+
+        private static byte[] gzip(byte[] data)
+        {
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(outputStream))
+            {
+                gzipOutputStream.write(data);
+            }
+            catch (IOException e)
+            {
+                throw new UncheckedIOException(e);
+            }
+            return outputStream.toByteArray();
+        }
+    }
+}
@@ -21,6 +21,7 @@ import static org.mockito.Mockito.when;
 import java.lang.reflect.Type;
 import java.net.InetAddress;
 import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -37,6 +38,9 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 
 import com.datastax.driver.core.Host;
 import com.ericsson.bss.cassandra.ecchronos.core.MockTableReferenceFactory;
@@ -145,6 +149,78 @@ public class TestRepairManagementRESTImpl
         assertThat(response).isEqualTo(expectedResponse);
     }
 
+    @Test
+    public void testStatusWithETag()
+    {
+        RepairJobView repairJobView = new TestUtils.ScheduledRepairJobBuilder()
+                .withKeyspace("ks")
+                .withTable("tb")
+                .withLastRepairedAt(System.currentTimeMillis())
+                .withRepairInterval(TimeUnit.DAYS.toMillis(7))
+                .build();
+
+        when(myRepairScheduler.getCurrentRepairJobs()).thenReturn(Collections.singletonList(repairJobView));
+
+        RepairManagementRESTImpl repairManagementRESTImpl = (RepairManagementRESTImpl) repairManagementREST;
+        ResponseEntity<byte[]> response = repairManagementRESTImpl.status(null, null);
+        String eTag = response.getHeaders().getETag();
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(eTag).isNotNull();
+        assertThat(new String(response.getBody(), StandardCharsets.UTF_8)).isEqualTo(repairManagementREST.status());
+
+        ResponseEntity<byte[]> notModifiedResponse = repairManagementRESTImpl.status(eTag, null);
+
+        assertThat(notModifiedResponse.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(notModifiedResponse.getHeaders().getETag()).isEqualTo(eTag);
+        assertThat(notModifiedResponse.getBody()).isNull();
+    }
+
+    @Test
+    public void testStatusGzip()
+    {
+        when(myRepairScheduler.getCurrentRepairJobs()).thenReturn(new ArrayList<>());
+
+        RepairManagementRESTImpl repairManagementRESTImpl = (RepairManagementRESTImpl) repairManagementREST;
+        ResponseEntity<byte[]> response = repairManagementRESTImpl.status(null, "gzip, deflate");
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(response.getBody()).startsWith((byte) 0x1f, (byte) 0x8b);
+    }
+
+    @Test
+    public void testStatusGzipNotAcceptable()
+    {
+        when(myRepairScheduler.getCurrentRepairJobs()).thenReturn(new ArrayList<>());
+
+        RepairManagementRESTImpl repairManagementRESTImpl = (RepairManagementRESTImpl) repairManagementREST;
+        ResponseEntity<byte[]> response = repairManagementRESTImpl.status(null, "gzip;q=0, deflate");
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(new String(response.getBody(), StandardCharsets.UTF_8)).isEqualTo("[]");
+    }
+
+    @Test
+    public void testAcceptsGzip()
+    {
+        assertThat(RepairManagementRESTImpl.acceptsGzip(null)).isFalse();
+        assertThat(RepairManagementRESTImpl.acceptsGzip("")).isFalse();
+        assertThat(RepairManagementRESTImpl.acceptsGzip("deflate")).isFalse();
+        assertThat(RepairManagementRESTImpl.acceptsGzip("x-gzip")).isFalse();
+        assertThat(RepairManagementRESTImpl.acceptsGzip("gzip;q=0")).isFalse();
+        assertThat(RepairManagementRESTImpl.acceptsGzip("GZIP ; Q=0.000")).isFalse();
+        assertThat(RepairManagementRESTImpl.acceptsGzip("gzip;q=invalid")).isFalse();
+        assertThat(RepairManagementRESTImpl.acceptsGzip("gzip;q=0, *")).isFalse();
+        assertThat(RepairManagementRESTImpl.acceptsGzip("gzip")).isTrue();
+        assertThat(RepairManagementRESTImpl.acceptsGzip("GZip")).isTrue();
+        assertThat(RepairManagementRESTImpl.acceptsGzip("deflate, gzip;q=0.5")).isTrue();
+        assertThat(RepairManagementRESTImpl.acceptsGzip("gzip; q=1.0")).isTrue();
+        assertThat(RepairManagementRESTImpl.acceptsGzip("*")).isTrue();
+        assertThat(RepairManagementRESTImpl.acceptsGzip("*;q=0")).isFalse();
+    }
+
     @Test
     public void testKeyspaceStatusEmpty()
     {
@@ -678,4 +754,66 @@ public class TestRepairManagementRESTImpl
         ScheduledRepairJob response = GSON.fromJson(repairManagementREST.scheduleJob("ks", "tb"), ScheduledRepairJob.class);
         assertThat(response).isEqualTo(expectedResponse);
     }
+
+    @Test
+    public void testStatusIncludesScheduledRepair() throws EcChronosException
+    {
+        RepairJobView repairJobView = new TestUtils.ScheduledRepairJobBuilder()
+                .withKeyspace("ks")
+                .withTable("tb")
+                .withLastRepairedAt(234)
+                .withRepairInterval(123)
+                .build();
+
+        when(myRepairScheduler.getCurrentRepairJobs()).thenReturn(new ArrayList<>());
+        List<ScheduledRepairJob> emptyResponse = GSON.fromJson(repairManagementREST.status(), scheduledRepairJobListType);
+        assertThat(emptyResponse).isEmpty();
+
+        when(myOnDemandRepairScheduler.scheduleJob(myTableReferenceFactory.forTable("ks","tb"))).thenReturn(repairJobView);
+        when(myOnDemandRepairScheduler.getAllRepairJobs()).thenReturn(Collections.singletonList(repairJobView));
+        repairManagementREST.scheduleJob("ks", "tb");
+
+        List<ScheduledRepairJob> response = GSON.fromJson(repairManagementREST.status(), scheduledRepairJobListType);
+        assertThat(response).containsExactly(new ScheduledRepairJob(repairJobView));
+    }
+
+    @Test
+    public void testScheduleKeyspaceRepair() throws EcChronosException
+    {
+        RepairJobView repairJobView1 = new TestUtils.OnDemandRepairJobBuilder()
+                .withKeyspace("ks")
+                .withTable("tb1")
+                .withCompletedAt(-1)
+                .build();
+        RepairJobView repairJobView2 = new TestUtils.OnDemandRepairJobBuilder()
+                .withKeyspace("ks")
+                .withTable("tb2")
+                .withCompletedAt(-1)
+                .build();
+        List<ScheduledRepairJob> expectedResponse = Arrays.asList(new ScheduledRepairJob(repairJobView1),
+                new ScheduledRepairJob(repairJobView2));
+
+        when(myOnDemandRepairScheduler.scheduleJobs("ks", Arrays.asList("tb1", "tb2"), true))
+                .thenReturn(Arrays.asList(repairJobView1, repairJobView2));
+        List<ScheduledRepairJob> response = GSON.fromJson(
+                repairManagementREST.scheduleKeyspaceJob("ks", Arrays.asList("tb1", "tb2"), true),
+                scheduledRepairJobListType);
+        assertThat(response).containsExactlyElementsOf(expectedResponse);
+    }
+
+    @Test
+    public void testScheduleKeyspaceRepairAllTables() throws EcChronosException
+    {
+        RepairJobView repairJobView = new TestUtils.OnDemandRepairJobBuilder()
+                .withKeyspace("ks")
+                .withTable("tb")
+                .withCompletedAt(-1)
+                .build();
+
+        when(myOnDemandRepairScheduler.scheduleJobs("ks", Collections.emptyList(), false))
+                .thenReturn(Collections.singletonList(repairJobView));
+        List<ScheduledRepairJob> response = GSON.fromJson(repairManagementREST.scheduleKeyspaceJob("ks", null, false),
+                scheduledRepairJobListType);
+        assertThat(response).containsExactly(new ScheduledRepairJob(repairJobView));
+    }
 }
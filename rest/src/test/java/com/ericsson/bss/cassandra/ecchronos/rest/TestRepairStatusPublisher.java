@@ -0,0 +1,184 @@
+/*
+ * Copyright 2021 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecchronos.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.Test;
+
+import com.ericsson.bss.cassandra.ecchronos.core.repair.RepairJobView;
+import com.ericsson.bss.cassandra.ecchronos.core.repair.TestUtils;
+import com.ericsson.bss.cassandra.ecchronos.core.repair.types.ScheduledRepairJob;
+import com.ericsson.bss.cassandra.ecchronos.rest.RepairStatusPublisher.StatusDocument;
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+
+public class TestRepairStatusPublisher
+{
+    private static final Gson GSON = new Gson();
+
+    private static final Type scheduledRepairJobListType = new TypeToken<List<ScheduledRepairJob>>(){}.getType();
+
+    private static final long REFRESH_INTERVAL_IN_MS = TimeUnit.SECONDS.toMillis(1);
+
+    private final List<RepairJobView> myRepairJobViews = new ArrayList<>();
+
+    private final AtomicInteger myReads = new AtomicInteger();
+
+    private final Clock myClock = mock(Clock.class);
+
+    private final RepairStatusPublisher myRepairStatusPublisher = new RepairStatusPublisher(() ->
+    {
+        myReads.incrementAndGet();
+        return new ArrayList<>(myRepairJobViews);
+    }, REFRESH_INTERVAL_IN_MS, myClock);
+
+    @Test
+    public void testEmptyStatus()
+    {
+        StatusDocument statusDocument = myRepairStatusPublisher.getStatusDocument();
+
+        List<ScheduledRepairJob> response = GSON.fromJson(statusDocument.getJson(), scheduledRepairJobListType);
+
+        assertThat(response).isEmpty();
+        assertThat(statusDocument.getETag()).startsWith("\"").endsWith("\"");
+    }
+
+    @Test
+    public void testDocumentIsReusedForSameViews()
+    {
+        myRepairJobViews.add(createView("tb"));
+
+        StatusDocument statusDocument = myRepairStatusPublisher.getStatusDocument();
+
+        assertThat(myRepairStatusPublisher.getStatusDocument()).isSameAs(statusDocument);
+    }
+
+    @Test
+    public void testDocumentIsRebuiltForChangedViews()
+    {
+        RepairJobView repairJobView = createView("tb");
+        myRepairJobViews.add(repairJobView);
+
+        StatusDocument statusDocument = myRepairStatusPublisher.getStatusDocument();
+
+        RepairJobView repairJobView2 = createView("tb2");
+        myRepairJobViews.add(repairJobView2);
+        when(myClock.millis()).thenReturn(REFRESH_INTERVAL_IN_MS);
+
+        StatusDocument updatedStatusDocument = myRepairStatusPublisher.getStatusDocument();
+        List<ScheduledRepairJob> response = GSON.fromJson(updatedStatusDocument.getJson(), scheduledRepairJobListType);
+
+        assertThat(updatedStatusDocument).isNotSameAs(statusDocument);
+        assertThat(updatedStatusDocument.getETag()).isNotEqualTo(statusDocument.getETag());
+        assertThat(response).containsExactly(new ScheduledRepairJob(repairJobView), new ScheduledRepairJob(repairJobView2));
+    }
+
+    @Test
+    public void testViewsAreNotReadWithinRefreshInterval()
+    {
+        myRepairJobViews.add(createView("tb"));
+
+        StatusDocument statusDocument = myRepairStatusPublisher.getStatusDocument();
+
+        myRepairJobViews.add(createView("tb2"));
+        when(myClock.millis()).thenReturn(REFRESH_INTERVAL_IN_MS - 1);
+
+        assertThat(myRepairStatusPublisher.getStatusDocument()).isSameAs(statusDocument);
+        assertThat(myReads.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void testViewsAreReadAfterInvalidate()
+    {
+        myRepairJobViews.add(createView("tb"));
+
+        StatusDocument statusDocument = myRepairStatusPublisher.getStatusDocument();
+
+        myRepairJobViews.add(createView("tb2"));
+        myRepairStatusPublisher.invalidate();
+
+        StatusDocument updatedStatusDocument = myRepairStatusPublisher.getStatusDocument();
+
+        assertThat(updatedStatusDocument).isNotSameAs(statusDocument);
+        assertThat(myReads.get()).isEqualTo(2);
+        assertThat(myRepairStatusPublisher.getStatusDocument()).isSameAs(updatedStatusDocument);
+        assertThat(myReads.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void testGzippedJson() throws IOException
+    {
+        myRepairJobViews.add(createView("tb"));
+
+        StatusDocument statusDocument = myRepairStatusPublisher.getStatusDocument();
+
+        assertThat(gunzip(statusDocument.getGzippedJson())).isEqualTo(statusDocument.getJson());
+    }
+
+    @Test
+    public void testMatches()
+    {
+        StatusDocument statusDocument = myRepairStatusPublisher.getStatusDocument();
+        String eTag = statusDocument.getETag();
+
+        assertThat(statusDocument.matches(null)).isFalse();
+        assertThat(statusDocument.matches("\"other\"")).isFalse();
+        assertThat(statusDocument.matches(eTag)).isTrue();
+        assertThat(statusDocument.matches("W/" + eTag)).isTrue();
+        assertThat(statusDocument.matches("\"other\", " + eTag)).isTrue();
+        assertThat(statusDocument.matches("*")).isTrue();
+    }
+
+    private RepairJobView createView(String table)
+    {
+        return new TestUtils.ScheduledRepairJobBuilder()
+                .withKeyspace("ks")
+                .withTable(table)
+                .withLastRepairedAt(System.currentTimeMillis())
+                .withRepairInterval(TimeUnit.DAYS.toMillis(7))
+                .build();
+    }
+
+    private static String gunzip(byte[] data) throws IOException
+    {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (GZIPInputStream gzipInputStream = new GZIPInputStream(new ByteArrayInputStream(data)))
+        {
+            byte[] buffer = new byte[1024];
+            int read;
+            while ((read = gzipInputStream.read(buffer)) != -1)
+            {
+                outputStream.write(buffer, 0, read);
+            }
+        }
+        return new String(outputStream.toByteArray(), StandardCharsets.UTF_8);
+    }
+}